@@ -8,7 +8,6 @@ import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.logging.Logger;
 
-import com.google.gson.Gson;
 
 import io.discloader.discloader.client.command.Command;
 import io.discloader.discloader.client.command.CommandHandler;
@@ -25,6 +24,8 @@ import io.discloader.discloader.common.event.IEventListener;
 import io.discloader.discloader.common.event.ReadyEvent;
 import io.discloader.discloader.common.exceptions.AccountTypeException;
 import io.discloader.discloader.common.exceptions.GuildSyncException;
+import io.discloader.discloader.common.heap.HeapEstimator;
+import io.discloader.discloader.common.heap.HeapReport;
 import io.discloader.discloader.common.logger.DLErrorStream;
 import io.discloader.discloader.common.logger.DLPrintStream;
 import io.discloader.discloader.common.registry.EntityRegistry;
@@ -93,6 +94,11 @@ public class DiscLoader {
 	
 	public RESTManager rest;
 	
+	/**
+	 * Downloads the members of the client's guilds into the cache
+	 */
+	public final MemberSync memberSync;
+	
 	public int shards;
 	
 	public int shardid;
@@ -200,6 +206,8 @@ public class DiscLoader {
 	public DiscLoader(Shard shard) {
 		this(shard.getShardID(), shard.getShardCount());
 		this.shard = shard;
+		rest.setRateLimiter(shard.getManager().getRateLimiter());
+		rest.setTransport(shard.getManager().getTransport());
 	}
 	
 	/**
@@ -269,6 +277,7 @@ public class DiscLoader {
 		this.shardid = shard;
 		socket = new DiscSocket(this);
 		rest = new RESTManager(this);
+		memberSync = new MemberSync(this);
 		clientRegistry = new ClientRegistry();
 		syncingGuilds = new HashMap<>();
 		ready = false;
@@ -345,6 +354,20 @@ public class DiscLoader {
 		}
 	}
 	
+	/**
+	 * Checks if an event handler, event consumer or mod is listening for raw packets. REST responses are only decoded to a String
+	 * for a {@link io.discloader.discloader.common.event.RawEvent RawEvent} when this returns {@code true}.
+	 * 
+	 * @return {@code true} if a raw packet listener is registered
+	 */
+	public boolean hasRawPacketListeners() {
+		if (eventManager.hasRawPacketListeners()) return true;
+		for (ModContainer mod : ModRegistry.mods.values()) {
+			if (mod.hasHandler("RawPacket")) return true;
+		}
+		return false;
+	}
+	
 	public void emitReady() {
 		socket.setReady();
 		ready = true;
@@ -354,6 +377,16 @@ public class DiscLoader {
 		emit(event);
 	}
 	
+	/**
+	 * Estimates the heap retained by each cached guild and each {@link EntityRegistry} map. Cheap enough to sample periodically and
+	 * export with {@link HeapReport#toMetrics()}.
+	 * 
+	 * @return A new {@link HeapReport}
+	 */
+	public HeapReport getHeapUsage() {
+		return HeapEstimator.sample();
+	}
+	
 	public CompletableFuture<IInvite> getInvite(String code) {
 		return new InviteAction(code, Methods.GET).execute();
 	}
@@ -397,8 +430,7 @@ public class DiscLoader {
 		
 		CompletableFuture<DiscLoader> future2 = new CompletableFuture<>();
 		rest.makeRequest(Endpoints.gateway, DLUtil.Methods.GET, true).handle((text, ex) -> {
-			Gson gson = new Gson();
-			Gateway gateway = gson.fromJson(text, Gateway.class);
+			Gateway gateway = DLUtil.gson.fromJson(text, Gateway.class);
 			try {
 				socket.connectSocket(gateway.url + DLUtil.GatewaySuffix);
 			} catch (Exception e) {
@@ -0,0 +1,349 @@
+package io.discloader.discloader.common;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+import io.discloader.discloader.common.exceptions.GuildSyncException;
+import io.discloader.discloader.common.registry.EntityBuilder;
+import io.discloader.discloader.entity.guild.IGuild;
+import io.discloader.discloader.entity.guild.IGuildMember;
+import io.discloader.discloader.entity.sendable.Packet;
+import io.discloader.discloader.entity.sendable.RequestGuildMembers;
+import io.discloader.discloader.entity.util.SnowflakeUtil;
+import io.discloader.discloader.network.json.GuildMembersChunkJSON;
+import io.discloader.discloader.network.json.MemberJSON;
+import io.discloader.discloader.network.rest.APIRequest;
+import io.discloader.discloader.network.rest.RequestPriority;
+import io.discloader.discloader.util.DLUtil.Endpoints;
+import io.discloader.discloader.util.DLUtil.Methods;
+import io.discloader.discloader.util.DLUtil.OPCodes;
+
+/**
+ * Downloads every member of a guild into the cache.<br>
+ * Members are streamed into their guild as each chunk or page arrives, so no more than one chunk or page is held outside the cache
+ * at a time. Over the gateway, many guilds are asked for in a single request-guild-members packet, and the packets are spaced out so
+ * syncing doesn't use up the gateway's send budget. Over REST, the member list is paged through with {@code after}, which doesn't
+ * need the gateway at all.<br>
+ * Chunks only arrive on the gateway connection of the shard a guild belongs to, so guilds of other shards are handed to those shards'
+ * member syncs. Guilds of shards that aren't run by this process fail with a {@link GuildSyncException}.
+ *
+ * <pre>
+ * // every guild in the registry, whichever of this process's shards it's on
+ * loader.memberSync.onProgress((guild, loaded, total) -&gt; ...).sync(EntityRegistry.getGuilds());
+ * </pre>
+ *
+ * @author Perry Berman
+ */
+public class MemberSync {
+
+	/**
+	 * How many guilds are asked for in one request-guild-members packet by default
+	 */
+	public static final int DEFAULT_GUILDS_PER_PACKET = 50;
+
+	/**
+	 * How many request-guild-members packets are sent per minute by default. The gateway allows 120 packets a minute in total
+	 */
+	public static final int DEFAULT_PACKETS_PER_MINUTE = 30;
+
+	/**
+	 * How long a guild may go without a chunk before its sync fails, in milliseconds
+	 */
+	public static final long DEFAULT_TIMEOUT = 60000l;
+
+	/**
+	 * The most members the API returns per page, and the gateway per chunk
+	 */
+	public static final int PAGE_SIZE = 1000;
+
+	private final DiscLoader loader;
+
+	private final Map<Long, GuildSync> syncing = new ConcurrentHashMap<>();
+
+	private volatile int guildsPerPacket = DEFAULT_GUILDS_PER_PACKET;
+
+	private volatile int packetsPerMinute = DEFAULT_PACKETS_PER_MINUTE;
+
+	private volatile long timeout = DEFAULT_TIMEOUT;
+
+	private volatile ProgressListener listener;
+
+	/**
+	 * When the next packet may be sent, in milliseconds since the epoch
+	 */
+	private long nextPacket;
+
+	public MemberSync(DiscLoader loader) {
+		this.loader = loader;
+	}
+
+	/**
+	 * Downloads the members of several guilds over the gateway. Guilds that are already syncing aren't asked for again.
+	 *
+	 * @param guilds The guilds to sync
+	 * @return A future that completes once every guild's members are cached
+	 */
+	public CompletableFuture<Void> sync(Collection<IGuild> guilds) {
+		List<CompletableFuture<?>> futures = new ArrayList<>();
+		Map<MemberSync, List<IGuild>> elsewhere = new HashMap<>();
+		List<String> batch = new ArrayList<>();
+		for (IGuild guild : guilds) {
+			MemberSync owner = ownerOf(guild);
+			if (owner == null) {
+				futures.add(unreachable(guild));
+				continue;
+			} else if (owner != this) {
+				elsewhere.computeIfAbsent(owner, o -> new ArrayList<>()).add(guild);
+				continue;
+			}
+			GuildSync sync = new GuildSync(guild);
+			GuildSync existing = syncing.putIfAbsent(guild.getID(), sync);
+			if (existing != null) {
+				futures.add(existing.future);
+				continue;
+			}
+			futures.add(sync.future);
+			batch.add(SnowflakeUtil.asString(guild));
+			if (batch.size() == guildsPerPacket) {
+				request(batch);
+				batch = new ArrayList<>();
+			}
+		}
+		if (!batch.isEmpty()) request(batch);
+		for (Map.Entry<MemberSync, List<IGuild>> entry : elsewhere.entrySet()) {
+			futures.add(entry.getKey().sync(entry.getValue()));
+		}
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]));
+	}
+
+	/**
+	 * Downloads a guild's members over the gateway.
+	 *
+	 * @param guild The guild to sync
+	 * @return A future that completes with the guild once its members are cached
+	 */
+	public CompletableFuture<IGuild> sync(IGuild guild) {
+		MemberSync owner = ownerOf(guild);
+		if (owner == null) return unreachable(guild);
+		if (owner != this) return owner.sync(guild);
+		List<IGuild> guilds = new ArrayList<>();
+		guilds.add(guild);
+		sync(guilds);
+		GuildSync sync = syncing.get(guild.getID());
+		return sync == null ? CompletableFuture.completedFuture(guild) : sync.future;
+	}
+
+	/**
+	 * Downloads a guild's members over REST, one page of {@link #PAGE_SIZE} at a time. Each page is requested once the previous one
+	 * has been cached.
+	 *
+	 * @param guild The guild to sync
+	 * @return A future that completes with the guild once its members are cached
+	 */
+	public CompletableFuture<IGuild> page(IGuild guild) {
+		CompletableFuture<IGuild> future = new CompletableFuture<>();
+		page(guild, 0l, 0, future);
+		return future;
+	}
+
+	/**
+	 * @param listener Is told how many of a guild's members have been loaded each time a chunk or page is cached
+	 * @return {@code this}
+	 */
+	public MemberSync onProgress(ProgressListener listener) {
+		this.listener = listener;
+		return this;
+	}
+
+	/**
+	 * @param guildsPerPacket How many guilds are asked for in one request-guild-members packet
+	 */
+	public void setGuildsPerPacket(int guildsPerPacket) {
+		this.guildsPerPacket = Math.max(1, guildsPerPacket);
+	}
+
+	/**
+	 * @param packetsPerMinute How many request-guild-members packets may be sent per minute
+	 */
+	public void setPacketsPerMinute(int packetsPerMinute) {
+		this.packetsPerMinute = Math.max(1, packetsPerMinute);
+	}
+
+	/**
+	 * @param timeout How long a guild may go without a chunk before its sync fails, in milliseconds
+	 */
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+	/**
+	 * @param guildID The guild's ID
+	 * @return {@code true} if the guild's members are being downloaded over the gateway
+	 */
+	public boolean isSyncing(long guildID) {
+		return syncing.containsKey(guildID);
+	}
+
+	/**
+	 * Called by the gateway for every chunk of members, after the chunk's members have been cached.
+	 *
+	 * @param guild The guild the chunk belongs to
+	 * @param data The chunk
+	 */
+	public void onChunk(IGuild guild, GuildMembersChunkJSON data) {
+		GuildSync sync = syncing.get(guild.getID());
+		if (sync == null) return;
+		int loaded, chunks;
+		synchronized (sync) {
+			sync.loaded += data.members.length;
+			sync.chunks++;
+			sync.lastChunk = System.currentTimeMillis();
+			loaded = sync.loaded;
+			chunks = sync.chunks;
+		}
+		progress(guild, loaded);
+		boolean done;
+		if (data.chunk_count != null) {
+			done = chunks >= data.chunk_count;
+		} else {
+			// older gateways don't number their chunks, only the last one isn't full
+			done = data.members.length < PAGE_SIZE || guild.getMembers().size() >= guild.getMemberCount();
+		}
+		if (done && syncing.remove(guild.getID(), sync)) sync.future.complete(guild);
+	}
+
+	/**
+	 * @return The member sync of the shard whose gateway connection the guild is on, or {@code null} if that shard isn't run by this
+	 *         process
+	 */
+	private MemberSync ownerOf(IGuild guild) {
+		if (loader.shards <= 1) return this;
+		int shardID = (int) ((guild.getID() >> 22) % loader.shards);
+		if (shardID == loader.shardid) return this;
+		Shard shard = loader.getShard();
+		if (shard == null) return null;
+		for (Shard other : shard.getManager().getShards()) {
+			if (other.getShardID() == shardID && other.getLoader() != null) return other.getLoader().memberSync;
+		}
+		return null;
+	}
+
+	private CompletableFuture<IGuild> unreachable(IGuild guild) {
+		CompletableFuture<IGuild> future = new CompletableFuture<>();
+		future.completeExceptionally(new GuildSyncException("Guild " + guild.getID() + " is on a shard that isn't run by this process"));
+		return future;
+	}
+
+	private synchronized void request(List<String> guildIDs) {
+		long now = System.currentTimeMillis();
+		long delay = Math.max(0l, nextPacket - now);
+		nextPacket = Math.max(now, nextPacket) + 60000l / packetsPerMinute;
+		Packet packet = new Packet(OPCodes.REQUEST_GUILD_MEMBERS, new RequestGuildMembers(guildIDs.toArray(new String[guildIDs.size()])));
+		Runnable send = () -> {
+			long sent = System.currentTimeMillis();
+			for (String id : guildIDs) {
+				GuildSync sync = syncing.get(SnowflakeUtil.parse(id));
+				if (sync == null) continue;
+				synchronized (sync) {
+					sync.lastChunk = sent;
+				}
+				watch(sync);
+			}
+			loader.socket.send(packet);
+		};
+		if (delay > 0) {
+			loader.rest.getRateLimiter().getScheduler().schedule(delay, send);
+		} else {
+			send.run();
+		}
+	}
+
+	/**
+	 * Fails the guild's sync if it goes {@link #setTimeout(long) too long} without a chunk.
+	 */
+	private void watch(GuildSync sync) {
+		long wait;
+		synchronized (sync) {
+			wait = sync.lastChunk + timeout - System.currentTimeMillis();
+		}
+		if (sync.future.isDone()) return;
+		if (wait > 0) {
+			loader.rest.getRateLimiter().getScheduler().schedule(wait, () -> watch(sync));
+			return;
+		}
+		if (syncing.remove(sync.guild.getID(), sync)) {
+			sync.future.completeExceptionally(new TimeoutException("Syncing the members of " + sync.guild.getName() + " timed out"));
+		}
+	}
+
+	private void page(IGuild guild, long after, int loaded, CompletableFuture<IGuild> future) {
+		String url = Endpoints.guildMembers(guild.getID()) + "?limit=" + PAGE_SIZE + "&after=" + Long.toUnsignedString(after);
+		APIRequest<MemberJSON[]> request = new APIRequest<MemberJSON[]>(url, Methods.GET, true, null, MemberJSON[].class);
+		loader.rest.makeRequest(request.setPriority(RequestPriority.BULK)).whenComplete((members, ex) -> {
+			if (ex != null) {
+				future.completeExceptionally(ex);
+				return;
+			}
+			long last = after;
+			List<IGuildMember> page = new ArrayList<>(members.length);
+			for (MemberJSON data : members) {
+				IGuildMember member = EntityBuilder.getGuildFactory().buildMember(guild, data);
+				page.add(member);
+				if (Long.compareUnsigned(member.getID(), last) > 0) last = member.getID();
+			}
+			guild.addMembers(page);
+			progress(guild, loaded + members.length);
+			if (members.length < PAGE_SIZE) {
+				future.complete(guild);
+			} else {
+				page(guild, last, loaded + members.length, future);
+			}
+		});
+	}
+
+	private void progress(IGuild guild, int loaded) {
+		ProgressListener listener = this.listener;
+		if (listener != null) listener.onProgress(guild, loaded, guild.getMemberCount());
+	}
+
+	/**
+	 * Is told how far along a guild's sync is. Called from the gateway and REST threads, so implementations should return quickly.
+	 */
+	@FunctionalInterface
+	public interface ProgressListener {
+
+		/**
+		 * @param guild The guild being synced
+		 * @param loaded How many of its members have been loaded so far
+		 * @param total How many members the guild has
+		 */
+		void onProgress(IGuild guild, int loaded, int total);
+
+	}
+
+	private static class GuildSync {
+
+		final IGuild guild;
+
+		final CompletableFuture<IGuild> future = new CompletableFuture<>();
+
+		int loaded;
+
+		int chunks;
+
+		long lastChunk;
+
+		GuildSync(IGuild guild) {
+			this.guild = guild;
+			lastChunk = System.currentTimeMillis();
+		}
+
+	}
+
+}
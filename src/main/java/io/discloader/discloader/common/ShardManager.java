@@ -9,6 +9,9 @@ import java.util.logging.Logger;
 
 import io.discloader.discloader.client.logger.DLLogger;
 import io.discloader.discloader.common.event.sharding.IShardingListener;
+import io.discloader.discloader.network.rest.RateLimitCoordinator;
+import io.discloader.discloader.network.rest.transport.AsyncHTTPTransport;
+import io.discloader.discloader.network.rest.transport.HTTPTransport;
 
 /**
  * @author Perry Berman
@@ -27,6 +30,16 @@ public class ShardManager {
 	private Thread launcher;
 	private DLOptions options;
 	
+	/**
+	 * The REST rate limits of the manager's token, shared by all of its shards
+	 */
+	private final RateLimitCoordinator rateLimiter = new RateLimitCoordinator();
+	
+	/**
+	 * The HTTP transport shared by all of the manager's shards
+	 */
+	private HTTPTransport transport;
+	
 	public static final Logger logger = new DLLogger(ShardManager.class).getLogger();
 	
 	public void addShardingListener(IShardingListener... shardingListeners) {
@@ -55,6 +68,30 @@ public class ShardManager {
 		return token;
 	}
 	
+	/**
+	 * @return The {@link RateLimitCoordinator} shared by all of the manager's shards
+	 */
+	public RateLimitCoordinator getRateLimiter() {
+		return rateLimiter;
+	}
+	
+	/**
+	 * @return The {@link HTTPTransport} shared by all of the manager's shards. An {@link AsyncHTTPTransport} is created on first use.
+	 */
+	public synchronized HTTPTransport getTransport() {
+		if (transport == null) transport = new AsyncHTTPTransport();
+		return transport;
+	}
+	
+	/**
+	 * Sets the {@link HTTPTransport} that shards launched after this call will use.
+	 * 
+	 * @param transport The transport to share
+	 */
+	public synchronized void setTransport(HTTPTransport transport) {
+		this.transport = transport;
+	}
+	
 	public Shard getShard(int shard) {
 		return shards.get(shard);
 	}
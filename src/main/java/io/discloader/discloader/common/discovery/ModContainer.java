@@ -160,6 +160,14 @@ public class ModContainer {
 		}
 	}
 	
+	/**
+	 * @param event The event's name
+	 * @return {@code true} if the mod has a handler for the event
+	 */
+	public boolean hasHandler(String event) {
+		return handlers.containsKey(event);
+	}
+	
 	protected static Locale getLocale(String s) {
 		s = s.substring(s.lastIndexOf('/') + 1, s.indexOf('.'));
 		s = s.replace('_', '-');
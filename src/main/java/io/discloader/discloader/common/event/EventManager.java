@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -57,6 +58,7 @@ public class EventManager {
 	private final List<IEventListener> handlers = new ArrayList<>();
 	private final List<Consumer<DLEvent>> consumers = new ArrayList<>();
 	private final Map<Consumer<DLEvent>, Function<IGuild, Boolean>> guildTest = new HashMap<>();
+	private static final Map<Class<?>, Boolean> overridesRawPacket = new ConcurrentHashMap<>();
 	
 	public void addEventHandler(IEventListener e) {
 		handlers.add(e);
@@ -212,4 +214,26 @@ public class EventManager {
 		return handlers;
 	}
 	
+	/**
+	 * Checks if anything would see a {@link RawEvent}. Consumers see every event, while handlers only count if they override
+	 * {@link IEventListener#RawPacket(RawEvent)} with something other than {@link EventListenerAdapter}'s no-op.
+	 * 
+	 * @return {@code true} if a raw packet listener is registered
+	 */
+	public boolean hasRawPacketListeners() {
+		if (!consumers.isEmpty()) return true;
+		for (int i = 0; i < handlers.size(); i++) {
+			if (overridesRawPacket.computeIfAbsent(handlers.get(i).getClass(), EventManager::overridesRawPacket)) return true;
+		}
+		return false;
+	}
+	
+	private static boolean overridesRawPacket(Class<?> cls) {
+		try {
+			return cls.getMethod("RawPacket", RawEvent.class).getDeclaringClass() != EventListenerAdapter.class;
+		} catch (NoSuchMethodException e) {
+			return true;
+		}
+	}
+	
 }
@@ -1,17 +1,17 @@
 package io.discloader.discloader.common.event;
 
-import com.mashape.unirest.http.HttpResponse;
 import com.neovisionaries.ws.client.WebSocketFrame;
 
 import io.discloader.discloader.common.DiscLoader;
+import io.discloader.discloader.network.rest.transport.HTTPResponse;
 
 public class RawEvent extends DLEvent {
 
 	private WebSocketFrame frame;
 
-	private HttpResponse<String> httpResponse;
+	private HTTPResponse httpResponse;
 
-	public RawEvent(DiscLoader loader, HttpResponse<String> response) {
+	public RawEvent(DiscLoader loader, HTTPResponse response) {
 		this(loader, null, response);
 	}
 
@@ -19,7 +19,7 @@ public class RawEvent extends DLEvent {
 		this(loader, frame, null);
 	}
 
-	private RawEvent(DiscLoader loader, WebSocketFrame frame, HttpResponse<String> response) {
+	private RawEvent(DiscLoader loader, WebSocketFrame frame, HTTPResponse response) {
 		super(loader);
 		setFrame(frame);
 		setHttpResponse(response);
@@ -35,7 +35,7 @@ public class RawEvent extends DLEvent {
 	/**
 	 * @return the httpResponse
 	 */
-	public HttpResponse<String> getHttpResponse() {
+	public HTTPResponse getHttpResponse() {
 		return httpResponse;
 	}
 
@@ -67,7 +67,7 @@ public class RawEvent extends DLEvent {
 	/**
 	 * @param httpResponse the httpResponse to set
 	 */
-	protected void setHttpResponse(HttpResponse<String> httpResponse) {
+	protected void setHttpResponse(HTTPResponse httpResponse) {
 		this.httpResponse = httpResponse;
 	}
 
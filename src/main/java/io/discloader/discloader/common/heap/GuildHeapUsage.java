@@ -0,0 +1,81 @@
+package io.discloader.discloader.common.heap;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.discloader.discloader.entity.guild.IGuild;
+
+/**
+ * An estimate of the heap retained by a single {@link IGuild} and the caches it owns.
+ *
+ * @author Perry Berman
+ * @see HeapEstimator#estimate(IGuild)
+ */
+public class GuildHeapUsage {
+
+	public static final String MEMBERS = "members", PRESENCES = "presences", MESSAGES = "messages", ROLES = "roles", CHANNELS = "channels", EMOJIS = "emojis",
+			VOICE_STATES = "voiceStates";
+
+	private final long guildID;
+
+	private final long shallowBytes;
+
+	private final Map<String, HeapUsage> caches;
+
+	GuildHeapUsage(long guildID, long shallowBytes, HeapUsage... caches) {
+		this.guildID = guildID;
+		this.shallowBytes = shallowBytes;
+		Map<String, HeapUsage> map = new LinkedHashMap<>();
+		for (HeapUsage cache : caches) {
+			map.put(cache.getName(), cache);
+		}
+		this.caches = Collections.unmodifiableMap(map);
+	}
+
+	/**
+	 * @param name The name of the cache, such as {@link #MEMBERS}
+	 * @return The usage of the cache, or {@code null} if the guild has no such cache
+	 */
+	public HeapUsage getCache(String name) {
+		return caches.get(name);
+	}
+
+	/**
+	 * @return The usage of each of the guild's caches, indexed by name
+	 */
+	public Map<String, HeapUsage> getCaches() {
+		return caches;
+	}
+
+	/**
+	 * @return The ID of the guild
+	 */
+	public long getGuildID() {
+		return guildID;
+	}
+
+	/**
+	 * @return The estimated size of the guild object itself, excluding its caches
+	 */
+	public long getShallowBytes() {
+		return shallowBytes;
+	}
+
+	/**
+	 * @return The estimated number of bytes retained by the guild and all of its caches
+	 */
+	public long getTotalBytes() {
+		long total = shallowBytes;
+		for (HeapUsage cache : caches.values()) {
+			total += cache.getBytes();
+		}
+		return total;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Guild %d: %d bytes %s", guildID, getTotalBytes(), caches.values());
+	}
+
+}
@@ -0,0 +1,248 @@
+package io.discloader.discloader.common.heap;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+
+import io.discloader.discloader.common.registry.EntityRegistry;
+import io.discloader.discloader.entity.channel.IChannel;
+import io.discloader.discloader.entity.channel.IGuildChannel;
+import io.discloader.discloader.entity.channel.ITextChannel;
+import io.discloader.discloader.entity.guild.IGuild;
+import io.discloader.discloader.entity.guild.IGuildMember;
+import io.discloader.discloader.entity.message.IMessage;
+import io.discloader.discloader.entity.user.IUser;
+
+/**
+ * Estimates how much heap DiscLoader's caches retain without walking the object graph.<br>
+ * Each object is costed as the shallow size of its class, computed once from the class's fields and cached, plus the strings that
+ * dominate its footprint (names, nicknames and message content) and the cost of the map entry that holds it. The estimates assume a
+ * 64-bit JVM with compressed oops and are meant for spotting trends and outliers, not exact accounting. A full sample only reads map
+ * sizes and iterates members and cached messages once, so it is cheap enough to run every minute.
+ *
+ * @author Perry Berman
+ * @see HeapReport
+ */
+public class HeapEstimator {
+
+	/**
+	 * The size of an object header with compressed class pointers.
+	 */
+	private static final int HEADER = 12;
+
+	/**
+	 * The size of a reference with compressed oops.
+	 */
+	private static final int REFERENCE = 4;
+
+	/**
+	 * The cost of one entry in a {@code HashMap<Long, ?>}: the node, the boxed key and the node's share of the table.
+	 */
+	public static final long MAP_ENTRY = 32 + 16 + 8;
+
+	/**
+	 * How many times a live collection is copied before the values copied so far are used.
+	 */
+	private static final int SNAPSHOT_ATTEMPTS = 3;
+
+	private static final Map<Class<?>, Long> shallowSizes = new ConcurrentHashMap<>();
+
+	/**
+	 * Estimates the heap retained by a guild and each of the caches it owns.
+	 *
+	 * @param guild The guild to estimate
+	 * @return The guild's usage
+	 */
+	public static GuildHeapUsage estimate(IGuild guild) {
+		Map<Long, IGuildMember> members = guild.getMembers();
+		HeapUsage memberUsage = new HeapUsage(GuildHeapUsage.MEMBERS, members.size(), sum(members.values(), member -> MAP_ENTRY + shallowSize(member) + sizeOf(member.getNickname())));
+		HeapUsage presences = entries(GuildHeapUsage.PRESENCES, guild.getPresences());
+		HeapUsage roles = new HeapUsage(GuildHeapUsage.ROLES, guild.getRoles().size(), sum(guild.getRoles().values(), role -> MAP_ENTRY + shallowSize(role) + sizeOf(role.getName())));
+
+		int channelCount = guild.getTextChannels().size() + guild.getVoiceChannels().size();
+		long channelBytes = sum(guild.getTextChannels().values(), HeapEstimator::channelSize) + sum(guild.getVoiceChannels().values(), HeapEstimator::channelSize);
+		HeapUsage channels = new HeapUsage(GuildHeapUsage.CHANNELS, channelCount, channelBytes);
+
+		int messageCount = 0;
+		long messageBytes = 0l;
+		for (ITextChannel channel : snapshot(guild.getTextChannels().values())) {
+			Map<Long, IMessage> messages = channel.getMessages();
+			messageCount += messages.size();
+			messageBytes += sum(messages.values(), HeapEstimator::messageSize);
+		}
+		HeapUsage messageUsage = new HeapUsage(GuildHeapUsage.MESSAGES, messageCount, messageBytes);
+
+		HeapUsage emojis = new HeapUsage(GuildHeapUsage.EMOJIS, guild.getEmojis().size(), sum(guild.getEmojis().values(), emoji -> MAP_ENTRY + shallowSize(emoji) + sizeOf(emoji.getName())));
+		HeapUsage voiceStates = entries(GuildHeapUsage.VOICE_STATES, guild.getVoiceStates());
+
+		return new GuildHeapUsage(guild.getID(), shallowSize(guild) + sizeOf(guild.getName()), memberUsage, presences, messageUsage, roles, channels, emojis, voiceStates);
+	}
+
+	/**
+	 * Estimates the heap retained by each {@link EntityRegistry} map. Guild channels are accounted to their guild, so only the cost of
+	 * their registry entries is included here.
+	 *
+	 * @return The usage of each registry map, indexed by name
+	 */
+	public static Map<String, HeapUsage> estimateRegistry() {
+		Map<String, HeapUsage> registry = new LinkedHashMap<>();
+		put(registry, new HeapUsage("guilds", EntityRegistry.getGuilds().size(), EntityRegistry.getGuilds().size() * MAP_ENTRY));
+		put(registry, new HeapUsage("users", EntityRegistry.getUsers().size(), sum(EntityRegistry.getUsers(), user -> MAP_ENTRY + userSize(user))));
+		put(registry, new HeapUsage("channels", EntityRegistry.getChannels().size(), sum(EntityRegistry.getChannels(), channel -> {
+			// guild channels are owned by their guild
+			return channel instanceof IGuildChannel ? MAP_ENTRY : MAP_ENTRY + shallowSize(channel) + messagesSize(channel);
+		})));
+		put(registry, indexUsage("textChannels", EntityRegistry.getTextChannels()));
+		put(registry, indexUsage("voiceChannels", EntityRegistry.getVoiceChannels()));
+		put(registry, indexUsage("groupChannels", EntityRegistry.getGroupChannels()));
+		put(registry, indexUsage("privateChannels", EntityRegistry.getPrivateChannels()));
+		put(registry, indexUsage("guildChannels", EntityRegistry.getGuildChannels()));
+		put(registry, new HeapUsage("voiceConnections", EntityRegistry.getVoiceConnections().size(), sum(EntityRegistry.getVoiceConnections(), connection -> MAP_ENTRY + shallowSize(connection))));
+		return registry;
+	}
+
+	/**
+	 * Samples the estimated heap usage of every cached guild and registry map.
+	 *
+	 * @return A new report
+	 */
+	public static HeapReport sample() {
+		List<GuildHeapUsage> guilds = new ArrayList<>();
+		for (IGuild guild : snapshot(EntityRegistry.getGuilds())) {
+			guilds.add(estimate(guild));
+		}
+		return new HeapReport(System.currentTimeMillis(), guilds, estimateRegistry());
+	}
+
+	/**
+	 * Estimates the shallow size of an object, that is the object's header and fields but nothing they reference.
+	 *
+	 * @param object The object to measure
+	 * @return The object's shallow size in bytes, or {@code 0} if {@code object} is {@code null}
+	 */
+	public static long shallowSize(Object object) {
+		return object == null ? 0l : shallowSize(object.getClass());
+	}
+
+	/**
+	 * Estimates the shallow size of instances of a class. The result is cached per class.
+	 *
+	 * @param type The class to measure
+	 * @return The shallow size of an instance of {@code type} in bytes
+	 */
+	public static long shallowSize(Class<?> type) {
+		Long size = shallowSizes.get(type);
+		if (size != null) return size;
+		long bytes = HEADER;
+		for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+			for (Field field : c.getDeclaredFields()) {
+				if (Modifier.isStatic(field.getModifiers())) continue;
+				bytes += fieldSize(field.getType());
+			}
+		}
+		bytes = align(bytes);
+		shallowSizes.put(type, bytes);
+		return bytes;
+	}
+
+	/**
+	 * Estimates the retained size of a string.
+	 *
+	 * @param string The string to measure
+	 * @return The size of the string and its backing array in bytes, or {@code 0} if {@code string} is {@code null}
+	 */
+	public static long sizeOf(String string) {
+		if (string == null) return 0l;
+		return align(HEADER + REFERENCE + 4 + 4) + align(16 + 2l * string.length());
+	}
+
+	private static long align(long bytes) {
+		return (bytes + 7) & ~7l;
+	}
+
+	private static long channelSize(IChannel channel) {
+		return MAP_ENTRY + shallowSize(channel) + (channel instanceof IGuildChannel ? sizeOf(((IGuildChannel) channel).getName()) : 0l);
+	}
+
+	private static HeapUsage entries(String name, Map<Long, ?> map) {
+		return new HeapUsage(name, map.size(), sum(map.values(), value -> MAP_ENTRY + shallowSize(value)));
+	}
+
+	private static long fieldSize(Class<?> type) {
+		if (type == long.class || type == double.class) return 8;
+		if (type == int.class || type == float.class) return 4;
+		if (type == short.class || type == char.class) return 2;
+		if (type == byte.class || type == boolean.class) return 1;
+		return REFERENCE;
+	}
+
+	private static HeapUsage indexUsage(String name, Collection<?> values) {
+		return new HeapUsage(name, values.size(), values.size() * MAP_ENTRY);
+	}
+
+	private static long messageSize(IMessage message) {
+		long bytes = MAP_ENTRY + shallowSize(message) + sizeOf(message.getContent());
+		bytes += message.getEmbeds().size() * (REFERENCE + 64l);
+		bytes += message.getAttachments().size() * (REFERENCE + 64l);
+		bytes += message.getReactions().size() * (REFERENCE + 32l);
+		return bytes;
+	}
+
+	private static long messagesSize(IChannel channel) {
+		if (!(channel instanceof ITextChannel)) return 0l;
+		return sum(((ITextChannel) channel).getMessages().values(), HeapEstimator::messageSize);
+	}
+
+	private static void put(Map<String, HeapUsage> registry, HeapUsage usage) {
+		registry.put(usage.getName(), usage);
+	}
+
+	/**
+	 * Copies a live collection. Caches are mutated by the gateway thread, so a copy that races with an update is retried. If every
+	 * attempt races, the values that were copied before the update are returned, so a non-empty cache is never reported as empty.
+	 */
+	private static <T> List<T> snapshot(Collection<T> values) {
+		for (int attempt = 1; attempt < SNAPSHOT_ATTEMPTS; attempt++) {
+			try {
+				return new ArrayList<>(values);
+			} catch (ConcurrentModificationException e) {}
+		}
+		List<T> copy = new ArrayList<>(values.size());
+		try {
+			for (T value : values) {
+				copy.add(value);
+			}
+		} catch (ConcurrentModificationException e) {}
+		return copy;
+	}
+
+	/**
+	 * Sums the estimated size of each value. If the collection changes while it is being iterated, the average of the values seen so
+	 * far is extrapolated to the collection's current size.
+	 */
+	private static <T> long sum(Collection<T> values, ToLongFunction<T> size) {
+		long total = 0l;
+		int seen = 0;
+		try {
+			for (T value : values) {
+				total += size.applyAsLong(value);
+				seen++;
+			}
+		} catch (ConcurrentModificationException e) {
+			if (seen > 0) total = total / seen * values.size();
+		}
+		return total;
+	}
+
+	private static long userSize(IUser user) {
+		return shallowSize(user) + sizeOf(user.getUsername());
+	}
+
+}
@@ -0,0 +1,109 @@
+package io.discloader.discloader.common.heap;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A snapshot of the estimated heap usage of every cached guild and every {@link io.discloader.discloader.common.registry.EntityRegistry
+ * EntityRegistry} map.<br>
+ * Guild channels are accounted to their guild, so the registry's channel maps only report the cost of their own entries. Adding
+ * {@link #getGuildBytes()} and {@link #getRegistryBytes()} therefore never counts an object twice.
+ *
+ * @author Perry Berman
+ * @see HeapEstimator#sample()
+ */
+public class HeapReport {
+
+	private final long timestamp;
+
+	private final List<GuildHeapUsage> guilds;
+
+	private final Map<String, HeapUsage> registry;
+
+	HeapReport(long timestamp, List<GuildHeapUsage> guilds, Map<String, HeapUsage> registry) {
+		this.timestamp = timestamp;
+		this.guilds = Collections.unmodifiableList(guilds);
+		this.registry = Collections.unmodifiableMap(registry);
+	}
+
+	/**
+	 * @return The estimated bytes retained by all cached guilds
+	 */
+	public long getGuildBytes() {
+		long total = 0l;
+		for (GuildHeapUsage guild : guilds) {
+			total += guild.getTotalBytes();
+		}
+		return total;
+	}
+
+	/**
+	 * @return The usage of every cached guild
+	 */
+	public List<GuildHeapUsage> getGuilds() {
+		return guilds;
+	}
+
+	/**
+	 * @return The usage of each {@link io.discloader.discloader.common.registry.EntityRegistry EntityRegistry} map, indexed by name
+	 */
+	public Map<String, HeapUsage> getRegistry() {
+		return registry;
+	}
+
+	/**
+	 * @return The estimated bytes retained by the registry maps, excluding anything accounted to a guild
+	 */
+	public long getRegistryBytes() {
+		long total = 0l;
+		for (HeapUsage map : registry.values()) {
+			total += map.getBytes();
+		}
+		return total;
+	}
+
+	/**
+	 * @return When the report was sampled, in milliseconds since the epoch
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * @return The estimated bytes retained by all of DiscLoader's caches
+	 */
+	public long getTotalBytes() {
+		return getGuildBytes() + getRegistryBytes();
+	}
+
+	/**
+	 * Flattens the report into metric names and values, suitable for exporting to a metrics backend.<br>
+	 * Names look like {@code discloader.heap.total.bytes}, {@code discloader.heap.registry.users.entries} or
+	 * {@code discloader.heap.guild.<id>.members.bytes}.
+	 *
+	 * @return The report's metrics, in a stable order
+	 */
+	public Map<String, Long> toMetrics() {
+		Map<String, Long> metrics = new LinkedHashMap<>();
+		metrics.put("discloader.heap.total.bytes", getTotalBytes());
+		metrics.put("discloader.heap.guilds.bytes", getGuildBytes());
+		metrics.put("discloader.heap.guilds.entries", (long) guilds.size());
+		metrics.put("discloader.heap.registry.bytes", getRegistryBytes());
+		for (HeapUsage map : registry.values()) {
+			metrics.put("discloader.heap.registry." + map.getName() + ".bytes", map.getBytes());
+			metrics.put("discloader.heap.registry." + map.getName() + ".entries", (long) map.getEntries());
+		}
+		for (GuildHeapUsage guild : guilds) {
+			String prefix = "discloader.heap.guild." + guild.getGuildID();
+			metrics.put(prefix + ".bytes", guild.getTotalBytes());
+			for (HeapUsage cache : guild.getCaches().values()) {
+				metrics.put(prefix + "." + cache.getName() + ".bytes", cache.getBytes());
+				metrics.put(prefix + "." + cache.getName() + ".entries", (long) cache.getEntries());
+			}
+		}
+		return metrics;
+	}
+
+}
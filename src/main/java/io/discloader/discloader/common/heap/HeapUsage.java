@@ -0,0 +1,49 @@
+package io.discloader.discloader.common.heap;
+
+/**
+ * An estimate of the heap retained by a single cache.
+ *
+ * @author Perry Berman
+ * @see HeapEstimator
+ */
+public class HeapUsage {
+
+	private final String name;
+
+	private final int entries;
+
+	private final long bytes;
+
+	public HeapUsage(String name, int entries, long bytes) {
+		this.name = name;
+		this.entries = entries;
+		this.bytes = bytes;
+	}
+
+	/**
+	 * @return The estimated number of bytes retained by the cache
+	 */
+	public long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * @return The number of entries in the cache
+	 */
+	public int getEntries() {
+		return entries;
+	}
+
+	/**
+	 * @return The name of the cache
+	 */
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s: %d entries, %d bytes", name, entries, bytes);
+	}
+
+}
@@ -0,0 +1,6 @@
+/**
+ * Contains the heap accounting API
+ * 
+ * @author Perry Berman
+ */
+package io.discloader.discloader.common.heap;
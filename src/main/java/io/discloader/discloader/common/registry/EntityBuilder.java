@@ -3,6 +3,9 @@ package io.discloader.discloader.common.registry;
 import io.discloader.discloader.common.registry.factory.ChannelFactory;
 import io.discloader.discloader.common.registry.factory.GuildFactory;
 import io.discloader.discloader.common.registry.factory.InviteFactory;
+import io.discloader.discloader.common.registry.factory.SlimChannelFactory;
+import io.discloader.discloader.common.registry.factory.SlimGuildFactory;
+import io.discloader.discloader.common.registry.factory.SlimUserFactory;
 import io.discloader.discloader.common.registry.factory.UserFactory;
 
 /**
@@ -17,6 +20,11 @@ import io.discloader.discloader.common.registry.factory.UserFactory;
  *  *{@literal /}
  * </pre>
  * 
+ * Factories should be set before logging in, as entities that have already
+ * been cached are not rebuilt.<br>
+ * Deployments that only need IDs and timestamps can switch every factory to
+ * the slim entity implementations at once with {@link #useSlimEntities()}.
+ * 
  * @author Perry Berman
  */
 public class EntityBuilder {
@@ -75,4 +83,28 @@ public class EntityBuilder {
 		instance.userFactory = userFactory;
 	}
 
+	/**
+	 * Switches back to the factories that build the full entity
+	 * implementations.
+	 */
+	public static void useDefaultEntities() {
+		setGuildFactory(new GuildFactory());
+		setUserFactory(new UserFactory());
+		setChannelFactory(new ChannelFactory());
+	}
+
+	/**
+	 * Switches to factories that build minimal guilds, members, users and
+	 * messages which only keep their IDs and timestamps.
+	 * 
+	 * @see SlimGuildFactory
+	 * @see SlimUserFactory
+	 * @see SlimChannelFactory
+	 */
+	public static void useSlimEntities() {
+		setGuildFactory(new SlimGuildFactory());
+		setUserFactory(new SlimUserFactory());
+		setChannelFactory(new SlimChannelFactory());
+	}
+
 }
@@ -192,7 +192,7 @@ public class EntityRegistry {
 	
 	public static boolean guildExists(IGuild guild) {
 		if (guild == null) return false;
-		return guilds.containsValue(guild);
+		return guilds.containsKey(guild.getID());
 	}
 	
 	public static boolean guildExists(long guildID) {
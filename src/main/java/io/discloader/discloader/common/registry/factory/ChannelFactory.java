@@ -26,10 +26,10 @@ public class ChannelFactory {
 			if (guild != null) {
 				if (data.type == DLUtil.ChannelTypes.text) {
 					channel = new TextChannel(guild, data);
-					guild.getTextChannels().put(channel.getID(), (TextChannel) channel);
+					guild.addChannel((TextChannel) channel);
 				} else if (data.type == DLUtil.ChannelTypes.voice) {
 					channel = new VoiceChannel(guild, data);
-					guild.getVoiceChannels().put(channel.getID(), (VoiceChannel) channel);
+					guild.addChannel((VoiceChannel) channel);
 				}
 			}
 		}
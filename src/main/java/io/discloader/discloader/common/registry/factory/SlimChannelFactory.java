@@ -0,0 +1,19 @@
+package io.discloader.discloader.common.registry.factory;
+
+import io.discloader.discloader.core.entity.message.SlimMessage;
+import io.discloader.discloader.entity.channel.ITextChannel;
+import io.discloader.discloader.entity.message.IMessage;
+import io.discloader.discloader.network.json.MessageJSON;
+
+/**
+ * Builds the default channel implementations, but {@link SlimMessage slim messages}.
+ * 
+ * @author Perry Berman
+ */
+public class SlimChannelFactory extends ChannelFactory {
+
+	@Override
+	public IMessage buildMessage(ITextChannel channel, MessageJSON data) {
+		return new SlimMessage<>(channel, data);
+	}
+}
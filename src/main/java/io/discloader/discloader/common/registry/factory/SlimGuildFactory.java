@@ -0,0 +1,45 @@
+package io.discloader.discloader.common.registry.factory;
+
+import java.time.OffsetDateTime;
+
+import io.discloader.discloader.core.entity.guild.SlimGuild;
+import io.discloader.discloader.core.entity.guild.SlimGuildMember;
+import io.discloader.discloader.entity.guild.IGuild;
+import io.discloader.discloader.entity.guild.IGuildMember;
+import io.discloader.discloader.entity.user.IUser;
+import io.discloader.discloader.network.json.GuildJSON;
+import io.discloader.discloader.network.json.MemberJSON;
+
+/**
+ * Builds {@link SlimGuild slim guilds} and {@link SlimGuildMember slim members}.
+ * 
+ * @author Perry Berman
+ */
+public class SlimGuildFactory extends GuildFactory {
+
+	@Override
+	public IGuild buildGuild(GuildJSON data) {
+		return new SlimGuild(data);
+	}
+
+	@Override
+	public IGuildMember buildMember(IGuild guild, MemberJSON data) {
+		return new SlimGuildMember(guild, data);
+	}
+
+	@Override
+	public IGuildMember buildMember(IGuild guild, IUser user) {
+		return new SlimGuildMember(guild, user);
+	}
+
+	@Override
+	public IGuildMember buildMember(IGuildMember member) {
+		OffsetDateTime joinedAt = member.getJoinTime();
+		return new SlimGuildMember(member.getGuild(), member.getUser(), joinedAt == null ? 0l : joinedAt.toInstant().toEpochMilli());
+	}
+
+	@Override
+	public IGuildMember buildMember(IGuild guild, IUser user, String[] roles, boolean deaf, boolean mute, String nick) {
+		return new SlimGuildMember(guild, user);
+	}
+}
@@ -0,0 +1,18 @@
+package io.discloader.discloader.common.registry.factory;
+
+import io.discloader.discloader.core.entity.user.SlimUser;
+import io.discloader.discloader.entity.user.IUser;
+import io.discloader.discloader.network.json.UserJSON;
+
+/**
+ * Builds {@link SlimUser slim users}.
+ * 
+ * @author Perry Berman
+ */
+public class SlimUserFactory extends UserFactory {
+
+	@Override
+	public IUser buildUser(UserJSON data) {
+		return new SlimUser(data);
+	}
+}
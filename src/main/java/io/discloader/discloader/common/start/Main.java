@@ -25,6 +25,7 @@ import io.discloader.discloader.common.event.message.MessageCreateEvent;
 import io.discloader.discloader.common.event.sharding.ShardingListenerAdapter;
 import io.discloader.discloader.common.registry.CommandRegistry;
 import io.discloader.discloader.common.registry.EntityRegistry;
+import io.discloader.discloader.util.DLUtil;
 
 /**
  * DiscLoader client entry point
@@ -34,7 +35,7 @@ import io.discloader.discloader.common.registry.EntityRegistry;
  */
 public class Main {
 	
-	public static final Gson gson = new Gson();
+	public static final Gson gson = DLUtil.gson;
 	
 	public static WindowFrame window;
 	
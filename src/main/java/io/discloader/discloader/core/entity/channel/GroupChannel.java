@@ -20,7 +20,6 @@ import io.discloader.discloader.entity.user.IUser;
 import io.discloader.discloader.entity.util.SnowflakeUtil;
 import io.discloader.discloader.entity.voice.VoiceConnection;
 import io.discloader.discloader.network.json.ChannelJSON;
-import io.discloader.discloader.network.rest.actions.channel.BulkDelete;
 import io.discloader.discloader.network.rest.actions.channel.FetchMessage;
 import io.discloader.discloader.network.rest.actions.channel.FetchMessages;
 import io.discloader.discloader.network.rest.actions.channel.SendMessage;
@@ -73,7 +72,7 @@ public class GroupChannel extends Channel implements IGroupChannel, IVoiceChanne
 
 	@Override
 	public CompletableFuture<Map<Long, IMessage>> deleteMessages(Map<Long, IMessage> messages) {
-		return new BulkDelete<ITextChannel>(this, messages).execute();
+		return getLoader().rest.getBulkMessageDeleter().deleteAll(this, messages.values());
 	}
 
 	@Override
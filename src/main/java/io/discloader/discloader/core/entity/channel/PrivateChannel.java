@@ -17,7 +17,6 @@ import io.discloader.discloader.entity.sendable.Attachment;
 import io.discloader.discloader.entity.user.IUser;
 import io.discloader.discloader.entity.util.SnowflakeUtil;
 import io.discloader.discloader.network.json.ChannelJSON;
-import io.discloader.discloader.network.rest.actions.channel.BulkDelete;
 import io.discloader.discloader.network.rest.actions.channel.FetchMessage;
 import io.discloader.discloader.network.rest.actions.channel.FetchMessages;
 import io.discloader.discloader.network.rest.actions.channel.SendMessage;
@@ -67,7 +66,7 @@ public class PrivateChannel extends Channel implements IPrivateChannel {
 
 	@Override
 	public CompletableFuture<Map<Long, IMessage>> deleteMessages(Map<Long, IMessage> messages) {
-		return new BulkDelete<IPrivateChannel>(this, messages).execute();
+		return getLoader().rest.getBulkMessageDeleter().deleteAll(this, messages.values());
 	}
 
 	@Override
@@ -18,7 +18,6 @@ import io.discloader.discloader.entity.sendable.Attachment;
 import io.discloader.discloader.entity.user.IUser;
 import io.discloader.discloader.entity.util.SnowflakeUtil;
 import io.discloader.discloader.network.json.ChannelJSON;
-import io.discloader.discloader.network.rest.actions.channel.BulkDelete;
 import io.discloader.discloader.network.rest.actions.channel.FetchMessage;
 import io.discloader.discloader.network.rest.actions.channel.FetchMessages;
 import io.discloader.discloader.network.rest.actions.channel.SendMessage;
@@ -76,7 +75,7 @@ public class TextChannel extends GuildChannel implements IGuildTextChannel {
 	
 	@Override
 	public CompletableFuture<Map<Long, IMessage>> deleteMessages(Map<Long, IMessage> messages) {
-		return new BulkDelete<IGuildTextChannel>(this, messages).execute();
+		return getLoader().rest.getBulkMessageDeleter().deleteAll(this, messages.values());
 	}
 	
 	@Override
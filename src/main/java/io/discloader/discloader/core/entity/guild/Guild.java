@@ -6,6 +6,7 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,7 +29,6 @@ import io.discloader.discloader.common.exceptions.PermissionsException;
 import io.discloader.discloader.common.exceptions.UnauthorizedException;
 import io.discloader.discloader.common.registry.EntityBuilder;
 import io.discloader.discloader.common.registry.EntityRegistry;
-import io.discloader.discloader.common.registry.factory.GuildFactory;
 import io.discloader.discloader.core.entity.Presence;
 import io.discloader.discloader.core.entity.channel.TextChannel;
 import io.discloader.discloader.core.entity.channel.VoiceChannel;
@@ -41,6 +41,7 @@ import io.discloader.discloader.entity.channel.IGuildChannel;
 import io.discloader.discloader.entity.channel.IGuildTextChannel;
 import io.discloader.discloader.entity.channel.IGuildVoiceChannel;
 import io.discloader.discloader.entity.channel.IVoiceChannel;
+import io.discloader.discloader.entity.guild.GuildSnapshot;
 import io.discloader.discloader.entity.guild.IGuild;
 import io.discloader.discloader.entity.guild.IGuildEmoji;
 import io.discloader.discloader.entity.guild.IGuildMember;
@@ -52,7 +53,9 @@ import io.discloader.discloader.entity.sendable.Packet;
 import io.discloader.discloader.entity.sendable.SendableRole;
 import io.discloader.discloader.entity.user.IUser;
 import io.discloader.discloader.entity.util.Permissions;
+import io.discloader.discloader.entity.util.IVersioned;
 import io.discloader.discloader.entity.util.SnowflakeUtil;
+import io.discloader.discloader.entity.util.VersionUtil;
 import io.discloader.discloader.entity.voice.VoiceConnection;
 import io.discloader.discloader.entity.voice.VoiceState;
 import io.discloader.discloader.network.json.ChannelJSON;
@@ -85,7 +88,17 @@ public class Guild implements IGuild {
 	/**
 	 * The guild's Snowflake ID.
 	 */
-	private final String id;
+	private final long id;
+	
+	/**
+	 * The guild's current {@link IVersioned version}
+	 */
+	private volatile long version = VersionUtil.next();
+	
+	/**
+	 * The guild's latest {@link GuildSnapshot snapshot}, rebuilt when {@link #version} changes
+	 */
+	private volatile GuildSnapshot snapshot;
 	
 	/**
 	 * The guild's name
@@ -135,73 +148,66 @@ public class Guild implements IGuild {
 	 */
 	private final DiscLoader loader;
 	
-	/**
-	 * A HashMap of the guild's cached members. Indexed by member ID.
-	 * 
-	 * @see GuildMember
-	 * @see HashMap
-	 * @author Perry Berman
-	 */
-	public HashMap<Long, IGuildMember> members;
+	private final GuildCache<IGuildMember> memberCache = new GuildCache<>();
+	
+	private final GuildCache<IGuildTextChannel> textChannels = new GuildCache<>();
+	
+	private final GuildCache<IGuildVoiceChannel> voiceChannels = new GuildCache<>();
+	
+	private final GuildCache<IRole> roleCache = new GuildCache<>();
+	
+	private final GuildCache<IPresence> presenceCache = new GuildCache<>();
+	
+	private final GuildCache<IGuildEmoji> emojiCache = new GuildCache<>();
 	
 	/**
-	 * A HashMap of the guild's TextChannels. Indexed by channel ID.
-	 * 
-	 * @see TextChannel
-	 * @see HashMap
-	 * @author Perry Berman
+	 * The guild's raw voice states. Indexed by {@link GuildMember#getID}
 	 */
-	private Map<Long, IGuildTextChannel> textChannels;
+	private final GuildCache<VoiceState> rawStates = new GuildCache<>();
 	
 	/**
-	 * A HashMap of the guild's VoiceChannels. Indexed by channel ID.
+	 * A read-only map of the guild's cached members. Indexed by member ID.<br>
+	 * Like the guild's other caches, lookups never lock and changes are made while holding the guild's lock. See {@link #snapshot()}.
 	 * 
-	 * @see VoiceChannel
-	 * @see HashMap
+	 * @see GuildMember
 	 * @author Perry Berman
 	 */
-	private HashMap<Long, IGuildVoiceChannel> voiceChannels;
+	public final Map<Long, IGuildMember> members = memberCache.view();
 	
 	/**
-	 * A HashMap of the guild's roles. Indexed by role ID.
+	 * A read-only map of the guild's roles. Indexed by role ID.
 	 * 
 	 * @see Role
-	 * @see HashMap
 	 * @author Perry Berman
 	 */
-	public HashMap<Long, IRole> roles;
+	public final Map<Long, IRole> roles = roleCache.view();
 	
 	/**
-	 * A HashMap of the presences of the guild's members
+	 * A read-only map of the presences of the guild's members
 	 * 
 	 * @see GuildMember
 	 * @see Presence
-	 * @see HashMap
 	 * @author Perry Berman
 	 */
-	public Map<Long, IPresence> presences;
+	public final Map<Long, IPresence> presences = presenceCache.view();
 	
 	/**
-	 * A HashMap of the guild's custom emojis. Indexed by {@link GuildEmoji#id}
+	 * A read-only map of the guild's custom emojis. Indexed by {@link GuildEmoji#id}
 	 * 
 	 * @author Perry Berman
 	 */
-	public Map<Long, IGuildEmoji> guildEmojis;
+	public final Map<Long, IGuildEmoji> guildEmojis = emojiCache.view();
 	
 	/**
-	 * A Private HashMap of the guild's raw voice states. Indexed by {@link GuildMember#getID}
-	 * 
-	 * @author Perry Berman
+	 * A prefix index over the names of the guild's cached members
 	 */
-	private HashMap<Long, VoiceState> rawStates;
+	private final MemberNameIndex nameIndex;
 	
 	/**
 	 * The guild's current voice region
 	 */
 	private VoiceRegion voiceRegion;
 	
-	private GuildFactory gfac = EntityBuilder.getGuildFactory();
-	
 	/**
 	 * Creates a new guild
 	 * 
@@ -211,21 +217,15 @@ public class Guild implements IGuild {
 	public Guild(DiscLoader loader, GuildJSON data) {
 		this.loader = loader;
 		
-		this.members = new HashMap<>();
-		this.textChannels = new HashMap<>();
-		this.voiceChannels = new HashMap<>();
-		this.roles = new HashMap<>();
-		this.presences = new HashMap<>();
-		this.guildEmojis = new HashMap<>();
-		this.rawStates = new HashMap<>();
+		this.nameIndex = new MemberNameIndex(this);
 		this.voiceRegion = new VoiceRegion("us-central");
 		
 		if (data.unavailable == true) {
 			this.available = false;
-			this.id = data.id;
+			this.id = SnowflakeUtil.parse(data.id);
 		} else {
 			this.available = true;
-			this.id = data.id;
+			this.id = SnowflakeUtil.parse(data.id);
 			this.setup(data);
 		}
 	}
@@ -237,7 +237,11 @@ public class Guild implements IGuild {
 	
 	@Override
 	public IGuildMember addMember(IGuildMember member, boolean emit) {
-		members.put(member.getID(), member);
+		synchronized (this) {
+			memberCache.put(member.getID(), member);
+			bumpVersion();
+		}
+		nameIndex.put(member);
 		if (emit) {
 			memberCount++;
 			loader.emit(new GuildMemberAddEvent(member));
@@ -260,7 +264,11 @@ public class Guild implements IGuild {
 	public GuildMember addMember(IUser user, String[] roles, boolean deaf, boolean mute, String nick, boolean emitEvent) {
 		boolean exists = members.containsKey(user.getID());
 		GuildMember member = new GuildMember(this, user, roles, deaf, mute, nick);
-		members.put(member.getID(), member);
+		synchronized (this) {
+			memberCache.put(member.getID(), member);
+			bumpVersion();
+		}
+		nameIndex.put(member);
 		if (loader.ready == true && emitEvent && !exists) {
 			memberCount++;
 			GuildMemberAddEvent event = new GuildMemberAddEvent(member);
@@ -292,7 +300,11 @@ public class Guild implements IGuild {
 	public IGuildMember addMember(MemberJSON data, boolean shouldEmit) {
 		boolean exists = members.containsKey(SnowflakeUtil.parse(data.user.id));
 		IGuildMember member = new GuildMember(this, data);
-		members.put(member.getID(), member);
+		synchronized (this) {
+			memberCache.put(member.getID(), member);
+			bumpVersion();
+		}
+		nameIndex.put(member);
 		
 		if (!exists && shouldEmit) {
 			memberCount++;
@@ -304,8 +316,34 @@ public class Guild implements IGuild {
 	}
 	
 	@Override
-	public IRole addRole(IRole role) {
-		roles.put(role.getID(), role);
+	public void addMembers(Collection<IGuildMember> members) {
+		Map<Long, IGuildMember> added = new HashMap<>();
+		for (IGuildMember member : members) {
+			added.put(member.getID(), member);
+		}
+		synchronized (this) {
+			memberCache.putAll(added);
+			bumpVersion();
+		}
+		for (IGuildMember member : members) {
+			nameIndex.put(member);
+		}
+	}
+	
+	@Override
+	public void addChannel(IGuildChannel channel) {
+		synchronized (this) {
+			if (channel instanceof IGuildTextChannel) textChannels.put(channel.getID(), (IGuildTextChannel) channel);
+			else if (channel instanceof IGuildVoiceChannel) voiceChannels.put(channel.getID(), (IGuildVoiceChannel) channel);
+			else return;
+			bumpVersion();
+		}
+	}
+	
+	@Override
+	public synchronized IRole addRole(IRole role) {
+		roleCache.put(role.getID(), role);
+		bumpVersion();
 		return role;
 	}
 	
@@ -313,7 +351,7 @@ public class Guild implements IGuild {
 	public Role addRole(RoleJSON guildRole) {
 		boolean exists = this.roles.containsKey(guildRole.id);
 		Role role = new Role(this, guildRole);
-		this.roles.put(role.getID(), role);
+		addRole(role);
 		if (!exists && this.loader.ready) {
 			this.loader.emit(DLUtil.Events.GUILD_ROLE_CREATE, role);
 		}
@@ -458,19 +496,22 @@ public class Guild implements IGuild {
 		return new CompletableFuture<>();
 	}
 	
+	@Override
+	public long bumpVersion() {
+		return version = VersionUtil.next();
+	}
+	
 	/**
-	 * @return {@code true} if all fields are equivalent, {@code false} otherwise.
+	 * Guilds are compared by their Snowflake ID, use {@link #getVersion()} to
+	 * find out if a guild's state has changed.
+	 * 
+	 * @return {@code true} if both guilds have the same ID, {@code false} otherwise.
 	 */
 	@Override
 	public boolean equals(Object object) {
-		if (!(object instanceof Guild)) return false;
-		Guild guild = (Guild) object;
-		if (!guild.id.equals(id)) return false;
-		for (IRole role : roles.values())
-			if (!guild.roles.containsKey(role.getID())) return false;
-		for (IGuildMember member : members.values())
-			if (!guild.members.containsKey(member.getID())) return false;
-		return guild.name.equals(name) && guild.ownerID == ownerID && guild.icon.equals(icon) && (isSyncing() == guild.isSyncing());
+		if (this == object) return true;
+		if (!(object instanceof IGuild)) return false;
+		return id == ((IGuild) object).getID();
 	}
 	
 	public CompletableFuture<IGuildMember> fetchMember(long memberID) {
@@ -521,7 +562,7 @@ public class Guild implements IGuild {
 	 * @return the afk_channel_id
 	 */
 	public IVoiceChannel getAfkChannel() {
-		return voiceChannels.get(afk_channel_id);
+		return afk_channel_id == null ? null : voiceChannels.get(SnowflakeUtil.parse(afk_channel_id));
 	}
 	
 	@Override
@@ -537,7 +578,7 @@ public class Guild implements IGuild {
 	 */
 	public IGuildTextChannel getDefaultChannel() {
 		IGuildTextChannel defaultChannel = null;
-		for (IGuildTextChannel channel : textChannels.values()) {
+		for (IGuildTextChannel channel : textChannels.view().values()) {
 			if ((defaultChannel == null || channel.getPosition() < defaultChannel.getPosition()) && channel.permissionsOf(getCurrentMember()).hasPermission(Permissions.READ_MESSAGES, true)) {
 				defaultChannel = channel;
 			}
@@ -573,7 +614,7 @@ public class Guild implements IGuild {
 	 */
 	@Override
 	public long getID() {
-		return SnowflakeUtil.parse(id);
+		return id;
 	}
 	
 	@Override
@@ -682,14 +723,14 @@ public class Guild implements IGuild {
 	
 	@Override
 	public IGuildTextChannel getTextChannelByName(String channelName) {
-		for (IGuildTextChannel channel : textChannels.values())
+		for (IGuildTextChannel channel : textChannels.view().values())
 			if (channel.getName().equals(channelName)) return channel;
 		return null;
 	}
 	
 	@Override
 	public Map<Long, IGuildTextChannel> getTextChannels() {
-		return textChannels;
+		return textChannels.view();
 	}
 	
 	@Override
@@ -704,14 +745,14 @@ public class Guild implements IGuild {
 	
 	@Override
 	public IGuildVoiceChannel getVoiceChannelByName(String channelName) {
-		for (IGuildVoiceChannel channel : voiceChannels.values())
+		for (IGuildVoiceChannel channel : voiceChannels.view().values())
 			if (channel.getName().equals(channelName)) return channel;
 		return null;
 	}
 	
 	@Override
 	public Map<Long, IGuildVoiceChannel> getVoiceChannels() {
-		return voiceChannels;
+		return voiceChannels.view();
 	}
 	
 	/**
@@ -722,6 +763,11 @@ public class Guild implements IGuild {
 		return voiceRegion;
 	}
 	
+	@Override
+	public long getVersion() {
+		return version;
+	}
+	
 	@Override
 	public CompletableFuture<List<VoiceRegion>> getVoiceRegions() {
 		return new CompletableFuture<>();
@@ -729,12 +775,12 @@ public class Guild implements IGuild {
 	
 	@Override
 	public Map<Long, VoiceState> getVoiceStates() {
-		return rawStates;
+		return rawStates.view();
 	}
 	
 	@Override
 	public int hashCode() {
-		return id.hashCode();
+		return Long.hashCode(id);
 	}
 	
 	@Override
@@ -784,25 +830,44 @@ public class Guild implements IGuild {
 	
 	@Override
 	public IGuildMember removeMember(IGuildMember member) {
-		members.remove(member.getID());
-		memberCount--;
+		removeMember(member.getID());
 		return member;
 	}
 	
 	@Override
 	public void removeMember(IUser user) {
-		members.remove(user.getID());
-		memberCount--;
+		removeMember(user.getID());
+	}
+	
+	private void removeMember(long memberID) {
+		synchronized (this) {
+			memberCache.remove(memberID);
+			memberCount--;
+			bumpVersion();
+		}
+		nameIndex.remove(memberID);
+	}
+	
+	@Override
+	public void removeChannel(IGuildChannel channel) {
+		synchronized (this) {
+			textChannels.remove(channel.getID());
+			voiceChannels.remove(channel.getID());
+			bumpVersion();
+		}
 	}
 	
 	@Override
 	public IRole removeRole(IRole role) {
-		return roles.remove(role.getID());
+		return removeRole(role.getID());
 	}
 	
 	@Override
-	public IRole removeRole(long roleID) {
-		return roles.remove(roleID);
+	public synchronized IRole removeRole(long roleID) {
+		IRole role = roleCache.remove(roleID);
+		if (role == null) return null;
+		bumpVersion();
+		return role;
 	}
 	
 	@Override
@@ -812,7 +877,7 @@ public class Guild implements IGuild {
 	
 	public CompletableFuture<IGuild> setAFKChannel(IGuildVoiceChannel channel) {
 		if (!isOwner() && !getCurrentMember().getPermissions().hasPermission(Permissions.MANAGE_GUILD)) throw new PermissionsException("Insuficient Permissions");
-		if (!id.equals(channel.getGuild().getID())) throw new MissmatchException("Afk Channel cannot be set to a voice channel from another guild");
+		if (id != channel.getGuild().getID()) throw new MissmatchException("Afk Channel cannot be set to a voice channel from another guild");
 		return new ModifyGuild(this, new JSONObject().put("afk_channel_id", channel.getID())).execute();
 	}
 	
@@ -838,16 +903,25 @@ public class Guild implements IGuild {
 	}
 	
 	public void setPresence(PresenceJSON guildPresence, boolean shouldEmit) {
+		IPresence presence = buildPresence(guildPresence);
+		if (presence == null) return;
+		synchronized (this) {
+			presenceCache.put(SnowflakeUtil.parse(guildPresence.user.id), presence);
+			bumpVersion();
+		}
+	}
+	
+	private IPresence buildPresence(PresenceJSON guildPresence) {
 		IPresence presence = new Presence(guildPresence);
 		if (guildPresence.user.id == null) {
 			System.out.println("user is null");
-			return;
+			return null;
 		}
 		if (guildPresence.user.id.equals(this.loader.user.getID())) {
 			System.out.println(DLUtil.gson.toJson(guildPresence));
 			loader.user.getPresence().update(guildPresence);
 		}
-		presences.put(SnowflakeUtil.parse(guildPresence.user.id), presence);
+		return presence;
 	}
 	
 	/**
@@ -856,7 +930,7 @@ public class Guild implements IGuild {
 	 * @param data The guild's data
 	 */
 	@Override
-	public void setup(GuildJSON data) {
+	public synchronized void setup(GuildJSON data) {
 		try {
 			name = data.name;
 			icon = data.icon != null ? data.icon : null;
@@ -865,63 +939,107 @@ public class Guild implements IGuild {
 			memberCount = data.member_count;
 			voiceRegion = new VoiceRegion(data.region);
 			splashHash = data.splash;
+			// each cache is built on the side and replaced in one go, readers never see it empty
 			if (data.roles.length > 0) {
-				roles.clear();
+				Map<Long, IRole> roles = new HashMap<>();
 				for (RoleJSON role : data.roles) {
-					IRole r = gfac.buildRole(this, role);
+					IRole r = EntityBuilder.getGuildFactory().buildRole(this, role);
 					roles.put(r.getID(), r);
 				}
+				roleCache.replace(roles);
 			}
 			if (data.members != null && data.members.length > 0) {
-				members.clear();
+				Map<Long, IGuildMember> members = new HashMap<>();
 				for (MemberJSON member : data.members) {
-					IGuildMember m = gfac.buildMember(this, member);
+					IGuildMember m = EntityBuilder.getGuildFactory().buildMember(this, member);
 					members.put(m.getID(), m);
 				}
+				memberCache.replace(members);
+				nameIndex.clear();
+				for (IGuildMember m : members.values()) {
+					nameIndex.put(m);
+				}
 			}
 			if (data.channels != null && data.channels.length > 0) {
 				for (ChannelJSON channelData : data.channels) {
-					IGuildChannel chan = (IGuildChannel) EntityRegistry.addChannel(channelData, this);
-					if (chan instanceof IGuildTextChannel) textChannels.put(chan.getID(), (IGuildTextChannel) chan);
-					else if (chan instanceof IGuildVoiceChannel) voiceChannels.put(chan.getID(), (IGuildVoiceChannel) chan);
+					addChannel((IGuildChannel) EntityRegistry.addChannel(channelData, this));
 				}
 			}
 			if (data.presences != null && data.presences.length > 0) {
-				presences.clear();
+				Map<Long, IPresence> presences = new HashMap<>();
 				for (PresenceJSON presence : data.presences) {
-					this.setPresence(presence);
+					IPresence p = buildPresence(presence);
+					if (p != null) presences.put(SnowflakeUtil.parse(presence.user.id), p);
 				}
+				presenceCache.replace(presences);
 			}
 			if (data.emojis != null && data.emojis.length > 0) {
-				this.guildEmojis.clear();
+				Map<Long, IGuildEmoji> emojis = new HashMap<>();
 				for (EmojiJSON e : data.emojis) {
-					this.guildEmojis.put(SnowflakeUtil.parse(e.id), new GuildEmoji(e, this));
+					emojis.put(SnowflakeUtil.parse(e.id), new GuildEmoji(e, this));
 				}
+				emojiCache.replace(emojis);
 			}
 			if (data.voice_states != null && data.voice_states.length > 0) {
-				this.rawStates.clear();
+				Map<Long, VoiceState> states = new HashMap<>();
 				for (VoiceStateJSON v : data.voice_states) {
-					this.rawStates.put(SnowflakeUtil.parse(v.user_id), new VoiceState(v, this));
+					states.put(SnowflakeUtil.parse(v.user_id), new VoiceState(v, this));
 				}
+				rawStates.replace(states);
 			}
 			this.available = data.unavailable == true ? false : true;
+			bumpVersion();
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
 	}
 	
+	/**
+	 * Finds cached members whose username or nickname starts with {@code prefix}, ignoring case. Uses the guild's
+	 * {@link MemberNameIndex} instead of iterating {@link #members}.
+	 * 
+	 * @param prefix The prefix to search for
+	 * @param limit The maximum number of members to return
+	 * @return Up to {@code limit} members, ordered by the name that matched
+	 */
+	@Override
+	public List<IGuildMember> searchMembers(String prefix, int limit) {
+		return nameIndex.search(prefix, limit);
+	}
+	
+	@Override
+	public void reindexMember(IGuildMember member) {
+		// a member that has been replaced or removed since is indexed by its replacement, or not at all
+		if (members.get(member.getID()) == member) nameIndex.put(member);
+	}
+	
+	/**
+	 * The caches are only changed while holding the guild's lock, so a snapshot reads their persistent maps under the same lock and
+	 * holds on to them without copying.
+	 */
+	@Override
+	public GuildSnapshot snapshot() {
+		GuildSnapshot current = snapshot;
+		if (current != null && current.getVersion() == version) return current;
+		synchronized (this) {
+			return snapshot = new GuildSnapshot(this, version, memberCache.persistent(), roleCache.persistent(), textChannels.persistent(), voiceChannels.persistent(),
+				presenceCache.persistent(), emojiCache.persistent(), rawStates.persistent());
+		}
+	}
+	
 	public CompletableFuture<IGuild> setVoiceRegion(String region) {
 		if (!isOwner() && !getCurrentMember().getPermissions().hasPermission(Permissions.MANAGE_GUILD)) throw new PermissionsException("Insuficient Permissions");
 		return new ModifyGuild(this, new JSONObject().put("region", region)).execute();
 	}
 	
 	public void sync() throws GuildSyncException, AccountTypeException {
-		loader.syncGuilds(this.id);
+		loader.syncGuilds(id);
 	}
 	
 	@Override
-	public void updateVoiceState(VoiceState state) {
+	public synchronized void updateVoiceState(VoiceState state) {
 		rawStates.put(state.member.getID(), state);
+		bumpVersion();
 	}
 	
 	@Override
@@ -0,0 +1,71 @@
+package io.discloader.discloader.core.entity.guild;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One of a guild's caches.<br>
+ * Single lookups read a {@link ConcurrentHashMap} without locking. Next to it the cache keeps a {@link PersistentMap} with the same
+ * entries, which a change replaces by copying only the path to the changed entry. {@link io.discloader.discloader.entity.guild.GuildSnapshot
+ * Snapshots} hold on to the persistent maps, so neither taking a snapshot nor changing a cache copies a whole map.<br>
+ * Writers must hold the guild's lock, so that the persistent maps of all of a guild's caches are read at the same version.
+ *
+ * @author Perry Berman
+ */
+final class GuildCache<V> {
+
+	private final Map<Long, V> live = new ConcurrentHashMap<>();
+
+	private final Map<Long, V> view = Collections.unmodifiableMap(live);
+
+	private volatile PersistentMap<V> persistent = PersistentMap.empty();
+
+	boolean containsKey(long id) {
+		return live.containsKey(id);
+	}
+
+	V get(long id) {
+		return live.get(id);
+	}
+
+	/**
+	 * @return The cache's current entries. Must be read under the guild's lock to be consistent with its other caches
+	 */
+	Map<Long, V> persistent() {
+		return persistent;
+	}
+
+	void put(long id, V value) {
+		live.put(id, value);
+		persistent = persistent.plus(id, value);
+	}
+
+	void putAll(Map<Long, ? extends V> values) {
+		live.putAll(values);
+		persistent = persistent.plusAll(values);
+	}
+
+	V remove(long id) {
+		V removed = live.remove(id);
+		persistent = persistent.minus(id);
+		return removed;
+	}
+
+	/**
+	 * Replaces every entry. Readers never see the cache empty while it's being replaced.
+	 */
+	void replace(Map<Long, ? extends V> values) {
+		live.keySet().retainAll(values.keySet());
+		live.putAll(values);
+		persistent = PersistentMap.<V>empty().plusAll(values);
+	}
+
+	/**
+	 * @return A read-only view of the cache, which changes with it
+	 */
+	Map<Long, V> view() {
+		return view;
+	}
+
+}
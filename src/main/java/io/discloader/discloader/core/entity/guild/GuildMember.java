@@ -22,7 +22,9 @@ import io.discloader.discloader.entity.guild.IGuildMember;
 import io.discloader.discloader.entity.guild.IRole;
 import io.discloader.discloader.entity.user.IUser;
 import io.discloader.discloader.entity.util.Permissions;
+import io.discloader.discloader.entity.util.IVersioned;
 import io.discloader.discloader.entity.util.SnowflakeUtil;
+import io.discloader.discloader.entity.util.VersionUtil;
 import io.discloader.discloader.entity.voice.VoiceState;
 import io.discloader.discloader.network.json.MemberJSON;
 import io.discloader.discloader.network.rest.actions.guild.ModifyMember;
@@ -69,6 +71,11 @@ public class GuildMember implements IGuildMember {
 	 */
 	public final OffsetDateTime joinedAt;
 
+	/**
+	 * The member's current {@link IVersioned version}
+	 */
+	private volatile long version = VersionUtil.next();
+
 	public GuildMember(IGuild guild, MemberJSON data) {
 		user = EntityRegistry.addUser(data.user);
 		this.guild = guild;
@@ -140,6 +147,11 @@ public class GuildMember implements IGuildMember {
 		return guild.ban(this);
 	}
 
+	@Override
+	public long bumpVersion() {
+		return version = VersionUtil.next();
+	}
+
 	/**
 	 * Server deafens a {@link GuildMember} if they are not already server
 	 * deafened
@@ -148,19 +160,22 @@ public class GuildMember implements IGuildMember {
 	 */
 	@Override
 	public CompletableFuture<IGuildMember> deafen() {
-		return new ModifyMember(this, nick, getRoles(), mute, true, getVoiceChannel()).execute();
+		return getLoader().rest.getMemberEditBatcher().setDeaf(this, true);
 	}
 
+	/**
+	 * Members are compared by their user's and their guild's Snowflake IDs,
+	 * use {@link #getVersion()} to find out if a member's state has changed.
+	 * 
+	 * @return {@code true} if both objects represent the same user in the same
+	 *         guild, {@code false} otherwise.
+	 */
 	@Override
 	public boolean equals(Object obj) {
-		if (!(obj instanceof GuildMember)) return false;
-		GuildMember member = (GuildMember) obj;
-		if (guild.getID() != member.guild.getID()) return false;
-		for (IRole role : member.getRoles()) {
-			if (!getRoles().contains(role)) return false;
-		}
-
-		return getID() == member.getID() && nick.equals(member.nick);
+		if (this == obj) return true;
+		if (!(obj instanceof IGuildMember)) return false;
+		IGuildMember member = (IGuildMember) obj;
+		return getID() == member.getID() && guild.getID() == member.getGuild().getID();
 	}
 
 	@Override
@@ -242,6 +257,11 @@ public class GuildMember implements IGuildMember {
 		return user;
 	}
 
+	@Override
+	public long getVersion() {
+		return version;
+	}
+
 	/**
 	 * Gets the {@link VoiceChannel} that the member is connected to, if they're
 	 * in a voice channel.
@@ -284,20 +304,12 @@ public class GuildMember implements IGuildMember {
 			}
 		}
 
-		ArrayList<CompletableFuture<GuildMember>> futures = new ArrayList<>();
-		CompletableFuture<IGuildMember> future = new CompletableFuture<>();
-		for (IRole role : roles) {
-			futures.add(getLoader().rest.giveRole(this, role));
-		}
-		CompletableFuture.allOf((CompletableFuture<?>[]) futures.toArray()).thenAcceptAsync(action -> {
-			future.complete(this);
-		});
-		return future;
+		return getLoader().rest.getMemberEditBatcher().addRoles(this, roles);
 	}
 
 	@Override
 	public int hashCode() {
-		return (getName() + getID()).hashCode();
+		return 31 * Long.hashCode(guild.getID()) + Long.hashCode(getID());
 	}
 
 	/**
@@ -370,7 +382,7 @@ public class GuildMember implements IGuildMember {
 			throw new PermissionsException("Insufficient Permissions");
 		}
 
-		return new ModifyMember(this, nick, getRoles(), true, deaf, getVoiceChannel()).execute();
+		return getLoader().rest.getMemberEditBatcher().setMute(this, true);
 	}
 
 	/**
@@ -391,11 +403,26 @@ public class GuildMember implements IGuildMember {
 			throw new PermissionsException("Insuccficient Permissions");
 		}
 
-		CompletableFuture<IGuildMember> future = getLoader().rest.setNick(this, nick);
-		future.thenAcceptAsync(action -> this.nick = nick);
+		CompletableFuture<IGuildMember> future = getLoader().rest.getMemberEditBatcher().setNick(this, nick);
+		future.thenAcceptAsync(action -> {
+			this.nick = nick;
+			bumpVersion();
+			guild.reindexMember(this);
+		});
 		return future;
 	}
 
+	/**
+	 * Replaces the member's cached role list once a request that set it has succeeded, so edits made before the gateway confirms the
+	 * change start from the roles that were set.
+	 * 
+	 * @param roleIDs The IDs of the member's roles
+	 */
+	public void setRoles(String[] roleIDs) {
+		this.roleIDs = roleIDs;
+		bumpVersion();
+	}
+
 	/**
 	 * Takes a role away from a member
 	 * 
@@ -414,7 +441,7 @@ public class GuildMember implements IGuildMember {
 
 		if (!guild.isOwner() && role.getPosition() >= guild.getCurrentMember().getHighestRole().getPosition()) throw new PermissionsException("Cannot take away roles higher than your's");
 
-		return getLoader().rest.takeRole(this, role);
+		return getLoader().rest.getMemberEditBatcher().removeRoles(this, role);
 	}
 
 	@Override
@@ -424,12 +451,12 @@ public class GuildMember implements IGuildMember {
 
 	@Override
 	public CompletableFuture<IGuildMember> unDeafen() {
-		return new ModifyMember(this, nick, getRoles(), mute, false, getVoiceChannel()).execute();
+		return getLoader().rest.getMemberEditBatcher().setDeaf(this, false);
 	}
 
 	@Override
 	public CompletableFuture<IGuildMember> unMute() {
-		return new ModifyMember(this, nick, getRoles(), false, deaf, getVoiceChannel()).execute();
+		return getLoader().rest.getMemberEditBatcher().setMute(this, false);
 	}
 
 	/*
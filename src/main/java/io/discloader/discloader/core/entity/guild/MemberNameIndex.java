@@ -0,0 +1,132 @@
+package io.discloader.discloader.core.entity.guild;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import io.discloader.discloader.entity.guild.IGuild;
+import io.discloader.discloader.entity.guild.IGuildMember;
+
+/**
+ * A case-insensitive prefix index over the usernames and nicknames of a guild's members.<br>
+ * Every name is stored in a sorted map under the key {@code lowercase name + '\0' + member ID}, so a prefix query is a range scan
+ * that starts at the prefix and stops after {@code limit} members. Shorter names sort before longer ones that share the same
+ * prefix. Reads never lock, writes are serialized and are expected to come from the gateway thread through the guild's
+ * {@code addMember} and {@code removeMember} methods.
+ *
+ * @author Perry Berman
+ * @see Guild#searchMembers(String, int)
+ */
+public class MemberNameIndex {
+
+	private static final char SEPARATOR = '\u0000';
+
+	private final IGuild guild;
+
+	/**
+	 * The indexed names, mapped to the ID of the member they belong to
+	 */
+	private final ConcurrentSkipListMap<String, Long> names = new ConcurrentSkipListMap<>();
+
+	/**
+	 * The keys each member is currently indexed under, so they can be removed when the member changes
+	 */
+	private final Map<Long, String[]> keys = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a new index.
+	 *
+	 * @param guild The guild that search results are resolved against
+	 */
+	public MemberNameIndex(IGuild guild) {
+		this.guild = guild;
+	}
+
+	/**
+	 * Removes every member from the index.
+	 */
+	public synchronized void clear() {
+		names.clear();
+		keys.clear();
+	}
+
+	/**
+	 * Adds a member to the index, or re-indexes the member if their username or nickname changed.
+	 *
+	 * @param member The member to index
+	 */
+	public synchronized void put(IGuildMember member) {
+		String[] newKeys = keysOf(member);
+		String[] oldKeys = keys.put(member.getID(), newKeys);
+		if (oldKeys != null) {
+			for (String key : oldKeys) {
+				names.remove(key);
+			}
+		}
+		for (String key : newKeys) {
+			names.put(key, member.getID());
+		}
+	}
+
+	/**
+	 * Removes a member from the index.
+	 *
+	 * @param memberID The ID of the member to remove
+	 */
+	public synchronized void remove(long memberID) {
+		String[] oldKeys = keys.remove(memberID);
+		if (oldKeys == null) return;
+		for (String key : oldKeys) {
+			names.remove(key);
+		}
+	}
+
+	/**
+	 * Finds members whose username or nickname starts with a prefix, ignoring case.
+	 *
+	 * @param prefix The prefix to search for
+	 * @param limit The maximum number of members to return
+	 * @return Up to {@code limit} members, ordered by the name that matched
+	 */
+	public List<IGuildMember> search(String prefix, int limit) {
+		if (limit <= 0) return new ArrayList<>();
+		List<IGuildMember> results = new ArrayList<>(Math.min(limit, 16));
+		String from = normalize(prefix);
+		Set<Long> seen = new HashSet<>();
+		for (Long memberID : names.subMap(from, true, from + Character.MAX_VALUE, false).values()) {
+			if (!seen.add(memberID)) continue;
+			IGuildMember member = guild.getMember(memberID);
+			if (member == null) continue;
+			results.add(member);
+			if (results.size() >= limit) break;
+		}
+		return results;
+	}
+
+	/**
+	 * @return The number of indexed members
+	 */
+	public int size() {
+		return keys.size();
+	}
+
+	private static String[] keysOf(IGuildMember member) {
+		String username = member.getUser() == null ? null : member.getUser().getUsername();
+		String nickname = member.getNickname();
+		String suffix = SEPARATOR + Long.toString(member.getID());
+		if (username == null && nickname == null) return new String[0];
+		if (username == null) return new String[] { normalize(nickname) + suffix };
+		if (nickname == null || normalize(nickname).equals(normalize(username))) return new String[] { normalize(username) + suffix };
+		return new String[] { normalize(username) + suffix, normalize(nickname) + suffix };
+	}
+
+	private static String normalize(String name) {
+		return name == null ? "" : name.toLowerCase(Locale.ROOT);
+	}
+
+}
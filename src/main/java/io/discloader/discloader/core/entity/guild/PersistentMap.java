@@ -0,0 +1,309 @@
+package io.discloader.discloader.core.entity.guild;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An immutable map from IDs to values whose versions share their structure.<br>
+ * The map is a hash array mapped trie. {@link #plus(long, Object)} and {@link #minus(long)} return a new map that copies only the
+ * nodes on the path to the changed entry, at most 13 arrays of up to 32 slots, and reuse everything else. The original map is never
+ * changed, so it can be read from any thread without locking.
+ *
+ * @author Perry Berman
+ */
+final class PersistentMap<V> extends AbstractMap<Long, V> {
+
+	private static final int BITS = 5;
+
+	private static final int MASK = (1 << BITS) - 1;
+
+	/**
+	 * The deepest a trie can get: every level uses {@link #BITS} bits of a 64 bit hash
+	 */
+	private static final int MAX_DEPTH = (64 + BITS - 1) / BITS;
+
+	private static final Node EMPTY_NODE = new Node(0, new Object[0]);
+
+	private static final PersistentMap<?> EMPTY = new PersistentMap<>(EMPTY_NODE, 0);
+
+	private final Node root;
+
+	private final int size;
+
+	private PersistentMap(Node root, int size) {
+		this.root = root;
+		this.size = size;
+	}
+
+	/**
+	 * @return The empty map
+	 */
+	@SuppressWarnings("unchecked")
+	static <V> PersistentMap<V> empty() {
+		return (PersistentMap<V>) EMPTY;
+	}
+
+	/**
+	 * @return A map with the entries of {@code this} and {@code value} stored under {@code key}
+	 */
+	PersistentMap<V> plus(long key, V value) {
+		Leaf<V> existing = find(key);
+		if (existing != null && existing.value == value) return this;
+		return new PersistentMap<>(put(root, new Leaf<>(key, value), hash(key), 0), existing == null ? size + 1 : size);
+	}
+
+	/**
+	 * @return A map with the entries of {@code this} and every entry of {@code values}
+	 */
+	PersistentMap<V> plusAll(Map<Long, ? extends V> values) {
+		PersistentMap<V> map = this;
+		for (Map.Entry<Long, ? extends V> entry : values.entrySet()) {
+			map = map.plus(entry.getKey(), entry.getValue());
+		}
+		return map;
+	}
+
+	/**
+	 * @return A map with the entries of {@code this} except {@code key}, or {@code this} if it doesn't contain {@code key}
+	 */
+	PersistentMap<V> minus(long key) {
+		if (find(key) == null) return this;
+		Object root = remove(this.root, hash(key), 0);
+		if (root == null) return empty();
+		if (root instanceof Leaf) {
+			Leaf<?> leaf = (Leaf<?>) root;
+			return new PersistentMap<>(put(EMPTY_NODE, leaf, hash(leaf.key), 0), size - 1);
+		}
+		return new PersistentMap<>((Node) root, size - 1);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return key instanceof Long && find((Long) key) != null;
+	}
+
+	@Override
+	public Set<Map.Entry<Long, V>> entrySet() {
+		return new AbstractSet<Map.Entry<Long, V>>() {
+
+			@Override
+			public Iterator<Map.Entry<Long, V>> iterator() {
+				return new EntryIterator<>(root);
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	@Override
+	public V get(Object key) {
+		Leaf<V> leaf = key instanceof Long ? find((Long) key) : null;
+		return leaf == null ? null : leaf.value;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Leaf<V> find(long key) {
+		long hash = hash(key);
+		Object slot = root;
+		for (int shift = 0; slot instanceof Node; shift += BITS) {
+			slot = ((Node) slot).child(hash, shift);
+		}
+		return slot != null && ((Leaf<V>) slot).key == key ? (Leaf<V>) slot : null;
+	}
+
+	/**
+	 * Spreads an ID over all 64 bits. Multiplying by an odd constant is a bijection, so two IDs never share a hash and the trie needs
+	 * no collision nodes.
+	 */
+	private static long hash(long key) {
+		return key * 0x9E3779B97F4A7C15l;
+	}
+
+	private static int bit(long hash, int shift) {
+		return 1 << (int) ((hash >>> shift) & MASK);
+	}
+
+	private static Node put(Node node, Leaf<?> leaf, long hash, int shift) {
+		int bit = bit(hash, shift);
+		int index = node.index(bit);
+		if ((node.bitmap & bit) == 0) {
+			Object[] slots = new Object[node.slots.length + 1];
+			System.arraycopy(node.slots, 0, slots, 0, index);
+			slots[index] = leaf;
+			System.arraycopy(node.slots, index, slots, index + 1, node.slots.length - index);
+			return new Node(node.bitmap | bit, slots);
+		}
+		Object slot = node.slots[index];
+		Object replacement;
+		if (slot instanceof Node) {
+			replacement = put((Node) slot, leaf, hash, shift + BITS);
+		} else if (((Leaf<?>) slot).key == leaf.key) {
+			replacement = leaf;
+		} else {
+			// two IDs share the slot, push both a level down
+			Leaf<?> existing = (Leaf<?>) slot;
+			replacement = put(put(EMPTY_NODE, existing, hash(existing.key), shift + BITS), leaf, hash, shift + BITS);
+		}
+		Object[] slots = node.slots.clone();
+		slots[index] = replacement;
+		return new Node(node.bitmap, slots);
+	}
+
+	/**
+	 * Removes the entry with {@code hash}, which must exist, from {@code node}.
+	 *
+	 * @return The changed node, the only leaf left if the node would hold nothing else, or {@code null} if the node is now empty
+	 */
+	private static Object remove(Node node, long hash, int shift) {
+		int bit = bit(hash, shift);
+		int index = node.index(bit);
+		Object slot = node.slots[index];
+		Object replacement = slot instanceof Node ? remove((Node) slot, hash, shift + BITS) : null;
+		if (replacement == null) {
+			if (node.slots.length == 1) return null;
+			if (node.slots.length == 2 && node.slots[index ^ 1] instanceof Leaf) return node.slots[index ^ 1];
+			Object[] slots = new Object[node.slots.length - 1];
+			System.arraycopy(node.slots, 0, slots, 0, index);
+			System.arraycopy(node.slots, index + 1, slots, index, slots.length - index);
+			return new Node(node.bitmap & ~bit, slots);
+		}
+		// a leaf can move up as long as it's alone on its path
+		if (replacement instanceof Leaf && node.slots.length == 1) return replacement;
+		Object[] slots = node.slots.clone();
+		slots[index] = replacement;
+		return new Node(node.bitmap, slots);
+	}
+
+	private static final class Node {
+
+		final int bitmap;
+
+		/**
+		 * A {@link Leaf} or a {@link Node} for each bit set in {@link #bitmap}
+		 */
+		final Object[] slots;
+
+		Node(int bitmap, Object[] slots) {
+			this.bitmap = bitmap;
+			this.slots = slots;
+		}
+
+		Object child(long hash, int shift) {
+			int bit = bit(hash, shift);
+			return (bitmap & bit) == 0 ? null : slots[index(bit)];
+		}
+
+		int index(int bit) {
+			return Integer.bitCount(bitmap & (bit - 1));
+		}
+
+	}
+
+	private static final class Leaf<V> implements Map.Entry<Long, V> {
+
+		final long key;
+
+		final V value;
+
+		Leaf(long key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (!(object instanceof Map.Entry)) return false;
+			Map.Entry<?, ?> entry = (Map.Entry<?, ?>) object;
+			return Objects.equals(getKey(), entry.getKey()) && Objects.equals(value, entry.getValue());
+		}
+
+		@Override
+		public Long getKey() {
+			return key;
+		}
+
+		@Override
+		public V getValue() {
+			return value;
+		}
+
+		@Override
+		public int hashCode() {
+			return Long.hashCode(key) ^ Objects.hashCode(value);
+		}
+
+		@Override
+		public V setValue(V value) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public String toString() {
+			return key + "=" + value;
+		}
+
+	}
+
+	private static final class EntryIterator<V> implements Iterator<Map.Entry<Long, V>> {
+
+		private final Object[][] stack = new Object[MAX_DEPTH][];
+
+		private final int[] positions = new int[MAX_DEPTH];
+
+		private int depth;
+
+		private Leaf<V> next;
+
+		EntryIterator(Node root) {
+			stack[0] = root.slots;
+			advance();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public Map.Entry<Long, V> next() {
+			if (next == null) throw new NoSuchElementException();
+			Leaf<V> current = next;
+			advance();
+			return current;
+		}
+
+		@SuppressWarnings("unchecked")
+		private void advance() {
+			next = null;
+			while (depth >= 0) {
+				Object[] slots = stack[depth];
+				if (positions[depth] == slots.length) {
+					depth--;
+					continue;
+				}
+				Object slot = slots[positions[depth]++];
+				if (slot instanceof Leaf) {
+					next = (Leaf<V>) slot;
+					return;
+				}
+				stack[++depth] = ((Node) slot).slots;
+				positions[depth] = 0;
+			}
+		}
+
+	}
+
+}
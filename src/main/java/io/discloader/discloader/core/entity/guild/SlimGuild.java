@@ -0,0 +1,663 @@
+package io.discloader.discloader.core.entity.guild;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.commons.codec.binary.Base64;
+import org.json.JSONObject;
+
+import io.discloader.discloader.common.DiscLoader;
+import io.discloader.discloader.common.exceptions.AccountTypeException;
+import io.discloader.discloader.common.exceptions.GuildSyncException;
+import io.discloader.discloader.common.exceptions.MissmatchException;
+import io.discloader.discloader.common.exceptions.UnauthorizedException;
+import io.discloader.discloader.common.registry.EntityBuilder;
+import io.discloader.discloader.common.registry.EntityRegistry;
+import io.discloader.discloader.entity.IIcon;
+import io.discloader.discloader.entity.IOverwrite;
+import io.discloader.discloader.entity.IPresence;
+import io.discloader.discloader.entity.channel.IGuildChannel;
+import io.discloader.discloader.entity.channel.IGuildTextChannel;
+import io.discloader.discloader.entity.channel.IGuildVoiceChannel;
+import io.discloader.discloader.entity.guild.GuildSnapshot;
+import io.discloader.discloader.entity.guild.IGuild;
+import io.discloader.discloader.entity.guild.IGuildEmoji;
+import io.discloader.discloader.entity.guild.IGuildMember;
+import io.discloader.discloader.entity.guild.IIntegration;
+import io.discloader.discloader.entity.guild.IRole;
+import io.discloader.discloader.entity.guild.VoiceRegion;
+import io.discloader.discloader.entity.invite.IInvite;
+import io.discloader.discloader.entity.sendable.SendableRole;
+import io.discloader.discloader.entity.user.IUser;
+import io.discloader.discloader.entity.util.Permissions;
+import io.discloader.discloader.entity.util.SnowflakeUtil;
+import io.discloader.discloader.entity.util.VersionUtil;
+import io.discloader.discloader.entity.voice.VoiceConnection;
+import io.discloader.discloader.entity.voice.VoiceState;
+import io.discloader.discloader.network.json.ChannelJSON;
+import io.discloader.discloader.network.json.GuildJSON;
+import io.discloader.discloader.network.json.InviteJSON;
+import io.discloader.discloader.network.json.MemberJSON;
+import io.discloader.discloader.network.json.PresenceJSON;
+import io.discloader.discloader.network.json.RoleJSON;
+import io.discloader.discloader.network.rest.actions.guild.CreateRole;
+import io.discloader.discloader.network.rest.actions.guild.ModifyGuild;
+import io.discloader.discloader.util.DLUtil.Endpoints;
+import io.discloader.discloader.util.DLUtil.Methods;
+
+/**
+ * A minimal {@link IGuild} implementation that only keeps the guild's ID, owner, member count, members and channels.<br>
+ * Roles, presences, emojis and voice states are dropped as soon as they are received. REST operations that only need the guild's ID
+ * work as they do on {@link Guild}, but don't check the current user's permissions first, as that needs the dropped roles; Discord
+ * still rejects requests the user isn't allowed to make. Used by the {@link EntityBuilder#useSlimEntities() slim entity profile}.
+ *
+ * @author Perry Berman
+ * @see Guild
+ */
+public class SlimGuild implements IGuild {
+
+	private final long id;
+
+	private long ownerID;
+
+	private int memberCount;
+
+	private boolean available;
+
+	private volatile long version = VersionUtil.next();
+
+	private volatile GuildSnapshot snapshot;
+
+	/**
+	 * Caches that are changed under the guild's lock, like {@link Guild}'s
+	 */
+	private final GuildCache<IGuildMember> members = new GuildCache<>();
+
+	private final GuildCache<IGuildTextChannel> textChannels = new GuildCache<>();
+
+	private final GuildCache<IGuildVoiceChannel> voiceChannels = new GuildCache<>();
+
+	public SlimGuild(GuildJSON data) {
+		id = SnowflakeUtil.parse(data.id);
+		available = !data.unavailable;
+		if (available) setup(data);
+	}
+
+	@Override
+	public IGuildMember addMember(IGuildMember member) {
+		return addMember(member, false);
+	}
+
+	@Override
+	public synchronized IGuildMember addMember(IGuildMember member, boolean emit) {
+		if (!members.containsKey(member.getID()) && emit) memberCount++;
+		members.put(member.getID(), member);
+		bumpVersion();
+		return member;
+	}
+
+	@Override
+	public IGuildMember addMember(IUser user, String[] roles, boolean deaf, boolean mute, String nick, boolean emit) {
+		return addMember(EntityBuilder.getGuildFactory().buildMember(this, user, roles, deaf, mute, nick), emit);
+	}
+
+	@Override
+	public IGuildMember addMember(MemberJSON data) {
+		return addMember(data, false);
+	}
+
+	@Override
+	public IGuildMember addMember(MemberJSON data, boolean emit) {
+		return addMember(EntityBuilder.getGuildFactory().buildMember(this, data), emit);
+	}
+
+	@Override
+	public void addMembers(Collection<IGuildMember> members) {
+		Map<Long, IGuildMember> added = new HashMap<>();
+		for (IGuildMember member : members) {
+			added.put(member.getID(), member);
+		}
+		synchronized (this) {
+			this.members.putAll(added);
+			bumpVersion();
+		}
+	}
+
+	@Override
+	public synchronized void addChannel(IGuildChannel channel) {
+		if (channel instanceof IGuildTextChannel) textChannels.put(channel.getID(), (IGuildTextChannel) channel);
+		else if (channel instanceof IGuildVoiceChannel) voiceChannels.put(channel.getID(), (IGuildVoiceChannel) channel);
+		else return;
+		bumpVersion();
+	}
+
+	/**
+	 * Roles are not cached by slim guilds.
+	 *
+	 * @return {@code role}
+	 */
+	@Override
+	public IRole addRole(IRole role) {
+		return role;
+	}
+
+	/**
+	 * Roles are not cached by slim guilds.
+	 *
+	 * @return A role object that is not cached
+	 */
+	@Override
+	public IRole addRole(RoleJSON role) {
+		return EntityBuilder.getGuildFactory().buildRole(this, role);
+	}
+
+	@Override
+	public CompletableFuture<IGuildMember> ban(IGuildMember member) {
+		return getLoader().rest.banMember(this, member);
+	}
+
+	@Override
+	public CompletableFuture<Integer> beginPrune() {
+		return beginPrune(1);
+	}
+
+	@Override
+	public CompletableFuture<Integer> beginPrune(int days) {
+		return getLoader().rest.beginPrune(this, days);
+	}
+
+	@Override
+	public long bumpVersion() {
+		return version = VersionUtil.next();
+	}
+
+	@Override
+	public CompletableFuture<IGuildEmoji> createEmoji(String name, File image) {
+		try {
+			return createEmoji(name, "data:image/jpg;base64," + Base64.encodeBase64String(Files.readAllBytes(image.toPath())));
+		} catch (IOException e) {
+			CompletableFuture<IGuildEmoji> future = new CompletableFuture<>();
+			future.completeExceptionally(e);
+			return future;
+		}
+	}
+
+	/**
+	 * Emojis aren't cached by slim guilds, the created emoji is only returned.
+	 */
+	@Override
+	public CompletableFuture<IGuildEmoji> createEmoji(String name, String image) {
+		return getLoader().rest.createEmoji(this, name, image);
+	}
+
+	@Override
+	public OffsetDateTime createdAt() {
+		return SnowflakeUtil.creationTime(this);
+	}
+
+	@Override
+	public CompletableFuture<IRole> createRole(String name) {
+		return createRole(name, 0, 0, false, false);
+	}
+
+	/**
+	 * Roles aren't cached by slim guilds, the created role is only returned.
+	 */
+	@Override
+	public CompletableFuture<IRole> createRole(String name, long permissions, int color, boolean hoist, boolean mentionable) {
+		return new CreateRole(this, new SendableRole(name, permissions, color, hoist, mentionable)).execute();
+	}
+
+	@Override
+	public CompletableFuture<IGuildTextChannel> createTextChannel(String name) {
+		return getLoader().rest.createTextChannel(this, new JSONObject().put("name", name)).thenApply(channel -> channel);
+	}
+
+	@Override
+	public CompletableFuture<IGuildTextChannel> createTextChannel(String name, IOverwrite... overwrites) {
+		throw unsupported();
+	}
+
+	@Override
+	public CompletableFuture<IGuildVoiceChannel> createVoiceChannel(String name) {
+		return getLoader().rest.createVoiceChannel(this, new JSONObject().put("name", name)).thenApply(channel -> channel);
+	}
+
+	@Override
+	public CompletableFuture<IGuildTextChannel> createVoiceChannel(String name, int bitRate, IOverwrite... overwrites) {
+		throw unsupported();
+	}
+
+	@Override
+	public CompletableFuture<IGuildTextChannel> createVoiceChannel(String name, IOverwrite... overwrites) {
+		throw unsupported();
+	}
+
+	@Override
+	public CompletableFuture<IGuild> delete() {
+		if (!isOwner()) throw new UnauthorizedException("Only the guild's owner can delete a guild");
+		return getLoader().rest.makeRequest(Endpoints.guild(id), Methods.DELETE, true).thenApply(data -> this);
+	}
+
+	@Override
+	public CompletableFuture<IGuild> edit(String name, String icon, IGuildVoiceChannel afkChannel) {
+		throw unsupported();
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		if (this == object) return true;
+		if (!(object instanceof IGuild)) return false;
+		return id == ((IGuild) object).getID();
+	}
+
+	@Override
+	public CompletableFuture<IGuildMember> fetchMember(long memberID) {
+		return getLoader().rest.loadGuildMember(this, memberID);
+	}
+
+	@Override
+	public CompletableFuture<Map<Long, IGuildMember>> fetchMembers() {
+		return getLoader().memberSync.sync(this).thenApply(IGuild::getMembers);
+	}
+
+	/**
+	 * @param limit The most members to fetch over REST, or {@code 0} to {@link #fetchMembers() sync} every member over the gateway
+	 */
+	@Override
+	public CompletableFuture<Map<Long, IGuildMember>> fetchMembers(int limit) {
+		if (limit <= 0) return fetchMembers();
+		return getLoader().rest.loadGuildMembers(this, limit, 0l);
+	}
+
+	@Override
+	public IGuildMember getCurrentMember() {
+		return getMember(getLoader().user.getID());
+	}
+
+	@Override
+	public IGuildTextChannel getDefaultChannel() {
+		return null;
+	}
+
+	@Override
+	public IRole getDefaultRole() {
+		return null;
+	}
+
+	@Override
+	public Map<Long, IGuildEmoji> getEmojis() {
+		return Collections.emptyMap();
+	}
+
+	@Override
+	public IIcon getIcon() {
+		return null;
+	}
+
+	@Override
+	public long getID() {
+		return id;
+	}
+
+	@Override
+	public CompletableFuture<List<IIntegration>> getIntegrations() {
+		throw unsupported();
+	}
+
+	@Override
+	public CompletableFuture<List<IInvite>> getInvites() {
+		return getLoader().rest.getInvites(this).thenApply(data -> {
+			List<IInvite> invites = new ArrayList<>(data.length);
+			for (InviteJSON invite : data) {
+				invites.add(EntityBuilder.getInviteFactory().buildInvite(invite));
+			}
+			return invites;
+		});
+	}
+
+	@Override
+	public DiscLoader getLoader() {
+		return DiscLoader.getDiscLoader();
+	}
+
+	@Override
+	public IGuildMember getMember(long memberID) {
+		return members.get(memberID);
+	}
+
+	@Override
+	public IGuildMember getMember(String memberID) {
+		return getMember(SnowflakeUtil.parse(memberID));
+	}
+
+	@Override
+	public int getMemberCount() {
+		return memberCount;
+	}
+
+	@Override
+	public Map<Long, IGuildMember> getMembers() {
+		return members.view();
+	}
+
+	/**
+	 * Slim guilds don't keep their name.
+	 *
+	 * @return The guild's ID as a string
+	 */
+	@Override
+	public String getName() {
+		return SnowflakeUtil.asString(this);
+	}
+
+	@Override
+	public IGuildMember getOwner() {
+		return getMember(ownerID);
+	}
+
+	@Override
+	public long getOwnerID() {
+		return ownerID;
+	}
+
+	@Override
+	public IPresence getPresence(long memberID) {
+		return null;
+	}
+
+	@Override
+	public Map<Long, IPresence> getPresences() {
+		return Collections.emptyMap();
+	}
+
+	@Override
+	public CompletableFuture<Integer> getPruneCount() {
+		return getPruneCount(1);
+	}
+
+	@Override
+	public CompletableFuture<Integer> getPruneCount(int days) {
+		return getLoader().rest.pruneCount(this, days);
+	}
+
+	@Override
+	public IRole getRoleByID(long roleID) {
+		return null;
+	}
+
+	@Override
+	public IRole getRoleByID(String roleID) {
+		return null;
+	}
+
+	@Override
+	public Map<Long, IRole> getRoles() {
+		return Collections.emptyMap();
+	}
+
+	@Override
+	public IGuildTextChannel getTextChannelByID(long channelID) {
+		return textChannels.get(channelID);
+	}
+
+	@Override
+	public IGuildTextChannel getTextChannelByID(String channelID) {
+		return getTextChannelByID(SnowflakeUtil.parse(channelID));
+	}
+
+	@Override
+	public IGuildTextChannel getTextChannelByName(String channelName) {
+		for (IGuildTextChannel channel : textChannels.view().values())
+			if (channel.getName().equals(channelName)) return channel;
+		return null;
+	}
+
+	@Override
+	public Map<Long, IGuildTextChannel> getTextChannels() {
+		return textChannels.view();
+	}
+
+	@Override
+	public long getVersion() {
+		return version;
+	}
+
+	@Override
+	public IGuildVoiceChannel getVoiceChannelByID(long channelID) {
+		return voiceChannels.get(channelID);
+	}
+
+	@Override
+	public IGuildVoiceChannel getVoiceChannelByID(String channelID) {
+		return getVoiceChannelByID(SnowflakeUtil.parse(channelID));
+	}
+
+	@Override
+	public IGuildVoiceChannel getVoiceChannelByName(String channelName) {
+		for (IGuildVoiceChannel channel : voiceChannels.view().values())
+			if (channel.getName().equals(channelName)) return channel;
+		return null;
+	}
+
+	@Override
+	public Map<Long, IGuildVoiceChannel> getVoiceChannels() {
+		return voiceChannels.view();
+	}
+
+	@Override
+	public VoiceConnection getVoiceConnection() {
+		return EntityRegistry.getVoiceConnectionByGuild(this);
+	}
+
+	@Override
+	public VoiceRegion getVoiceRegion() {
+		return null;
+	}
+
+	@Override
+	public CompletableFuture<List<VoiceRegion>> getVoiceRegions() {
+		throw unsupported();
+	}
+
+	@Override
+	public Map<Long, VoiceState> getVoiceStates() {
+		return Collections.emptyMap();
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(id);
+	}
+
+	/**
+	 * Slim guilds don't keep roles, so only the guild's owner is known to have permissions.
+	 *
+	 * @return {@code true} if the current user owns the guild
+	 */
+	@Override
+	public boolean hasPermission(Permissions permissions) {
+		return isOwner();
+	}
+
+	@Override
+	public boolean isAvailable() {
+		return available;
+	}
+
+	@Override
+	public boolean isLarge() {
+		return memberCount >= 250;
+	}
+
+	@Override
+	public boolean isOwner() {
+		return getLoader().user.getID() == ownerID;
+	}
+
+	@Override
+	public boolean isOwner(IGuildMember member) {
+		return member.getID() == ownerID;
+	}
+
+	@Override
+	public boolean isSyncing() {
+		return false;
+	}
+
+	@Override
+	public CompletableFuture<IGuildMember> kickMember(IGuildMember member) {
+		return getLoader().rest.removeMember(this, member);
+	}
+
+	@Override
+	public CompletableFuture<IGuild> leave() {
+		return getLoader().rest.removeMember(this, getCurrentMember()).thenApply(member -> this);
+	}
+
+	@Override
+	public IGuildMember removeMember(IGuildMember member) {
+		removeMember(member.getUser());
+		return member;
+	}
+
+	@Override
+	public synchronized void removeMember(IUser user) {
+		members.remove(user.getID());
+		memberCount--;
+		bumpVersion();
+	}
+
+	@Override
+	public synchronized void removeChannel(IGuildChannel channel) {
+		textChannels.remove(channel.getID());
+		voiceChannels.remove(channel.getID());
+		bumpVersion();
+	}
+
+	@Override
+	public IRole removeRole(IRole role) {
+		return null;
+	}
+
+	@Override
+	public IRole removeRole(long roleID) {
+		return null;
+	}
+
+	@Override
+	public IRole removeRole(String roleID) {
+		return null;
+	}
+
+	@Override
+	public CompletableFuture<IGuild> setAFKChannel(IGuildVoiceChannel afkChannel) {
+		if (id != afkChannel.getGuild().getID()) throw new MissmatchException("Afk Channel cannot be set to a voice channel from another guild");
+		return new ModifyGuild(this, new JSONObject().put("afk_channel_id", SnowflakeUtil.asString(afkChannel))).execute();
+	}
+
+	@Override
+	public CompletableFuture<IGuild> setIcon(String icon) throws IOException {
+		String base64 = "data:image/jpg;base64," + Base64.encodeBase64String(Files.readAllBytes(Paths.get(icon)));
+		return new ModifyGuild(this, new JSONObject().put("icon", base64)).execute();
+	}
+
+	@Override
+	public CompletableFuture<IGuild> setName(String name) {
+		return new ModifyGuild(this, new JSONObject().put("name", name)).execute();
+	}
+
+	@Override
+	public CompletableFuture<IGuild> setOwner(IGuildMember member) {
+		if (!isOwner()) throw new UnauthorizedException("Only the guild's owner can transfer ownership");
+		return new ModifyGuild(this, new JSONObject().put("owner_id", SnowflakeUtil.asString(member))).execute();
+	}
+
+	/**
+	 * Presences are not cached by slim guilds.
+	 */
+	@Override
+	public void setPresence(PresenceJSON presence) {}
+
+	@Override
+	public synchronized void setup(GuildJSON data) {
+		ownerID = data.owner_id == null ? ownerID : SnowflakeUtil.parse(data.owner_id);
+		memberCount = data.member_count == 0 ? memberCount : data.member_count;
+		if (data.members != null && data.members.length > 0) {
+			Map<Long, IGuildMember> members = new HashMap<>();
+			for (MemberJSON member : data.members) {
+				IGuildMember m = EntityBuilder.getGuildFactory().buildMember(this, member);
+				members.put(m.getID(), m);
+			}
+			this.members.replace(members);
+		}
+		if (data.channels != null && data.channels.length > 0) {
+			for (ChannelJSON channelData : data.channels) {
+				addChannel((IGuildChannel) EntityRegistry.addChannel(channelData, this));
+			}
+		}
+		available = !data.unavailable;
+		bumpVersion();
+	}
+
+	@Override
+	public CompletableFuture<IGuild> setVoiceRegion(String region) {
+		return new ModifyGuild(this, new JSONObject().put("region", region)).execute();
+	}
+
+	/**
+	 * Slim members don't keep their names.
+	 * 
+	 * @return An empty list
+	 */
+	@Override
+	public List<IGuildMember> searchMembers(String prefix, int limit) {
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Slim guilds don't index their members' names.
+	 */
+	@Override
+	public void reindexMember(IGuildMember member) {}
+
+	@Override
+	public GuildSnapshot snapshot() {
+		GuildSnapshot current = snapshot;
+		if (current != null && current.getVersion() == version) return current;
+		synchronized (this) {
+			return snapshot = new GuildSnapshot(this, version, members.persistent(), getRoles(), textChannels.persistent(), voiceChannels.persistent(), getPresences(), getEmojis(), getVoiceStates());
+		}
+	}
+
+	@Override
+	public void sync() throws GuildSyncException, AccountTypeException {
+		getLoader().syncGuilds(id);
+	}
+
+	@Override
+	public String toString() {
+		return getName();
+	}
+
+	/**
+	 * Voice states are not cached by slim guilds.
+	 */
+	@Override
+	public void updateVoiceState(VoiceState state) {}
+
+	private UnsupportedOperationException unsupported() {
+		return new UnsupportedOperationException("Not implemented for slim guilds");
+	}
+
+}
@@ -0,0 +1,225 @@
+package io.discloader.discloader.core.entity.guild;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.json.JSONObject;
+
+import io.discloader.discloader.common.DiscLoader;
+import io.discloader.discloader.common.registry.EntityBuilder;
+import io.discloader.discloader.common.registry.EntityRegistry;
+import io.discloader.discloader.core.entity.Permission;
+import io.discloader.discloader.entity.IPermission;
+import io.discloader.discloader.entity.IPresence;
+import io.discloader.discloader.entity.channel.IGuildVoiceChannel;
+import io.discloader.discloader.entity.guild.IGuild;
+import io.discloader.discloader.entity.guild.IGuildMember;
+import io.discloader.discloader.entity.guild.IRole;
+import io.discloader.discloader.entity.user.IUser;
+import io.discloader.discloader.entity.util.SnowflakeUtil;
+import io.discloader.discloader.entity.util.VersionUtil;
+import io.discloader.discloader.entity.voice.VoiceState;
+import io.discloader.discloader.network.json.MemberJSON;
+import io.discloader.discloader.util.DLUtil.Endpoints;
+import io.discloader.discloader.util.DLUtil.Methods;
+
+/**
+ * A minimal {@link IGuildMember} implementation that only keeps the member's user, guild and join time.<br>
+ * Nicknames, roles and mute/deaf flags are dropped. Edits only send the fields they change, so they don't need the dropped data:
+ * nickname, mute and deafen changes go through the {@link io.discloader.discloader.network.rest.MemberEditBatcher}, and roles are
+ * given and taken one at a time. Used by the {@link EntityBuilder#useSlimEntities() slim entity profile}.
+ *
+ * @author Perry Berman
+ * @see GuildMember
+ */
+public class SlimGuildMember implements IGuildMember {
+
+	private final IUser user;
+
+	private final IGuild guild;
+
+	/**
+	 * When the member joined the guild, in milliseconds since the epoch. {@code 0} if it isn't known.
+	 */
+	private final long joinedAt;
+
+	private volatile long version = VersionUtil.next();
+
+	public SlimGuildMember(IGuild guild, MemberJSON data) {
+		this(guild, EntityRegistry.addUser(data.user), data.joined_at == null ? 0l : OffsetDateTime.parse(data.joined_at).toInstant().toEpochMilli());
+	}
+
+	public SlimGuildMember(IGuild guild, IUser user) {
+		this(guild, user, 0l);
+	}
+
+	public SlimGuildMember(IGuild guild, IUser user, long joinedAt) {
+		this.guild = guild;
+		this.user = user;
+		this.joinedAt = joinedAt;
+	}
+
+	@Override
+	public String asMention() {
+		return String.format("<@!%s>", getID());
+	}
+
+	@Override
+	public CompletableFuture<IGuildMember> ban() {
+		return guild.ban(this);
+	}
+
+	@Override
+	public long bumpVersion() {
+		return version = VersionUtil.next();
+	}
+
+	@Override
+	public CompletableFuture<IGuildMember> deafen() {
+		return getLoader().rest.getMemberEditBatcher().setDeaf(this, true);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) return true;
+		if (!(obj instanceof IGuildMember)) return false;
+		IGuildMember member = (IGuildMember) obj;
+		return getID() == member.getID() && guild.getID() == member.getGuild().getID();
+	}
+
+	@Override
+	public IGuild getGuild() {
+		return guild;
+	}
+
+	@Override
+	public IRole getHighestRole() {
+		return null;
+	}
+
+	@Override
+	public long getID() {
+		return user.getID();
+	}
+
+	@Override
+	public OffsetDateTime getJoinTime() {
+		return joinedAt == 0l ? null : OffsetDateTime.ofInstant(Instant.ofEpochMilli(joinedAt), ZoneOffset.UTC);
+	}
+
+	@Override
+	public DiscLoader getLoader() {
+		return guild.getLoader();
+	}
+
+	@Override
+	public String getNickname() {
+		return null;
+	}
+
+	@Override
+	public IPermission getPermissions() {
+		return new Permission(this, 0l);
+	}
+
+	@Override
+	public IPresence getPresence() {
+		return guild.getPresence(getID());
+	}
+
+	@Override
+	public List<IRole> getRoles() {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public IUser getUser() {
+		return user;
+	}
+
+	@Override
+	public long getVersion() {
+		return version;
+	}
+
+	@Override
+	public IGuildVoiceChannel getVoiceChannel() {
+		return null;
+	}
+
+	@Override
+	public VoiceState getVoiceState() {
+		return guild.getVoiceStates().get(getID());
+	}
+
+	@Override
+	public CompletableFuture<IGuildMember> giveRole(IRole... roles) {
+		// the batcher sends the full role list, which slim members don't have, so each role is added on its own
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[roles.length];
+		for (int i = 0; i < roles.length; i++) {
+			futures[i] = getLoader().rest.makeRequest(Endpoints.guildMemberRole(guild.getID(), getID(), roles[i].getID()), Methods.PUT, true);
+		}
+		return CompletableFuture.allOf(futures).thenApply(v -> this);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Long.hashCode(guild.getID()) + Long.hashCode(getID());
+	}
+
+	@Override
+	public boolean isDeaf() {
+		return false;
+	}
+
+	@Override
+	public boolean isMuted() {
+		return false;
+	}
+
+	@Override
+	public CompletableFuture<IGuildMember> kick() {
+		return guild.kickMember(this);
+	}
+
+	@Override
+	public CompletableFuture<IGuildMember> move(IGuildVoiceChannel channel) {
+		JSONObject payload = new JSONObject().put("channel_id", SnowflakeUtil.asString(channel));
+		return getLoader().rest.makeRequest(Endpoints.guildMember(guild.getID(), getID()), Methods.PATCH, true, payload).thenApply(data -> this);
+	}
+
+	@Override
+	public CompletableFuture<IGuildMember> mute() {
+		return getLoader().rest.getMemberEditBatcher().setMute(this, true);
+	}
+
+	@Override
+	public CompletableFuture<IGuildMember> setNick(String nick) {
+		return getLoader().rest.getMemberEditBatcher().setNick(this, nick);
+	}
+
+	@Override
+	public CompletableFuture<IGuildMember> takeRole(IRole role) {
+		return getLoader().rest.makeRequest(Endpoints.guildMemberRole(guild.getID(), getID(), role.getID()), Methods.DELETE, true).thenApply(data -> this);
+	}
+
+	@Override
+	public String toString() {
+		return user.toString();
+	}
+
+	@Override
+	public CompletableFuture<IGuildMember> unDeafen() {
+		return getLoader().rest.getMemberEditBatcher().setDeaf(this, false);
+	}
+
+	@Override
+	public CompletableFuture<IGuildMember> unMute() {
+		return getLoader().rest.getMemberEditBatcher().setMute(this, false);
+	}
+
+}
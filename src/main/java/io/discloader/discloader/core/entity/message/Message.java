@@ -1,6 +1,5 @@
 package io.discloader.discloader.core.entity.message;
 
-import java.io.File;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -8,7 +7,6 @@ import java.util.concurrent.CompletableFuture;
 
 import io.discloader.discloader.common.DiscLoader;
 import io.discloader.discloader.common.exceptions.PermissionsException;
-import io.discloader.discloader.common.registry.EntityBuilder;
 import io.discloader.discloader.common.registry.EntityRegistry;
 import io.discloader.discloader.core.entity.RichEmbed;
 import io.discloader.discloader.core.entity.channel.Channel;
@@ -24,7 +22,6 @@ import io.discloader.discloader.entity.message.IMessage;
 import io.discloader.discloader.entity.message.IMessageAttachment;
 import io.discloader.discloader.entity.message.IMessageEmbed;
 import io.discloader.discloader.entity.message.IReaction;
-import io.discloader.discloader.entity.sendable.SendableMessage;
 import io.discloader.discloader.entity.user.IUser;
 import io.discloader.discloader.entity.util.ISnowflake;
 import io.discloader.discloader.entity.util.Permissions;
@@ -33,10 +30,8 @@ import io.discloader.discloader.network.json.EmbedJSON;
 import io.discloader.discloader.network.json.MessageJSON;
 import io.discloader.discloader.network.json.ReactionJSON;
 import io.discloader.discloader.network.json.UserJSON;
-import io.discloader.discloader.network.rest.actions.RESTAction;
 import io.discloader.discloader.network.rest.actions.channel.pin.PinMessage;
 import io.discloader.discloader.network.rest.actions.channel.pin.UnpinMessage;
-import io.discloader.discloader.network.rest.actions.message.CreateReaction;
 import io.discloader.discloader.network.rest.actions.message.DeleteMessage;
 import io.discloader.discloader.network.rest.actions.message.DeleteReaction;
 import io.discloader.discloader.util.DLUtil.Endpoints;
@@ -169,7 +164,12 @@ public class Message<T extends ITextChannel> implements IMessage {
 
 	@Override
 	public CompletableFuture<Void> addReaction(String unicode) {
-		return new CreateReaction(this, unicode).execute();
+		return getLoader().rest.getReactionScheduler().add(this, unicode);
+	}
+
+	@Override
+	public CompletableFuture<Void> addReactions(String... unicode) {
+		return getLoader().rest.getReactionScheduler().addAll(this, unicode);
 	}
 
 	@Override
@@ -247,23 +247,7 @@ public class Message<T extends ITextChannel> implements IMessage {
 	 */
 	@Override
 	public CompletableFuture<IMessage> edit(String content, RichEmbed embed) {
-		return new RESTAction<IMessage>(loader) {
-
-			@Override
-			public CompletableFuture<IMessage> execute() {
-				SendableMessage sendable = new SendableMessage(content, false, embed, null, (File) null);
-				return super.execute(loader.rest.makeRequest(Endpoints.message(channel.getID(), id), Methods.PATCH, true, sendable));
-			}
-
-			public void complete(String str, Throwable ex) {
-				if (ex != null) {
-					future.completeExceptionally(ex);
-					return;
-				}
-				future.complete(EntityBuilder.getChannelFactory().buildMessage(channel, gson.fromJson(str, MessageJSON.class)));
-			}
-
-		}.execute();
+		return loader.rest.getMessageEditCoalescer().edit(this, content, embed);
 	}
 
 	@Override
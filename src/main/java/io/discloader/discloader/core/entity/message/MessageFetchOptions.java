@@ -15,6 +15,11 @@ public class MessageFetchOptions {
 	public long after;
 	public int limit;
 
+	/**
+	 * Whether fetched messages are added to the channel's message cache
+	 */
+	public boolean cache = true;
+
 	public MessageFetchOptions() {
 		limit = 50;
 		// around;
@@ -52,6 +57,18 @@ public class MessageFetchOptions {
 		return this;
 	}
 
+	/**
+	 * Sets whether fetched messages are added to the channel's message cache. Jobs that read a lot of history should turn this off so
+	 * the cache doesn't grow with every page.
+	 * 
+	 * @param cache {@code false} to skip the cache
+	 * @return {@code this}
+	 */
+	public MessageFetchOptions setCaching(boolean cache) {
+		this.cache = cache;
+		return this;
+	}
+
 	/**
 	 * Sets the limit of how many messages to fetch
 	 * 
@@ -63,4 +80,17 @@ public class MessageFetchOptions {
 		return this;
 	}
 
+	/**
+	 * GET requests don't have a body, so the options are sent as query parameters. Options that are {@code 0} aren't sent.
+	 * 
+	 * @return The options as a query string, starting with {@code ?}
+	 */
+	public String toQueryString() {
+		StringBuilder query = new StringBuilder("?limit=").append(limit);
+		if (around != 0l) query.append("&around=").append(Long.toUnsignedString(around));
+		if (before != 0l) query.append("&before=").append(Long.toUnsignedString(before));
+		if (after != 0l) query.append("&after=").append(Long.toUnsignedString(after));
+		return query.toString();
+	}
+
 }
@@ -0,0 +1,203 @@
+package io.discloader.discloader.core.entity.message;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import io.discloader.discloader.entity.channel.ITextChannel;
+import io.discloader.discloader.entity.message.IMessage;
+import io.discloader.discloader.entity.util.SnowflakeUtil;
+import io.discloader.discloader.network.rest.RequestPriority;
+import io.discloader.discloader.network.rest.actions.channel.FetchMessages;
+
+/**
+ * Walks a {@link ITextChannel channel's} message history one page at a time, backwards from the newest message by default.<br>
+ * Messages are fetched lazily: the next page is requested as soon as the current one arrives, so it's usually ready by the time the
+ * current one has been consumed, and no more than two pages are held at once. With {@link #setCaching(boolean) caching} turned off the
+ * messages aren't added to the channel's cache either, so archiving a whole channel runs in constant memory.
+ *
+ * <pre>
+ * channel.getHistory().setCaching(false).setUntil(OffsetDateTime.now().minusDays(7)).stream().forEach(archive::write);
+ * </pre>
+ *
+ * Iterating blocks while a page is being fetched, and throws a {@link java.util.concurrent.CompletionException CompletionException}
+ * if a page can't be.
+ *
+ * @author Perry Berman
+ */
+public class MessageHistory implements Iterable<IMessage> {
+
+	/**
+	 * The most messages the API returns per page
+	 */
+	public static final int MAX_PAGE_SIZE = 100;
+
+	private final ITextChannel channel;
+
+	private long from;
+
+	private boolean forwards;
+
+	private long until;
+
+	private int pageSize = MAX_PAGE_SIZE;
+
+	private boolean cache = true;
+
+	private RequestPriority priority = RequestPriority.NORMAL;
+
+	/**
+	 * @param channel The channel whose history to walk
+	 */
+	public MessageHistory(ITextChannel channel) {
+		this.channel = channel;
+	}
+
+	/**
+	 * Walks backwards, from newest to oldest.
+	 *
+	 * @param before The ID of the message to start before, or {@code 0} to start at the newest message
+	 * @return {@code this}
+	 */
+	public MessageHistory setBefore(long before) {
+		from = before;
+		forwards = false;
+		return this;
+	}
+
+	/**
+	 * Walks forwards, from oldest to newest.
+	 *
+	 * @param after The ID of the message to start after, or {@code 0} to start at the channel's first message
+	 * @return {@code this}
+	 */
+	public MessageHistory setAfter(long after) {
+		from = after;
+		forwards = true;
+		return this;
+	}
+
+	/**
+	 * Stops the walk at messages sent before this time when walking backwards, or after it when walking forwards.
+	 *
+	 * @param until The time bound, or {@code null} to walk to the end of the channel
+	 * @return {@code this}
+	 */
+	public MessageHistory setUntil(OffsetDateTime until) {
+		this.until = until == null ? 0l : until.toInstant().toEpochMilli();
+		return this;
+	}
+
+	/**
+	 * @param pageSize How many messages to fetch per request, up to {@link #MAX_PAGE_SIZE}
+	 * @return {@code this}
+	 */
+	public MessageHistory setPageSize(int pageSize) {
+		this.pageSize = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+		return this;
+	}
+
+	/**
+	 * @param cache {@code false} to keep the fetched messages out of the channel's cache
+	 * @return {@code this}
+	 */
+	public MessageHistory setCaching(boolean cache) {
+		this.cache = cache;
+		return this;
+	}
+
+	/**
+	 * @param priority The priority class of the page requests, {@link RequestPriority#BULK} for background jobs
+	 * @return {@code this}
+	 */
+	public MessageHistory setPriority(RequestPriority priority) {
+		this.priority = priority;
+		return this;
+	}
+
+	/**
+	 * Starts a new walk. The first page is requested straight away.
+	 */
+	@Override
+	public Iterator<IMessage> iterator() {
+		return new HistoryIterator();
+	}
+
+	/**
+	 * @return A sequential stream over a new walk
+	 */
+	public Stream<IMessage> stream() {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+	}
+
+	private CompletableFuture<List<IMessage>> fetch(long cursor) {
+		MessageFetchOptions options = new MessageFetchOptions().setLimit(pageSize).setCaching(cache);
+		// 0 isn't sent, and the API returns the newest messages without a cursor
+		if (forwards) options.setAfter(Math.max(cursor, 1l));
+		else options.setBefore(cursor);
+		Comparator<IMessage> order = Comparator.comparing(IMessage::getID, Long::compareUnsigned);
+		return new FetchMessages<ITextChannel>(channel, options).setPriority(priority).execute().thenApply(messages -> {
+			List<IMessage> page = new ArrayList<>(messages.values());
+			page.sort(forwards ? order : order.reversed());
+			return page;
+		});
+	}
+
+	private boolean inBounds(IMessage message) {
+		if (until == 0l) return true;
+		long sent = (message.getID() >>> 22) + SnowflakeUtil.DISCORD_EPOCH;
+		return forwards ? sent <= until : sent >= until;
+	}
+
+	private class HistoryIterator implements Iterator<IMessage> {
+
+		private Iterator<IMessage> page = Collections.emptyIterator();
+
+		private CompletableFuture<List<IMessage>> next = fetch(from);
+
+		private IMessage message;
+
+		@Override
+		public boolean hasNext() {
+			if (message != null) return true;
+			while (!page.hasNext()) {
+				if (next == null) return false;
+				List<IMessage> messages = next.join();
+				next = null;
+				if (messages.size() == pageSize) {
+					IMessage last = messages.get(messages.size() - 1);
+					// prefetch while this page is consumed, unless it already reaches the time bound
+					if (inBounds(last)) next = fetch(last.getID());
+				}
+				page = messages.iterator();
+			}
+			IMessage candidate = page.next();
+			if (!inBounds(candidate)) {
+				page = Collections.emptyIterator();
+				next = null;
+				return false;
+			}
+			message = candidate;
+			return true;
+		}
+
+		@Override
+		public IMessage next() {
+			if (!hasNext()) throw new NoSuchElementException();
+			IMessage current = message;
+			message = null;
+			return current;
+		}
+
+	}
+
+}
@@ -0,0 +1,298 @@
+package io.discloader.discloader.core.entity.message;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import io.discloader.discloader.common.DiscLoader;
+import io.discloader.discloader.common.registry.EntityBuilder;
+import io.discloader.discloader.common.registry.EntityRegistry;
+import io.discloader.discloader.core.entity.RichEmbed;
+import io.discloader.discloader.entity.IEmoji;
+import io.discloader.discloader.entity.channel.IGuildTextChannel;
+import io.discloader.discloader.entity.channel.ITextChannel;
+import io.discloader.discloader.entity.guild.IGuild;
+import io.discloader.discloader.entity.guild.IGuildMember;
+import io.discloader.discloader.entity.message.IMentions;
+import io.discloader.discloader.entity.message.IMessage;
+import io.discloader.discloader.entity.message.IMessageAttachment;
+import io.discloader.discloader.entity.message.IMessageEmbed;
+import io.discloader.discloader.entity.message.IReaction;
+import io.discloader.discloader.entity.user.IUser;
+import io.discloader.discloader.entity.util.SnowflakeUtil;
+import io.discloader.discloader.network.json.MessageJSON;
+import io.discloader.discloader.network.rest.actions.channel.pin.PinMessage;
+import io.discloader.discloader.network.rest.actions.channel.pin.UnpinMessage;
+import io.discloader.discloader.network.rest.actions.message.DeleteMessage;
+import io.discloader.discloader.network.rest.actions.message.DeleteReaction;
+import io.discloader.discloader.util.DLUtil.Endpoints;
+import io.discloader.discloader.util.DLUtil.Methods;
+
+/**
+ * A minimal {@link IMessage} implementation that only keeps the message's ID, channel, author ID and edit time.<br>
+ * Content, embeds, attachments, mentions and reactions are dropped. Used by the {@link EntityBuilder#useSlimEntities() slim entity
+ * profile}.
+ *
+ * @author Perry Berman
+ * @see Message
+ */
+public class SlimMessage<T extends ITextChannel> implements IMessage {
+
+	private final long id;
+
+	private final T channel;
+
+	private final long authorID;
+
+	/**
+	 * When the message was last edited, in milliseconds since the epoch. {@code 0} if the message has not been edited.
+	 */
+	private long editedAt;
+
+	public SlimMessage(T channel, MessageJSON data) {
+		id = SnowflakeUtil.parse(data.id);
+		this.channel = channel;
+		if (data.author != null) {
+			authorID = EntityRegistry.addUser(data.author).getID();
+		} else {
+			authorID = data.webhook_id == null ? 0l : SnowflakeUtil.parse(data.webhook_id);
+		}
+		setup(data);
+	}
+
+	@Override
+	public CompletableFuture<Void> addReaction(IEmoji emoji) {
+		return addReaction(SnowflakeUtil.asString(emoji));
+	}
+
+	@Override
+	public CompletableFuture<Void> addReaction(IReaction reaction) {
+		return addReaction(reaction.getEmoji());
+	}
+
+	@Override
+	public CompletableFuture<Void> addReaction(String unicode) {
+		return getLoader().rest.getReactionScheduler().add(this, unicode);
+	}
+
+	@Override
+	public CompletableFuture<Void> addReactions(String... unicode) {
+		return getLoader().rest.getReactionScheduler().addAll(this, unicode);
+	}
+
+	@Override
+	public boolean canDelete() {
+		return canEdit();
+	}
+
+	@Override
+	public boolean canEdit() {
+		return getLoader().user.getID() == authorID;
+	}
+
+	@Override
+	public int compareTo(IMessage message) {
+		return message.createdAt().compareTo(createdAt());
+	}
+
+	@Override
+	public OffsetDateTime createdAt() {
+		return SnowflakeUtil.creationTime(this);
+	}
+
+	@Override
+	public CompletableFuture<IMessage> delete() {
+		return new DeleteMessage<T>(channel, this).execute();
+	}
+
+	@Override
+	public CompletableFuture<IMessage> deleteAllReactions() {
+		CompletableFuture<IMessage> future = new CompletableFuture<>();
+		getLoader().rest.makeRequest(Endpoints.messageReactions(channel.getID(), id), Methods.DELETE, true).whenComplete((data, ex) -> {
+			if (ex != null) {
+				future.completeExceptionally(ex);
+			} else {
+				future.complete(this);
+			}
+		});
+		return future;
+	}
+
+	@Override
+	public CompletableFuture<IMessage> edit(RichEmbed embed) {
+		return edit(null, embed);
+	}
+
+	@Override
+	public CompletableFuture<IMessage> edit(String content) {
+		return edit(content, null);
+	}
+
+	/**
+	 * Edits go through the {@link io.discloader.discloader.network.rest.MessageEditCoalescer}, which only needs the message's ID and
+	 * channel. The future completes with a new message built from the response, in the current entity profile.
+	 */
+	@Override
+	public CompletableFuture<IMessage> edit(String content, RichEmbed embed) {
+		return getLoader().rest.getMessageEditCoalescer().edit(this, content, embed);
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		if (this == object) return true;
+		if (!(object instanceof IMessage)) return false;
+		return id == ((IMessage) object).getID();
+	}
+
+	@Override
+	public List<IMessageAttachment> getAttachments() {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public IUser getAuthor() {
+		return EntityRegistry.getUserByID(authorID);
+	}
+
+	/**
+	 * @return The ID of the message's author, or the webhook that sent the message
+	 */
+	public long getAuthorID() {
+		return authorID;
+	}
+
+	@Override
+	public T getChannel() {
+		return channel;
+	}
+
+	/**
+	 * Slim messages don't keep their content.
+	 *
+	 * @return {@code null}
+	 */
+	@Override
+	public String getContent() {
+		return null;
+	}
+
+	@Override
+	public OffsetDateTime getEditedAt() {
+		return editedAt == 0l ? null : OffsetDateTime.ofInstant(Instant.ofEpochMilli(editedAt), ZoneOffset.UTC);
+	}
+
+	@Override
+	public List<IMessageEmbed> getEmbeds() {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public IGuild getGuild() {
+		return channel instanceof IGuildTextChannel ? ((IGuildTextChannel) channel).getGuild() : null;
+	}
+
+	@Override
+	public long getID() {
+		return id;
+	}
+
+	@Override
+	public DiscLoader getLoader() {
+		return channel.getLoader();
+	}
+
+	@Override
+	public IGuildMember getMember() {
+		IGuild guild = getGuild();
+		return guild == null ? null : guild.getMember(authorID);
+	}
+
+	/**
+	 * Slim messages don't keep their mentions.
+	 *
+	 * @return {@code null}
+	 */
+	@Override
+	public IMentions getMentions() {
+		return null;
+	}
+
+	@Override
+	public String getNonce() {
+		return null;
+	}
+
+	@Override
+	public IReaction getReaction(IEmoji emoji) {
+		return null;
+	}
+
+	@Override
+	public IReaction getReaction(String unicode) {
+		return null;
+	}
+
+	@Override
+	public List<IReaction> getReactions() {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(id);
+	}
+
+	@Override
+	public boolean isEdited() {
+		return editedAt != 0l;
+	}
+
+	@Override
+	public boolean isPinned() {
+		return false;
+	}
+
+	@Override
+	public boolean isSystem() {
+		return false;
+	}
+
+	@Override
+	public boolean isTTS() {
+		return false;
+	}
+
+	@Override
+	public CompletableFuture<IMessage> pin() {
+		return new PinMessage<T>(this).execute();
+	}
+
+	@Override
+	public CompletableFuture<IMessage> removeReaction(IEmoji emoji) {
+		return removeReaction(SnowflakeUtil.asString(emoji));
+	}
+
+	@Override
+	public CompletableFuture<IMessage> removeReaction(IReaction reaction) {
+		return removeReaction(reaction.getEmoji());
+	}
+
+	@Override
+	public CompletableFuture<IMessage> removeReaction(String unicode) {
+		return new DeleteReaction(this, unicode).execute();
+	}
+
+	@Override
+	public void setup(MessageJSON data) {
+		if (data.edited_timestamp != null) editedAt = OffsetDateTime.parse(data.edited_timestamp).toInstant().toEpochMilli();
+	}
+
+	@Override
+	public CompletableFuture<IMessage> unpin() {
+		return new UnpinMessage<T>(this).execute();
+	}
+
+}
@@ -0,0 +1,189 @@
+package io.discloader.discloader.core.entity.user;
+
+import java.io.File;
+import java.time.OffsetDateTime;
+import java.util.concurrent.CompletableFuture;
+
+import io.discloader.discloader.client.render.util.Resource;
+import io.discloader.discloader.common.DiscLoader;
+import io.discloader.discloader.common.registry.EntityBuilder;
+import io.discloader.discloader.common.registry.EntityRegistry;
+import io.discloader.discloader.core.entity.RichEmbed;
+import io.discloader.discloader.entity.IIcon;
+import io.discloader.discloader.entity.channel.IPrivateChannel;
+import io.discloader.discloader.entity.message.IMessage;
+import io.discloader.discloader.entity.user.IUser;
+import io.discloader.discloader.entity.user.IUserProfile;
+import io.discloader.discloader.entity.util.SnowflakeUtil;
+import io.discloader.discloader.entity.util.VersionUtil;
+import io.discloader.discloader.network.json.UserJSON;
+import io.discloader.discloader.network.rest.actions.FetchUserProfile;
+import io.discloader.discloader.network.rest.actions.channel.CreateDMChannel;
+
+/**
+ * A minimal {@link IUser} implementation that only keeps the user's ID and whether or not the user is a bot.<br>
+ * Used by the {@link EntityBuilder#useSlimEntities() slim entity profile}.
+ *
+ * @author Perry Berman
+ * @see User
+ */
+public class SlimUser implements IUser {
+
+	private final long id;
+
+	private boolean bot;
+
+	private volatile long version = VersionUtil.next();
+
+	public SlimUser(UserJSON data) {
+		id = SnowflakeUtil.parse(data.id == null ? "0" : data.id);
+		bot = data.bot;
+	}
+
+	@Override
+	public String asMention() {
+		return String.format("<@%s>", id);
+	}
+
+	@Override
+	public long bumpVersion() {
+		return version = VersionUtil.next();
+	}
+
+	@Override
+	public OffsetDateTime createdAt() {
+		return SnowflakeUtil.creationTime(this);
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		if (this == object) return true;
+		if (!(object instanceof IUser)) return false;
+		return id == ((IUser) object).getID();
+	}
+
+	/**
+	 * Slim users don't keep their avatar hash.
+	 *
+	 * @return The default avatar
+	 */
+	@Override
+	public IIcon getAvatar() {
+		return new UserAvatar(null, id, 0);
+	}
+
+	@Override
+	public int getDiscriminator() {
+		return 0;
+	}
+
+	@Override
+	public long getID() {
+		return id;
+	}
+
+	@Override
+	public DiscLoader getLoader() {
+		return DiscLoader.getDiscLoader();
+	}
+
+	@Override
+	public IPrivateChannel getPrivateChannel() {
+		return EntityRegistry.getPrivateChannelByUser(this);
+	}
+
+	@Override
+	public CompletableFuture<IUserProfile> getProfile() {
+		return new FetchUserProfile(this).execute();
+	}
+
+	/**
+	 * Slim users don't keep their username.
+	 *
+	 * @return {@code null}
+	 */
+	@Override
+	public String getUsername() {
+		return null;
+	}
+
+	@Override
+	public long getVersion() {
+		return version;
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(id);
+	}
+
+	@Override
+	public boolean isBot() {
+		return bot;
+	}
+
+	@Override
+	public boolean isVerified() {
+		return false;
+	}
+
+	@Override
+	public boolean MFAEnabled() {
+		return false;
+	}
+
+	@Override
+	public CompletableFuture<IPrivateChannel> openPrivateChannel() {
+		if (getPrivateChannel() != null) return CompletableFuture.completedFuture(getPrivateChannel());
+		return new CreateDMChannel(this).execute();
+	}
+
+	@Override
+	public CompletableFuture<IMessage> sendEmbed(RichEmbed embed) {
+		return openPrivateChannel().thenCompose(channel -> channel.sendEmbed(embed));
+	}
+
+	@Override
+	public CompletableFuture<IMessage> sendFile(File file) {
+		return openPrivateChannel().thenCompose(channel -> channel.sendFile(file));
+	}
+
+	@Override
+	public CompletableFuture<IMessage> sendFile(Resource resource) {
+		return openPrivateChannel().thenCompose(channel -> channel.sendFile(resource));
+	}
+
+	@Override
+	public CompletableFuture<IMessage> sendMessage(String content) {
+		return openPrivateChannel().thenCompose(channel -> channel.sendMessage(content));
+	}
+
+	@Override
+	public CompletableFuture<IMessage> sendMessage(String content, RichEmbed embed) {
+		return openPrivateChannel().thenCompose(channel -> channel.sendMessage(content, embed));
+	}
+
+	@Override
+	public CompletableFuture<IMessage> sendMessage(String content, RichEmbed embed, File file) {
+		return openPrivateChannel().thenCompose(channel -> channel.sendMessage(content, embed, file));
+	}
+
+	@Override
+	public CompletableFuture<IMessage> sendMessage(String content, RichEmbed embed, Resource resource) {
+		return openPrivateChannel().thenCompose(channel -> channel.sendMessage(content, embed, resource));
+	}
+
+	@Override
+	public void setup(UserJSON data) {
+		if (bot != data.bot) {
+			bot = data.bot;
+			bumpVersion();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return SnowflakeUtil.asString(this);
+	}
+
+}
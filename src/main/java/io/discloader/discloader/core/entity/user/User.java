@@ -2,6 +2,7 @@ package io.discloader.discloader.core.entity.user;
 
 import java.io.File;
 import java.time.OffsetDateTime;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
@@ -14,7 +15,9 @@ import io.discloader.discloader.entity.channel.IPrivateChannel;
 import io.discloader.discloader.entity.message.IMessage;
 import io.discloader.discloader.entity.user.IUser;
 import io.discloader.discloader.entity.user.IUserProfile;
+import io.discloader.discloader.entity.util.IVersioned;
 import io.discloader.discloader.entity.util.SnowflakeUtil;
+import io.discloader.discloader.entity.util.VersionUtil;
 import io.discloader.discloader.network.json.UserJSON;
 import io.discloader.discloader.network.rest.actions.FetchUserProfile;
 import io.discloader.discloader.network.rest.actions.channel.CreateDMChannel;
@@ -66,6 +69,11 @@ public class User implements IUser {
 	 */
 	private boolean mfa;
 
+	/**
+	 * The user's current {@link IVersioned version}
+	 */
+	private volatile long version = VersionUtil.next();
+
 	public User(DiscLoader loader, UserJSON user) {
 		this.loader = loader;
 
@@ -100,19 +108,28 @@ public class User implements IUser {
 		return String.format("<@%s>", id);
 	}
 
+	@Override
+	public long bumpVersion() {
+		return version = VersionUtil.next();
+	}
+
 	@Override
 	public OffsetDateTime createdAt() {
 		return SnowflakeUtil.creationTime(this);
 	}
 
+	/**
+	 * Users are compared by their Snowflake ID, use {@link #getVersion()} to
+	 * find out if a user's state has changed.
+	 * 
+	 * @return {@code true} if both users have the same ID, {@code false}
+	 *         otherwise.
+	 */
 	@Override
 	public boolean equals(Object object) {
-		if (!(object instanceof User)) return false;
-		User user = (User) object;
-		if (this == user) {
-			return true;
-		}
-		return id == user.id && username.equals(user.username) && discriminator == user.discriminator && mfa == user.mfa && verified == user.verified;
+		if (this == object) return true;
+		if (!(object instanceof IUser)) return false;
+		return id == ((IUser) object).getID();
 	}
 
 	@Override
@@ -159,6 +176,16 @@ public class User implements IUser {
 		return username;
 	}
 
+	@Override
+	public long getVersion() {
+		return version;
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(id);
+	}
+
 	@Override
 	public boolean isBot() {
 		return bot;
@@ -182,6 +209,10 @@ public class User implements IUser {
 
 	@Override
 	public void setup(UserJSON data) {
+		String oldUsername = username, oldAvatar = avatar;
+		int oldDiscriminator = discriminator;
+		boolean oldBot = bot;
+
 		if (data.username != null) username = data.username;
 
 		discriminator = data.discriminator == null ? 0000 : Integer.parseInt( data.discriminator, 10);
@@ -189,6 +220,9 @@ public class User implements IUser {
 		avatar = data.avatar;
 
 		bot = data.bot;
+
+		// only bump the version if the user has actually changed
+		if (!Objects.equals(oldUsername, username) || !Objects.equals(oldAvatar, avatar) || oldDiscriminator != discriminator || oldBot != bot) bumpVersion();
 	}
 
 	@Override
@@ -9,6 +9,7 @@ import io.discloader.discloader.client.render.util.Resource;
 import io.discloader.discloader.core.entity.RichEmbed;
 import io.discloader.discloader.core.entity.message.Message;
 import io.discloader.discloader.core.entity.message.MessageFetchOptions;
+import io.discloader.discloader.core.entity.message.MessageHistory;
 import io.discloader.discloader.core.entity.user.User;
 import io.discloader.discloader.entity.message.IMessage;
 import io.discloader.discloader.entity.user.IUser;
@@ -55,6 +56,16 @@ public interface ITextChannel extends IChannel {
 	 */
 	<T extends ITextChannel> CompletableFuture<Map<Long, IMessage>> fetchMessages(MessageFetchOptions options);
 
+	/**
+	 * Lazily walks the channel's message history, page by page. Use {@link MessageHistory#setAfter(long)} to walk forwards and
+	 * {@link MessageHistory#setCaching(boolean)} to keep the messages out of the cache.
+	 * 
+	 * @return The channel's history, starting at the newest message
+	 */
+	default MessageHistory getHistory() {
+		return new MessageHistory(this);
+	}
+
 	/**
 	 * Downloads and caches a channel's pinned messages
 	 * 
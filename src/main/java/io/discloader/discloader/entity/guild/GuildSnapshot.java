@@ -0,0 +1,143 @@
+package io.discloader.discloader.entity.guild;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import io.discloader.discloader.entity.IPresence;
+import io.discloader.discloader.entity.channel.IGuildChannel;
+import io.discloader.discloader.entity.channel.IGuildTextChannel;
+import io.discloader.discloader.entity.channel.IGuildVoiceChannel;
+import io.discloader.discloader.entity.voice.VoiceState;
+
+/**
+ * An immutable, point-in-time view of a guild's caches.<br>
+ * Single lookups should go through the guild itself, its maps can be read from any thread without locking. Reads that combine
+ * several entities, like "every member with a role", should use {@link IGuild#snapshot()} so that they see a single consistent state.
+ * Next to each cache guilds keep a persistent map, which a change replaces by copying only the path to the changed entry, so a
+ * snapshot holds on to those maps instead of copying them. Guilds cache their latest snapshot and only take a new one after their
+ * {@link IGuild#getVersion() version} changes.
+ *
+ * @author Perry Berman
+ */
+public class GuildSnapshot {
+
+	private final IGuild guild;
+
+	private final long version;
+
+	private final Map<Long, IGuildMember> members;
+
+	private final Map<Long, IRole> roles;
+
+	private final Map<Long, IGuildTextChannel> textChannels;
+
+	private final Map<Long, IGuildVoiceChannel> voiceChannels;
+
+	private final Map<Long, IPresence> presences;
+
+	private final Map<Long, IGuildEmoji> emojis;
+
+	private final Map<Long, VoiceState> voiceStates;
+
+	/**
+	 * Creates a snapshot from maps that will never change again. Guilds must pass maps that were all current at the same
+	 * {@code version}, usually by reading them under the lock their writers hold.
+	 *
+	 * @param guild The guild the snapshot is taken of
+	 * @param version The guild's version when the maps were read
+	 */
+	public GuildSnapshot(IGuild guild, long version, Map<Long, IGuildMember> members, Map<Long, IRole> roles, Map<Long, IGuildTextChannel> textChannels,
+		Map<Long, IGuildVoiceChannel> voiceChannels, Map<Long, IPresence> presences, Map<Long, IGuildEmoji> emojis, Map<Long, VoiceState> voiceStates) {
+		this.guild = guild;
+		this.version = version;
+		this.members = members;
+		this.roles = roles;
+		this.textChannels = textChannels;
+		this.voiceChannels = voiceChannels;
+		this.presences = presences;
+		this.emojis = emojis;
+		this.voiceStates = voiceStates;
+	}
+
+	/**
+	 * @return All of the guild's text and voice channels, sorted by position
+	 */
+	public List<IGuildChannel> getChannels() {
+		List<IGuildChannel> channels = new ArrayList<>(textChannels.size() + voiceChannels.size());
+		channels.addAll(textChannels.values());
+		channels.addAll(voiceChannels.values());
+		channels.sort((a, b) -> Integer.compare(a.getPosition(), b.getPosition()));
+		return channels;
+	}
+
+	public Map<Long, IGuildEmoji> getEmojis() {
+		return emojis;
+	}
+
+	/**
+	 * @return The guild the snapshot was taken of
+	 */
+	public IGuild getGuild() {
+		return guild;
+	}
+
+	public IGuildMember getMember(long memberID) {
+		return members.get(memberID);
+	}
+
+	public Map<Long, IGuildMember> getMembers() {
+		return members;
+	}
+
+	/**
+	 * Gets every member in the snapshot that has a role.
+	 *
+	 * @param role The role to look for
+	 * @return A list of members with the role
+	 */
+	public List<IGuildMember> getMembersWithRole(IRole role) {
+		List<IGuildMember> withRole = new ArrayList<>();
+		for (IGuildMember member : members.values()) {
+			for (IRole r : member.getRoles()) {
+				if (r != null && r.getID() == role.getID()) {
+					withRole.add(member);
+					break;
+				}
+			}
+		}
+		return withRole;
+	}
+
+	public Map<Long, IPresence> getPresences() {
+		return presences;
+	}
+
+	public IRole getRole(long roleID) {
+		return roles.get(roleID);
+	}
+
+	public Map<Long, IRole> getRoles() {
+		return roles;
+	}
+
+	public Map<Long, IGuildTextChannel> getTextChannels() {
+		return textChannels;
+	}
+
+	/**
+	 * @return The guild's {@link IGuild#getVersion() version} when the snapshot was taken
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	public Map<Long, IGuildVoiceChannel> getVoiceChannels() {
+		return voiceChannels;
+	}
+
+	public Map<Long, VoiceState> getVoiceStates() {
+		return voiceStates;
+	}
+
+}
@@ -2,6 +2,7 @@ package io.discloader.discloader.entity.guild;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -21,12 +22,14 @@ import io.discloader.discloader.core.entity.user.User;
 import io.discloader.discloader.entity.IIcon;
 import io.discloader.discloader.entity.IOverwrite;
 import io.discloader.discloader.entity.IPresence;
+import io.discloader.discloader.entity.channel.IGuildChannel;
 import io.discloader.discloader.entity.channel.IGuildTextChannel;
 import io.discloader.discloader.entity.channel.IGuildVoiceChannel;
 import io.discloader.discloader.entity.invite.IInvite;
 import io.discloader.discloader.entity.user.IUser;
 import io.discloader.discloader.entity.util.ICreationTime;
 import io.discloader.discloader.entity.util.ISnowflake;
+import io.discloader.discloader.entity.util.IVersioned;
 import io.discloader.discloader.entity.util.Permissions;
 import io.discloader.discloader.entity.voice.VoiceConnection;
 import io.discloader.discloader.entity.voice.VoiceState;
@@ -41,7 +44,7 @@ import io.discloader.discloader.network.json.RoleJSON;
  * @author Perry Berman
  * @since 0.1.0
  */
-public interface IGuild extends ISnowflake, ICreationTime {
+public interface IGuild extends ISnowflake, ICreationTime, IVersioned {
 	
 	IGuildMember addMember(IGuildMember member);
 	
@@ -53,6 +56,21 @@ public interface IGuild extends ISnowflake, ICreationTime {
 	
 	IGuildMember addMember(MemberJSON data, boolean emit);
 	
+	/**
+	 * Caches several members at once, without emitting events. The members are merged into the member cache in a single update, so
+	 * the guild's lock is taken once and snapshots see either all of them or none.
+	 * 
+	 * @param members The members to cache
+	 */
+	void addMembers(Collection<IGuildMember> members);
+	
+	/**
+	 * Caches one of the guild's text or voice channels.
+	 * 
+	 * @param channel The channel to cache
+	 */
+	void addChannel(IGuildChannel channel);
+	
 	IRole addRole(IRole role);
 	
 	IRole addRole(RoleJSON role);
@@ -124,12 +142,24 @@ public interface IGuild extends ISnowflake, ICreationTime {
 	
 	CompletableFuture<IGuildTextChannel> createTextChannel(String name);
 	
+	/**
+	 * @throws UnsupportedOperationException Thrown by {@link io.discloader.discloader.core.entity.guild.SlimGuild slim guilds}, which don't
+	 *             implement it yet.
+	 */
 	CompletableFuture<IGuildTextChannel> createTextChannel(String name, IOverwrite... overwrites);
 	
 	CompletableFuture<IGuildVoiceChannel> createVoiceChannel(String name);
 	
+	/**
+	 * @throws UnsupportedOperationException Thrown by {@link io.discloader.discloader.core.entity.guild.SlimGuild slim guilds}, which don't
+	 *             implement it yet.
+	 */
 	CompletableFuture<IGuildTextChannel> createVoiceChannel(String name, int bitRate, IOverwrite... overwrites);
 	
+	/**
+	 * @throws UnsupportedOperationException Thrown by {@link io.discloader.discloader.core.entity.guild.SlimGuild slim guilds}, which don't
+	 *             implement it yet.
+	 */
 	CompletableFuture<IGuildTextChannel> createVoiceChannel(String name, IOverwrite... overwrites);
 	
 	/**
@@ -147,6 +177,8 @@ public interface IGuild extends ISnowflake, ICreationTime {
 	 * @return A Future that completes with {@code this} if successful.
 	 * @throws PermissionsException Thrown if the current user doesn't have the {@link Permissions#MANAGE_GUILD} permission.
 	 * @throws IOException
+	 * @throws UnsupportedOperationException Thrown by {@link io.discloader.discloader.core.entity.guild.SlimGuild slim guilds}, which don't
+	 *             implement it yet.
 	 */
 	CompletableFuture<IGuild> edit(String name, String icon, IGuildVoiceChannel afkChannel) throws IOException;
 	
@@ -197,6 +229,10 @@ public interface IGuild extends ISnowflake, ICreationTime {
 	
 	IIcon getIcon();
 	
+	/**
+	 * @throws UnsupportedOperationException Thrown by {@link io.discloader.discloader.core.entity.guild.SlimGuild slim guilds}, which don't
+	 *             implement it yet.
+	 */
 	CompletableFuture<List<IIntegration>> getIntegrations();
 	
 	CompletableFuture<List<IInvite>> getInvites();
@@ -265,6 +301,10 @@ public interface IGuild extends ISnowflake, ICreationTime {
 	
 	VoiceRegion getVoiceRegion();
 	
+	/**
+	 * @throws UnsupportedOperationException Thrown by {@link io.discloader.discloader.core.entity.guild.SlimGuild slim guilds}, which don't
+	 *             implement it yet.
+	 */
 	CompletableFuture<List<VoiceRegion>> getVoiceRegions();
 	
 	/**
@@ -328,6 +368,13 @@ public interface IGuild extends ISnowflake, ICreationTime {
 	 */
 	CompletableFuture<IGuild> leave();
 	
+	/**
+	 * Removes one of the guild's text or voice channels from its cache.
+	 * 
+	 * @param channel The channel to remove
+	 */
+	void removeChannel(IGuildChannel channel);
+	
 	IGuildMember removeMember(IGuildMember member);
 	
 	void removeMember(IUser user);
@@ -377,11 +424,37 @@ public interface IGuild extends ISnowflake, ICreationTime {
 	 */
 	void setPresence(PresenceJSON pe);
 	
+	/**
+	 * Finds cached members whose username or nickname starts with a prefix, ignoring case. Unlike
+	 * {@link #fetchMembers()} this never makes a request to Discord.
+	 * 
+	 * @param prefix The prefix to search for
+	 * @param limit The maximum number of members to return
+	 * @return Up to {@code limit} members, ordered by the name that matched
+	 */
+	List<IGuildMember> searchMembers(String prefix, int limit);
+	
+	/**
+	 * Updates the names {@link #searchMembers(String, int)} finds a cached member by, after the member's nickname or their user's
+	 * username changed without the member being replaced.
+	 * 
+	 * @param member The member whose names changed
+	 */
+	void reindexMember(IGuildMember member);
+	
 	/**
 	 * @param data
 	 */
 	void setup(GuildJSON data);
 	
+	/**
+	 * Gets a consistent, point-in-time view of the guild's caches. The snapshot is reused until the guild's {@link #getVersion()
+	 * version} changes.
+	 * 
+	 * @return The guild's current {@link GuildSnapshot}
+	 */
+	GuildSnapshot snapshot();
+	
 	/**
 	 * Sets the Guild's voice region to the specified region
 	 * 
@@ -10,13 +10,18 @@ import io.discloader.discloader.entity.IPresence;
 import io.discloader.discloader.entity.channel.IGuildVoiceChannel;
 import io.discloader.discloader.entity.user.IUser;
 import io.discloader.discloader.entity.util.ISnowflake;
+import io.discloader.discloader.entity.util.IVersioned;
 import io.discloader.discloader.entity.voice.VoiceState;
 
 /**
  * @author Perry Berman
  */
-public interface IGuildMember extends ISnowflake {
+public interface IGuildMember extends ISnowflake, IVersioned {
 
+	/**
+	 * @return When the member joined the guild. {@link io.discloader.discloader.core.entity.guild.SlimGuildMember Slim members} return
+	 *         {@code null} if their data didn't include it
+	 */
 	OffsetDateTime getJoinTime();
 
 	CompletableFuture<IGuildMember> ban();
@@ -40,6 +40,14 @@ public interface IMessage extends ISnowflake, Comparable<IMessage> {
 
 	CompletableFuture<Void> addReaction(IEmoji emoji);
 
+	/**
+	 * Adds reactions in the given order, one at a time.
+	 * 
+	 * @param unicode The emojis to react with
+	 * @return A future that completes once every reaction has been added
+	 */
+	CompletableFuture<Void> addReactions(String... unicode);
+
 	/**
 	 * Checks if the user you are logged in as is able to delete the
 	 * {@link IMessage message}. Should return {@code true} if either: you are
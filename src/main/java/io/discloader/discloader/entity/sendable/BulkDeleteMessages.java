@@ -0,0 +1,19 @@
+package io.discloader.discloader.entity.sendable;
+
+import java.util.Collection;
+
+/**
+ * The payload of a bulk-delete request
+ */
+public class BulkDeleteMessages {
+
+	public String[] messages;
+
+	public BulkDeleteMessages(Collection<Long> ids) {
+		messages = new String[ids.size()];
+		int i = 0;
+		for (long id : ids) {
+			messages[i++] = Long.toUnsignedString(id, 10);
+		}
+	}
+}
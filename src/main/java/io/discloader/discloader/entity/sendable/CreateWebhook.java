@@ -0,0 +1,9 @@
+package io.discloader.discloader.entity.sendable;
+
+public class CreateWebhook {
+	public String name;
+
+	public CreateWebhook(String name) {
+		this.name = name;
+	}
+}
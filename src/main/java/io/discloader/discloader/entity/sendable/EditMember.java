@@ -0,0 +1,12 @@
+package io.discloader.discloader.entity.sendable;
+
+/**
+ * The payload of a modify-member request. Fields that are {@code null} aren't sent, so they are left unchanged.
+ */
+public class EditMember {
+	public String nick;
+	public String[] roles;
+
+	public Boolean mute;
+	public Boolean deaf;
+}
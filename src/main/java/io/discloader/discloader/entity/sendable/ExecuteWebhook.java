@@ -0,0 +1,20 @@
+package io.discloader.discloader.entity.sendable;
+
+import io.discloader.discloader.core.entity.RichEmbed;
+
+/**
+ * The payload of an execute-webhook request. Webhooks take a list of embeds instead of a single one.
+ */
+public class ExecuteWebhook {
+	public String content;
+	public String username;
+	public String avatar_url;
+	public boolean tts;
+	public RichEmbed[] embeds;
+
+	public ExecuteWebhook(SendableMessage message) {
+		content = message.content;
+		tts = message.tts;
+		if (message.embed != null) embeds = new RichEmbed[] { message.embed };
+	}
+}
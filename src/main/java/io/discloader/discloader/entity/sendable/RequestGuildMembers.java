@@ -0,0 +1,14 @@
+package io.discloader.discloader.entity.sendable;
+
+/**
+ * The payload of a request-guild-members gateway packet. Asking for every member of several guilds at once takes a single packet.
+ */
+public class RequestGuildMembers {
+	public String[] guild_id;
+	public String query = "";
+	public int limit = 0;
+
+	public RequestGuildMembers(String[] guildIDs) {
+		guild_id = guildIDs;
+	}
+}
@@ -4,6 +4,7 @@ import java.io.File;
 
 import io.discloader.discloader.client.render.util.Resource;
 import io.discloader.discloader.core.entity.RichEmbed;
+import io.discloader.discloader.network.rest.transport.UploadProgressListener;
 
 /**
  * @author Perry Berman
@@ -20,6 +21,11 @@ public class SendableMessage {
 
 	public transient Resource resource;
 
+	/**
+	 * Is told how much of the upload has been sent, or {@code null}
+	 */
+	public transient UploadProgressListener progress;
+
 	public final boolean tts;
 
 	public SendableMessage(String content, boolean tts, RichEmbed embed, Attachment attachment, File file) {
@@ -12,12 +12,13 @@ import io.discloader.discloader.entity.channel.IPrivateChannel;
 import io.discloader.discloader.entity.message.IMessage;
 import io.discloader.discloader.entity.util.ICreationTime;
 import io.discloader.discloader.entity.util.ISnowflake;
+import io.discloader.discloader.entity.util.IVersioned;
 import io.discloader.discloader.network.json.UserJSON;
 
 /**
  * @author Perry Berman
  */
-public interface IUser extends ISnowflake, ICreationTime {
+public interface IUser extends ISnowflake, ICreationTime, IVersioned {
 
 	/**
 	 * @return A String in discord's mention format
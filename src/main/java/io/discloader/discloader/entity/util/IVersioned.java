@@ -0,0 +1,28 @@
+package io.discloader.discloader.entity.util;
+
+/**
+ * Cached objects that are mutated by the gateway carry a version number that
+ * is bumped every time their state changes. Versions are drawn from a single
+ * monotonically increasing clock ({@link VersionUtil#next()}), so an object
+ * that replaces another cached object (e.g. a rebuilt member) always has a
+ * higher version than the object it replaced.<br>
+ * Listeners and caches can remember the version they last saw and compare it
+ * with {@link #getVersion()} to find out if the object has changed since.
+ * 
+ * @author Perry Berman
+ */
+public interface IVersioned {
+
+	/**
+	 * @return The object's current version.
+	 */
+	long getVersion();
+
+	/**
+	 * Marks the object as modified.
+	 * 
+	 * @return The object's new version.
+	 */
+	long bumpVersion();
+
+}
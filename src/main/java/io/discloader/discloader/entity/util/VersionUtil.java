@@ -0,0 +1,32 @@
+package io.discloader.discloader.entity.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The clock that hands out {@link IVersioned} version numbers.
+ * 
+ * @author Perry Berman
+ */
+public class VersionUtil {
+
+	private static final AtomicLong clock = new AtomicLong();
+
+	/**
+	 * @return A version number that is higher than any number previously
+	 *         returned.
+	 */
+	public static long next() {
+		return clock.incrementAndGet();
+	}
+
+	/**
+	 * Checks if an object has been modified since a version was observed.
+	 * 
+	 * @param versioned The object to check
+	 * @param seen The version that was last observed
+	 * @return {@code true} if the object's version is newer than {@code seen}
+	 */
+	public static boolean changedSince(IVersioned versioned, long seen) {
+		return versioned.getVersion() > seen;
+	}
+}
@@ -81,7 +81,7 @@ public class DiscSocket {
 	}
 
 	public void handleQueue() {
-		if (!ws.isOpen() || remaining == 0 || queue.isEmpty()) return;
+		if (ws == null || !ws.isOpen() || remaining == 0 || queue.isEmpty()) return;
 
 		Object payload = queue.get(0);
 		remaining--;
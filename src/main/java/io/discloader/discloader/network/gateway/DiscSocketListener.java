@@ -25,6 +25,7 @@ import io.discloader.discloader.entity.sendable.Packet;
 import io.discloader.discloader.network.gateway.packets.AbstractHandler;
 import io.discloader.discloader.network.gateway.packets.ChannelCreate;
 import io.discloader.discloader.network.gateway.packets.ChannelDelete;
+import io.discloader.discloader.network.gateway.packets.ChannelPinsUpdate;
 import io.discloader.discloader.network.gateway.packets.ChannelUpdate;
 import io.discloader.discloader.network.gateway.packets.EmojiUpdate;
 import io.discloader.discloader.network.gateway.packets.GuildBanAdd;
@@ -62,7 +63,7 @@ import io.discloader.discloader.util.DLUtil.WSEvents;
 
 public class DiscSocketListener extends WebSocketAdapter {
 	
-	public Gson gson = new Gson();
+	public Gson gson = DLUtil.gson;
 	
 	public DiscLoader loader;
 	
@@ -109,6 +110,7 @@ public class DiscSocketListener extends WebSocketAdapter {
 		this.register(WSEvents.CHANNEL_CREATE, new ChannelCreate(this.socket));
 		this.register(WSEvents.CHANNEL_DELETE, new ChannelDelete(this.socket));
 		this.register(WSEvents.CHANNEL_UPDATE, new ChannelUpdate(this.socket));
+		this.register(WSEvents.CHANNEL_PINS_UPDATE, new ChannelPinsUpdate(this.socket));
 		this.register(WSEvents.PRESENCE_UPDATE, new PresenceUpdate(this.socket));
 		this.register(WSEvents.MESSAGE_CREATE, new MessageCreate(this.socket));
 		this.register(WSEvents.MESSAGE_DELETE, new MessageDelete(this.socket));
@@ -1,10 +1,10 @@
 package io.discloader.discloader.network.gateway.packets;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 
 import io.discloader.discloader.common.DiscLoader;
 import io.discloader.discloader.network.gateway.DiscSocket;
+import io.discloader.discloader.util.DLUtil;
 import io.discloader.discloader.util.DLUtil.Status;
 
 /**
@@ -19,7 +19,7 @@ public abstract class AbstractHandler {
 	public AbstractHandler(DiscSocket socket) {
 		this.socket = socket;
 		this.loader = this.socket.loader;
-		this.gson = new GsonBuilder().serializeNulls().create();
+		this.gson = DLUtil.gson;
 	}
 
 	public void handle(SocketPacket packet) {
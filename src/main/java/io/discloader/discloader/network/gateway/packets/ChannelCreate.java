@@ -22,11 +22,11 @@ public class ChannelCreate extends AbstractHandler {
 
 	@Override
 	public void handle(SocketPacket packet) {
-		String d = gson.toJson(packet.d);
-		ChannelJSON data = gson.fromJson(d, ChannelJSON.class);
+		ChannelJSON data = gson.fromJson(packet.d, ChannelJSON.class);
 		
 		IGuild guild = EntityRegistry.getGuildByID(data.guild_id);
 		IChannel channel = EntityRegistry.addChannel(data, guild);
+		if (guild != null) guild.bumpVersion();
 		ChannelCreateEvent event = new ChannelCreateEvent(channel);
 		loader.emit(Events.CHANNEL_CREATE, event);
 		loader.emit(event);
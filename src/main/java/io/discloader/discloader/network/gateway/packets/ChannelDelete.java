@@ -3,6 +3,7 @@ package io.discloader.discloader.network.gateway.packets;
 import io.discloader.discloader.common.event.channel.ChannelDeleteEvent;
 import io.discloader.discloader.common.registry.EntityRegistry;
 import io.discloader.discloader.entity.channel.IChannel;
+import io.discloader.discloader.entity.channel.IGuildChannel;
 import io.discloader.discloader.entity.guild.IGuild;
 import io.discloader.discloader.network.gateway.DiscSocket;
 import io.discloader.discloader.network.json.ChannelJSON;
@@ -19,8 +20,7 @@ public class ChannelDelete extends AbstractHandler {
 
 	@Override
 	public void handle(SocketPacket packet) {
-		String d = gson.toJson(packet.d);
-		ChannelJSON data = gson.fromJson(d, ChannelJSON.class);
+		ChannelJSON data = gson.fromJson(packet.d, ChannelJSON.class);
 		IGuild guild = null;
 		IChannel channel = null;
 		if (data.guild_id != null) {
@@ -31,15 +31,14 @@ public class ChannelDelete extends AbstractHandler {
 		}
 		switch (channel.getType()) {
 		case TEXT:
-			guild.getTextChannels().remove(channel.getID());
-			break;
 		case VOICE:
-			guild.getVoiceChannels().remove(channel.getID());
+			guild.removeChannel((IGuildChannel) channel);
 			break;
 		default:
 			EntityRegistry.removeChannel(channel);
 			break;
 		}
+		if (guild != null) guild.bumpVersion();
 		ChannelDeleteEvent event = new ChannelDeleteEvent(channel);
 		loader.emit(Events.CHANNEL_DELETE, event);
 		loader.emit(event);
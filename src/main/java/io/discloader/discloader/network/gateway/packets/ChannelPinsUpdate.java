@@ -1,5 +1,25 @@
 package io.discloader.discloader.network.gateway.packets;
 
-public class ChannelPinsUpdate {
+import io.discloader.discloader.entity.util.SnowflakeUtil;
+import io.discloader.discloader.network.gateway.DiscSocket;
+import io.discloader.discloader.network.json.ChannelPinsUpdateJSON;
+import io.discloader.discloader.network.rest.ResponseCache;
+import io.discloader.discloader.util.DLUtil.Endpoints;
+
+/**
+ * @author Perry Berman
+ */
+public class ChannelPinsUpdate extends AbstractHandler {
+
+	public ChannelPinsUpdate(DiscSocket socket) {
+		super(socket);
+	}
+
+	@Override
+	public void handle(SocketPacket packet) {
+		ChannelPinsUpdateJSON data = gson.fromJson(packet.d, ChannelPinsUpdateJSON.class);
+		ResponseCache cache = loader.rest.getResponseCache();
+		if (cache != null) cache.invalidate(Endpoints.channelPins(SnowflakeUtil.parse(data.channel_id)));
+	}
 
 }
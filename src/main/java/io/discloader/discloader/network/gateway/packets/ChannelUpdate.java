@@ -9,8 +9,11 @@ import io.discloader.discloader.entity.channel.IChannel;
 import io.discloader.discloader.entity.channel.ITextChannel;
 import io.discloader.discloader.entity.guild.IGuild;
 import io.discloader.discloader.entity.message.IMessage;
+import io.discloader.discloader.entity.util.SnowflakeUtil;
 import io.discloader.discloader.network.gateway.DiscSocket;
 import io.discloader.discloader.network.json.ChannelJSON;
+import io.discloader.discloader.network.rest.ResponseCache;
+import io.discloader.discloader.util.DLUtil.Endpoints;
 import io.discloader.discloader.util.DLUtil.Events;
 
 /**
@@ -24,8 +27,9 @@ public class ChannelUpdate extends AbstractHandler {
 
 	@Override
 	public void handle(SocketPacket packet) {
-		String d = gson.toJson(packet.d);
-		ChannelJSON data = gson.fromJson(d, ChannelJSON.class);
+		ChannelJSON data = gson.fromJson(packet.d, ChannelJSON.class);
+		ResponseCache cache = loader.rest.getResponseCache();
+		if (cache != null) cache.invalidate(Endpoints.channel(SnowflakeUtil.parse(data.id)));
 		IGuild guild = null;
 		IChannel oldChannel = EntityRegistry.getChannelByID(data.id);
 		IChannel channel = null;
@@ -41,6 +45,7 @@ public class ChannelUpdate extends AbstractHandler {
 				itc.getMessages().put(message.getID(), message);
 			}
 		}
+		if (guild != null) guild.bumpVersion();
 		ChannelUpdateEvent event = new ChannelUpdateEvent(channel, oldChannel);
 		loader.emit(Events.CHANNEL_UPDATE, event);
 		loader.emit(event);
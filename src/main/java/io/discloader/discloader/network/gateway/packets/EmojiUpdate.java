@@ -22,8 +22,7 @@ public class EmojiUpdate extends AbstractHandler {
 
 	@Override
 	public void handle(SocketPacket packet) {
-		String d = this.gson.toJson(packet.d);
-		EmojiUpdateJSON data = gson.fromJson(d, EmojiUpdateJSON.class);
+		EmojiUpdateJSON data = gson.fromJson(packet.d, EmojiUpdateJSON.class);
 		IGuild guild = EntityRegistry.getGuildByID(data.guild_id);
 
 		HashMap<String, IGuildEmoji> emojis = new HashMap<>();
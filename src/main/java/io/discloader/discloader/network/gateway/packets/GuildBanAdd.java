@@ -19,8 +19,7 @@ public class GuildBanAdd extends AbstractHandler {
 
 	@Override
 	public void handle(SocketPacket packet) {
-		String d = gson.toJson(packet.d);
-		GuildMemberRemoveJSON data = this.gson.fromJson(d, GuildMemberRemoveJSON.class);
+		GuildMemberRemoveJSON data = this.gson.fromJson(packet.d, GuildMemberRemoveJSON.class);
 		IGuild guild = EntityRegistry.getGuildByID(data.guild_id);
 		IUser user = EntityRegistry.addUser(data.user);
 		guild.removeMember(user);
@@ -22,8 +22,7 @@ public class GuildBanRemove extends AbstractHandler {
 
 	@Override
 	public void handle(SocketPacket packet) {
-		String d = gson.toJson(packet.d);
-		GuildMemberRemoveJSON data = gson.fromJson(d, GuildMemberRemoveJSON.class);
+		GuildMemberRemoveJSON data = gson.fromJson(packet.d, GuildMemberRemoveJSON.class);
 		IGuild guild = EntityRegistry.getGuildByID(data.guild_id);
 		IUser user = EntityRegistry.addUser(data.user);
 		GuildBanRemoveEvent event = new GuildBanRemoveEvent(guild, user);
@@ -1,7 +1,5 @@
 package io.discloader.discloader.network.gateway.packets;
 
-import com.google.gson.Gson;
-
 import io.discloader.discloader.common.event.guild.GuildCreateEvent;
 import io.discloader.discloader.common.registry.EntityRegistry;
 import io.discloader.discloader.entity.guild.IGuild;
@@ -18,9 +16,7 @@ public class GuildCreate extends AbstractHandler {
 
 	@Override
 	public void handle(SocketPacket packet) {
-		Gson gson = new Gson();
-		String d = gson.toJson(packet.d);
-		GuildJSON data = gson.fromJson(d, GuildJSON.class);
+		GuildJSON data = gson.fromJson(packet.d, GuildJSON.class);
 		IGuild guild = null;
 		if (EntityRegistry.guildExists(data.id)) guild = EntityRegistry.getGuildByID(data.id);
 		if (guild != null) {
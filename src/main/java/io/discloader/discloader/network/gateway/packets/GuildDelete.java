@@ -23,8 +23,7 @@ public class GuildDelete extends AbstractHandler {
 
 	@Override
 	public void handle(SocketPacket packet) {
-		String d = this.gson.toJson(packet.d);
-		GuildJSON data = this.gson.fromJson(d, GuildJSON.class);
+		GuildJSON data = this.gson.fromJson(packet.d, GuildJSON.class);
 		IGuild guild = null;
 		if (EntityRegistry.guildExists(data.id)) {
 			guild = EntityRegistry.getGuildByID(data.id);
@@ -19,8 +19,7 @@ public class GuildMemberAdd extends AbstractHandler {
 
 	@Override
 	public void handle(SocketPacket packet) {
-		String d = this.gson.toJson(packet.d);
-		MemberJSON data = this.gson.fromJson(d, MemberJSON.class);
+		MemberJSON data = this.gson.fromJson(packet.d, MemberJSON.class);
 		IGuild guild = EntityRegistry.getGuildByID(data.guild_id);
 		guild.addMember(data, true);
 	}
@@ -22,8 +22,7 @@ public class GuildMemberRemove extends AbstractHandler {
 
 	@Override
 	public void handle(SocketPacket packet) {
-		String d = this.gson.toJson(packet.d);
-		GuildMemberRemoveJSON data = this.gson.fromJson(d, GuildMemberRemoveJSON.class);
+		GuildMemberRemoveJSON data = this.gson.fromJson(packet.d, GuildMemberRemoveJSON.class);
 		IGuild guild = EntityRegistry.getGuildByID(data.guild_id);
 		IGuildMember member = guild.getMember(data.user.id);
 		if (member == null) member = EntityBuilder.getGuildFactory().buildMember(guild, EntityRegistry.addUser(data.user), new String[] {}, false, false, null);
@@ -4,7 +4,6 @@ import io.discloader.discloader.common.event.guild.member.GuildMemberNicknameUpd
 import io.discloader.discloader.common.event.guild.member.GuildMemberUpdateEvent;
 import io.discloader.discloader.common.registry.EntityRegistry;
 import io.discloader.discloader.common.registry.EntityBuilder;
-import io.discloader.discloader.common.registry.factory.GuildFactory;
 import io.discloader.discloader.entity.guild.IGuild;
 import io.discloader.discloader.entity.guild.IGuildMember;
 import io.discloader.discloader.network.gateway.DiscSocket;
@@ -16,18 +15,15 @@ import io.discloader.discloader.util.DLUtil.Events;
  */
 public class GuildMemberUpdate extends AbstractHandler {
 
-	private GuildFactory gfac = EntityBuilder.getGuildFactory();
-
 	public GuildMemberUpdate(DiscSocket socket) {
 		super(socket);
 	}
 
 	@Override
 	public void handle(SocketPacket packet) {
-		String d = this.gson.toJson(packet.d);
-		MemberJSON data = this.gson.fromJson(d, MemberJSON.class);
+		MemberJSON data = this.gson.fromJson(packet.d, MemberJSON.class);
 		IGuild guild = EntityRegistry.getGuildByID(data.guild_id);
-		IGuildMember oldMember = guild.getMember(data.user.id), member = gfac.buildMember(guild, data);
+		IGuildMember oldMember = guild.getMember(data.user.id), member = EntityBuilder.getGuildFactory().buildMember(guild, data);
 		guild.addMember(member);
 		if (shouldEmit() && oldMember != null) {
 			GuildMemberUpdateEvent event = new GuildMemberUpdateEvent(member, oldMember, guild);
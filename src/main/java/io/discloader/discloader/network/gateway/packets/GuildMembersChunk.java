@@ -23,16 +23,17 @@ public class GuildMembersChunk extends AbstractHandler {
 
 	@Override
 	public void handle(SocketPacket packet) {
-		String d = this.gson.toJson(packet.d);
-		GuildMembersChunkJSON data = this.gson.fromJson(d, GuildMembersChunkJSON.class);
+		GuildMembersChunkJSON data = this.gson.fromJson(packet.d, GuildMembersChunkJSON.class);
 		IGuild guild = EntityRegistry.getGuildByID(data.guild_id);
 		if (guild == null) return;
 		Map<Long, IGuildMember> members = new HashMap<>();
 		for (MemberJSON m : data.members) {
-			IGuildMember member = EntityBuilder.getGuildFactory().buildMember(guild, EntityRegistry.addUser(m.user), new String[] {}, false, false, null);
-			guild.addMember(member);
+			IGuildMember member = EntityBuilder.getGuildFactory().buildMember(guild, m);
 			members.put(member.getID(), member);
 		}
+		// the chunk is merged into the guild's member cache in one update, so snapshots see all of it or none
+		guild.addMembers(members.values());
+		loader.memberSync.onChunk(guild, data);
 		GuildMembersChunkEvent event = new GuildMembersChunkEvent(guild, members);
 		loader.emit(event);
 	}
@@ -15,8 +15,7 @@ public class GuildSync extends AbstractHandler {
 
 	@Override
 	public void handle(SocketPacket packet) {
-		String d = gson.toJson(packet.d);
-		GuildSyncJSON data = gson.fromJson(d, GuildSyncJSON.class);
+		GuildSyncJSON data = gson.fromJson(packet.d, GuildSyncJSON.class);
 		IGuild guild = EntityRegistry.getGuildByID(data.id);
 		for (PresenceJSON pe : data.presences) {
 			guild.setPresence(pe);
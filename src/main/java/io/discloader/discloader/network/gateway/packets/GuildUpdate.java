@@ -5,6 +5,7 @@ import io.discloader.discloader.common.registry.EntityRegistry;
 import io.discloader.discloader.entity.guild.IGuild;
 import io.discloader.discloader.network.gateway.DiscSocket;
 import io.discloader.discloader.network.json.GuildJSON;
+import io.discloader.discloader.network.rest.ResponseCache;
 import io.discloader.discloader.util.DLUtil;
 
 /**
@@ -18,10 +19,11 @@ public class GuildUpdate extends AbstractHandler {
 
 	@Override
 	public void handle(SocketPacket packet) {
-		String d = gson.toJson(packet.d);
-		GuildJSON data = gson.fromJson(d, GuildJSON.class);
+		GuildJSON data = gson.fromJson(packet.d, GuildJSON.class);
 		IGuild guild = EntityRegistry.getGuildByID(data.id);
 		guild.setup(data);
+		ResponseCache cache = loader.rest.getResponseCache();
+		if (cache != null) cache.invalidate(DLUtil.Endpoints.guild(guild.getID()));
 		GuildUpdateEvent event = new GuildUpdateEvent(guild);
 		loader.emit(DLUtil.Events.GUILD_UPDATE, event);
 		loader.emit(event);
@@ -11,7 +11,7 @@ public class Hello extends AbstractHandler {
 
 	@Override
 	public void handle(SocketPacket packet) {
-		HelloJSON helloJSON = gson.fromJson(gson.toJson(packet.d), HelloJSON.class);
+		HelloJSON helloJSON = gson.fromJson(packet.d, HelloJSON.class);
 		this.socket.keepAlive(helloJSON.heartbeat_interval);
 	}
 
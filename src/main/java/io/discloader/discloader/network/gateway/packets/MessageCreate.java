@@ -28,7 +28,7 @@ public class MessageCreate extends AbstractHandler {
 
 	@Override
 	public void handle(SocketPacket packet) {
-		MessageJSON data = this.gson.fromJson(gson.toJson(packet.d), MessageJSON.class);
+		MessageJSON data = this.gson.fromJson(packet.d, MessageJSON.class);
 		try {
 			long channelID = SnowflakeUtil.parse(data.channel_id);
 			ITextChannel channel = EntityRegistry.getTextChannelByID(channelID);
@@ -21,7 +21,7 @@ public class MessageDelete extends AbstractHandler {
 
 	@Override
 	public void handle(SocketPacket packet) {
-		MessageJSON data = this.gson.fromJson(this.gson.toJson(packet.d), MessageJSON.class);
+		MessageJSON data = this.gson.fromJson(packet.d, MessageJSON.class);
 		long channelID = SnowflakeUtil.parse(data.channel_id);
 		ITextChannel channel = EntityRegistry.getTextChannelByID(channelID);
 		if (channel == null) channel = EntityRegistry.getPrivateChannelByID(channelID);
@@ -27,7 +27,7 @@ public class MessageUpdate extends AbstractHandler {
 
 	@Override
 	public void handle(SocketPacket packet) {
-		MessageJSON data = gson.fromJson(gson.toJson(packet.d), MessageJSON.class);
+		MessageJSON data = gson.fromJson(packet.d, MessageJSON.class);
 		ITextChannel channel = EntityRegistry.getTextChannelByID(data.channel_id);
 		if (channel == null) channel = EntityRegistry.getPrivateChannelByID(data.channel_id);
 		if (channel == null) return;
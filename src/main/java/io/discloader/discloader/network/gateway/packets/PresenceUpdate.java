@@ -1,5 +1,7 @@
 package io.discloader.discloader.network.gateway.packets;
 
+import java.util.Objects;
+
 import io.discloader.discloader.common.event.UserUpdateEvent;
 import io.discloader.discloader.common.event.guild.member.GuildMemberUpdateEvent;
 import io.discloader.discloader.common.registry.EntityRegistry;
@@ -22,7 +24,7 @@ public class PresenceUpdate extends AbstractHandler {
 
 	@Override
 	public void handle(SocketPacket packet) {
-		PresenceJSON data = this.gson.fromJson(gson.toJson(packet.d), PresenceJSON.class);
+		PresenceJSON data = this.gson.fromJson(packet.d, PresenceJSON.class);
 		IUser user = EntityRegistry.getUserByID(data.user.id);
 		if (user == null) {
 			if (data.user.username != null) {
@@ -33,8 +35,16 @@ public class PresenceUpdate extends AbstractHandler {
 		}
 
 		IUser oldUser = new User(user);
+		long version = user.getVersion();
 		user.setup(data.user);
-		if (!user.equals(oldUser)) {
+		if (user.getVersion() != version) {
+			if (!Objects.equals(user.getUsername(), oldUser.getUsername())) {
+				// members share their user object, so every guild the user is in has to re-index the new name
+				for (IGuild g : EntityRegistry.getGuilds()) {
+					IGuildMember member = g.getMember(user.getID());
+					if (member != null) g.reindexMember(member);
+				}
+			}
 			UserUpdateEvent event = new UserUpdateEvent(user, oldUser);
 			loader.emit(DLUtil.Events.USER_UPDATE, event);
 			loader.emit(event);
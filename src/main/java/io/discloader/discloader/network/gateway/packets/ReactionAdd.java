@@ -17,7 +17,7 @@ public class ReactionAdd extends AbstractHandler {
 	}
 
 	public void handle(SocketPacket packet) {
-		ReactionJSON data = gson.fromJson(gson.toJson(packet.d), ReactionJSON.class);
+		ReactionJSON data = gson.fromJson(packet.d, ReactionJSON.class);
 		IUser user = EntityRegistry.getUserByID(data.user_id);
 		ITextChannel channel = EntityRegistry.getTextChannelByID(data.channel_id);
 		if (channel == null) channel = EntityRegistry.getPrivateChannelByID(data.channel_id);
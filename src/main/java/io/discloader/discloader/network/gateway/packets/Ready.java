@@ -15,8 +15,7 @@ public class Ready extends AbstractHandler {
 
 	@Override
 	public void handle(SocketPacket packet) {
-		String d = gson.toJson(packet.d);
-		ReadyJSON readyJSON = gson.fromJson(d, ReadyJSON.class);
+		ReadyJSON readyJSON = gson.fromJson(packet.d, ReadyJSON.class);
 
 		// set session id first just incase some screws up
 		socket.sessionID = readyJSON.session_id;
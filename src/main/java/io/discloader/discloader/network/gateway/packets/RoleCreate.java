@@ -5,7 +5,6 @@ import io.discloader.discloader.common.event.IEventListener;
 import io.discloader.discloader.common.event.guild.role.GuildRoleCreateEvent;
 import io.discloader.discloader.common.registry.EntityRegistry;
 import io.discloader.discloader.common.registry.EntityBuilder;
-import io.discloader.discloader.common.registry.factory.GuildFactory;
 import io.discloader.discloader.core.entity.guild.Guild;
 import io.discloader.discloader.core.entity.guild.Role;
 import io.discloader.discloader.entity.guild.IGuild;
@@ -24,18 +23,15 @@ import io.discloader.discloader.util.DLUtil;
  */
 public class RoleCreate extends AbstractHandler {
 
-	private GuildFactory gfac = EntityBuilder.getGuildFactory();
-
 	public RoleCreate(DiscSocket socket) {
 		super(socket);
 	}
 
 	@Override
 	public void handle(SocketPacket packet) {
-		String d = gson.toJson(packet.d);
-		GuildRoleJSON data = gson.fromJson(d, GuildRoleJSON.class);
+		GuildRoleJSON data = gson.fromJson(packet.d, GuildRoleJSON.class);
 		IGuild guild = EntityRegistry.getGuildByID(data.guild_id);
-		IRole role = guild.addRole(gfac.buildRole(guild, data.role));
+		IRole role = guild.addRole(EntityBuilder.getGuildFactory().buildRole(guild, data.role));
 		GuildRoleCreateEvent event = new GuildRoleCreateEvent(role);
 		loader.emit(DLUtil.Events.GUILD_ROLE_CREATE, event);
 		loader.emit(event);
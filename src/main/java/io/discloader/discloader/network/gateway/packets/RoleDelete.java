@@ -19,8 +19,7 @@ public class RoleDelete extends AbstractHandler {
 
 	@Override
 	public void handle(SocketPacket packet) {
-		String d = this.gson.toJson(packet.d);
-		GuildRoleJSON data = this.gson.fromJson(d, GuildRoleJSON.class);
+		GuildRoleJSON data = this.gson.fromJson(packet.d, GuildRoleJSON.class);
 		IGuild guild = EntityRegistry.getGuildByID(data.guild_id);
 		IRole role = guild.removeRole(data.role_id);
 		if (role == null) return;
@@ -24,8 +24,7 @@ public class RoleUpdate extends AbstractHandler {
 
 	@Override
 	public void handle(SocketPacket packet) {
-		String d = this.gson.toJson(packet.d);
-		Packet data = this.gson.fromJson(d, Packet.class);
+		Packet data = this.gson.fromJson(packet.d, Packet.class);
 		IGuild guild = EntityRegistry.getGuildByID(data.guild_id);
 		IRole oldRole = guild.getRoles().get(data.role.id);
 		IRole role = guild.addRole(data.role);
@@ -1,10 +1,15 @@
 package io.discloader.discloader.network.gateway.packets;
 
+import com.google.gson.JsonElement;
+
 public class SocketPacket {
 	public int op;
 	public int s;
 	public String t;
-	public Object d;
+	/**
+	 * The packet's data, kept as a tree so handlers can bind it without writing it back out as a string first
+	 */
+	public JsonElement d;
 
 	public SocketPacket() {
 
@@ -20,8 +20,7 @@ public class TypingStart extends AbstractHandler {
 
 	@Override
 	public void handle(SocketPacket packet) {
-		String d = gson.toJson(packet.d);
-		TypingStartJSON data = gson.fromJson(d, TypingStartJSON.class);
+		TypingStartJSON data = gson.fromJson(packet.d, TypingStartJSON.class);
 		ITextChannel channel = EntityRegistry.getTextChannelByID(data.channel_id);
 		if (channel == null) channel = EntityRegistry.getPrivateChannelByID(data.channel_id);
 		if (channel == null) return;
@@ -26,8 +26,7 @@ public class VoiceStateUpdate extends AbstractHandler {
 
 	@Override
 	public void handle(SocketPacket packet) {
-		String d = this.gson.toJson(packet.d);
-		VoiceStateJSON data = this.gson.fromJson(d, VoiceStateJSON.class);
+		VoiceStateJSON data = this.gson.fromJson(packet.d, VoiceStateJSON.class);
 		IGuild guild = EntityRegistry.getGuildByID(data.guild_id);
 		if (guild.getMember(data.user_id) == null) return;
 		VoiceConnection connection = EntityRegistry.getVoiceConnectionByID(guild.getID());
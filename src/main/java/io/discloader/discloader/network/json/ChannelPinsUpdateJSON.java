@@ -0,0 +1,6 @@
+package io.discloader.discloader.network.json;
+
+public class ChannelPinsUpdateJSON {
+	public String channel_id;
+	public String last_pin_timestamp;
+}
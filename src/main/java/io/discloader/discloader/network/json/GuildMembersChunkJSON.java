@@ -4,4 +4,11 @@ public class GuildMembersChunkJSON {
     public String guild_id;
 
     public MemberJSON[] members;
+
+    /**
+     * The chunk's index and the number of chunks in the response, if the gateway sends them
+     */
+    public Integer chunk_index;
+
+    public Integer chunk_count;
 }
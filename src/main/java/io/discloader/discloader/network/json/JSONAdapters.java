@@ -0,0 +1,822 @@
+package io.discloader.discloader.network.json;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import io.discloader.discloader.util.DLUtil;
+
+/**
+ * Hand written {@link TypeAdapter TypeAdapters} for the objects the gateway sends the most of: messages, presences, members, users,
+ * voice states and typing events, and the objects nested in them.<br>
+ * Gson binds these fields without reflection. Every object that contains one of them, like a {@link GuildJSON} with thousands of
+ * members and presences, uses them for its nested objects too. The other {@code *JSON} classes are still bound reflectively, but only
+ * once, since the codec is {@link DLUtil#gson shared}.<br>
+ * Fields the classes don't have are skipped. A field that is {@code null} or missing keeps its default value, just like it would
+ * with reflection. If one of the classes has a field its adapter doesn't read, the factory leaves that class to reflection, so no field
+ * is ever dropped.
+ *
+ * @author Perry Berman
+ */
+public class JSONAdapters implements TypeAdapterFactory {
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+		Class<? super T> raw = type.getRawType();
+		if (raw == UserJSON.class) return handles(raw, UserAdapter.FIELDS) ? (TypeAdapter<T>) new UserAdapter() : null;
+		if (raw == MemberJSON.class) return handles(raw, MemberAdapter.FIELDS) ? (TypeAdapter<T>) new MemberAdapter(gson) : null;
+		if (raw == PresenceJSON.class) return handles(raw, PresenceAdapter.FIELDS) ? (TypeAdapter<T>) new PresenceAdapter(gson) : null;
+		if (raw == GameJSON.class) return handles(raw, GameAdapter.FIELDS) ? (TypeAdapter<T>) new GameAdapter() : null;
+		if (raw == MessageJSON.class) return handles(raw, MessageAdapter.FIELDS) ? (TypeAdapter<T>) new MessageAdapter(gson) : null;
+		if (raw == AttachmentJSON.class) return handles(raw, AttachmentAdapter.FIELDS) ? (TypeAdapter<T>) new AttachmentAdapter() : null;
+		if (raw == ReactionJSON.class) return handles(raw, ReactionAdapter.FIELDS) ? (TypeAdapter<T>) new ReactionAdapter(gson) : null;
+		if (raw == EmojiJSON.class) return handles(raw, EmojiAdapter.FIELDS) ? (TypeAdapter<T>) new EmojiAdapter() : null;
+		if (raw == VoiceStateJSON.class) return handles(raw, VoiceStateAdapter.FIELDS) ? (TypeAdapter<T>) new VoiceStateAdapter() : null;
+		if (raw == TypingStartJSON.class) return handles(raw, TypingStartAdapter.FIELDS) ? (TypeAdapter<T>) new TypingStartAdapter() : null;
+		return null;
+	}
+
+	/**
+	 * Checks that an adapter reads every field Gson would bind for {@code type}. A field added to one of the classes without adding
+	 * it to its adapter would otherwise never be read, so the class falls back to reflection until the adapter knows about it.
+	 *
+	 * @param type The class to check
+	 * @param fields The names of the fields the adapter reads
+	 * @return {@code true} if the adapter reads every serialized field of {@code type}
+	 */
+	static boolean handles(Class<?> type, String... fields) {
+		List<String> names = Arrays.asList(fields);
+		for (Class<?> c = type; c != Object.class; c = c.getSuperclass()) {
+			for (Field field : c.getDeclaredFields()) {
+				int modifiers = field.getModifiers();
+				if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) continue;
+				SerializedName name = field.getAnnotation(SerializedName.class);
+				if (!names.contains(name == null ? field.getName() : name.value())) return false;
+			}
+		}
+		return true;
+	}
+
+	private static String readString(JsonReader in) throws IOException {
+		switch (in.peek()) {
+		case NULL:
+			in.nextNull();
+			return null;
+		case BOOLEAN:
+			return Boolean.toString(in.nextBoolean());
+		default:
+			return in.nextString();
+		}
+	}
+
+	private static boolean readBoolean(JsonReader in, boolean value) throws IOException {
+		switch (in.peek()) {
+		case NULL:
+			in.nextNull();
+			return value;
+		case STRING:
+			return Boolean.parseBoolean(in.nextString());
+		default:
+			return in.nextBoolean();
+		}
+	}
+
+	private static int readInt(JsonReader in, int value) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return value;
+		}
+		return in.nextInt();
+	}
+
+	private static String[] readStrings(JsonReader in) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		List<String> values = new ArrayList<>();
+		in.beginArray();
+		while (in.hasNext()) {
+			values.add(readString(in));
+		}
+		in.endArray();
+		return values.toArray(new String[values.size()]);
+	}
+
+	private static void writeStrings(JsonWriter out, String[] values) throws IOException {
+		if (values == null) {
+			out.nullValue();
+			return;
+		}
+		out.beginArray();
+		for (String value : values) {
+			out.value(value);
+		}
+		out.endArray();
+	}
+
+	/**
+	 * Reads a field that isn't {@code null} with the nested object's adapter, so a {@code null} keeps the field's default value.
+	 */
+	private static <T> T readObject(JsonReader in, TypeAdapter<T> adapter, T value) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return value;
+		}
+		return adapter.read(in);
+	}
+
+	private static class UserAdapter extends TypeAdapter<UserJSON> {
+
+		static final String[] FIELDS = { "id", "email", "password", "username", "avatar", "discriminator", "bot", "verified", "mfa_enabled" };
+
+		@Override
+		public UserJSON read(JsonReader in) throws IOException {
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				return null;
+			}
+			UserJSON data = new UserJSON();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case "id":
+					data.id = readString(in);
+					break;
+				case "email":
+					data.email = readString(in);
+					break;
+				case "password":
+					data.password = readString(in);
+					break;
+				case "username":
+					data.username = readString(in);
+					break;
+				case "avatar":
+					data.avatar = readString(in);
+					break;
+				case "discriminator":
+					data.discriminator = readString(in);
+					break;
+				case "bot":
+					data.bot = readBoolean(in, data.bot);
+					break;
+				case "verified":
+					data.verified = readBoolean(in, data.verified);
+					break;
+				case "mfa_enabled":
+					data.mfa_enabled = readBoolean(in, data.mfa_enabled);
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return data;
+		}
+
+		@Override
+		public void write(JsonWriter out, UserJSON data) throws IOException {
+			if (data == null) {
+				out.nullValue();
+				return;
+			}
+			out.beginObject();
+			out.name("id").value(data.id);
+			out.name("email").value(data.email);
+			out.name("password").value(data.password);
+			out.name("username").value(data.username);
+			out.name("avatar").value(data.avatar);
+			out.name("discriminator").value(data.discriminator);
+			out.name("bot").value(data.bot);
+			out.name("verified").value(data.verified);
+			out.name("mfa_enabled").value(data.mfa_enabled);
+			out.endObject();
+		}
+
+	}
+
+	private static class MemberAdapter extends TypeAdapter<MemberJSON> {
+
+		static final String[] FIELDS = { "user", "guild_id", "nick", "roles", "joined_at", "deaf", "mute" };
+
+		private final TypeAdapter<UserJSON> users;
+
+		MemberAdapter(Gson gson) {
+			users = gson.getAdapter(UserJSON.class);
+		}
+
+		@Override
+		public MemberJSON read(JsonReader in) throws IOException {
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				return null;
+			}
+			MemberJSON data = new MemberJSON();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case "user":
+					data.user = readObject(in, users, data.user);
+					break;
+				case "guild_id":
+					data.guild_id = readString(in);
+					break;
+				case "nick":
+					data.nick = readString(in);
+					break;
+				case "roles":
+					data.roles = readStrings(in);
+					break;
+				case "joined_at":
+					data.joined_at = readString(in);
+					break;
+				case "deaf":
+					data.deaf = readBoolean(in, data.deaf);
+					break;
+				case "mute":
+					data.mute = readBoolean(in, data.mute);
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return data;
+		}
+
+		@Override
+		public void write(JsonWriter out, MemberJSON data) throws IOException {
+			if (data == null) {
+				out.nullValue();
+				return;
+			}
+			out.beginObject();
+			out.name("user");
+			users.write(out, data.user);
+			out.name("guild_id").value(data.guild_id);
+			out.name("nick").value(data.nick);
+			out.name("roles");
+			writeStrings(out, data.roles);
+			out.name("joined_at").value(data.joined_at);
+			out.name("deaf").value(data.deaf);
+			out.name("mute").value(data.mute);
+			out.endObject();
+		}
+
+	}
+
+	private static class PresenceAdapter extends TypeAdapter<PresenceJSON> {
+
+		static final String[] FIELDS = { "user", "status", "game", "roles", "guild_id", "nick" };
+
+		private final TypeAdapter<UserJSON> users;
+
+		private final TypeAdapter<GameJSON> games;
+
+		PresenceAdapter(Gson gson) {
+			users = gson.getAdapter(UserJSON.class);
+			games = gson.getAdapter(GameJSON.class);
+		}
+
+		@Override
+		public PresenceJSON read(JsonReader in) throws IOException {
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				return null;
+			}
+			PresenceJSON data = new PresenceJSON();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case "user":
+					data.user = readObject(in, users, data.user);
+					break;
+				case "status":
+					data.status = readString(in);
+					break;
+				case "game":
+					data.game = readObject(in, games, data.game);
+					break;
+				case "roles":
+					data.roles = readStrings(in);
+					break;
+				case "guild_id":
+					data.guild_id = readString(in);
+					break;
+				case "nick":
+					data.nick = readString(in);
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return data;
+		}
+
+		@Override
+		public void write(JsonWriter out, PresenceJSON data) throws IOException {
+			if (data == null) {
+				out.nullValue();
+				return;
+			}
+			out.beginObject();
+			out.name("user");
+			users.write(out, data.user);
+			out.name("status").value(data.status);
+			out.name("game");
+			games.write(out, data.game);
+			out.name("roles");
+			writeStrings(out, data.roles);
+			out.name("guild_id").value(data.guild_id);
+			out.name("nick").value(data.nick);
+			out.endObject();
+		}
+
+	}
+
+	private static class GameAdapter extends TypeAdapter<GameJSON> {
+
+		static final String[] FIELDS = { "type", "name", "url" };
+
+		@Override
+		public GameJSON read(JsonReader in) throws IOException {
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				return null;
+			}
+			GameJSON data = new GameJSON();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case "type":
+					data.type = readInt(in, data.type);
+					break;
+				case "name":
+					data.name = readString(in);
+					break;
+				case "url":
+					data.url = readString(in);
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return data;
+		}
+
+		@Override
+		public void write(JsonWriter out, GameJSON data) throws IOException {
+			if (data == null) {
+				out.nullValue();
+				return;
+			}
+			out.beginObject();
+			out.name("type").value(data.type);
+			out.name("name").value(data.name);
+			out.name("url").value(data.url);
+			out.endObject();
+		}
+
+	}
+
+	private static class MessageAdapter extends TypeAdapter<MessageJSON> {
+
+		static final String[] FIELDS = { "id", "content", "channel_id", "timestamp", "edited_timestamp", "nonce", "webhook_id", "type", "tts", "mention_everyone", "pinned", "author", "mentions", "mention_roles", "embeds", "attachments", "reactions" };
+
+		private final TypeAdapter<UserJSON> users;
+
+		private final TypeAdapter<UserJSON[]> mentions;
+
+		private final TypeAdapter<EmbedJSON[]> embeds;
+
+		private final TypeAdapter<AttachmentJSON[]> attachments;
+
+		private final TypeAdapter<ReactionJSON[]> reactions;
+
+		MessageAdapter(Gson gson) {
+			users = gson.getAdapter(UserJSON.class);
+			mentions = gson.getAdapter(UserJSON[].class);
+			embeds = gson.getAdapter(EmbedJSON[].class);
+			attachments = gson.getAdapter(AttachmentJSON[].class);
+			reactions = gson.getAdapter(ReactionJSON[].class);
+		}
+
+		@Override
+		public MessageJSON read(JsonReader in) throws IOException {
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				return null;
+			}
+			MessageJSON data = new MessageJSON();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case "id":
+					data.id = readString(in);
+					break;
+				case "content":
+					data.content = readString(in);
+					break;
+				case "channel_id":
+					data.channel_id = readString(in);
+					break;
+				case "timestamp":
+					data.timestamp = readString(in);
+					break;
+				case "edited_timestamp":
+					data.edited_timestamp = readString(in);
+					break;
+				case "nonce":
+					data.nonce = readString(in);
+					break;
+				case "webhook_id":
+					data.webhook_id = readString(in);
+					break;
+				case "type":
+					data.type = readInt(in, data.type);
+					break;
+				case "tts":
+					data.tts = readBoolean(in, data.tts);
+					break;
+				case "mention_everyone":
+					data.mention_everyone = readBoolean(in, data.mention_everyone);
+					break;
+				case "pinned":
+					data.pinned = readBoolean(in, data.pinned);
+					break;
+				case "author":
+					data.author = readObject(in, users, data.author);
+					break;
+				case "mentions":
+					data.mentions = readObject(in, mentions, data.mentions);
+					break;
+				case "mention_roles":
+					data.mention_roles = readStrings(in);
+					break;
+				case "embeds":
+					data.embeds = readObject(in, embeds, data.embeds);
+					break;
+				case "attachments":
+					data.attachments = readObject(in, attachments, data.attachments);
+					break;
+				case "reactions":
+					data.reactions = readObject(in, reactions, data.reactions);
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return data;
+		}
+
+		@Override
+		public void write(JsonWriter out, MessageJSON data) throws IOException {
+			if (data == null) {
+				out.nullValue();
+				return;
+			}
+			out.beginObject();
+			out.name("id").value(data.id);
+			out.name("content").value(data.content);
+			out.name("channel_id").value(data.channel_id);
+			out.name("timestamp").value(data.timestamp);
+			out.name("edited_timestamp").value(data.edited_timestamp);
+			out.name("nonce").value(data.nonce);
+			out.name("webhook_id").value(data.webhook_id);
+			out.name("type").value(data.type);
+			out.name("tts").value(data.tts);
+			out.name("mention_everyone").value(data.mention_everyone);
+			out.name("pinned").value(data.pinned);
+			out.name("author");
+			users.write(out, data.author);
+			out.name("mentions");
+			mentions.write(out, data.mentions);
+			out.name("mention_roles");
+			writeStrings(out, data.mention_roles);
+			out.name("embeds");
+			embeds.write(out, data.embeds);
+			out.name("attachments");
+			attachments.write(out, data.attachments);
+			out.name("reactions");
+			reactions.write(out, data.reactions);
+			out.endObject();
+		}
+
+	}
+
+	private static class AttachmentAdapter extends TypeAdapter<AttachmentJSON> {
+
+		static final String[] FIELDS = { "id", "filename", "size", "url", "proxy_url", "height", "width" };
+
+		@Override
+		public AttachmentJSON read(JsonReader in) throws IOException {
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				return null;
+			}
+			AttachmentJSON data = new AttachmentJSON();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case "id":
+					data.id = readString(in);
+					break;
+				case "filename":
+					data.filename = readString(in);
+					break;
+				case "size":
+					data.size = readInt(in, data.size);
+					break;
+				case "url":
+					data.url = readString(in);
+					break;
+				case "proxy_url":
+					data.proxy_url = readString(in);
+					break;
+				case "height":
+					data.height = readInt(in, data.height);
+					break;
+				case "width":
+					data.width = readInt(in, data.width);
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return data;
+		}
+
+		@Override
+		public void write(JsonWriter out, AttachmentJSON data) throws IOException {
+			if (data == null) {
+				out.nullValue();
+				return;
+			}
+			out.beginObject();
+			out.name("id").value(data.id);
+			out.name("filename").value(data.filename);
+			out.name("size").value(data.size);
+			out.name("url").value(data.url);
+			out.name("proxy_url").value(data.proxy_url);
+			out.name("height").value(data.height);
+			out.name("width").value(data.width);
+			out.endObject();
+		}
+
+	}
+
+	private static class ReactionAdapter extends TypeAdapter<ReactionJSON> {
+
+		static final String[] FIELDS = { "count", "me", "emoji", "user_id", "message_id", "channel_id" };
+
+		private final TypeAdapter<EmojiJSON> emojis;
+
+		ReactionAdapter(Gson gson) {
+			emojis = gson.getAdapter(EmojiJSON.class);
+		}
+
+		@Override
+		public ReactionJSON read(JsonReader in) throws IOException {
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				return null;
+			}
+			ReactionJSON data = new ReactionJSON();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case "count":
+					data.count = readInt(in, data.count);
+					break;
+				case "me":
+					data.me = readBoolean(in, data.me);
+					break;
+				case "emoji":
+					data.emoji = readObject(in, emojis, data.emoji);
+					break;
+				case "user_id":
+					data.user_id = readString(in);
+					break;
+				case "message_id":
+					data.message_id = readString(in);
+					break;
+				case "channel_id":
+					data.channel_id = readString(in);
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return data;
+		}
+
+		@Override
+		public void write(JsonWriter out, ReactionJSON data) throws IOException {
+			if (data == null) {
+				out.nullValue();
+				return;
+			}
+			out.beginObject();
+			out.name("count").value(data.count);
+			out.name("me").value(data.me);
+			out.name("emoji");
+			emojis.write(out, data.emoji);
+			out.name("user_id").value(data.user_id);
+			out.name("message_id").value(data.message_id);
+			out.name("channel_id").value(data.channel_id);
+			out.endObject();
+		}
+
+	}
+
+	private static class EmojiAdapter extends TypeAdapter<EmojiJSON> {
+
+		static final String[] FIELDS = { "id", "name", "roles", "requires_colons", "managed" };
+
+		@Override
+		public EmojiJSON read(JsonReader in) throws IOException {
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				return null;
+			}
+			EmojiJSON data = new EmojiJSON();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case "id":
+					data.id = readString(in);
+					break;
+				case "name":
+					data.name = readString(in);
+					break;
+				case "roles":
+					data.roles = readStrings(in);
+					break;
+				case "requires_colons":
+					data.requires_colons = readBoolean(in, data.requires_colons);
+					break;
+				case "managed":
+					data.managed = readBoolean(in, data.managed);
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return data;
+		}
+
+		@Override
+		public void write(JsonWriter out, EmojiJSON data) throws IOException {
+			if (data == null) {
+				out.nullValue();
+				return;
+			}
+			out.beginObject();
+			out.name("id").value(data.id);
+			out.name("name").value(data.name);
+			out.name("roles");
+			writeStrings(out, data.roles);
+			out.name("requires_colons").value(data.requires_colons);
+			out.name("managed").value(data.managed);
+			out.endObject();
+		}
+
+	}
+
+	private static class VoiceStateAdapter extends TypeAdapter<VoiceStateJSON> {
+
+		static final String[] FIELDS = { "guild_id", "channel_id", "user_id", "session_id", "deaf", "mute", "self_deaf", "self_mute", "suppress" };
+
+		@Override
+		public VoiceStateJSON read(JsonReader in) throws IOException {
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				return null;
+			}
+			VoiceStateJSON data = new VoiceStateJSON();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case "guild_id":
+					data.guild_id = readString(in);
+					break;
+				case "channel_id":
+					data.channel_id = readString(in);
+					break;
+				case "user_id":
+					data.user_id = readString(in);
+					break;
+				case "session_id":
+					data.session_id = readString(in);
+					break;
+				case "deaf":
+					data.deaf = readBoolean(in, data.deaf);
+					break;
+				case "mute":
+					data.mute = readBoolean(in, data.mute);
+					break;
+				case "self_deaf":
+					data.self_deaf = readBoolean(in, data.self_deaf);
+					break;
+				case "self_mute":
+					data.self_mute = readBoolean(in, data.self_mute);
+					break;
+				case "suppress":
+					data.suppress = readBoolean(in, data.suppress);
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return data;
+		}
+
+		@Override
+		public void write(JsonWriter out, VoiceStateJSON data) throws IOException {
+			if (data == null) {
+				out.nullValue();
+				return;
+			}
+			out.beginObject();
+			out.name("guild_id").value(data.guild_id);
+			out.name("channel_id").value(data.channel_id);
+			out.name("user_id").value(data.user_id);
+			out.name("session_id").value(data.session_id);
+			out.name("deaf").value(data.deaf);
+			out.name("mute").value(data.mute);
+			out.name("self_deaf").value(data.self_deaf);
+			out.name("self_mute").value(data.self_mute);
+			out.name("suppress").value(data.suppress);
+			out.endObject();
+		}
+
+	}
+
+	private static class TypingStartAdapter extends TypeAdapter<TypingStartJSON> {
+
+		static final String[] FIELDS = { "user_id", "channel_id", "timestamp" };
+
+		@Override
+		public TypingStartJSON read(JsonReader in) throws IOException {
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				return null;
+			}
+			TypingStartJSON data = new TypingStartJSON();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case "user_id":
+					data.user_id = readString(in);
+					break;
+				case "channel_id":
+					data.channel_id = readString(in);
+					break;
+				case "timestamp":
+					data.timestamp = readInt(in, data.timestamp);
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return data;
+		}
+
+		@Override
+		public void write(JsonWriter out, TypingStartJSON data) throws IOException {
+			if (data == null) {
+				out.nullValue();
+				return;
+			}
+			out.beginObject();
+			out.name("user_id").value(data.user_id);
+			out.name("channel_id").value(data.channel_id);
+			out.name("timestamp").value(data.timestamp);
+			out.endObject();
+		}
+
+	}
+
+}
@@ -3,20 +3,47 @@ package io.discloader.discloader.network.rest;
 import static io.discloader.discloader.util.DLUtil.gson;
 
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.CompletableFuture;
-
-import com.mashape.unirest.http.Unirest;
-import com.mashape.unirest.request.BaseRequest;
-import com.mashape.unirest.request.HttpRequestWithBody;
-import com.mashape.unirest.request.body.MultipartBody;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import io.discloader.discloader.client.render.util.Resource;
 import io.discloader.discloader.entity.sendable.SendableMessage;
-import io.discloader.discloader.util.DLUtil;
+import io.discloader.discloader.network.rest.transport.HTTPRequest;
+import io.discloader.discloader.network.rest.transport.HTTPResponse;
+import io.discloader.discloader.network.rest.transport.MappedFiles;
+import io.discloader.discloader.network.rest.transport.StreamingBody;
 import io.discloader.discloader.util.DLUtil.Methods;
 
-public class APIRequest {
+/**
+ * A request waiting in a {@link RESTQueue}.<br>
+ * The request knows what type its response should be parsed into, so a successful response is read straight from the transport's
+ * buffer into that type. Requests for {@code String.class} get the raw body instead.
+ *
+ * @param <T> The type the response is parsed into
+ */
+public class APIRequest<T> {
+
+	private static final Pattern MAJOR_PARAMETER = Pattern.compile("/(channels|guilds|webhooks)/\\d+");
+
+	private static final Pattern SNOWFLAKE = Pattern.compile("(?<=/)\\d{15,21}(?=/|$)");
+
+	private static final Pattern REACTION = Pattern.compile("/reactions/[^/]+");
+
+	/**
+	 * The token segment of a webhook's URL, which must not end up in bucket keys, metrics or logs
+	 */
+	private static final Pattern WEBHOOK_TOKEN = Pattern.compile("^/[^/]+");
 
 	public String url;
 
@@ -30,7 +57,53 @@ public class APIRequest {
 
 	public Object data;
 
-	public CompletableFuture<String> future;
+	public CompletableFuture<T> future;
+
+	/**
+	 * The type the response is parsed into
+	 */
+	public final Type type;
+
+	/**
+	 * The request's {@link ResponseCache} key, or {@code null} if the response isn't cached
+	 */
+	String cacheKey;
+
+	/**
+	 * How long the response is cached for, in milliseconds
+	 */
+	long cacheTTL;
+
+	/**
+	 * The expired entry this request revalidates, or {@code null}
+	 */
+	ResponseCache.CachedResponse revalidating;
+
+	/**
+	 * When the request gives up, in milliseconds since the epoch. {@code 0} if it never does
+	 */
+	public long deadline;
+
+	/**
+	 * How many times the request has been sent
+	 */
+	int attempts;
+
+	/**
+	 * The transport's future for the attempt that is in flight, or {@code null}. Cancelled if the request times out or is cancelled
+	 * while it's being sent
+	 */
+	volatile CompletableFuture<?> sending;
+
+	/**
+	 * The request's priority class within its bucket
+	 */
+	public RequestPriority priority = RequestPriority.NORMAL;
+
+	/**
+	 * When the request was added to its bucket, in milliseconds since the epoch
+	 */
+	long queuedAt;
 
 	/**
 	 * Creates a new APIRequest
@@ -39,9 +112,11 @@ public class APIRequest {
 	 * @param method The request method to use
 	 * @param auth Does the endpoint require authorization
 	 * @param data The payload to attach to the request
+	 * @param type The type to parse the response into
 	 */
-	public APIRequest(String url, int method, boolean auth, Object data) {
+	public APIRequest(String url, int method, boolean auth, Object data, Type type) {
 		this.url = url;
+		this.type = type;
 		this.method = method;
 		this.auth = auth;
 		this.data = data;
@@ -49,75 +124,180 @@ public class APIRequest {
 		if (data != null && data instanceof SendableMessage && (((SendableMessage) data).file != null || ((SendableMessage) data).resource != null)) {
 			this.multi = true;
 		} else {
-			this.multi = false;
+			// a prepared body brings its own content type
+			this.multi = data instanceof StreamingBody;
 		}
 	}
 
 	/**
-	 * Converts the {@link APIRequest} URL to the corresponding API Endpoint
+	 * Converts the {@link APIRequest} URL to the rate limit bucket it belongs to.<br>
+	 * Discord shares a bucket between every request to the same route template with the same major parameter, so the channel, guild or
+	 * webhook ID that follows the route's first segment is kept, every other ID is replaced with {@code :id}, and reaction emojis are
+	 * replaced with {@code :emoji}. A webhook's token is replaced with {@code :token}, as it's a credential. Message deletes have their
+	 * own bucket, so their method is part of the key.
 	 * 
 	 * @param url The url of the endpoint
-	 * @return API Endpoint {@link DLUtil.Endpoints}
+	 * @return The request's bucket key
 	 */
 	public String getRoute(String url) {
 		String route = url.split("[?]")[0];
-		if (route.contains("/channels/") || route.contains("/guilds/")) {
-			int startInd = route.contains("/channels/") ? route.indexOf("/channels/") : route.indexOf("/guilds/");
-			String majorID = route.substring(startInd).split("/")[2];
-			route = route.replaceAll("(\\d{8,})/g", ":id").replaceAll(":id", majorID);
-		}
+		Matcher major = MAJOR_PARAMETER.matcher(route);
+		boolean found = major.find();
+		int start = found ? major.end() : 0;
+		String minor = route.substring(start);
+		if (found && major.group(1).equals("webhooks")) minor = WEBHOOK_TOKEN.matcher(minor).replaceFirst("/:token");
+		minor = REACTION.matcher(minor).replaceAll("/reactions/:emoji");
+		minor = SNOWFLAKE.matcher(minor).replaceAll(":id");
+		route = route.substring(0, start) + minor;
+		if (method == Methods.DELETE && route.endsWith("/messages/:id")) route = "DELETE " + route;
 		return route;
 	}
 
-	public CompletableFuture<?> setFuture(CompletableFuture<String> future) {
+	/**
+	 * Sets how long the request may take, including the time it spends queued behind rate limits and retries. Once the timeout has
+	 * passed the request's future fails with a {@link java.util.concurrent.TimeoutException TimeoutException} and the request is
+	 * removed from its bucket if it hasn't been sent yet.
+	 * 
+	 * @param timeout The timeout in milliseconds, or {@code 0} for no deadline
+	 * @return {@code this}
+	 */
+	public APIRequest<T> setTimeout(long timeout) {
+		deadline = timeout > 0 ? System.currentTimeMillis() + timeout : 0l;
+		return this;
+	}
+
+	/**
+	 * @param priority The request's priority class within its bucket
+	 * @return {@code this}
+	 */
+	public APIRequest<T> setPriority(RequestPriority priority) {
+		this.priority = priority;
+		return this;
+	}
+
+	public CompletableFuture<T> setFuture(CompletableFuture<T> future) {
 		this.future = future;
 		return future;
 	}
 
-	public BaseRequest createRequest() {
-		BaseRequest request = null;
+	/**
+	 * Completes the request's future with a successful response, parsing the body into the request's {@link #type}. Empty bodies
+	 * parse to {@code null}.
+	 * 
+	 * @param response The response
+	 */
+	@SuppressWarnings("unchecked")
+	public void complete(HTTPResponse response) {
+		if (type == String.class) {
+			future.complete((T) response.getBody());
+			return;
+		}
+		try (Reader reader = new InputStreamReader(response.openBody(), StandardCharsets.UTF_8)) {
+			future.complete(gson.fromJson(reader, type));
+		} catch (Exception e) {
+			future.completeExceptionally(e);
+		}
+	}
+
+	/**
+	 * Builds the HTTP request to send. File uploads are encoded as {@code multipart/form-data} with the file in the {@code file} part
+	 * and the message in the {@code payload_json} part.
+	 * 
+	 * @return The request
+	 * @throws IOException Thrown if the file to upload can't be read
+	 */
+	public HTTPRequest createRequest() throws IOException {
+		return createRequest(url);
+	}
+
+	/**
+	 * Builds the HTTP request to send to another URL than the endpoint's, like the endpoint on another
+	 * {@link RESTManager#setBaseURL(String) base URL}.
+	 * 
+	 * @param url The URL to send the request to
+	 * @return The request
+	 * @throws IOException Thrown if the file to upload can't be read
+	 */
+	public HTTPRequest createRequest(String url) throws IOException {
+		HTTPRequest request;
 		switch (this.method) {
-		case Methods.GET:
-			request = Unirest.get(this.route);
-			break;
 		case Methods.POST:
-			request = Unirest.post(this.route);
-			if (multi) {
-				try {
-					SendableMessage sdata = (SendableMessage) this.data;
-					File file = sdata.file;
-					Resource resource = sdata.resource;
-					byte[] bytes = new byte[0];
-					if (file != null) bytes = DLUtil.readAllBytes(file);
-					if (resource != null) bytes = DLUtil.readAllBytes(resource);
-					MultipartBody body = ((HttpRequestWithBody) request).fields(null);
-					String loc = "";
-					if (file != null) loc = file.getName();
-					if (resource != null) loc = resource.getFileName();
-					body.field("Content-type", "multipart/form-data").field("file", bytes, loc).field("payload_json", gson.toJson(sdata));
-				} catch (IOException ex) {
-					ex.printStackTrace();
-				}
+			request = new HTTPRequest("POST", url);
+			if (data instanceof StreamingBody) {
+				StreamingBody body = (StreamingBody) data;
+				request.header("content-type", body.getContentType()).setBody(body);
+			} else if (multi) {
+				StreamingBody body = multipart((SendableMessage) data);
+				request.header("content-type", body.getContentType()).setBody(body);
 			} else {
-				((HttpRequestWithBody) request).body(gson.toJson(data));
+				request.setBody(toJSON(data));
 			}
 			break;
 		case Methods.PATCH:
-			request = Unirest.patch(this.route);
-			((HttpRequestWithBody) request).body(gson.toJson(data));
+			request = new HTTPRequest("PATCH", url).setBody(toJSON(data));
 			break;
 		case Methods.DELETE:
-			request = Unirest.delete(this.route);
+			request = new HTTPRequest("DELETE", url);
 			break;
-		case DLUtil.Methods.PUT:
-			request = Unirest.put(this.route);
-			((HttpRequestWithBody) request).body(gson.toJson(this.data));
+		case Methods.PUT:
+			request = new HTTPRequest("PUT", url).setBody(toJSON(data));
 			break;
 		default:
-			request = Unirest.get(this.route);
+			request = new HTTPRequest("GET", url);
+			if (revalidating != null) request.header("If-None-Match", revalidating.etag);
 			break;
 		}
 		return request;
 	}
 
+	private static byte[] toJSON(Object data) {
+		return gson.toJson(data).getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Serializes a message once, so the same body can be sent to many channels. The body can be passed as the data of any number of
+	 * requests, each send reads it through its own cursor.
+	 * 
+	 * @param message The message to serialize
+	 * @return The message as a JSON body, or as a {@code multipart/form-data} body if it has a file
+	 * @throws IOException Thrown if the file to upload can't be read
+	 */
+	public static StreamingBody serialize(SendableMessage message) throws IOException {
+		if (message.file != null || message.resource != null) return multipart(message);
+		return new StreamingBody("application/json").add(ByteBuffer.wrap(toJSON(message)).asReadOnlyBuffer());
+	}
+
+	private static StreamingBody multipart(SendableMessage sdata) throws IOException {
+		String loc = sdata.file != null ? sdata.file.getName() : sdata.resource.getFileName();
+		String boundary = "DiscLoader" + Long.toHexString(System.nanoTime());
+		StreamingBody body = new StreamingBody("multipart/form-data; boundary=" + boundary);
+		body.add(String.format("--%s\r\nContent-Disposition: form-data; name=\"file\"; filename=\"%s\"\r\nContent-Type: application/octet-stream\r\n\r\n", boundary, loc));
+		if (sdata.file != null) {
+			body.add(MappedFiles.map(sdata.file));
+		} else {
+			addResource(body, sdata.resource);
+		}
+		body.add(String.format("\r\n--%s\r\nContent-Disposition: form-data; name=\"payload_json\"\r\n\r\n%s\r\n--%s--\r\n", boundary, gson.toJson(sdata), boundary));
+		body.setProgressListener(sdata.progress);
+		return body;
+	}
+
+	/**
+	 * Resources that are plain files are mapped, resources inside a jar are streamed.
+	 */
+	private static void addResource(StreamingBody body, Resource resource) throws IOException {
+		URL url = resource.toURL();
+		if (url != null && "file".equals(url.getProtocol())) {
+			try {
+				body.add(MappedFiles.map(new File(url.toURI())));
+				return;
+			} catch (URISyntaxException e) {}
+		}
+		body.add(() -> {
+			InputStream in = resource.getResourceAsStream();
+			if (in == null) throw new FileNotFoundException(resource.getPath());
+			return in;
+		});
+	}
+
 }
@@ -0,0 +1,265 @@
+package io.discloader.discloader.network.rest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.discloader.discloader.common.exceptions.UnknownException;
+import io.discloader.discloader.entity.channel.IGuildTextChannel;
+import io.discloader.discloader.entity.channel.ITextChannel;
+import io.discloader.discloader.entity.message.IMessage;
+import io.discloader.discloader.entity.util.SnowflakeUtil;
+import io.discloader.discloader.network.rest.actions.channel.BulkDelete;
+import io.discloader.discloader.network.rest.actions.message.DeleteMessage;
+
+/**
+ * Deletes any number of messages, from any number of channels, with as few requests as possible.<br>
+ * Messages are grouped by channel and split into batches of up to {@link #MAX_BATCH} for the bulk-delete endpoint. Messages that are
+ * too old to be bulk deleted, messages in DMs and a batch's single leftover message are deleted one at a time instead. If a batch is
+ * rejected because of its messages, for example because one of them passed the age limit while it was queued, its messages fall back to
+ * single deletes. Any other error fails the whole batch.
+ * <br>
+ * Every request is queued at once, so channels are worked through in parallel while each channel's bucket still sends its requests
+ * one after the other.
+ *
+ * @author Perry Berman
+ */
+public class BulkMessageDeleter {
+
+	/**
+	 * The most messages the bulk-delete endpoint accepts in one request
+	 */
+	public static final int MAX_BATCH = 100;
+
+	/**
+	 * How old a message may be to be bulk deleted, in milliseconds. A minute short of two weeks, so messages don't pass the limit while
+	 * they are queued
+	 */
+	public static final long MAX_AGE = 14l * 24l * 60l * 60l * 1000l - 60000l;
+
+	/**
+	 * The error code of a message that doesn't exist anymore
+	 */
+	private static final int UNKNOWN_MESSAGE = 10008;
+
+	/**
+	 * The error code of a bulk delete that contained a message older than two weeks
+	 */
+	private static final int MESSAGE_TOO_OLD = 50034;
+
+	/**
+	 * The error code of a request whose body was rejected, like a bulk delete with an invalid message ID
+	 */
+	private static final int INVALID_FORM_BODY = 50035;
+
+	private final RESTManager rest;
+
+	private final LongAdder bulkRequests = new LongAdder();
+
+	private final LongAdder singleRequests = new LongAdder();
+
+	private volatile RequestPriority priority = RequestPriority.NORMAL;
+
+	public BulkMessageDeleter(RESTManager rest) {
+		this.rest = rest;
+	}
+
+	/**
+	 * Deletes messages from the channels they were sent in.
+	 *
+	 * @param messages The messages to delete
+	 * @return A future that completes once every message has been deleted or has failed to be
+	 */
+	public CompletableFuture<Result> delete(Collection<IMessage> messages) {
+		Map<Long, ITextChannel> channels = new LinkedHashMap<>();
+		Map<Long, List<IMessage>> grouped = new LinkedHashMap<>();
+		for (IMessage message : messages) {
+			ITextChannel channel = message.getChannel();
+			channels.putIfAbsent(channel.getID(), channel);
+			grouped.computeIfAbsent(channel.getID(), id -> new ArrayList<>()).add(message);
+		}
+		Result result = new Result();
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+		for (Map.Entry<Long, List<IMessage>> entry : grouped.entrySet()) {
+			delete(channels.get(entry.getKey()), entry.getValue(), result, futures);
+		}
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).thenApply(v -> result);
+	}
+
+	/**
+	 * Deletes messages from one channel.
+	 *
+	 * @param channel The channel to delete the messages from
+	 * @param messages The messages to delete
+	 * @return A future that completes once every message has been deleted or has failed to be
+	 */
+	public CompletableFuture<Result> delete(ITextChannel channel, Collection<IMessage> messages) {
+		Result result = new Result();
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+		delete(channel, messages, result, futures);
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).thenApply(v -> result);
+	}
+
+	/**
+	 * Deletes messages from one channel, failing if any of them couldn't be deleted.
+	 *
+	 * @param channel The channel to delete the messages from
+	 * @param messages The messages to delete
+	 * @return A future that completes with the deleted messages, or with the first failure
+	 */
+	public CompletableFuture<Map<Long, IMessage>> deleteAll(ITextChannel channel, Collection<IMessage> messages) {
+		return delete(channel, messages).thenApply(result -> {
+			if (!result.isSuccessful()) throw new CompletionException(result.getFailed().values().iterator().next());
+			return result.getDeleted();
+		});
+	}
+
+	/**
+	 * @param priority The priority class of the delete requests, {@link RequestPriority#BULK} for background cleanups
+	 */
+	public void setPriority(RequestPriority priority) {
+		this.priority = priority;
+	}
+
+	/**
+	 * @return The number of bulk-delete requests that have been made
+	 */
+	public long getBulkRequestCount() {
+		return bulkRequests.sum();
+	}
+
+	/**
+	 * @return The number of single delete requests that have been made
+	 */
+	public long getSingleRequestCount() {
+		return singleRequests.sum();
+	}
+
+	/**
+	 * @param id A message's ID
+	 * @return {@code true} if the message is young enough to be bulk deleted
+	 */
+	public static boolean canBulkDelete(long id) {
+		return (id >>> 22) + SnowflakeUtil.DISCORD_EPOCH > System.currentTimeMillis() - MAX_AGE;
+	}
+
+	private void delete(ITextChannel channel, Collection<IMessage> messages, Result result, List<CompletableFuture<Void>> futures) {
+		// bulk-delete is only available in guilds
+		boolean bulk = channel instanceof IGuildTextChannel;
+		Map<Long, IMessage> batch = new LinkedHashMap<>();
+		List<IMessage> singles = new ArrayList<>();
+		Map<Long, IMessage> unique = new LinkedHashMap<>();
+		for (IMessage message : messages) {
+			unique.put(message.getID(), message);
+		}
+		for (IMessage message : unique.values()) {
+			if (!bulk || !canBulkDelete(message.getID())) {
+				singles.add(message);
+				continue;
+			}
+			batch.put(message.getID(), message);
+			if (batch.size() == MAX_BATCH) {
+				futures.add(deleteBatch(channel, batch, result));
+				batch = new LinkedHashMap<>();
+			}
+		}
+		if (batch.size() == 1) {
+			singles.addAll(batch.values());
+		} else if (!batch.isEmpty()) {
+			futures.add(deleteBatch(channel, batch, result));
+		}
+		for (IMessage message : singles) {
+			futures.add(deleteSingle(channel, message, result));
+		}
+	}
+
+	private CompletableFuture<Void> deleteBatch(ITextChannel channel, Map<Long, IMessage> batch, Result result) {
+		bulkRequests.increment();
+		return new BulkDelete<ITextChannel>(channel, batch).setPriority(priority).execute().handle((deleted, ex) -> {
+			if (ex == null) {
+				result.deleted.putAll(batch);
+				return CompletableFuture.<Void>completedFuture(null);
+			}
+			Throwable cause = unwrap(ex);
+			if (!isBatchRejected(cause)) {
+				for (long id : batch.keySet()) {
+					result.failed.put(id, cause);
+				}
+				return CompletableFuture.<Void>completedFuture(null);
+			}
+			List<CompletableFuture<Void>> futures = new ArrayList<>();
+			for (IMessage message : batch.values()) {
+				futures.add(deleteSingle(channel, message, result));
+			}
+			return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]));
+		}).thenCompose(future -> future);
+	}
+
+	private CompletableFuture<Void> deleteSingle(ITextChannel channel, IMessage message, Result result) {
+		singleRequests.increment();
+		return new DeleteMessage<ITextChannel>(channel, message).setPriority(priority).execute().handle((deleted, ex) -> {
+			Throwable cause = ex == null ? null : unwrap(ex);
+			// a message that's already gone doesn't need to be deleted
+			if (cause == null || (cause instanceof UnknownException && ((UnknownException) cause).getErrorCode() == UNKNOWN_MESSAGE)) {
+				result.deleted.put(message.getID(), message);
+			} else {
+				result.failed.put(message.getID(), cause);
+			}
+			return null;
+		});
+	}
+
+	/**
+	 * @return {@code true} if the bulk delete was rejected because of one of its messages, so deleting them one at a time may still
+	 *         succeed. A missing channel, missing permissions or a server error that outlasted the retries fail the whole batch.
+	 */
+	private static boolean isBatchRejected(Throwable cause) {
+		if (!(cause instanceof UnknownException)) return false;
+		int code = ((UnknownException) cause).getErrorCode();
+		return code == MESSAGE_TOO_OLD || code == INVALID_FORM_BODY;
+	}
+
+	private static Throwable unwrap(Throwable ex) {
+		return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+	}
+
+	/**
+	 * The outcome of deleting a set of messages
+	 */
+	public static class Result {
+
+		private final Map<Long, IMessage> deleted = new ConcurrentHashMap<>();
+
+		private final Map<Long, Throwable> failed = new ConcurrentHashMap<>();
+
+		/**
+		 * @return The messages that were deleted, by ID
+		 */
+		public Map<Long, IMessage> getDeleted() {
+			return Collections.unmodifiableMap(deleted);
+		}
+
+		/**
+		 * @return Why each message that couldn't be deleted failed, by the message's ID
+		 */
+		public Map<Long, Throwable> getFailed() {
+			return Collections.unmodifiableMap(failed);
+		}
+
+		/**
+		 * @return {@code true} if every message was deleted
+		 */
+		public boolean isSuccessful() {
+			return failed.isEmpty();
+		}
+
+	}
+
+}
@@ -0,0 +1,283 @@
+package io.discloader.discloader.network.rest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import io.discloader.discloader.core.entity.guild.GuildMember;
+import io.discloader.discloader.entity.guild.IGuildMember;
+import io.discloader.discloader.entity.guild.IRole;
+import io.discloader.discloader.entity.sendable.EditMember;
+import io.discloader.discloader.util.DLUtil.Endpoints;
+import io.discloader.discloader.util.DLUtil.Methods;
+
+/**
+ * Merges edits made to the same member within a short window into a single modify-member request.<br>
+ * Role additions and removals, nickname, mute and deafen changes are collected for {@link #getWindow() the window} after the first
+ * edit, then sent as one {@code PATCH} with the member's full role list. Every call still gets its own future, which completes once the
+ * merged request does. Giving five roles to a member costs one request instead of five.<br>
+ * Edits made while a member's previous request is in flight are sent after it, starting from the role list that request set. Once a
+ * request succeeds, the roles it set are written to the cached member, so a role change is never lost because the gateway hasn't
+ * confirmed the previous one yet.
+ *
+ * @author Perry Berman
+ */
+public class MemberEditBatcher {
+
+	public static final long DEFAULT_WINDOW = 50l;
+
+	private final RESTManager rest;
+
+	private final Map<String, MemberState> members = new ConcurrentHashMap<>();
+
+	private final LongAdder edits = new LongAdder();
+
+	private final LongAdder requests = new LongAdder();
+
+	private volatile long window = DEFAULT_WINDOW;
+
+	private volatile RequestPriority priority = RequestPriority.NORMAL;
+
+	public MemberEditBatcher(RESTManager rest) {
+		this.rest = rest;
+	}
+
+	/**
+	 * @param member The member to edit
+	 * @param roles The roles to give to the member
+	 * @return A future that completes with the member once the merged request succeeds
+	 */
+	public CompletableFuture<IGuildMember> addRoles(IGuildMember member, IRole... roles) {
+		return edit(member, edit -> {
+			for (IRole role : roles) {
+				edit.removed.remove(role.getID());
+				edit.added.add(role.getID());
+			}
+		});
+	}
+
+	/**
+	 * @param member The member to edit
+	 * @param roles The roles to take away from the member
+	 * @return A future that completes with the member once the merged request succeeds
+	 */
+	public CompletableFuture<IGuildMember> removeRoles(IGuildMember member, IRole... roles) {
+		return edit(member, edit -> {
+			for (IRole role : roles) {
+				edit.added.remove(role.getID());
+				edit.removed.add(role.getID());
+			}
+		});
+	}
+
+	/**
+	 * @param member The member to edit
+	 * @param nick The member's new nickname, or an empty String to reset it
+	 * @return A future that completes with the member once the merged request succeeds
+	 */
+	public CompletableFuture<IGuildMember> setNick(IGuildMember member, String nick) {
+		return edit(member, edit -> edit.payload.nick = nick == null ? "" : nick);
+	}
+
+	/**
+	 * @param member The member to edit
+	 * @param mute Whether the member should be server muted
+	 * @return A future that completes with the member once the merged request succeeds
+	 */
+	public CompletableFuture<IGuildMember> setMute(IGuildMember member, boolean mute) {
+		return edit(member, edit -> edit.payload.mute = mute);
+	}
+
+	/**
+	 * @param member The member to edit
+	 * @param deaf Whether the member should be server deafened
+	 * @return A future that completes with the member once the merged request succeeds
+	 */
+	public CompletableFuture<IGuildMember> setDeaf(IGuildMember member, boolean deaf) {
+		return edit(member, edit -> edit.payload.deaf = deaf);
+	}
+
+	/**
+	 * @return How long edits are collected before they are sent, in milliseconds
+	 */
+	public long getWindow() {
+		return window;
+	}
+
+	/**
+	 * @param window How long edits are collected before they are sent, in milliseconds
+	 */
+	public void setWindow(long window) {
+		this.window = window;
+	}
+
+	/**
+	 * @param priority The priority class of the merged requests, {@link RequestPriority#BULK} for background jobs
+	 */
+	public void setPriority(RequestPriority priority) {
+		this.priority = priority;
+	}
+
+	/**
+	 * @return The number of edits that have been made
+	 */
+	public long getEditCount() {
+		return edits.sum();
+	}
+
+	/**
+	 * @return The number of modify-member requests the edits were merged into
+	 */
+	public long getRequestCount() {
+		return requests.sum();
+	}
+
+	private CompletableFuture<IGuildMember> edit(IGuildMember member, Consumer<PendingEdit> change) {
+		CompletableFuture<IGuildMember> future = new CompletableFuture<>();
+		edits.increment();
+		String key = member.getGuild().getID() + ":" + member.getID();
+		members.compute(key, (k, state) -> {
+			if (state == null) state = new MemberState(member);
+			if (state.pending == null) {
+				state.pending = new PendingEdit();
+				// the first edit of a window schedules its flush, later ones join it
+				rest.getRateLimiter().getScheduler().schedule(window, () -> flush(k));
+			}
+			change.accept(state.pending);
+			state.pending.futures.add(future);
+			return state;
+		});
+		return future;
+	}
+
+	private void flush(String key) {
+		PendingEdit edit = take(key);
+		if (edit != null) send(key, edit);
+	}
+
+	/**
+	 * Takes the member's pending edit unless a request for the member is already in flight.
+	 */
+	private PendingEdit take(String key) {
+		PendingEdit[] edit = new PendingEdit[1];
+		members.computeIfPresent(key, (k, state) -> {
+			if (state.pending == null || state.inFlight) return state;
+			edit[0] = state.pending;
+			edit[0].state = state;
+			state.pending = null;
+			state.inFlight = true;
+			return state;
+		});
+		return edit[0];
+	}
+
+	private void send(String key, PendingEdit edit) {
+		MemberState state = edit.state;
+		IGuildMember member = cached(state.member);
+		EditMember payload = edit.payload;
+		if (!edit.added.isEmpty() || !edit.removed.isEmpty()) {
+			Set<Long> roles = new LinkedHashSet<>();
+			// the gateway replaces members instead of updating them, a new version means it has sent the member since our last request
+			if (state.roles != null && member.getVersion() == state.version) {
+				roles.addAll(state.roles);
+			} else {
+				for (IRole role : member.getRoles()) {
+					// @everyone shares the guild's ID and can't be assigned
+					if (role != null && role.getID() != member.getGuild().getID()) roles.add(role.getID());
+				}
+			}
+			roles.removeAll(edit.removed);
+			roles.addAll(edit.added);
+			payload.roles = new String[roles.size()];
+			int i = 0;
+			for (long id : roles) {
+				payload.roles[i++] = Long.toUnsignedString(id);
+			}
+			state.roles = roles;
+			state.version = member.getVersion();
+		}
+		String endpoint = Endpoints.guildMember(member.getGuild().getID(), member.getID());
+		// the current user can only change their own nickname through the nick endpoint
+		if (rest.loader.user != null && member.getID() == rest.loader.user.getID() && payload.roles == null && payload.mute == null && payload.deaf == null) {
+			endpoint = Endpoints.guildNick(member.getGuild().getID());
+		}
+		requests.increment();
+		rest.makeRequest(new APIRequest<String>(endpoint, Methods.PATCH, true, payload, String.class).setPriority(priority)).whenComplete((result, ex) -> {
+			IGuildMember updated = cached(member);
+			if (ex == null && payload.roles != null && updated instanceof GuildMember) {
+				((GuildMember) updated).setRoles(payload.roles);
+				state.version = updated.getVersion();
+			}
+			for (CompletableFuture<IGuildMember> future : edit.futures) {
+				if (ex != null) {
+					future.completeExceptionally(ex);
+				} else {
+					future.complete(updated);
+				}
+			}
+			completed(key, state, ex == null);
+		});
+	}
+
+	/**
+	 * @return The member the guild currently caches, or {@code member} if it isn't cached
+	 */
+	private static IGuildMember cached(IGuildMember member) {
+		IGuildMember current = member.getGuild().getMember(member.getID());
+		return current == null ? member : current;
+	}
+
+	private void completed(String key, MemberState state, boolean success) {
+		// a failed request didn't set the roles we sent
+		if (!success) state.roles = null;
+		members.computeIfPresent(key, (k, current) -> {
+			current.inFlight = false;
+			return current.pending == null ? null : current;
+		});
+		// edits made while the request was in flight
+		PendingEdit edit = take(key);
+		if (edit != null) send(key, edit);
+	}
+
+	private static class MemberState {
+
+		final IGuildMember member;
+
+		PendingEdit pending;
+
+		boolean inFlight;
+
+		/**
+		 * The role list the member's last request set, and the member's version when it was sent
+		 */
+		volatile Set<Long> roles;
+
+		volatile long version;
+
+		MemberState(IGuildMember member) {
+			this.member = member;
+		}
+
+	}
+
+	private static class PendingEdit {
+
+		final EditMember payload = new EditMember();
+
+		final Set<Long> added = new LinkedHashSet<>();
+
+		final Set<Long> removed = new LinkedHashSet<>();
+
+		final List<CompletableFuture<IGuildMember>> futures = new ArrayList<>();
+
+		MemberState state;
+
+	}
+
+}
@@ -0,0 +1,274 @@
+package io.discloader.discloader.network.rest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.discloader.discloader.common.registry.EntityBuilder;
+import io.discloader.discloader.entity.channel.ITextChannel;
+import io.discloader.discloader.entity.message.IMessage;
+import io.discloader.discloader.entity.sendable.SendableMessage;
+import io.discloader.discloader.network.json.MessageJSON;
+import io.discloader.discloader.network.rest.transport.StreamingBody;
+import io.discloader.discloader.util.DLUtil.Endpoints;
+import io.discloader.discloader.util.DLUtil.Methods;
+
+/**
+ * Sends the same message to many channels.<br>
+ * The message is {@link APIRequest#serialize(SendableMessage) serialized once} into a read-only body that every request shares, instead
+ * of once per channel. Each channel's send is queued in that channel's own bucket, so channels are sent to concurrently. The number of
+ * sends in flight and the number of sends started per second can both be capped, so a large announcement doesn't crowd out the rest
+ * of the client's requests.
+ *
+ * <pre>
+ * loader.rest.broadcast(message, channels).setRate(20).onProgress((sent, failed, total) -&gt; ...).send();
+ * </pre>
+ *
+ * @author Perry Berman
+ */
+public class MessageBroadcast {
+
+	private final RESTManager rest;
+
+	private final SendableMessage message;
+
+	private final List<ITextChannel> channels;
+
+	private final Map<Long, IMessage> sent = new ConcurrentHashMap<>();
+
+	private final Map<Long, Throwable> failed = new ConcurrentHashMap<>();
+
+	private final CompletableFuture<Result> future = new CompletableFuture<>();
+
+	private RequestPriority priority = RequestPriority.NORMAL;
+
+	private int maxInFlight = Integer.MAX_VALUE;
+
+	private int rate;
+
+	private ProgressListener listener;
+
+	private StreamingBody body;
+
+	private Iterator<ITextChannel> remaining;
+
+	private int inFlight;
+
+	private long nextSend;
+
+	private boolean pumpScheduled;
+
+	private volatile boolean cancelled;
+
+	/**
+	 * @param rest The manager to send the requests through
+	 * @param message The message to send
+	 * @param channels The channels to send the message to. A channel that is listed more than once is only sent to once
+	 */
+	public MessageBroadcast(RESTManager rest, SendableMessage message, Collection<? extends ITextChannel> channels) {
+		this.rest = rest;
+		this.message = message;
+		Map<Long, ITextChannel> unique = new LinkedHashMap<>();
+		for (ITextChannel channel : channels) {
+			unique.putIfAbsent(channel.getID(), channel);
+		}
+		this.channels = new ArrayList<>(unique.values());
+	}
+
+	/**
+	 * @param maxInFlight How many sends may be in flight at once
+	 * @return {@code this}
+	 */
+	public MessageBroadcast setMaxInFlight(int maxInFlight) {
+		this.maxInFlight = Math.max(1, maxInFlight);
+		return this;
+	}
+
+	/**
+	 * @param rate How many sends may be started per second, or {@code 0} for no limit
+	 * @return {@code this}
+	 */
+	public MessageBroadcast setRate(int rate) {
+		this.rate = Math.max(0, rate);
+		return this;
+	}
+
+	/**
+	 * @param priority The priority class of the sends within their buckets, {@link RequestPriority#BULK} for announcements that
+	 *            shouldn't delay anything else
+	 * @return {@code this}
+	 */
+	public MessageBroadcast setPriority(RequestPriority priority) {
+		this.priority = priority;
+		return this;
+	}
+
+	/**
+	 * @param listener Is told how far along the broadcast is each time a send completes
+	 * @return {@code this}
+	 */
+	public MessageBroadcast onProgress(ProgressListener listener) {
+		this.listener = listener;
+		return this;
+	}
+
+	/**
+	 * Starts the broadcast. Can only be called once.
+	 *
+	 * @return A future that completes once every channel has been sent to, has failed, or was {@link #cancel() cancelled}
+	 */
+	public synchronized CompletableFuture<Result> send() {
+		if (remaining != null) throw new IllegalStateException("The broadcast has already been started");
+		remaining = channels.iterator();
+		try {
+			body = APIRequest.serialize(message);
+		} catch (IOException e) {
+			future.completeExceptionally(e);
+			return future;
+		}
+		pump();
+		return future;
+	}
+
+	/**
+	 * Stops sending to the channels that haven't been sent to yet. They are reported as failed with a {@link CancellationException}.
+	 * Sends that are already queued still go through.
+	 */
+	public void cancel() {
+		cancelled = true;
+		synchronized (this) {
+			if (remaining != null) pump();
+		}
+	}
+
+	/**
+	 * @return The number of channels the message is sent to
+	 */
+	public int getTotal() {
+		return channels.size();
+	}
+
+	/**
+	 * @return The number of channels the message has been sent to so far
+	 */
+	public int getSentCount() {
+		return sent.size();
+	}
+
+	/**
+	 * @return The number of channels the message has failed to be sent to so far
+	 */
+	public int getFailedCount() {
+		return failed.size();
+	}
+
+	/**
+	 * Starts as many sends as the caps allow. Must be called while holding the lock.
+	 */
+	private void pump() {
+		while (remaining.hasNext()) {
+			if (cancelled) {
+				ITextChannel channel = remaining.next();
+				failed.put(channel.getID(), new CancellationException("The broadcast was cancelled"));
+				continue;
+			}
+			if (inFlight >= maxInFlight) return;
+			long now = System.currentTimeMillis();
+			if (rate > 0 && now < nextSend) {
+				if (!pumpScheduled) {
+					pumpScheduled = true;
+					rest.getRateLimiter().getScheduler().schedule(nextSend - now, () -> {
+						synchronized (this) {
+							pumpScheduled = false;
+							pump();
+						}
+					});
+				}
+				return;
+			}
+			if (rate > 0) nextSend = Math.max(now, nextSend) + 1000l / rate;
+			inFlight++;
+			send(remaining.next());
+		}
+		if (inFlight == 0 && !future.isDone()) future.complete(new Result(this));
+	}
+
+	private void send(ITextChannel channel) {
+		APIRequest<MessageJSON> request = new APIRequest<MessageJSON>(Endpoints.messages(channel.getID()), Methods.POST, true, body, MessageJSON.class);
+		rest.makeRequest(request.setPriority(priority)).whenComplete((data, ex) -> {
+			if (ex != null) {
+				failed.put(channel.getID(), ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+			} else {
+				sent.put(channel.getID(), EntityBuilder.getChannelFactory().buildMessage(channel, data));
+			}
+			ProgressListener listener = this.listener;
+			if (listener != null) listener.onProgress(sent.size(), failed.size(), channels.size());
+			synchronized (this) {
+				inFlight--;
+				pump();
+			}
+		});
+	}
+
+	/**
+	 * Is told how far along a broadcast is. Called from the REST threads, so implementations should return quickly.
+	 */
+	@FunctionalInterface
+	public interface ProgressListener {
+
+		/**
+		 * @param sent The number of channels the message has been sent to
+		 * @param failed The number of channels the message has failed to be sent to
+		 * @param total The number of channels the message is sent to
+		 */
+		void onProgress(int sent, int failed, int total);
+
+	}
+
+	/**
+	 * The outcome of a broadcast
+	 */
+	public static class Result {
+
+		private final Map<Long, IMessage> sent;
+
+		private final Map<Long, Throwable> failed;
+
+		private Result(MessageBroadcast broadcast) {
+			sent = Collections.unmodifiableMap(broadcast.sent);
+			failed = Collections.unmodifiableMap(broadcast.failed);
+		}
+
+		/**
+		 * @return The messages that were sent, by their channel's ID
+		 */
+		public Map<Long, IMessage> getSent() {
+			return sent;
+		}
+
+		/**
+		 * @return Why the message couldn't be sent to each channel that failed, by the channel's ID
+		 */
+		public Map<Long, Throwable> getFailed() {
+			return failed;
+		}
+
+		/**
+		 * @return {@code true} if the message was sent to every channel
+		 */
+		public boolean isSuccessful() {
+			return failed.isEmpty();
+		}
+
+	}
+
+}
@@ -0,0 +1,153 @@
+package io.discloader.discloader.network.rest;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.discloader.discloader.common.registry.EntityBuilder;
+import io.discloader.discloader.core.entity.RichEmbed;
+import io.discloader.discloader.entity.message.IMessage;
+import io.discloader.discloader.entity.sendable.SendableMessage;
+import io.discloader.discloader.network.json.MessageJSON;
+import io.discloader.discloader.util.DLUtil.Endpoints;
+import io.discloader.discloader.util.DLUtil.Methods;
+
+/**
+ * Coalesces rapid edits to the same message, so only its latest state is sent.<br>
+ * A message has at most one edit request queued or in flight. Edits made in the meantime replace each other's payload instead of
+ * queuing behind it, and are sent together once the request completes. A progress bar that is updated twenty times a second sends
+ * as many edits as its bucket allows and always shows the newest state, instead of falling further and further behind.<br>
+ * An edit that only changes the content keeps the embed of the edit it replaced, and the other way round. Every edit's future
+ * completes with the message as of the first request that contained the edit.
+ *
+ * @author Perry Berman
+ */
+public class MessageEditCoalescer {
+
+	private final RESTManager rest;
+
+	private final Map<Long, EditState> messages = new ConcurrentHashMap<>();
+
+	private final LongAdder edits = new LongAdder();
+
+	private final LongAdder requests = new LongAdder();
+
+	private volatile RequestPriority priority = RequestPriority.NORMAL;
+
+	public MessageEditCoalescer(RESTManager rest) {
+		this.rest = rest;
+	}
+
+	/**
+	 * @param message The message to edit
+	 * @param content The message's new content, or {@code null} to leave it unchanged
+	 * @param embed The message's new embed, or {@code null} to leave it unchanged
+	 * @return A future that completes with the edited message once a request containing this edit succeeds
+	 */
+	public CompletableFuture<IMessage> edit(IMessage message, String content, RichEmbed embed) {
+		CompletableFuture<IMessage> future = new CompletableFuture<>();
+		edits.increment();
+		PendingEdit[] send = new PendingEdit[1];
+		messages.compute(message.getID(), (id, state) -> {
+			if (state == null) state = new EditState();
+			PendingEdit pending = state.pending == null ? new PendingEdit(message) : state.pending;
+			if (content != null) pending.content = content;
+			if (embed != null) pending.embed = embed;
+			pending.futures.add(future);
+			if (state.inFlight) {
+				state.pending = pending;
+			} else {
+				state.inFlight = true;
+				send[0] = pending;
+			}
+			return state;
+		});
+		if (send[0] != null) send(send[0]);
+		return future;
+	}
+
+	/**
+	 * @param priority The priority class of the edit requests
+	 */
+	public void setPriority(RequestPriority priority) {
+		this.priority = priority;
+	}
+
+	/**
+	 * @return The number of edits that have been made
+	 */
+	public long getEditCount() {
+		return edits.sum();
+	}
+
+	/**
+	 * @return The number of edit requests that were sent for them
+	 */
+	public long getRequestCount() {
+		return requests.sum();
+	}
+
+	private void send(PendingEdit edit) {
+		IMessage message = edit.message;
+		SendableMessage payload = new SendableMessage(edit.content, false, edit.embed, null, (File) null);
+		String endpoint = Endpoints.message(message.getChannel().getID(), message.getID());
+		requests.increment();
+		rest.makeRequest(new APIRequest<MessageJSON>(endpoint, Methods.PATCH, true, payload, MessageJSON.class).setPriority(priority)).whenComplete((data, ex) -> {
+			IMessage edited = ex == null ? EntityBuilder.getChannelFactory().buildMessage(message.getChannel(), data) : null;
+			for (CompletableFuture<IMessage> future : edit.futures) {
+				if (ex != null) {
+					future.completeExceptionally(ex);
+				} else {
+					future.complete(edited);
+				}
+			}
+			completed(message.getID());
+		});
+	}
+
+	/**
+	 * Sends the edits that were made while the previous request was in flight, if there were any.
+	 */
+	private void completed(long id) {
+		PendingEdit[] next = new PendingEdit[1];
+		messages.computeIfPresent(id, (key, state) -> {
+			if (state.pending == null) return null;
+			next[0] = state.pending;
+			state.pending = null;
+			return state;
+		});
+		if (next[0] != null) send(next[0]);
+	}
+
+	private static class EditState {
+
+		/**
+		 * The edits waiting for the in-flight request, merged into one
+		 */
+		PendingEdit pending;
+
+		boolean inFlight;
+
+	}
+
+	private static class PendingEdit {
+
+		final IMessage message;
+
+		final List<CompletableFuture<IMessage>> futures = new ArrayList<>();
+
+		String content;
+
+		RichEmbed embed;
+
+		PendingEdit(IMessage message) {
+			this.message = message;
+		}
+
+	}
+
+}
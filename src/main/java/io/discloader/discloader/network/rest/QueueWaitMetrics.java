@@ -0,0 +1,100 @@
+package io.discloader.discloader.network.rest;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how long requests wait in their {@link RESTQueue bucket} before they are sent, per {@link RequestPriority}. The wait is
+ * measured from when the request was queued to when the bucket picked it, so it includes rate limit waits but not the request's
+ * round trip.
+ *
+ * @author Perry Berman
+ */
+public class QueueWaitMetrics {
+
+	private final Map<RequestPriority, LongAdder> counts = new EnumMap<>(RequestPriority.class);
+
+	private final Map<RequestPriority, LongAdder> totals = new EnumMap<>(RequestPriority.class);
+
+	private final Map<RequestPriority, AtomicLong> maximums = new EnumMap<>(RequestPriority.class);
+
+	public QueueWaitMetrics() {
+		for (RequestPriority priority : RequestPriority.values()) {
+			counts.put(priority, new LongAdder());
+			totals.put(priority, new LongAdder());
+			maximums.put(priority, new AtomicLong());
+		}
+	}
+
+	/**
+	 * @param priority The request's priority
+	 * @param wait How long the request waited, in milliseconds
+	 */
+	public void record(RequestPriority priority, long wait) {
+		counts.get(priority).increment();
+		totals.get(priority).add(wait);
+		maximums.get(priority).accumulateAndGet(wait, Math::max);
+	}
+
+	/**
+	 * @param priority The priority class
+	 * @return The mean wait of the class's requests, in milliseconds
+	 */
+	public double getAverageWait(RequestPriority priority) {
+		long count = getCount(priority);
+		return count == 0 ? 0d : (double) getTotalWait(priority) / count;
+	}
+
+	/**
+	 * @param priority The priority class
+	 * @return The number of the class's requests that have been sent
+	 */
+	public long getCount(RequestPriority priority) {
+		return counts.get(priority).sum();
+	}
+
+	/**
+	 * @param priority The priority class
+	 * @return The longest wait of any of the class's requests, in milliseconds
+	 */
+	public long getMaxWait(RequestPriority priority) {
+		return maximums.get(priority).get();
+	}
+
+	/**
+	 * @param priority The priority class
+	 * @return The combined wait of the class's requests, in milliseconds
+	 */
+	public long getTotalWait(RequestPriority priority) {
+		return totals.get(priority).sum();
+	}
+
+	/**
+	 * Clears the metrics, for example after they have been exported.
+	 */
+	public void reset() {
+		for (RequestPriority priority : RequestPriority.values()) {
+			counts.get(priority).reset();
+			totals.get(priority).reset();
+			maximums.get(priority).set(0l);
+		}
+	}
+
+	/**
+	 * @return The metrics as dotted names, like {@code discloader.rest.wait.bulk.max.ms}
+	 */
+	public Map<String, Long> toMetrics() {
+		Map<String, Long> metrics = new LinkedHashMap<>();
+		for (RequestPriority priority : RequestPriority.values()) {
+			String prefix = "discloader.rest.wait." + priority.name().toLowerCase();
+			metrics.put(prefix + ".count", getCount(priority));
+			metrics.put(prefix + ".total.ms", getTotalWait(priority));
+			metrics.put(prefix + ".max.ms", getMaxWait(priority));
+		}
+		return metrics;
+	}
+
+}
@@ -1,11 +1,18 @@
 package io.discloader.discloader.network.rest;
 
 import java.io.IOException;
+import java.lang.reflect.Type;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.apache.commons.codec.binary.Base64;
 import org.json.JSONObject;
@@ -15,7 +22,6 @@ import com.google.gson.Gson;
 import io.discloader.discloader.common.DiscLoader;
 import io.discloader.discloader.common.registry.EntityBuilder;
 import io.discloader.discloader.common.registry.EntityRegistry;
-import io.discloader.discloader.common.registry.factory.GuildFactory;
 import io.discloader.discloader.core.entity.channel.GuildChannel;
 import io.discloader.discloader.core.entity.channel.TextChannel;
 import io.discloader.discloader.core.entity.channel.VoiceChannel;
@@ -34,38 +40,122 @@ import io.discloader.discloader.entity.message.IMessage;
 import io.discloader.discloader.entity.sendable.CreateEmoji;
 import io.discloader.discloader.entity.sendable.EditChannel;
 import io.discloader.discloader.entity.sendable.FetchMembers;
+import io.discloader.discloader.entity.sendable.SendableMessage;
 import io.discloader.discloader.entity.sendable.SendableRole;
 import io.discloader.discloader.entity.user.IUser;
 import io.discloader.discloader.entity.util.SnowflakeUtil;
 import io.discloader.discloader.network.json.ChannelJSON;
+import io.discloader.discloader.network.json.EmojiJSON;
 import io.discloader.discloader.network.json.GuildJSON;
 import io.discloader.discloader.network.json.InviteJSON;
 import io.discloader.discloader.network.json.MemberJSON;
 import io.discloader.discloader.network.json.OAuthApplicationJSON;
 import io.discloader.discloader.network.json.RoleJSON;
 import io.discloader.discloader.network.json.UserJSON;
+import io.discloader.discloader.network.rest.transport.AsyncHTTPTransport;
+import io.discloader.discloader.network.rest.transport.HTTPResponse;
+import io.discloader.discloader.network.rest.transport.HTTPTransport;
 import io.discloader.discloader.util.DLUtil;
 import io.discloader.discloader.util.DLUtil.Endpoints;
 import io.discloader.discloader.util.DLUtil.Methods;
 
 public class RESTManager {
 
+	/**
+	 * How long a rate limit bucket must be unused before its queue is evicted, in milliseconds
+	 */
+	public static final long IDLE_QUEUE_TIMEOUT = 300000l;
+
+	/**
+	 * The minimum time between two sweeps for idle queues, in milliseconds
+	 */
+	private static final long EVICTION_INTERVAL = 60000l;
+
 	public Gson gson;
-	public HashMap<String, RESTQueue> queues;
+
+	/**
+	 * The request queues, indexed by their {@link APIRequest#getRoute(String) rate limit bucket}
+	 */
+	public ConcurrentMap<String, RESTQueue> queues;
 	public DiscLoader loader;
 	public Map<String, Route> routes;
 
-	private GuildFactory gfac = EntityBuilder.getGuildFactory();
+	/**
+	 * Enforces the global and per-bucket rate limits. Shared by every shard in a {@link io.discloader.discloader.common.ShardManager
+	 * ShardManager}
+	 */
+	private RateLimitCoordinator limiter;
+
+	/**
+	 * Sends the client's requests. Created on first use unless one is {@link #setTransport(HTTPTransport) set}
+	 */
+	private HTTPTransport transport;
+	private volatile long lastEviction;
+
+	/**
+	 * The base URL requests are sent to, {@link DLUtil#API} unless {@link #setBaseURL(String) set}
+	 */
+	private volatile String baseURL = DLUtil.API;
+
+	/**
+	 * Caches the responses of read-mostly endpoints. {@code null} unless {@link #setResponseCache(ResponseCache) set}
+	 */
+	private volatile ResponseCache cache;
+
+	/**
+	 * Merges role, nickname, mute and deafen changes to the same member into one request
+	 */
+	private final MemberEditBatcher memberEditBatcher = new MemberEditBatcher(this);
+
+	/**
+	 * Splits message deletions into bulk-delete batches and single deletes
+	 */
+	private final BulkMessageDeleter bulkMessageDeleter = new BulkMessageDeleter(this);
+
+	/**
+	 * Sends messages through pools of webhooks, so a channel isn't limited to its own send bucket
+	 */
+	private final WebhookSender webhookSender = new WebhookSender(this);
+
+	/**
+	 * Replaces queued edits to a message with newer ones, so only the latest state is sent
+	 */
+	private final MessageEditCoalescer messageEditCoalescer = new MessageEditCoalescer(this);
+
+	/**
+	 * Adds each message's reactions in order, paced to their buckets
+	 */
+	private final ReactionScheduler reactionScheduler = new ReactionScheduler(this);
+
+	/**
+	 * How long requests wait in their buckets, per priority class
+	 */
+	private final QueueWaitMetrics waitMetrics = new QueueWaitMetrics();
+
+	/**
+	 * Decides which failed requests are sent again
+	 */
+	private volatile RetryPolicy retryPolicy = new RetryPolicy();
+
+	/**
+	 * GET requests that have been queued but haven't completed yet, keyed by {@link #coalesceKey(String, boolean, Type, RequestPriority)}
+	 */
+	private final ConcurrentMap<String, Coalesced<?>> inFlight = new ConcurrentHashMap<>();
+
+	private final LongAdder coalesceHits = new LongAdder();
+
+	private final LongAdder coalesceMisses = new LongAdder();
 
 	public RESTManager(DiscLoader loader) {
 		this.loader = loader;
-		gson = new Gson();
-		queues = new HashMap<>();
+		gson = DLUtil.gson;
+		queues = new ConcurrentHashMap<>();
+		limiter = new RateLimitCoordinator();
 		routes = new HashMap<>();
-
+		lastEviction = System.currentTimeMillis();
 	}
 
-	public CompletableFuture<IGuildMember> banMember(Guild guild, IGuildMember member) {
+	public CompletableFuture<IGuildMember> banMember(IGuild guild, IGuildMember member) {
 		CompletableFuture<IGuildMember> future = new CompletableFuture<>();
 		this.makeRequest(Endpoints.guildBanMember(member.getGuild().getID(), member.getID()), Methods.PUT, true).thenAcceptAsync(action -> {
 			future.complete(member);
@@ -73,7 +163,7 @@ public class RESTManager {
 		return future;
 	}
 
-	public CompletableFuture<Integer> beginPrune(Guild guild, int days) {
+	public CompletableFuture<Integer> beginPrune(IGuild guild, int days) {
 		CompletableFuture<Integer> future = new CompletableFuture<>();
 		JSONObject payload = new JSONObject().put("days", days);
 		this.makeRequest(Endpoints.guildPrune(guild.getID()), Methods.POST, true, payload).thenAcceptAsync(action -> {
@@ -82,27 +172,31 @@ public class RESTManager {
 		return future;
 	}
 
-	public CompletableFuture<IGuildEmoji> createEmoji(Guild guild, String name, String image) {
+	public CompletableFuture<IGuildEmoji> createEmoji(IGuild guild, String name, String image) {
 		CompletableFuture<IGuildEmoji> future = new CompletableFuture<>();
 		CreateEmoji ce = new CreateEmoji(name, image);
-		this.makeRequest(Endpoints.guildEmojis(guild.getID()), Methods.POST, true, ce).thenAcceptAsync(action -> {
-			System.out.println(action);
+		this.<EmojiJSON>makeRequest(Endpoints.guildEmojis(guild.getID()), Methods.POST, true, ce, EmojiJSON.class).whenComplete((action, ex) -> {
+			if (ex != null) {
+				future.completeExceptionally(ex);
+				return;
+			}
+			future.complete(new GuildEmoji(action, guild));
 		});
 		return future;
 	}
 
-	public CompletableFuture<TextChannel> createTextChannel(Guild guild, JSONObject data) {
+	public CompletableFuture<TextChannel> createTextChannel(IGuild guild, JSONObject data) {
 		CompletableFuture<TextChannel> future = new CompletableFuture<TextChannel>();
-		this.makeRequest(DLUtil.Endpoints.guildChannels(guild.getID()), DLUtil.Methods.POST, true, data.put("type", "text")).thenAcceptAsync(action -> {
-			future.complete((TextChannel) EntityRegistry.addChannel(this.gson.fromJson(action, ChannelJSON.class), guild));
+		this.<ChannelJSON>makeRequest(DLUtil.Endpoints.guildChannels(guild.getID()), DLUtil.Methods.POST, true, data.put("type", "text"), ChannelJSON.class).thenAcceptAsync(action -> {
+			future.complete((TextChannel) EntityRegistry.addChannel(action, guild));
 		});
 		return future;
 	}
 
-	public CompletableFuture<VoiceChannel> createVoiceChannel(Guild guild, JSONObject data) {
+	public CompletableFuture<VoiceChannel> createVoiceChannel(IGuild guild, JSONObject data) {
 		CompletableFuture<VoiceChannel> future = new CompletableFuture<VoiceChannel>();
-		this.makeRequest(DLUtil.Endpoints.guildChannels(guild.getID()), DLUtil.Methods.POST, true, data.put("type", "voice")).thenAcceptAsync(action -> {
-			future.complete((VoiceChannel) EntityRegistry.addChannel(this.gson.fromJson(action, ChannelJSON.class), guild));
+		this.<ChannelJSON>makeRequest(DLUtil.Endpoints.guildChannels(guild.getID()), DLUtil.Methods.POST, true, data.put("type", "voice"), ChannelJSON.class).thenAcceptAsync(action -> {
+			future.complete((VoiceChannel) EntityRegistry.addChannel(action, guild));
 		});
 		return future;
 	}
@@ -125,8 +219,7 @@ public class RESTManager {
 
 	public CompletableFuture<OAuth2Application> getApplicationInfo() {
 		CompletableFuture<OAuth2Application> future = new CompletableFuture<OAuth2Application>();
-		this.makeRequest(DLUtil.Endpoints.currentOAuthApplication, DLUtil.Methods.GET, true).thenAcceptAsync(data -> {
-			OAuthApplicationJSON appData = this.gson.fromJson(data, OAuthApplicationJSON.class);
+		this.<OAuthApplicationJSON>makeRequest(DLUtil.Endpoints.currentOAuthApplication, DLUtil.Methods.GET, true, null, OAuthApplicationJSON.class).thenAcceptAsync(appData -> {
 			IUser owner = EntityRegistry.addUser(appData.owner);
 			future.complete(new OAuth2Application(appData, owner));
 		});
@@ -142,8 +235,214 @@ public class RESTManager {
 		return future;
 	}
 
+	/**
+	 * Removes the queues of rate limit buckets that haven't been used for {@link #IDLE_QUEUE_TIMEOUT} milliseconds. Runs at most once
+	 * per minute, and is called whenever a request is made.
+	 */
+	public void evictIdleQueues() {
+		long now = System.currentTimeMillis();
+		if (now - lastEviction < EVICTION_INTERVAL) return;
+		lastEviction = now;
+		for (String route : queues.keySet()) {
+			queues.computeIfPresent(route, (key, queue) -> queue.isIdle(IDLE_QUEUE_TIMEOUT) ? null : queue);
+		}
+		limiter.evictExpiredBuckets();
+	}
+
+	/**
+	 * @return The {@link RateLimitCoordinator} used by this client
+	 */
+	public RateLimitCoordinator getRateLimiter() {
+		return limiter;
+	}
+
+	/**
+	 * Replaces the client's {@link RateLimitCoordinator}. Used by shards to share their manager's coordinator, should be called
+	 * before any requests are made.
+	 * 
+	 * @param limiter The coordinator to use
+	 */
+	public void setRateLimiter(RateLimitCoordinator limiter) {
+		this.limiter = limiter;
+	}
+
+	/**
+	 * @return The {@link HTTPTransport} used to send the client's requests. An {@link AsyncHTTPTransport} with the default pool
+	 *         settings is created on first use.
+	 */
+	public synchronized HTTPTransport getTransport() {
+		if (transport == null) transport = new AsyncHTTPTransport();
+		return transport;
+	}
+
+	/**
+	 * @return The base URL the client's requests are sent to
+	 */
+	public String getBaseURL() {
+		return baseURL;
+	}
+
+	/**
+	 * Sends the client's requests to another server, like a local stand-in for the API. Endpoints are still built against
+	 * {@link DLUtil#API}, so routes and rate limit buckets stay the same, and are moved to the new base URL when they are sent.
+	 * 
+	 * @param baseURL The base URL, like {@code http://localhost:8080/api/v7}, or {@code null} for {@link DLUtil#API}
+	 */
+	public void setBaseURL(String baseURL) {
+		this.baseURL = baseURL == null ? DLUtil.API : baseURL.replaceAll("/+$", "");
+	}
+
+	/**
+	 * @param url An endpoint's URL
+	 * @return The URL on the {@link #getBaseURL() base URL}
+	 */
+	String resolve(String url) {
+		String baseURL = this.baseURL;
+		if (baseURL.equals(DLUtil.API) || !url.startsWith(DLUtil.API)) return url;
+		return baseURL + url.substring(DLUtil.API.length());
+	}
+
+	/**
+	 * Replaces the client's {@link HTTPTransport}. Shards use this to share their manager's connection pool, and tests can pass a
+	 * {@link io.discloader.discloader.network.rest.transport.StubTransport StubTransport}.
+	 * 
+	 * @param transport The transport to use
+	 */
+	public synchronized void setTransport(HTTPTransport transport) {
+		this.transport = transport;
+	}
+
+	/**
+	 * Stores a successful response in the {@link ResponseCache} if the request is cacheable. When the response is a
+	 * {@code 304 Not Modified} for a revalidated entry, the entry is renewed and its response is returned instead.
+	 * 
+	 * @param request The request that was answered
+	 * @param response The response
+	 * @return The response to complete the request with
+	 */
+	HTTPResponse cacheResponse(APIRequest<?> request, HTTPResponse response) {
+		ResponseCache cache = this.cache;
+		if (cache == null || request.cacheKey == null) return response;
+		if (response.getStatus() == 304 && request.revalidating != null) {
+			cache.renew(request.cacheKey, request.revalidating, request.cacheTTL);
+			return request.revalidating.response;
+		}
+		if (response.getStatus() == 200) cache.put(request.cacheKey, request.url, response, request.cacheTTL);
+		return response;
+	}
+
+	/**
+	 * Prepares a broadcast of a message to many channels. The message is serialized once when the broadcast is {@link MessageBroadcast#send()
+	 * sent}.
+	 * 
+	 * @param message The message to send
+	 * @param channels The channels to send it to
+	 * @return The broadcast, ready to be configured and sent
+	 */
+	public MessageBroadcast broadcast(SendableMessage message, Collection<? extends ITextChannel> channels) {
+		return new MessageBroadcast(this, message, channels);
+	}
+
+	/**
+	 * @return The engine that deletes any number of messages with bulk-delete batches and single deletes
+	 */
+	public BulkMessageDeleter getBulkMessageDeleter() {
+		return bulkMessageDeleter;
+	}
+
+	/**
+	 * @return The scheduler that adds reactions in order, paced to their buckets' limits
+	 */
+	public ReactionScheduler getReactionScheduler() {
+		return reactionScheduler;
+	}
+
+	/**
+	 * @return The coalescer that sends only the latest of a message's rapid edits
+	 */
+	public MessageEditCoalescer getMessageEditCoalescer() {
+		return messageEditCoalescer;
+	}
+
+	/**
+	 * @return The sender that spreads messages to a channel over a pool of webhooks
+	 */
+	public WebhookSender getWebhookSender() {
+		return webhookSender;
+	}
+
+	/**
+	 * @return The batcher that merges edits made to the same member within a short window into one modify-member request
+	 */
+	public MemberEditBatcher getMemberEditBatcher() {
+		return memberEditBatcher;
+	}
+
+	/**
+	 * @return How long requests have waited in their buckets before being sent, per {@link RequestPriority}
+	 */
+	public QueueWaitMetrics getWaitMetrics() {
+		return waitMetrics;
+	}
+
+	/**
+	 * @return The {@link RetryPolicy} used for requests that fail with a {@code 5xx} response or a transport error
+	 */
+	public RetryPolicy getRetryPolicy() {
+		return retryPolicy;
+	}
+
+	/**
+	 * @param retryPolicy The policy to use, or {@link RetryPolicy#NONE} to fail requests on the first error
+	 */
+	public void setRetryPolicy(RetryPolicy retryPolicy) {
+		this.retryPolicy = retryPolicy;
+	}
+
+	/**
+	 * @return The client's {@link ResponseCache}, or {@code null} if responses aren't cached
+	 */
+	public ResponseCache getResponseCache() {
+		return cache;
+	}
+
+	/**
+	 * Enables response caching for read-mostly endpoints, or disables it if {@code cache} is {@code null}.
+	 * 
+	 * @param cache The cache to use
+	 */
+	public void setResponseCache(ResponseCache cache) {
+		this.cache = cache;
+	}
+
+	private static String coalesceKey(String url, boolean auth, Type type, RequestPriority priority) {
+		return priority + " " + type.getTypeName() + (auth ? " " : " noauth ") + url;
+	}
+
+	/**
+	 * @return How many GET requests were answered by a request that was already in flight
+	 */
+	public long getCoalesceHits() {
+		return coalesceHits.sum();
+	}
+
+	/**
+	 * @return How many GET requests couldn't be coalesced and were queued
+	 */
+	public long getCoalesceMisses() {
+		return coalesceMisses.sum();
+	}
+
+	/**
+	 * @return The number of distinct GET requests currently in flight
+	 */
+	public int getInFlightCount() {
+		return inFlight.size();
+	}
+
 	public void handleQueue(String route) {
-		this.queues.get(route).handle();
+		RESTQueue queue = this.queues.get(route);
+		if (queue != null) queue.handle();
 	}
 
 	public CompletableFuture<GuildMember> kickMember(GuildMember member) {
@@ -156,8 +455,8 @@ public class RESTManager {
 
 	public CompletableFuture<IGuildMember> loadGuildMember(IGuild guild, long memberID) {
 		CompletableFuture<IGuildMember> future = new CompletableFuture<>();
-		this.makeRequest(DLUtil.Endpoints.guildMember(guild.getID(), memberID), DLUtil.Methods.GET, true).thenAcceptAsync(action -> {
-			future.complete(guild.addMember(this.gson.fromJson(action, MemberJSON.class)));
+		this.<MemberJSON>makeRequest(DLUtil.Endpoints.guildMember(guild.getID(), memberID), DLUtil.Methods.GET, true, null, MemberJSON.class).thenAcceptAsync(data -> {
+			future.complete(guild.addMember(data));
 		});
 		return future;
 	}
@@ -165,11 +464,10 @@ public class RESTManager {
 	public CompletableFuture<Map<Long, IGuildMember>> loadGuildMembers(IGuild guild, int limit, long after) {
 		CompletableFuture<Map<Long, IGuildMember>> future = new CompletableFuture<>();
 		FetchMembers fetchMem = new FetchMembers(limit, after);
-		this.makeRequest(Endpoints.guildMembers(guild.getID()), Methods.GET, true, fetchMem).thenAcceptAsync(action -> {
+		this.<MemberJSON[]>makeRequest(Endpoints.guildMembers(guild.getID()) + "?limit=" + fetchMem.limit + "&after=" + fetchMem.after, Methods.GET, true, null, MemberJSON[].class).thenAcceptAsync(data -> {
 			Map<Long, IGuildMember> members = new HashMap<>();
-			MemberJSON[] data = DLUtil.gson.fromJson(action, MemberJSON[].class);
 			for (MemberJSON mem : data) {
-				members.put(SnowflakeUtil.parse(mem.user.id), gfac.buildMember(guild, mem));
+				members.put(SnowflakeUtil.parse(mem.user.id), EntityBuilder.getGuildFactory().buildMember(guild, mem));
 			}
 			future.complete(members);
 		});
@@ -181,28 +479,106 @@ public class RESTManager {
 	}
 
 	public CompletableFuture<String> makeRequest(String url, int method, boolean auth, Object data) {
-		APIRequest request = new APIRequest(url, method, auth, data);
-		CompletableFuture<String> future = new CompletableFuture<>();
-		if (!this.queues.containsKey(url)) {
-			this.queues.put(url, new RESTQueue(this, url));
+		return this.makeRequest(url, method, auth, data, String.class);
+	}
+
+	/**
+	 * Makes a request whose response is parsed straight into {@code type}, without decoding the body to a String first.<br>
+	 * GET requests without a payload are coalesced: while one is in flight, identical requests wait on it instead of spending another
+	 * request from the bucket. Callers sharing a request share the parsed result, so it must not be modified.
+	 * 
+	 * @param url The endpoint's url
+	 * @param method The request method to use
+	 * @param auth Does the endpoint require authorization
+	 * @param data The payload to attach to the request
+	 * @param type The type to parse the response into, like {@code MessageJSON[].class}
+	 * @return A future that completes with the parsed response
+	 */
+	public <T> CompletableFuture<T> makeRequest(String url, int method, boolean auth, Object data, Type type) {
+		return this.makeRequest(new APIRequest<>(url, method, auth, data, type));
+	}
+
+	/**
+	 * Queues a request that has been set up by the caller, for example with a {@link APIRequest#setTimeout(long) timeout}. Cancelling
+	 * the returned future removes the request from its bucket if it hasn't been sent yet, unless it was coalesced with identical
+	 * requests that some other caller still waits on. Requests with a deadline are never coalesced.
+	 * 
+	 * @param request The request to make
+	 * @return A future that completes with the parsed response
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> CompletableFuture<T> makeRequest(APIRequest<T> request) {
+		ResponseCache cache = this.cache;
+		String url = request.url;
+		if (request.method != Methods.GET || request.data != null) {
+			if (cache != null && request.method != Methods.GET) cache.invalidateRelated(url);
+			return enqueue(request, new CompletableFuture<>());
 		}
+		if (cache != null && (request.cacheTTL = cache.getTTL(url)) > 0) {
+			request.cacheKey = (request.auth ? "" : "noauth ") + url;
+			ResponseCache.CachedResponse entry = cache.get(request.cacheKey);
+			if (entry != null && entry.isFresh()) {
+				// parse a copy for every caller, cached responses are shared but parsed objects aren't
+				request.setFuture(new CompletableFuture<>());
+				request.complete(entry.response);
+				return request.future;
+			}
+			if (entry != null && entry.etag != null) request.revalidating = entry;
+		}
+		if (request.deadline > 0) return enqueue(request, new CompletableFuture<>());
+		// identical GETs that are already in flight wait on the queued request instead of queueing another one
+		String key = coalesceKey(url, request.auth, request.type, request.priority);
+		Coalesced<T> created = new Coalesced<>();
+		Coalesced<T> existing;
+		while ((existing = (Coalesced<T>) inFlight.putIfAbsent(key, created)) != null) {
+			CompletableFuture<T> future = existing.join();
+			if (future != null) {
+				coalesceHits.increment();
+				return future;
+			}
+			// every caller of that request cancelled, it's being removed from its bucket
+			inFlight.remove(key, existing);
+		}
+		coalesceMisses.increment();
+		CompletableFuture<T> future = created.join();
+		created.shared.whenComplete((result, ex) -> inFlight.remove(key, created));
+		enqueue(request, created.shared);
+		return future;
+	}
 
+	private <T> CompletableFuture<T> enqueue(APIRequest<T> request, CompletableFuture<T> future) {
 		request.setFuture(future);
-		queues.get(url).addToQueue(request);
-		handleQueue(url);
+		evictIdleQueues();
+		// enqueue inside compute so an eviction can't drop the queue between lookup and enqueue
+		RESTQueue queue = queues.compute(request.route, (route, q) -> {
+			if (q == null) q = new RESTQueue(this, route);
+			q.enqueue(request);
+			return q;
+		});
+		if (request.deadline > 0) {
+			ScheduledFuture<?> timer = limiter.getScheduler().schedule(request.deadline - System.currentTimeMillis(), () -> {
+				future.completeExceptionally(new TimeoutException("Request to " + request.route + " timed out"));
+			});
+			future.whenComplete((result, ex) -> timer.cancel(false));
+		}
+		// cancelled and timed out requests give their place in the bucket back
+		future.whenComplete((result, ex) -> {
+			if (ex != null) queue.remove(request);
+		});
+		queue.handle();
 		return future;
 	}
 
 	public CompletableFuture<Guild> modifyGuild(Guild guild, JSONObject data) {
 		CompletableFuture<Guild> future = new CompletableFuture<Guild>();
-		this.makeRequest(DLUtil.Endpoints.guild(guild.getID()), DLUtil.Methods.PATCH, true, data).thenAcceptAsync(action -> {
-			guild.setup(this.gson.fromJson(action, GuildJSON.class));
+		this.<GuildJSON>makeRequest(DLUtil.Endpoints.guild(guild.getID()), DLUtil.Methods.PATCH, true, data, GuildJSON.class).thenAcceptAsync(action -> {
+			guild.setup(action);
 			future.complete(guild);
 		});
 		return future;
 	}
 
-	public CompletableFuture<Integer> pruneCount(Guild guild, int days) {
+	public CompletableFuture<Integer> pruneCount(IGuild guild, int days) {
 		CompletableFuture<Integer> future = new CompletableFuture<>();
 		JSONObject payload = new JSONObject().put("days", days);
 		this.makeRequest(Endpoints.guildPrune(guild.getID()), Methods.GET, true, payload).thenAcceptAsync(action -> {
@@ -223,8 +599,8 @@ public class RESTManager {
 		CompletableFuture<DLUser> future = new CompletableFuture<>();
 		try {
 			String base64 = new String("data:image/jpg;base64," + Base64.encodeBase64String(Files.readAllBytes(Paths.get(avatar))));
-			this.makeRequest(Endpoints.currentUser, Methods.PATCH, true, new JSONObject().put("avatar", base64)).thenAcceptAsync(action -> {
-				loader.user.setup(gson.fromJson(action, UserJSON.class));
+			this.<UserJSON>makeRequest(Endpoints.currentUser, Methods.PATCH, true, new JSONObject().put("avatar", base64), UserJSON.class).thenAcceptAsync(action -> {
+				loader.user.setup(action);
 				future.complete(loader.user);
 			});
 		} catch (IOException e) {
@@ -244,8 +620,8 @@ public class RESTManager {
 
 	public CompletableFuture<DLUser> setUsername(String username) {
 		CompletableFuture<DLUser> future = new CompletableFuture<>();
-		makeRequest(DLUtil.Endpoints.currentUser, DLUtil.Methods.PATCH, true, new JSONObject().put("username", username)).thenAcceptAsync(action -> {
-			loader.user.setup(this.gson.fromJson(action, UserJSON.class));
+		this.<UserJSON>makeRequest(DLUtil.Endpoints.currentUser, DLUtil.Methods.PATCH, true, new JSONObject().put("username", username), UserJSON.class).thenAcceptAsync(action -> {
+			loader.user.setup(action);
 			future.complete(loader.user);
 		});
 		return future;
@@ -262,19 +638,15 @@ public class RESTManager {
 	public CompletableFuture<Role> createRole(Guild guild, String name, int permissions, int color, boolean hoist, boolean mentionable) {
 		CompletableFuture<Role> future = new CompletableFuture<Role>();
 		SendableRole payload = new SendableRole(name, permissions, color, hoist, mentionable);
-		this.makeRequest(Endpoints.guildRoles(guild.getID()), Methods.POST, true, payload).thenAcceptAsync(action -> {
-			RoleJSON data = gson.fromJson(action, RoleJSON.class);
+		this.<RoleJSON>makeRequest(Endpoints.guildRoles(guild.getID()), Methods.POST, true, payload, RoleJSON.class).thenAcceptAsync(data -> {
 			future.complete(guild.addRole(data));
 		});
 		return future;
 	}
 
-	public CompletableFuture<InviteJSON[]> getInvites(Guild guild) {
+	public CompletableFuture<InviteJSON[]> getInvites(IGuild guild) {
 		CompletableFuture<InviteJSON[]> future = new CompletableFuture<>();
-		this.makeRequest(Endpoints.guildInvites(guild.getID()), Methods.GET, true).thenAcceptAsync(action -> {
-			InviteJSON[] data = gson.fromJson(action, InviteJSON[].class);
-			future.complete(data);
-		});
+		this.<InviteJSON[]>makeRequest(Endpoints.guildInvites(guild.getID()), Methods.GET, true, null, InviteJSON[].class).thenAcceptAsync(future::complete);
 
 		return future;
 	}
@@ -282,8 +654,7 @@ public class RESTManager {
 	public CompletableFuture<GuildChannel> modifyGuildChannel(GuildChannel channel, String name, String topic, int position, int bitrate, int userLimit) {
 		CompletableFuture<GuildChannel> future = new CompletableFuture<>();
 		EditChannel d = new EditChannel(name, topic, position, bitrate, userLimit);
-		this.makeRequest(Endpoints.channel(channel.getID()), Methods.PATCH, true, d).thenAcceptAsync(action -> {
-			ChannelJSON cd = gson.fromJson(action, ChannelJSON.class);
+		this.<ChannelJSON>makeRequest(Endpoints.channel(channel.getID()), Methods.PATCH, true, d, ChannelJSON.class).thenAcceptAsync(cd -> {
 			channel.setup(cd);
 			future.complete(channel);
 		});
@@ -291,4 +662,53 @@ public class RESTManager {
 		return future;
 	}
 
+	/**
+	 * A coalesced GET request and the callers waiting on it. Each caller gets its own future, so one caller cancelling doesn't cancel the
+	 * request for the others; the request is only cancelled once every caller has.
+	 */
+	private static class Coalesced<T> {
+
+		/**
+		 * The future of the queued request
+		 */
+		final CompletableFuture<T> shared = new CompletableFuture<>();
+
+		/**
+		 * How many callers are still waiting on the request
+		 */
+		private int callers;
+
+		private boolean abandoned;
+
+		/**
+		 * @return A future for a new caller, or {@code null} if every earlier caller has cancelled and the request is being removed
+		 */
+		synchronized CompletableFuture<T> join() {
+			if (abandoned) return null;
+			callers++;
+			CompletableFuture<T> future = new CompletableFuture<>();
+			shared.whenComplete((result, ex) -> {
+				if (ex != null) {
+					future.completeExceptionally(ex);
+				} else {
+					future.complete(result);
+				}
+			});
+			// a caller's future that fails before the request is done was cancelled or timed out by that caller
+			future.whenComplete((result, ex) -> {
+				if (ex != null && !shared.isDone()) leave();
+			});
+			return future;
+		}
+
+		private void leave() {
+			synchronized (this) {
+				if (--callers > 0 || abandoned) return;
+				abandoned = true;
+			}
+			shared.cancel(false);
+		}
+
+	}
+
 }
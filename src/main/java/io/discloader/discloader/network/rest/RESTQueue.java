@@ -5,19 +5,14 @@ import static io.discloader.discloader.util.DLUtil.gson;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
-import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Date;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
-import com.mashape.unirest.http.HttpResponse;
-import com.mashape.unirest.http.async.Callback;
-import com.mashape.unirest.http.exceptions.UnirestException;
-import com.mashape.unirest.request.BaseRequest;
-import com.mashape.unirest.request.GetRequest;
-import com.mashape.unirest.request.HttpRequest;
-import com.mashape.unirest.request.body.MultipartBody;
+import com.google.gson.JsonParseException;
 
 import io.discloader.discloader.common.DiscLoader;
 import io.discloader.discloader.common.event.RawEvent;
@@ -26,197 +21,386 @@ import io.discloader.discloader.common.exceptions.PermissionsException;
 import io.discloader.discloader.common.exceptions.UnauthorizedException;
 import io.discloader.discloader.common.exceptions.UnknownException;
 import io.discloader.discloader.network.json.ExceptionJSON;
+import io.discloader.discloader.network.rest.transport.HTTPRequest;
+import io.discloader.discloader.network.rest.transport.HTTPResponse;
 
 /**
  * @author Perry Berman
  */
 public class RESTQueue {
 
-	public List<APIRequest> queue;
+	/**
+	 * How many requests in a row may be sent ahead of waiting lower priority requests before the oldest of those goes next
+	 */
+	public static final int STARVATION_LIMIT = 4;
 
-	public RESTManager rest;
-
-	public DiscLoader loader;
-
-	// public Timer timer;
+	/**
+	 * The waiting requests of each {@link RequestPriority}, in the order they were queued
+	 */
+	private final Map<RequestPriority, ArrayDeque<APIRequest<?>>> queues;
 
-	private RateLimiter limiter;
+	/**
+	 * The request that is being sent, or waiting to be sent again after a rate limit or a failure
+	 */
+	private APIRequest<?> current;
 
-	private boolean waiting;
+	/**
+	 * How many requests in a row have been sent ahead of waiting lower priority requests
+	 */
+	private int bypassed;
 
-	private boolean globalLimit;
+	/**
+	 * The rate limit bucket this queue handles requests for
+	 */
+	public final String route;
 
-	public long timeDifference;
+	public RESTManager rest;
 
-	public long resetTime;
+	public DiscLoader loader;
 
-	private int rateLimit;
+	private volatile boolean waiting;
 
-	public int remaining;
+	/**
+	 * When a request was last added to or completed by this queue
+	 */
+	private volatile long lastActivity;
 
 	public RESTQueue(RESTManager restManager, String route) {
 		rest = restManager;
 		loader = rest.loader;
+		this.route = route;
 		waiting = false;
-		timeDifference = 0;
-		queue = new ArrayList<>();
-		// limiter = new RateLimiter(this, route);
+		queues = new EnumMap<>(RequestPriority.class);
+		for (RequestPriority priority : RequestPriority.values()) {
+			queues.put(priority, new ArrayDeque<>());
+		}
+		lastActivity = System.currentTimeMillis();
 	}
 
-	public void handle() {
-		try {
-			if (waiting || queue.size() == 0 || globalLimit) {
-				return;
-			}
+	/**
+	 * Sends the next request once the bucket's limit and the {@link RateLimitCoordinator coordinator's} global limit allow it.
+	 */
+	public synchronized void handle() {
+		if (waiting || (current == null && size() == 0)) {
+			return;
+		}
 
-			waiting = true;
+		waiting = true;
 
-			final APIRequest apiRequest = queue.get(0);
+		RateLimitCoordinator limiter = rest.getRateLimiter();
+		// the request is counted against the bucket from now on, so other clients sharing it can't take its place
+		long delay = limiter.reserve(route);
+		if (delay > 0) {
+			limiter.park(delay, this::resume);
+		} else {
+			limiter.submit(loader, this::send);
+		}
+	}
 
-			BaseRequest request = apiRequest.createRequest();
+	private void resume() {
+		waiting = false;
+		handle();
+	}
 
-			request = addHeaders(request, apiRequest.auth, apiRequest.multi);
+	/**
+	 * Removes a request from the queue. Has no effect if the request has already been sent and answered. A request that is in flight
+	 * is aborted, which moves the queue on to its next request.
+	 * 
+	 * @param request The request to remove
+	 */
+	void remove(APIRequest<?> request) {
+		CompletableFuture<?> sending = null;
+		synchronized (this) {
+			if (current == request) {
+				current = null;
+				sending = request.sending;
+			} else {
+				queues.get(request.priority).remove(request);
+			}
+		}
+		if (sending != null) sending.cancel(true);
+	}
 
-			request.asStringAsync(new Callback<String>() {
+	/**
+	 * Picks the next request to send: the oldest request of the highest waiting class, unless lower classes have been passed over
+	 * {@link #STARVATION_LIMIT} times in a row, in which case the longest waiting lower priority request goes instead. Requests that
+	 * were cancelled or timed out while they were queued are dropped.
+	 */
+	private APIRequest<?> next() {
+		RequestPriority highest = null;
+		APIRequest<?> oldestLower = null;
+		for (Map.Entry<RequestPriority, ArrayDeque<APIRequest<?>>> entry : queues.entrySet()) {
+			ArrayDeque<APIRequest<?>> queue = entry.getValue();
+			while (!queue.isEmpty() && queue.peekFirst().future.isDone()) {
+				queue.pollFirst();
+			}
+			if (queue.isEmpty()) continue;
+			if (highest == null) {
+				highest = entry.getKey();
+			} else if (oldestLower == null || queue.peekFirst().queuedAt < oldestLower.queuedAt) {
+				oldestLower = queue.peekFirst();
+			}
+		}
+		if (highest == null) return null;
+		APIRequest<?> next;
+		if (oldestLower != null && bypassed >= STARVATION_LIMIT) {
+			next = queues.get(oldestLower.priority).pollFirst();
+			bypassed = 0;
+		} else {
+			next = queues.get(highest).pollFirst();
+			bypassed = oldestLower == null ? 0 : bypassed + 1;
+		}
+		rest.getWaitMetrics().record(next.priority, System.currentTimeMillis() - next.queuedAt);
+		return next;
+	}
 
-				@Override
-				public void cancelled() {
-					apiRequest.future.completeExceptionally(new Throwable());
+	private void send() {
+		final APIRequest<?> apiRequest;
+		synchronized (this) {
+			if (current == null || current.future.isDone()) current = next();
+			apiRequest = current;
+		}
+		if (apiRequest == null) {
+			rest.getRateLimiter().release(route);
+			resume();
+			return;
+		}
+		apiRequest.attempts++;
+		HTTPRequest request;
+		try {
+			request = addHeaders(apiRequest.createRequest(rest.resolve(apiRequest.url)), apiRequest.auth, apiRequest.multi);
+		} catch (Exception e) {
+			rest.getRateLimiter().release(route);
+			remove(apiRequest);
+			apiRequest.future.completeExceptionally(e);
+			resume();
+			return;
+		}
+		CompletableFuture<HTTPResponse> sending = rest.getTransport().execute(request);
+		apiRequest.sending = sending;
+		sending.whenComplete((response, ex) -> {
+			apiRequest.sending = null;
+			lastActivity = System.currentTimeMillis();
+			if (ex != null) {
+				rest.getRateLimiter().release(route);
+				try {
+					if (retry(apiRequest)) return;
+					remove(apiRequest);
+					apiRequest.future.completeExceptionally(ex);
+				} catch (RuntimeException e) {
+					apiRequest.future.completeExceptionally(e);
 				}
+				resume();
+			} else {
+				completed(apiRequest, response);
+			}
+		});
+	}
 
-				@Override
-				public void completed(HttpResponse<String> response) {
-					Map<String, List<String>> headers = response.getHeaders();
-					headers.forEach((name, value) -> {
-						switch (name) {
-						case "X-RateLimit-Limit":
-							rateLimit = Integer.parseInt(value.get(0), 10);
-							break;
-						case "X-RateLimit-Remaining":
-							remaining = Integer.parseInt(value.get(0), 10);
-							break;
-						case "x-ratelimit-reset":
-						case "X-RateLimit-Reset":
-							resetTime = (Long.parseLong(value.get(0), 10) * 1000L);
-							break;
-						case "X-RateLimit-Global":
-							globalLimit = Boolean.parseBoolean(value.get(0));
-							break;
-						}
-					});
-					RawEvent event = new RawEvent(loader, response);
-					DateFormat df = new SimpleDateFormat("E, dd MMM yyyy HH:mm:ss z");
-					try {
-						timeDifference = Date.from(Instant.now()).getTime() - df.parse(headers.get("Date").get(0)).getTime();
-					} catch (ParseException e) {
-						e.printStackTrace();
-					}
-					int code = response.getStatus();
-					if (code == 429) {
-						Thread wait = new Thread("Ratelimit resetting - " + apiRequest.url) {
-
-							@Override
-							public void run() {
-								try {
-									Thread.sleep(Integer.parseInt(headers.get("Retry-After").get(0), 10) + 500);
-								} catch (NumberFormatException e) {
-									e.printStackTrace();
-								} catch (InterruptedException e) {
-									e.printStackTrace();
-								}
-
-								waiting = false;
-								globalLimit = false;
-								handle();
-							}
-						};
-						wait.setPriority((Thread.NORM_PRIORITY + Thread.MAX_PRIORITY) / 2);
-						wait.setDaemon(true);
-						wait.start();
-						return;
-					} else if (code != 200 && code != 201 && code != 204 && code != 304) {
-						queue.remove(apiRequest);
-						loader.emit(event);
-						loader.emit("RawPacket", event);
-						ExceptionJSON data = gson.fromJson(response.getBody(), ExceptionJSON.class);
-						switch (code) {
-						case 401:
-							apiRequest.future.completeExceptionally(new UnauthorizedException(response.getBody()));
-							break;
-						case 403:
-							switch (data.code) {
-							case 20002:
-								apiRequest.future.completeExceptionally(new AccountTypeException(data));
-								break;
-							case 50013:
-								apiRequest.future.completeExceptionally(new PermissionsException(data));
-								break;
-							default:
-								apiRequest.future.completeExceptionally(new UnauthorizedException(response.getBody()));
-								break;
-							}
-							break;
-						default:
-							apiRequest.future.completeExceptionally(new UnknownException(data));
-							break;
-						}
-					} else {
-						queue.remove(apiRequest);
-						loader.emit(event);
-						loader.emit("RawPacket", event);
-						apiRequest.future.complete(response.getBody());
-					}
-					globalLimit = false;
-					long waitTime = ((resetTime - System.currentTimeMillis()) + timeDifference + 500);
-					if (remaining == 0 && waitTime > 0) {
-						Thread wait = new Thread("REST Waiting - " + apiRequest.url) {
-
-							@Override
-							public void run() {
-								try {
-									Thread.sleep(waitTime);
-								} catch (InterruptedException e) {
-									e.printStackTrace();
-								}
-
-								waiting = false;
-								handle();
-							}
-						};
-						wait.setPriority((Thread.NORM_PRIORITY + Thread.MAX_PRIORITY) / 2);
-						wait.setDaemon(true);
-						wait.start();
-					} else {
-						waiting = false;
-						handle();
+	/**
+	 * Handles a response. Whatever happens, including a throwing listener or a malformed header, the request is completed and the
+	 * queue either resumes or is parked, so the bucket is never left waiting.
+	 */
+	private void completed(APIRequest<?> apiRequest, HTTPResponse response) {
+		RateLimitCoordinator limiter = rest.getRateLimiter();
+		boolean rescheduled = false;
+		try {
+			int limit = -1, remaining = -1;
+			long reset = 0l;
+			boolean global = false;
+			for (Map.Entry<String, List<String>> header : response.getHeaders().entrySet()) {
+				String value = header.getValue().get(0);
+				switch (header.getKey().toLowerCase()) {
+				case "x-ratelimit-limit":
+					limit = Integer.parseInt(value, 10);
+					break;
+				case "x-ratelimit-remaining":
+					remaining = Integer.parseInt(value, 10);
+					break;
+				case "x-ratelimit-reset":
+					// newer API versions send the reset with a fraction of a second
+					reset = (long) (Double.parseDouble(value) * 1000d);
+					break;
+				case "x-ratelimit-global":
+					global = Boolean.parseBoolean(value);
+					break;
+				}
+			}
+			String date = response.getHeader("Date");
+			if (date != null) {
+				DateFormat df = new SimpleDateFormat("E, dd MMM yyyy HH:mm:ss z", Locale.US);
+				try {
+					limiter.updateClockDrift(df.parse(date).getTime());
+				} catch (ParseException e) {
+					e.printStackTrace();
+				}
+			}
+			limiter.updateBucket(route, limit, remaining, reset);
+			int code = response.getStatus();
+			if (code == 429) {
+				long retryAfter = 0l;
+				try {
+					String header = response.getHeader("Retry-After");
+					if (header != null) retryAfter = Integer.parseInt(header, 10);
+				} catch (NumberFormatException e) {
+					e.printStackTrace();
+				}
+				if (global) limiter.onGlobalRateLimit(retryAfter);
+				limiter.park(retryAfter + 500, this::resume);
+				rescheduled = true;
+				return;
+			} else if (code >= 500 && retry(apiRequest)) {
+				rescheduled = true;
+				return;
+			} else if (code != 200 && code != 201 && code != 204 && code != 304) {
+				remove(apiRequest);
+				emitRaw(response);
+				ExceptionJSON data = parseError(response);
+				switch (code) {
+				case 401:
+					apiRequest.future.completeExceptionally(new UnauthorizedException(response.getBody()));
+					break;
+				case 403:
+					switch (data.code) {
+					case 20002:
+						apiRequest.future.completeExceptionally(new AccountTypeException(data));
+						break;
+					case 50013:
+						apiRequest.future.completeExceptionally(new PermissionsException(data));
+						break;
+					default:
+						apiRequest.future.completeExceptionally(new UnauthorizedException(response.getBody()));
+						break;
 					}
+					break;
+				default:
+					apiRequest.future.completeExceptionally(new UnknownException(data));
+					break;
 				}
-
-				@Override
-				public void failed(UnirestException e) {
-					apiRequest.future.completeExceptionally(e);
+			} else {
+				remove(apiRequest);
+				emitRaw(response);
+				apiRequest.complete(rest.cacheResponse(apiRequest, response));
+			}
+		} catch (RuntimeException e) {
+			remove(apiRequest);
+			apiRequest.future.completeExceptionally(e);
+		} finally {
+			limiter.release(route);
+			if (!rescheduled) {
+				long waitTime = limiter.getBucketDelay(route);
+				if (waitTime > 0) {
+					limiter.park(waitTime, this::resume);
+				} else {
+					resume();
 				}
-			});
-		} catch (Exception e) {
-			e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Keeps a failed request at the front of the queue and parks the bucket for the {@link RetryPolicy retry policy's} backoff delay.
+	 * Requests whose deadline would pass during the backoff aren't retried.
+	 * 
+	 * @return {@code true} if the request will be retried
+	 */
+	private boolean retry(APIRequest<?> request) {
+		RetryPolicy policy = rest.getRetryPolicy();
+		if (!policy.shouldRetry(request)) return false;
+		long delay = policy.getDelay(request.attempts);
+		if (request.deadline > 0 && System.currentTimeMillis() + delay >= request.deadline) return false;
+		rest.getRateLimiter().park(delay, this::resume);
+		return true;
+	}
+
+	/**
+	 * Error responses aren't always JSON, a {@code 502} from a proxy is usually HTML.
+	 */
+	private ExceptionJSON parseError(HTTPResponse response) {
+		ExceptionJSON data = null;
+		try {
+			data = gson.fromJson(response.getBody(), ExceptionJSON.class);
+		} catch (JsonParseException e) {}
+		if (data == null || data.message == null) {
+			data = new ExceptionJSON();
+			data.code = response.getStatus();
+			data.message = response.getStatus() + " " + response.getBody();
 		}
+		return data;
 	}
 
-	public void addToQueue(APIRequest request) {
-		this.queue.add(request);
+	/**
+	 * Emits the response as a {@link RawEvent}, but only if something is listening for raw packets. Otherwise the body is never
+	 * decoded to a String.
+	 */
+	private void emitRaw(HTTPResponse response) {
+		if (!loader.hasRawPacketListeners()) return;
+		RawEvent event = new RawEvent(loader, response);
+		loader.emit(event);
+		loader.emit("RawPacket", event);
+	}
+
+	public void addToQueue(APIRequest<?> request) {
+		enqueue(request);
 		this.handle();
 	}
 
-	public <T extends BaseRequest> T addHeaders(T baseRequest, boolean auth, boolean multi) {
-		HttpRequest request = baseRequest.getHttpRequest();
+	/**
+	 * Adds a request to the queue without sending it. Call {@link #handle()} afterwards.
+	 * 
+	 * @param request The request to add
+	 */
+	public synchronized void enqueue(APIRequest<?> request) {
+		lastActivity = System.currentTimeMillis();
+		request.queuedAt = lastActivity;
+		queues.get(request.priority).addLast(request);
+	}
+
+	/**
+	 * @return The number of requests waiting to be sent, not counting one that is in flight
+	 */
+	public synchronized int size() {
+		int size = 0;
+		for (ArrayDeque<APIRequest<?>> queue : queues.values()) {
+			size += queue.size();
+		}
+		return size;
+	}
+
+	/**
+	 * @param priority The priority class
+	 * @return The number of the class's requests waiting to be sent
+	 */
+	public synchronized int size(RequestPriority priority) {
+		return queues.get(priority).size();
+	}
+
+	/**
+	 * @return The bucket's request limit, as learned from the last response's headers
+	 */
+	public int getRateLimit() {
+		return rest.getRateLimiter().getBucket(route).getLimit();
+	}
+
+	/**
+	 * Checks if the queue can be evicted. A queue is idle when it has no pending requests, isn't waiting for a response or a rate
+	 * limit reset, and hasn't been used for {@code idleTime} milliseconds.
+	 * 
+	 * @param idleTime How long the queue must have been unused, in milliseconds
+	 * @return {@code true} if the queue is idle
+	 */
+	public synchronized boolean isIdle(long idleTime) {
+		return !waiting && current == null && size() == 0 && System.currentTimeMillis() - lastActivity >= idleTime;
+	}
 
+	public HTTPRequest addHeaders(HTTPRequest request, boolean auth, boolean multi) {
 		if (auth && loader.token != null) request.header("authorization", loader.token);
 
 		request.header("user-agent", "DiscordBot (http://discloader.io, v0.1.1)");
 		if (!multi) request.header("content-type", "application/json");
 
 		request.header("Accept-Encoding", "gzip");
-		return baseRequest;
+		return request;
 	}
 
 }
@@ -0,0 +1,349 @@
+package io.discloader.discloader.network.rest;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Coordinates the REST rate limits of every client that uses the same token.<br>
+ * Discord's global limit applies to the token, not to a connection, so a {@link io.discloader.discloader.common.ShardManager
+ * ShardManager} shares one coordinator between all of its shards. The coordinator:
+ * <ul>
+ * <li>enforces the global limit ahead of time with a token bucket, instead of waiting for a global 429</li>
+ * <li>keeps each bucket's limit state, learned from the {@code X-RateLimit-*} headers and shifted by the estimated difference
+ * between our clock and Discord's</li>
+ * <li>reserves one of a bucket's remaining requests for every request that is sent and not yet answered, so clients sharing a bucket
+ * can't all send on its last request</li>
+ * <li>hands out global permits round-robin between clients, so one busy shard can't starve the others</li>
+ * </ul>
+ *
+ * @author Perry Berman
+ */
+public class RateLimitCoordinator {
+
+	/**
+	 * Discord's default global limit, in requests per second
+	 */
+	public static final int DEFAULT_GLOBAL_LIMIT = 50;
+
+	/**
+	 * How long past its reset time a bucket's state is kept before it's forgotten, in milliseconds
+	 */
+	private static final long BUCKET_EXPIRY = 300000l;
+
+	/**
+	 * The limit state of a single rate limit bucket
+	 */
+	public static class Bucket {
+
+		private volatile int limit = -1;
+
+		private volatile int remaining = -1;
+
+		private volatile long resetAt;
+
+		/**
+		 * The requests sent from the bucket that haven't been answered yet. Only changed while holding the bucket's lock.
+		 */
+		private volatile int reserved;
+
+		/**
+		 * @return How long the bucket must wait before it may send another request, in milliseconds
+		 */
+		private long getDelay(long now) {
+			if (remaining < 0 || reserved < remaining) return 0l;
+			return Math.max(0l, resetAt - now + 500);
+		}
+
+		/**
+		 * @return The bucket's request limit, or {@code -1} if it hasn't been learned yet
+		 */
+		public int getLimit() {
+			return limit;
+		}
+
+		/**
+		 * @return The number of requests left before the bucket resets, or {@code -1} if it hasn't been learned yet
+		 */
+		public int getRemaining() {
+			return remaining;
+		}
+
+		/**
+		 * @return When the bucket resets, in local milliseconds since the epoch
+		 */
+		public long getResetAt() {
+			return resetAt;
+		}
+
+		/**
+		 * @return The number of requests sent from the bucket that haven't been answered yet
+		 */
+		public int getReserved() {
+			return reserved;
+		}
+	}
+
+	private final RateLimitScheduler scheduler = new RateLimitScheduler();
+
+	private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+	/**
+	 * The requests waiting for a global permit, per client
+	 */
+	private final Map<Object, Queue<Runnable>> pending = new HashMap<>();
+
+	/**
+	 * The clients with pending requests, in the order they will be served
+	 */
+	private final Deque<Object> turns = new ArrayDeque<>();
+
+	private final double permitsPerMilli;
+
+	private final int capacity;
+
+	private double permits;
+
+	private long lastRefill;
+
+	private long blockedUntil;
+
+	private boolean drainScheduled;
+
+	/**
+	 * The estimated difference between our clock and Discord's, in milliseconds
+	 */
+	private volatile long clockDrift;
+
+	private volatile boolean driftKnown;
+
+	public RateLimitCoordinator() {
+		this(DEFAULT_GLOBAL_LIMIT);
+	}
+
+	/**
+	 * @param globalLimit The maximum number of requests per second across every client that uses the coordinator
+	 */
+	public RateLimitCoordinator(int globalLimit) {
+		capacity = globalLimit;
+		permits = globalLimit;
+		permitsPerMilli = globalLimit / 1000d;
+		lastRefill = System.currentTimeMillis();
+	}
+
+	/**
+	 * Evicts the state of buckets that reset more than five minutes ago.
+	 */
+	public void evictExpiredBuckets() {
+		long now = System.currentTimeMillis();
+		buckets.values().removeIf(bucket -> bucket.reserved == 0 && now - bucket.resetAt > BUCKET_EXPIRY);
+	}
+
+	/**
+	 * @param route The bucket's key
+	 * @return The bucket's state
+	 */
+	public Bucket getBucket(String route) {
+		return buckets.computeIfAbsent(route, key -> new Bucket());
+	}
+
+	/**
+	 * Gets how long a bucket must wait before it may send another request. Requests that have been {@link #reserve(String) reserved}
+	 * count against the bucket's remaining requests until they are {@link #release(String) released}.
+	 *
+	 * @param route The bucket's key
+	 * @return The delay in milliseconds, {@code 0} if the bucket may send now
+	 */
+	public long getBucketDelay(String route) {
+		Bucket bucket = buckets.get(route);
+		if (bucket == null) return 0l;
+		synchronized (bucket) {
+			return bucket.getDelay(System.currentTimeMillis());
+		}
+	}
+
+	/**
+	 * @return The estimated difference between our clock and Discord's, in milliseconds. Positive when our clock is ahead.
+	 */
+	public long getClockDrift() {
+		return clockDrift;
+	}
+
+	/**
+	 * @return The number of requests waiting for a global permit
+	 */
+	public synchronized int getPendingCount() {
+		int count = 0;
+		for (Queue<Runnable> queue : pending.values()) {
+			count += queue.size();
+		}
+		return count;
+	}
+
+	/**
+	 * @return The scheduler that parks rate limited buckets
+	 */
+	public RateLimitScheduler getScheduler() {
+		return scheduler;
+	}
+
+	/**
+	 * Blocks every client from sending requests after Discord reports that the global limit was hit.
+	 *
+	 * @param retryAfter How long to wait, in milliseconds
+	 */
+	public void onGlobalRateLimit(long retryAfter) {
+		synchronized (this) {
+			blockedUntil = Math.max(blockedUntil, System.currentTimeMillis() + retryAfter);
+			permits = 0;
+		}
+		drain();
+	}
+
+	/**
+	 * Releases a request {@link #reserve(String) reserved} from a bucket, once it has been answered or has failed. Call after the
+	 * response's headers have been passed to {@link #updateBucket(String, int, int, long)}.
+	 *
+	 * @param route The bucket's key
+	 */
+	public void release(String route) {
+		Bucket bucket = buckets.get(route);
+		if (bucket == null) return;
+		synchronized (bucket) {
+			if (bucket.reserved > 0) bucket.reserved--;
+		}
+	}
+
+	/**
+	 * Reserves one of a bucket's remaining requests if it may send now. Every client sharing the bucket sees the reservation, so two
+	 * clients can't both send on the bucket's last request. A successful reservation must be {@link #release(String) released} once
+	 * the request has been answered or has failed.
+	 *
+	 * @param route The bucket's key
+	 * @return {@code 0} if a request was reserved, otherwise how long until the bucket may send in milliseconds
+	 */
+	public long reserve(String route) {
+		Bucket bucket = getBucket(route);
+		synchronized (bucket) {
+			long delay = bucket.getDelay(System.currentTimeMillis());
+			if (delay == 0) bucket.reserved++;
+			return delay;
+		}
+	}
+
+	/**
+	 * Parks a bucket on the coordinator's {@link RateLimitScheduler}.
+	 *
+	 * @param delay How long to wait, in milliseconds
+	 * @param resume What to run once the wait is over
+	 */
+	public void park(long delay, Runnable resume) {
+		scheduler.park(delay, resume);
+	}
+
+	/**
+	 * Queues a request until a global permit is available. Clients are served round-robin, so each client gets at most one request
+	 * in before every other waiting client has had a turn.
+	 *
+	 * @param client The client making the request, usually its {@link io.discloader.discloader.common.DiscLoader DiscLoader}
+	 * @param request Sends the request
+	 */
+	public void submit(Object client, Runnable request) {
+		synchronized (this) {
+			Queue<Runnable> queue = pending.get(client);
+			if (queue == null) pending.put(client, queue = new ArrayDeque<>());
+			if (queue.isEmpty()) turns.addLast(client);
+			queue.add(request);
+		}
+		drain();
+	}
+
+	/**
+	 * Updates the estimated clock drift from a response's {@code Date} header. The header only has a resolution of one second, so
+	 * samples are averaged.
+	 *
+	 * @param serverTime The response's date, in milliseconds since the epoch
+	 */
+	public void updateClockDrift(long serverTime) {
+		long sample = System.currentTimeMillis() - serverTime;
+		if (!driftKnown) {
+			clockDrift = sample;
+			driftKnown = true;
+		} else {
+			clockDrift = (clockDrift * 7 + sample) / 8;
+		}
+	}
+
+	/**
+	 * Updates a bucket's state from a response's rate limit headers.
+	 *
+	 * @param route The bucket's key
+	 * @param limit The {@code X-RateLimit-Limit} header, or {@code -1} if absent
+	 * @param remaining The {@code X-RateLimit-Remaining} header, or {@code -1} if absent
+	 * @param reset The {@code X-RateLimit-Reset} header in milliseconds since the epoch on Discord's clock, or {@code 0} if absent
+	 */
+	public void updateBucket(String route, int limit, int remaining, long reset) {
+		Bucket bucket = getBucket(route);
+		synchronized (bucket) {
+			if (limit >= 0) bucket.limit = limit;
+			if (remaining >= 0) bucket.remaining = remaining;
+			if (reset > 0) bucket.resetAt = reset + clockDrift;
+		}
+	}
+
+	private void drain() {
+		List<Runnable> ready = new ArrayList<>();
+		long delay = 0l;
+		synchronized (this) {
+			while (!turns.isEmpty()) {
+				delay = acquire();
+				if (delay > 0) break;
+				Object client = turns.pollFirst();
+				Queue<Runnable> queue = pending.get(client);
+				ready.add(queue.poll());
+				if (queue.isEmpty()) pending.remove(client);
+				else turns.addLast(client);
+			}
+			if (delay > 0 && !drainScheduled) {
+				drainScheduled = true;
+				scheduler.schedule(delay, () -> {
+					synchronized (this) {
+						drainScheduled = false;
+					}
+					drain();
+				});
+			}
+		}
+		for (Runnable request : ready) {
+			try {
+				request.run();
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Takes a global permit if one is available.
+	 *
+	 * @return {@code 0} if a permit was taken, otherwise how long until one is available in milliseconds
+	 */
+	private long acquire() {
+		long now = System.currentTimeMillis();
+		if (now < blockedUntil) return blockedUntil - now;
+		permits = Math.min(capacity, permits + (now - lastRefill) * permitsPerMilli);
+		lastRefill = now;
+		if (permits >= 1) {
+			permits--;
+			return 0l;
+		}
+		return Math.max(1l, (long) Math.ceil((1 - permits) / permitsPerMilli));
+	}
+
+}
@@ -0,0 +1,99 @@
+package io.discloader.discloader.network.rest;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Parks {@link RESTQueue RESTQueues} until their rate limit resets.<br>
+ * Every wait is a task on a single daemon thread instead of a thread of its own, so thousands of rate limited buckets cost thousands
+ * of queued tasks rather than thousands of sleeping threads.
+ *
+ * @author Perry Berman
+ */
+public class RateLimitScheduler {
+
+	private final ScheduledExecutorService executor;
+
+	private final AtomicInteger parked = new AtomicInteger();
+
+	private final AtomicLong parks = new AtomicLong();
+
+	private final AtomicLong totalDelay = new AtomicLong();
+
+	public RateLimitScheduler() {
+		executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "REST Rate Limit Scheduler");
+			thread.setPriority((Thread.NORM_PRIORITY + Thread.MAX_PRIORITY) / 2);
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * @return The number of buckets that are currently waiting for their rate limit to reset
+	 */
+	public int getParkedCount() {
+		return parked.get();
+	}
+
+	/**
+	 * @return The number of times a bucket has been parked since the scheduler was created
+	 */
+	public long getParkCount() {
+		return parks.get();
+	}
+
+	/**
+	 * @return The total time buckets have been told to wait since the scheduler was created, in milliseconds
+	 */
+	public long getTotalDelay() {
+		return totalDelay.get();
+	}
+
+	/**
+	 * Parks a bucket and runs {@code resume} once {@code delay} milliseconds have passed. {@code resume} runs on the scheduler's
+	 * thread and should only restart the bucket.
+	 *
+	 * @param delay How long to wait, in milliseconds
+	 * @param resume What to run once the wait is over
+	 */
+	public void park(long delay, Runnable resume) {
+		long wait = Math.max(0l, delay);
+		parked.incrementAndGet();
+		parks.incrementAndGet();
+		totalDelay.addAndGet(wait);
+		executor.schedule(() -> {
+			parked.decrementAndGet();
+			try {
+				resume.run();
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}, wait, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Runs a task that isn't a parked bucket, like a request's deadline, once {@code delay} milliseconds have passed. The task isn't
+	 * counted in the park metrics.
+	 *
+	 * @param delay How long to wait, in milliseconds
+	 * @param task What to run once the wait is over
+	 * @return A future that can be used to cancel the task
+	 */
+	public ScheduledFuture<?> schedule(long delay, Runnable task) {
+		return executor.schedule(task, Math.max(0l, delay), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops the scheduler. Parked buckets are never resumed.
+	 */
+	public void shutdown() {
+		executor.shutdownNow();
+		parked.set(0);
+	}
+
+}
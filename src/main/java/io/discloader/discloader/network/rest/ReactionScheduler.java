@@ -0,0 +1,228 @@
+package io.discloader.discloader.network.rest;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.discloader.discloader.entity.message.IMessage;
+import io.discloader.discloader.network.rest.RateLimitCoordinator.Bucket;
+import io.discloader.discloader.util.DLUtil.Endpoints;
+import io.discloader.discloader.util.DLUtil.Methods;
+
+/**
+ * Adds reactions to messages in the order they were asked for, paced to their bucket's limit.<br>
+ * A message's reactions are sent one at a time, so they show up in order even if one of them is retried. Reactions to different
+ * messages are sent concurrently. Every bucket's sends are spaced out over its learned limit, and by at least
+ * {@link #getMinInterval() the minimum interval}, instead of being sent in a burst and coming back as {@code 429}s.
+ *
+ * <pre>
+ * loader.rest.getReactionScheduler().addAll(poll, "1⃣", "2⃣", "3⃣").thenRun(() -&gt; ...);
+ * </pre>
+ *
+ * @author Perry Berman
+ */
+public class ReactionScheduler {
+
+	/**
+	 * The spacing of reactions in a bucket until its limit is learned, in milliseconds. Discord allows one reaction every quarter of a
+	 * second
+	 */
+	public static final long DEFAULT_MIN_INTERVAL = 250l;
+
+	/**
+	 * How many buckets' next slots are kept before the ones that have passed are dropped
+	 */
+	private static final int MAX_TRACKED_BUCKETS = 1024;
+
+	private final RESTManager rest;
+
+	private final Map<Long, MessageQueue> messages = new ConcurrentHashMap<>();
+
+	/**
+	 * When each bucket may send its next reaction, in milliseconds since the epoch
+	 */
+	private final Map<String, Long> nextSend = new ConcurrentHashMap<>();
+
+	private volatile long minInterval = DEFAULT_MIN_INTERVAL;
+
+	private volatile RequestPriority priority = RequestPriority.NORMAL;
+
+	public ReactionScheduler(RESTManager rest) {
+		this.rest = rest;
+	}
+
+	/**
+	 * Adds a reaction after the reactions that were already scheduled for the message.
+	 *
+	 * @param message The message to react to
+	 * @param emoji The emoji to react with, a unicode emoji or a custom emoji's {@code name:id}
+	 * @return A future that completes once the reaction has been added
+	 */
+	public CompletableFuture<Void> add(IMessage message, String emoji) {
+		Reaction reaction = new Reaction(message, emoji);
+		while (true) {
+			MessageQueue queue = messages.computeIfAbsent(message.getID(), id -> new MessageQueue());
+			boolean start;
+			synchronized (queue) {
+				// the queue emptied and was removed after we got it
+				if (queue.retired) continue;
+				queue.reactions.add(reaction);
+				start = !queue.running;
+				queue.running = true;
+			}
+			if (start) next(message.getID(), queue);
+			return reaction.future;
+		}
+	}
+
+	/**
+	 * Adds reactions in order. A reaction that fails doesn't stop the ones after it.
+	 *
+	 * @param message The message to react to
+	 * @param emojis The emojis to react with, in order
+	 * @return A future that completes once every reaction has been added, or fails with the first reaction's error
+	 */
+	public CompletableFuture<Void> addAll(IMessage message, String... emojis) {
+		return addAll(message, Arrays.asList(emojis));
+	}
+
+	/**
+	 * Adds reactions in order. A reaction that fails doesn't stop the ones after it.
+	 *
+	 * @param message The message to react to
+	 * @param emojis The emojis to react with, in order
+	 * @return A future that completes once every reaction has been added, or fails with the first reaction's error
+	 */
+	public CompletableFuture<Void> addAll(IMessage message, Collection<String> emojis) {
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+		for (String emoji : emojis) {
+			futures.add(add(message, emoji));
+		}
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]));
+	}
+
+	/**
+	 * @return The least time between two reactions in the same bucket, in milliseconds
+	 */
+	public long getMinInterval() {
+		return minInterval;
+	}
+
+	/**
+	 * @param minInterval The least time between two reactions in the same bucket, in milliseconds
+	 */
+	public void setMinInterval(long minInterval) {
+		this.minInterval = Math.max(0l, minInterval);
+	}
+
+	/**
+	 * @param priority The priority class of the reaction requests
+	 */
+	public void setPriority(RequestPriority priority) {
+		this.priority = priority;
+	}
+
+	/**
+	 * @param messageID The message's ID
+	 * @return The number of reactions waiting to be added to the message, including the one being sent
+	 */
+	public int getPendingCount(long messageID) {
+		MessageQueue queue = messages.get(messageID);
+		if (queue == null) return 0;
+		synchronized (queue) {
+			return queue.reactions.size();
+		}
+	}
+
+	/**
+	 * Sends the message's next reaction once its bucket's slot comes up, or retires the queue if there isn't one.
+	 */
+	private void next(long id, MessageQueue queue) {
+		Reaction reaction;
+		synchronized (queue) {
+			reaction = queue.reactions.peek();
+			if (reaction == null) {
+				queue.running = false;
+				queue.retired = true;
+				messages.remove(id, queue);
+				return;
+			}
+		}
+		IMessage message = reaction.message;
+		String url = Endpoints.currentUserReaction(message.getChannel().getID(), message.getID(), reaction.emoji);
+		APIRequest<String> request = new APIRequest<String>(url, Methods.PUT, true, null, String.class).setPriority(priority);
+		long delay = reserve(request.route);
+		Runnable send = () -> rest.makeRequest(request).whenComplete((result, ex) -> {
+			if (ex != null) {
+				reaction.future.completeExceptionally(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+			} else {
+				reaction.future.complete(null);
+			}
+			synchronized (queue) {
+				queue.reactions.poll();
+			}
+			next(id, queue);
+		});
+		if (delay > 0) {
+			rest.getRateLimiter().getScheduler().schedule(delay, send);
+		} else {
+			send.run();
+		}
+	}
+
+	/**
+	 * Reserves the bucket's next send slot.
+	 *
+	 * @return How long to wait for the slot, in milliseconds
+	 */
+	private long reserve(String route) {
+		long now = System.currentTimeMillis();
+		if (nextSend.size() > MAX_TRACKED_BUCKETS) nextSend.values().removeIf(next -> next < now);
+		long interval = interval(route, now);
+		long slot = nextSend.compute(route, (key, next) -> Math.max(now, next == null ? now : next) + interval) - interval;
+		return slot - now;
+	}
+
+	/**
+	 * Spreads the bucket's remaining requests evenly until it resets, once its limit is known.
+	 */
+	private long interval(String route, long now) {
+		Bucket bucket = rest.getRateLimiter().getBucket(route);
+		long window = bucket.getResetAt() - now;
+		if (bucket.getLimit() <= 0 || window <= 0) return minInterval;
+		return Math.max(minInterval, window / Math.max(bucket.getRemaining(), 1));
+	}
+
+	private static class MessageQueue {
+
+		final Queue<Reaction> reactions = new ArrayDeque<>();
+
+		boolean running;
+
+		boolean retired;
+
+	}
+
+	private static class Reaction {
+
+		final IMessage message;
+
+		final String emoji;
+
+		final CompletableFuture<Void> future = new CompletableFuture<>();
+
+		Reaction(IMessage message, String emoji) {
+			this.message = message;
+			this.emoji = emoji;
+		}
+
+	}
+
+}
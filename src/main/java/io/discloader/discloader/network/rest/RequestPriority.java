@@ -0,0 +1,27 @@
+package io.discloader.discloader.network.rest;
+
+/**
+ * The priority class of an {@link APIRequest}. Each {@link RESTQueue bucket} sends its waiting requests from the highest class
+ * first, but never passes over lower classes for more than {@link RESTQueue#STARVATION_LIMIT} requests in a row, so bulk work keeps
+ * moving while interactive work is served ahead of it.
+ *
+ * @author Perry Berman
+ */
+public enum RequestPriority {
+
+	/**
+	 * Requests a user is waiting on, like replies to commands or a moderator's kick
+	 */
+	INTERACTIVE,
+
+	/**
+	 * The default for requests that don't set a priority
+	 */
+	NORMAL,
+
+	/**
+	 * Background work like mass role changes or history scans
+	 */
+	BULK;
+
+}
@@ -0,0 +1,281 @@
+package io.discloader.discloader.network.rest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.discloader.discloader.network.rest.transport.HTTPResponse;
+
+/**
+ * An optional cache for the responses of read-mostly GET endpoints, like invites, pins and application info.<br>
+ * Only URLs that match a {@link #setTTL(String, long) TTL rule} are cached. Entries are evicted least recently used first once the
+ * cache is full. An entry that has expired but came with an {@code ETag} is revalidated with {@code If-None-Match}, and a
+ * {@code 304 Not Modified} response renews it without a new body.<br>
+ * Writes made through the {@link RESTManager} invalidate every entry under the same channel, guild or webhook, and gateway events
+ * invalidate the entries they make stale.
+ *
+ * @author Perry Berman
+ */
+public class ResponseCache {
+
+	public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+	private static final Pattern MAJOR_PARAMETER = Pattern.compile("/(channels|guilds|webhooks)/\\d+");
+
+	private final int maxEntries;
+
+	private final Map<String, CachedResponse> entries;
+
+	/**
+	 * The keys of the cached responses by the channel, guild or webhook their URL belongs to, or by the URL's path if it doesn't belong
+	 * to one, so invalidating a channel doesn't have to look at every entry
+	 */
+	private final Map<String, Map<String, String>> groups = new HashMap<>();
+
+	private final CopyOnWriteArrayList<Rule> rules = new CopyOnWriteArrayList<>();
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	private final AtomicLong revalidations = new AtomicLong();
+
+	/**
+	 * Creates a cache with room for {@link #DEFAULT_MAX_ENTRIES} responses and the default TTLs.
+	 */
+	public ResponseCache() {
+		this(DEFAULT_MAX_ENTRIES);
+		setTTL("/invite/[^/]+$", 300000l);
+		setTTL("/invites$", 60000l);
+		setTTL("/pins$", 300000l);
+		setTTL("/oauth2/applications/@me$", 3600000l);
+		setTTL("/users/\\d+/profile$", 300000l);
+	}
+
+	/**
+	 * Creates an empty cache without any TTL rules.
+	 *
+	 * @param maxEntries The maximum number of responses to keep
+	 */
+	public ResponseCache(int maxEntries) {
+		this.maxEntries = maxEntries;
+		entries = new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+				if (size() <= ResponseCache.this.maxEntries) return false;
+				unindex(eldest.getKey(), eldest.getValue().url);
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * Sets how long the responses of matching URLs are kept. Rules added later take precedence, so a default can be overridden or
+	 * turned off with a TTL of {@code 0}.
+	 *
+	 * @param route A regular expression that is searched for in the URL, without its query
+	 * @param ttl How long a response is fresh for, in milliseconds. {@code 0} stops matching URLs from being cached
+	 * @return {@code this}
+	 */
+	public ResponseCache setTTL(String route, long ttl) {
+		rules.add(0, new Rule(Pattern.compile(route), ttl));
+		return this;
+	}
+
+	/**
+	 * @param url The request's URL
+	 * @return How long a response from the URL is fresh for, in milliseconds. {@code 0} if it shouldn't be cached
+	 */
+	public long getTTL(String url) {
+		String path = url.split("[?]")[0];
+		for (Rule rule : rules) {
+			if (rule.route.matcher(path).find()) return rule.ttl;
+		}
+		return 0l;
+	}
+
+	/**
+	 * Looks up a response. Counts a hit if it is still fresh, a miss otherwise.
+	 *
+	 * @param key The request's cache key
+	 * @return The cached entry, or {@code null} if there isn't one. The entry may have expired
+	 */
+	synchronized CachedResponse get(String key) {
+		CachedResponse entry = entries.get(key);
+		if (entry != null && entry.isFresh()) {
+			hits.incrementAndGet();
+		} else {
+			misses.incrementAndGet();
+		}
+		return entry;
+	}
+
+	synchronized void put(String key, String url, HTTPResponse response, long ttl) {
+		store(key, new CachedResponse(url, response, response.getHeader("ETag"), System.currentTimeMillis() + ttl));
+	}
+
+	/**
+	 * Renews an entry after the server answered its revalidation with {@code 304 Not Modified}.
+	 */
+	synchronized void renew(String key, CachedResponse entry, long ttl) {
+		revalidations.incrementAndGet();
+		store(key, new CachedResponse(entry.url, entry.response, entry.etag, System.currentTimeMillis() + ttl));
+	}
+
+	private void store(String key, CachedResponse entry) {
+		// index before storing, so an entry evicted by the put is unindexed again
+		groups.computeIfAbsent(groupOf(entry.url), group -> new HashMap<>()).put(key, entry.url);
+		entries.put(key, entry);
+	}
+
+	/**
+	 * Removes the response for {@code prefix} and every response under it. A URL is under {@code prefix} if it continues it with a
+	 * {@code /} or a query, so invalidating channel {@code 123} leaves channel {@code 1234} alone.
+	 *
+	 * @param prefix The URL to invalidate, like {@code Endpoints.channelPins(channelID)}
+	 */
+	public synchronized void invalidate(String prefix) {
+		if (MAJOR_PARAMETER.matcher(prefix).find()) {
+			// everything under the prefix belongs to the same channel, guild or webhook as it
+			invalidate(groupOf(prefix), prefix);
+			return;
+		}
+		for (String group : new ArrayList<>(groups.keySet())) {
+			invalidate(group, prefix);
+		}
+	}
+
+	/**
+	 * Removes every response that a write to {@code url} could have made stale: everything under the same channel, guild or webhook,
+	 * or just the URL itself if it doesn't belong to one.
+	 *
+	 * @param url The URL that was written to
+	 */
+	public synchronized void invalidateRelated(String url) {
+		Map<String, String> keys = groups.remove(groupOf(url));
+		if (keys == null) return;
+		for (String key : keys.keySet()) {
+			entries.remove(key);
+		}
+	}
+
+	private void invalidate(String group, String prefix) {
+		Map<String, String> keys = groups.get(group);
+		if (keys == null) return;
+		List<String> removed = new ArrayList<>();
+		for (Map.Entry<String, String> key : keys.entrySet()) {
+			if (isUnder(key.getValue(), prefix)) removed.add(key.getKey());
+		}
+		for (String key : removed) {
+			keys.remove(key);
+			entries.remove(key);
+		}
+		if (keys.isEmpty()) groups.remove(group);
+	}
+
+	private void unindex(String key, String url) {
+		String group = groupOf(url);
+		Map<String, String> keys = groups.get(group);
+		if (keys == null) return;
+		keys.remove(key);
+		if (keys.isEmpty()) groups.remove(group);
+	}
+
+	/**
+	 * @return The URL's channel, guild or webhook, like {@code .../channels/123}, or its path if it doesn't belong to one
+	 */
+	private static String groupOf(String url) {
+		String path = url.split("[?]")[0];
+		Matcher major = MAJOR_PARAMETER.matcher(path);
+		return major.find() ? path.substring(0, major.end()) : path;
+	}
+
+	private static boolean isUnder(String url, String prefix) {
+		if (!url.startsWith(prefix)) return false;
+		if (url.length() == prefix.length() || prefix.endsWith("/")) return true;
+		char next = url.charAt(prefix.length());
+		return next == '/' || next == '?';
+	}
+
+	/**
+	 * Removes every response.
+	 */
+	public synchronized void invalidateAll() {
+		entries.clear();
+		groups.clear();
+	}
+
+	/**
+	 * @return The number of requests that were answered from the cache
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * @return The number of cacheable requests that had to be sent
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * @return The number of expired responses that were renewed by a {@code 304 Not Modified}
+	 */
+	public long getRevalidations() {
+		return revalidations.get();
+	}
+
+	/**
+	 * @return The number of cached responses
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	static class CachedResponse {
+
+		final String url;
+
+		final HTTPResponse response;
+
+		final String etag;
+
+		final long expiresAt;
+
+		CachedResponse(String url, HTTPResponse response, String etag, long expiresAt) {
+			this.url = url;
+			this.response = response;
+			this.etag = etag;
+			this.expiresAt = expiresAt;
+		}
+
+		boolean isFresh() {
+			return System.currentTimeMillis() < expiresAt;
+		}
+
+	}
+
+	private static class Rule {
+
+		final Pattern route;
+
+		final long ttl;
+
+		Rule(Pattern route, long ttl) {
+			this.route = route;
+			this.ttl = ttl;
+		}
+
+	}
+
+}
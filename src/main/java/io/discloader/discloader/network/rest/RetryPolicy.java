@@ -0,0 +1,106 @@
+package io.discloader.discloader.network.rest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.discloader.discloader.util.DLUtil.Methods;
+
+/**
+ * Decides whether a request that failed with a {@code 5xx} response or a transport error is sent again, and how long its bucket waits
+ * before it is.<br>
+ * Delays grow exponentially from {@link #getBaseDelay()} up to {@link #getMaxDelay()} and are fully jittered, so buckets that failed
+ * together don't retry together. Only idempotent methods ({@code GET}, {@code PUT} and {@code DELETE}) are retried unless
+ * {@link #setRetryNonIdempotent(boolean)} is enabled, since a {@code POST} that timed out may still have been applied.
+ *
+ * @author Perry Berman
+ */
+public class RetryPolicy {
+
+	public static final int DEFAULT_MAX_RETRIES = 3;
+
+	public static final long DEFAULT_BASE_DELAY = 500l;
+
+	public static final long DEFAULT_MAX_DELAY = 10000l;
+
+	/**
+	 * A policy that never retries
+	 */
+	public static final RetryPolicy NONE = new RetryPolicy(0, 0l, 0l);
+
+	private final int maxRetries;
+
+	private final long baseDelay;
+
+	private final long maxDelay;
+
+	private volatile boolean retryNonIdempotent;
+
+	public RetryPolicy() {
+		this(DEFAULT_MAX_RETRIES, DEFAULT_BASE_DELAY, DEFAULT_MAX_DELAY);
+	}
+
+	/**
+	 * @param maxRetries How many times a request may be retried
+	 * @param baseDelay The upper bound of the first retry's delay, in milliseconds
+	 * @param maxDelay The upper bound of any retry's delay, in milliseconds
+	 */
+	public RetryPolicy(int maxRetries, long baseDelay, long maxDelay) {
+		this.maxRetries = maxRetries;
+		this.baseDelay = baseDelay;
+		this.maxDelay = maxDelay;
+	}
+
+	/**
+	 * @param request The request that failed
+	 * @return {@code true} if the request should be sent again
+	 */
+	public boolean shouldRetry(APIRequest<?> request) {
+		if (request.attempts > maxRetries || request.future.isDone()) return false;
+		return retryNonIdempotent || isIdempotent(request.method);
+	}
+
+	/**
+	 * Picks a random delay between {@code 0} and {@code min(maxDelay, baseDelay * 2^(attempt - 1))}.
+	 *
+	 * @param attempt The number of times the request has been sent
+	 * @return How long to wait before the next attempt, in milliseconds
+	 */
+	public long getDelay(int attempt) {
+		long cap = Math.min(maxDelay, baseDelay << Math.min(Math.max(attempt - 1, 0), 30));
+		return cap <= 0 ? 0l : ThreadLocalRandom.current().nextLong(cap + 1);
+	}
+
+	/**
+	 * @return The upper bound of the first retry's delay, in milliseconds
+	 */
+	public long getBaseDelay() {
+		return baseDelay;
+	}
+
+	/**
+	 * @return The upper bound of any retry's delay, in milliseconds
+	 */
+	public long getMaxDelay() {
+		return maxDelay;
+	}
+
+	/**
+	 * @return How many times a request may be retried
+	 */
+	public int getMaxRetries() {
+		return maxRetries;
+	}
+
+	/**
+	 * @param retryNonIdempotent Whether {@code POST} and {@code PATCH} requests are retried too
+	 * @return {@code this}
+	 */
+	public RetryPolicy setRetryNonIdempotent(boolean retryNonIdempotent) {
+		this.retryNonIdempotent = retryNonIdempotent;
+		return this;
+	}
+
+	private static boolean isIdempotent(int method) {
+		return method == Methods.GET || method == Methods.PUT || method == Methods.DELETE;
+	}
+
+}
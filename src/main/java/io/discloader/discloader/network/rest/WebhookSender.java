@@ -0,0 +1,275 @@
+package io.discloader.discloader.network.rest;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.discloader.discloader.common.exceptions.UnknownException;
+import io.discloader.discloader.common.registry.EntityBuilder;
+import io.discloader.discloader.core.entity.Webhook;
+import io.discloader.discloader.entity.IWebhook;
+import io.discloader.discloader.entity.channel.IGuildTextChannel;
+import io.discloader.discloader.entity.channel.ITextChannel;
+import io.discloader.discloader.entity.message.IMessage;
+import io.discloader.discloader.entity.sendable.CreateWebhook;
+import io.discloader.discloader.entity.sendable.ExecuteWebhook;
+import io.discloader.discloader.entity.sendable.SendableMessage;
+import io.discloader.discloader.network.json.MessageJSON;
+import io.discloader.discloader.network.json.WebhookJSON;
+import io.discloader.discloader.util.DLUtil.Endpoints;
+import io.discloader.discloader.util.DLUtil.Methods;
+
+/**
+ * Sends messages through a pool of webhooks per channel, for bots that send more messages to a channel than its send bucket allows.
+ * <br>
+ * Every webhook has its own rate limit bucket, so messages are spread round-robin over the channel's pool. The pool is filled on the
+ * first send to a channel: webhooks the client created earlier under {@link #getName() the pool's name} are reused, and the rest are
+ * created. Messages are sent by the bot instead when the channel can't have webhooks, like DMs, when the bot lacks
+ * {@code MANAGE_WEBHOOKS}, and for messages with a file. A webhook that was deleted is dropped from the pool and its message is sent
+ * again.
+ *
+ * @author Perry Berman
+ */
+public class WebhookSender {
+
+	public static final int DEFAULT_POOL_SIZE = 3;
+
+	/**
+	 * The most webhooks a channel can have
+	 */
+	public static final int MAX_POOL_SIZE = 10;
+
+	public static final String DEFAULT_NAME = "DiscLoader";
+
+	/**
+	 * How long to wait before trying to fill a pool again after it couldn't be filled, in milliseconds
+	 */
+	public static final long REFILL_DELAY = 300000l;
+
+	/**
+	 * The error code of a webhook that doesn't exist anymore
+	 */
+	private static final int UNKNOWN_WEBHOOK = 10015;
+
+	private final RESTManager rest;
+
+	private final Map<Long, Pool> pools = new ConcurrentHashMap<>();
+
+	private final LongAdder webhookSends = new LongAdder();
+
+	private final LongAdder botSends = new LongAdder();
+
+	private volatile int poolSize = DEFAULT_POOL_SIZE;
+
+	private volatile String name = DEFAULT_NAME;
+
+	private volatile RequestPriority priority = RequestPriority.NORMAL;
+
+	public WebhookSender(RESTManager rest) {
+		this.rest = rest;
+	}
+
+	/**
+	 * @param channel The channel to send the message to
+	 * @param content The message's content
+	 * @return A future that completes with the sent message
+	 */
+	public CompletableFuture<IMessage> send(ITextChannel channel, String content) {
+		return send(channel, new SendableMessage(content, false, null, null, (File) null));
+	}
+
+	/**
+	 * @param channel The channel to send the message to
+	 * @param message The message to send
+	 * @return A future that completes with the sent message
+	 */
+	public CompletableFuture<IMessage> send(ITextChannel channel, SendableMessage message) {
+		// webhooks only exist in guilds, and uploads are left to the bot's own path
+		if (!(channel instanceof IGuildTextChannel) || message.file != null || message.resource != null) return sendAsBot(channel, message);
+		Pool pool = pools.computeIfAbsent(channel.getID(), id -> new Pool());
+		return pool.pick(channel).thenCompose(webhook -> webhook == null ? sendAsBot(channel, message) : execute(channel, pool, webhook, message));
+	}
+
+	/**
+	 * Forgets a channel's pool, so it is filled again on the next send. The webhooks themselves aren't deleted.
+	 *
+	 * @param channelID The channel's ID
+	 */
+	public void invalidate(long channelID) {
+		pools.remove(channelID);
+	}
+
+	/**
+	 * @param channelID The channel's ID
+	 * @return The number of webhooks in the channel's pool
+	 */
+	public int getPoolSize(long channelID) {
+		Pool pool = pools.get(channelID);
+		return pool == null ? 0 : pool.webhooks.size();
+	}
+
+	/**
+	 * @return How many webhooks each channel's pool is filled with
+	 */
+	public int getPoolSize() {
+		return poolSize;
+	}
+
+	/**
+	 * @param poolSize How many webhooks each channel's pool is filled with, up to {@link #MAX_POOL_SIZE}. Pools that are already full
+	 *            aren't shrunk
+	 */
+	public void setPoolSize(int poolSize) {
+		this.poolSize = Math.max(1, Math.min(poolSize, MAX_POOL_SIZE));
+	}
+
+	/**
+	 * @return The name of the webhooks the pools are made of
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @param name The name of the webhooks the pools are made of. Existing webhooks are only reused if they have this name
+	 */
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * @param priority The priority class of the send requests
+	 */
+	public void setPriority(RequestPriority priority) {
+		this.priority = priority;
+	}
+
+	/**
+	 * @return The number of messages that were sent through webhooks
+	 */
+	public long getWebhookSendCount() {
+		return webhookSends.sum();
+	}
+
+	/**
+	 * @return The number of messages that were sent by the bot instead
+	 */
+	public long getBotSendCount() {
+		return botSends.sum();
+	}
+
+	private CompletableFuture<IMessage> execute(ITextChannel channel, Pool pool, IWebhook webhook, SendableMessage message) {
+		webhookSends.increment();
+		String url = Endpoints.webhookToken(webhook.getID(), webhook.getToken()) + "?wait=true";
+		APIRequest<MessageJSON> request = new APIRequest<MessageJSON>(url, Methods.POST, false, new ExecuteWebhook(message), MessageJSON.class);
+		CompletableFuture<IMessage> future = new CompletableFuture<>();
+		rest.makeRequest(request.setPriority(priority)).whenComplete((data, ex) -> {
+			if (ex == null) {
+				future.complete(EntityBuilder.getChannelFactory().buildMessage(channel, data));
+				return;
+			}
+			Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+			if (cause instanceof UnknownException && ((UnknownException) cause).getErrorCode() == UNKNOWN_WEBHOOK) {
+				// the webhook was deleted, the pool is refilled on a later send
+				pool.webhooks.remove(webhook);
+				send(channel, message).whenComplete((sent, retryEx) -> {
+					if (retryEx != null) future.completeExceptionally(retryEx);
+					else future.complete(sent);
+				});
+				return;
+			}
+			future.completeExceptionally(cause);
+		});
+		return future;
+	}
+
+	private CompletableFuture<IMessage> sendAsBot(ITextChannel channel, SendableMessage message) {
+		botSends.increment();
+		APIRequest<MessageJSON> request = new APIRequest<MessageJSON>(Endpoints.messages(channel.getID()), Methods.POST, true, message, MessageJSON.class);
+		return rest.makeRequest(request.setPriority(priority)).thenApply(data -> EntityBuilder.getChannelFactory().buildMessage(channel, data));
+	}
+
+	/**
+	 * Reuses the channel's webhooks that have the pool's name and were created by the client, then creates the rest.
+	 */
+	private CompletableFuture<Void> fill(ITextChannel channel, Pool pool) {
+		String name = this.name;
+		int size = poolSize;
+		APIRequest<WebhookJSON[]> list = new APIRequest<WebhookJSON[]>(Endpoints.channelWebhooks(channel.getID()), Methods.GET, true, null, WebhookJSON[].class);
+		return rest.makeRequest(list).thenCompose(existing -> {
+			for (WebhookJSON data : existing) {
+				if (pool.webhooks.size() >= size) break;
+				if (data.token == null || !name.equals(data.name)) continue;
+				if (rest.loader.user != null && (data.user == null || !data.user.id.equals(Long.toUnsignedString(rest.loader.user.getID())))) continue;
+				if (!pool.contains(data.id)) pool.webhooks.add(new Webhook(data));
+			}
+			List<CompletableFuture<Void>> created = new ArrayList<>();
+			for (int i = pool.webhooks.size(); i < size; i++) {
+				APIRequest<WebhookJSON> create = new APIRequest<WebhookJSON>(Endpoints.channelWebhooks(channel.getID()), Methods.POST, true, new CreateWebhook(name), WebhookJSON.class);
+				created.add(rest.makeRequest(create).thenAccept(data -> pool.webhooks.add(new Webhook(data))));
+			}
+			return CompletableFuture.allOf(created.toArray(new CompletableFuture<?>[created.size()]));
+		});
+	}
+
+	private class Pool {
+
+		final List<IWebhook> webhooks = new CopyOnWriteArrayList<>();
+
+		final AtomicInteger next = new AtomicInteger();
+
+		CompletableFuture<Void> filling;
+
+		long refillAt;
+
+		/**
+		 * @return A future that completes with the next webhook to send through, or with {@code null} if the message should be sent by
+		 *         the bot
+		 */
+		synchronized CompletableFuture<IWebhook> pick(ITextChannel channel) {
+			if (webhooks.size() < poolSize && filling == null && System.currentTimeMillis() >= refillAt) {
+				CompletableFuture<Void> fill = fill(channel, this);
+				filling = fill;
+				fill.whenComplete((v, ex) -> filled(fill));
+			}
+			if (!webhooks.isEmpty() || filling == null) return CompletableFuture.completedFuture(next());
+			// the first messages wait for the pool, whether or not it could be filled
+			return filling.handle((v, ex) -> next());
+		}
+
+		private synchronized void filled(CompletableFuture<Void> fill) {
+			if (filling == fill) filling = null;
+			// a channel that can't have more webhooks isn't asked again on every send
+			if (webhooks.size() < poolSize) refillAt = System.currentTimeMillis() + REFILL_DELAY;
+		}
+
+		private IWebhook next() {
+			while (true) {
+				int size = webhooks.size();
+				if (size == 0) return null;
+				try {
+					return webhooks.get(Math.floorMod(next.getAndIncrement(), size));
+				} catch (IndexOutOfBoundsException e) {
+					// a webhook was dropped between reading the size and the webhook
+				}
+			}
+		}
+
+		private boolean contains(String id) {
+			long webhookID = Long.parseUnsignedLong(id, 10);
+			for (IWebhook webhook : webhooks) {
+				if (webhook.getID() == webhookID) return true;
+			}
+			return false;
+		}
+
+	}
+
+}
@@ -2,8 +2,10 @@ package io.discloader.discloader.network.rest.actions;
 
 import java.util.concurrent.CompletableFuture;
 
+import io.discloader.discloader.core.entity.user.UserProfile;
 import io.discloader.discloader.entity.user.IUser;
 import io.discloader.discloader.entity.user.IUserProfile;
+import io.discloader.discloader.network.json.ProfileJSON;
 import io.discloader.discloader.util.DLUtil.Endpoints;
 import io.discloader.discloader.util.DLUtil.Methods;
 
@@ -20,8 +22,13 @@ public class FetchUserProfile {
 
 	public CompletableFuture<IUserProfile> execute() {
 		CompletableFuture<IUserProfile> future = new CompletableFuture<>();
-		user.getLoader().rest.makeRequest(Endpoints.userProfile(user.getID()), Methods.GET, true).whenCompleteAsync((s, ex) -> {
-			if (s != null) System.out.println(s);
+		CompletableFuture<ProfileJSON> request = user.getLoader().rest.makeRequest(Endpoints.userProfile(user.getID()), Methods.GET, true, null, ProfileJSON.class);
+		request.whenCompleteAsync((data, ex) -> {
+			if (ex != null) {
+				future.completeExceptionally(ex);
+				return;
+			}
+			future.complete(new UserProfile(user.getLoader(), data));
 		});
 		return future;
 	}
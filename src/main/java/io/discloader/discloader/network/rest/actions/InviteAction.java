@@ -22,7 +22,7 @@ public class InviteAction extends RESTAction<IInvite> {
 	}
 
 	public CompletableFuture<IInvite> execute() {
-		return super.execute(loader.rest.makeRequest(Endpoints.invite(code), method, true));
+		return super.execute(makeRequest(Endpoints.invite(code), method, true));
 	}
 
 	public void complete(String s, Throwable ex) {
@@ -20,7 +20,7 @@ public class ModifyUser extends RESTAction<DLUser> {
 	}
 
 	public CompletableFuture<DLUser> execute() {
-		return super.execute(loader.rest.makeRequest(Endpoints.currentUser, Methods.PATCH, true, payload));
+		return super.execute(makeRequest(Endpoints.currentUser, Methods.PATCH, true, payload));
 	}
 
 	public void complete(String s, Throwable ex) {
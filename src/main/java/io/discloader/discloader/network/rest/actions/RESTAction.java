@@ -1,10 +1,14 @@
 package io.discloader.discloader.network.rest.actions;
 
+import java.lang.reflect.Type;
 import java.util.concurrent.CompletableFuture;
 
 import com.google.gson.Gson;
 
 import io.discloader.discloader.common.DiscLoader;
+import io.discloader.discloader.network.rest.APIRequest;
+import io.discloader.discloader.network.rest.RequestPriority;
+import io.discloader.discloader.util.DLUtil;
 
 public abstract class RESTAction<T> {
 
@@ -12,16 +16,56 @@ public abstract class RESTAction<T> {
 	protected CompletableFuture<T> future;
 	protected DiscLoader loader;
 	protected Gson gson;
+	protected RequestPriority priority = RequestPriority.NORMAL;
+	protected long timeout;
 
 	public RESTAction(DiscLoader loader) {
 		this.loader = loader;
 		request = new CompletableFuture<>();
 		future = new CompletableFuture<>();
-		gson = new Gson();
+		gson = DLUtil.gson;
 	}
 
 	public abstract CompletableFuture<T> execute();
 
+	/**
+	 * Sets the priority class of the action's requests within their rate limit bucket. Call before {@link #execute()}.
+	 * 
+	 * @param priority The priority to use
+	 * @return {@code this}
+	 */
+	public RESTAction<T> setPriority(RequestPriority priority) {
+		this.priority = priority;
+		return this;
+	}
+
+	/**
+	 * Sets how long the action's request may wait and retry before it fails with a {@link java.util.concurrent.TimeoutException
+	 * TimeoutException}. Call before {@link #execute()}.
+	 * 
+	 * @param timeout The timeout in milliseconds, or {@code 0} for no deadline
+	 * @return {@code this}
+	 */
+	public RESTAction<T> setTimeout(long timeout) {
+		this.timeout = timeout;
+		return this;
+	}
+
+	protected CompletableFuture<String> makeRequest(String url, int method, boolean auth) {
+		return makeRequest(url, method, auth, null);
+	}
+
+	protected CompletableFuture<String> makeRequest(String url, int method, boolean auth, Object data) {
+		return makeRequest(url, method, auth, data, String.class);
+	}
+
+	/**
+	 * Makes a request with the action's {@link #setPriority(RequestPriority) priority} and {@link #setTimeout(long) timeout}.
+	 */
+	protected <R> CompletableFuture<R> makeRequest(String url, int method, boolean auth, Object data, Type type) {
+		return loader.rest.makeRequest(new APIRequest<R>(url, method, auth, data, type).setPriority(priority).setTimeout(timeout));
+	}
+
 	public CompletableFuture<T> execute(CompletableFuture<String> r) {
 		request = r;
 		request.exceptionally(ex -> {
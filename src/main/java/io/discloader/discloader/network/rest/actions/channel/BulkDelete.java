@@ -5,11 +5,15 @@ import java.util.concurrent.CompletableFuture;
 
 import io.discloader.discloader.entity.channel.ITextChannel;
 import io.discloader.discloader.entity.message.IMessage;
+import io.discloader.discloader.entity.sendable.BulkDeleteMessages;
 import io.discloader.discloader.network.rest.actions.RESTAction;
 import io.discloader.discloader.util.DLUtil.Endpoints;
 import io.discloader.discloader.util.DLUtil.Methods;
 
 /**
+ * Deletes between 2 and 100 messages from a channel in one request. Use
+ * {@link io.discloader.discloader.network.rest.BulkMessageDeleter BulkMessageDeleter} for any number of messages.
+ * 
  * @author Perry Berman
  */
 public class BulkDelete<T extends ITextChannel> extends RESTAction<Map<Long, IMessage>> {
@@ -24,7 +28,7 @@ public class BulkDelete<T extends ITextChannel> extends RESTAction<Map<Long, IMe
 	}
 
 	public CompletableFuture<Map<Long, IMessage>> execute() {
-		return super.execute(loader.rest.makeRequest(Endpoints.bulkDelete(channel.getID()), Methods.GET, true));
+		return super.execute(makeRequest(Endpoints.bulkDelete(channel.getID()), Methods.POST, true, new BulkDeleteMessages(messages.keySet())));
 	}
 
 	@Override
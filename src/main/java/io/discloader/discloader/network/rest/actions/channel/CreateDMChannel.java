@@ -28,16 +28,16 @@ public class CreateDMChannel extends RESTAction<IPrivateChannel> {
 	}
 
 	public CompletableFuture<IPrivateChannel> execute() {
-		return super.execute(loader.rest.makeRequest(Endpoints.currentUserChannels, Methods.POST, true, new dm(Long.toUnsignedString(user.getID()))));
+		this.<ChannelJSON>makeRequest(Endpoints.currentUserChannels, Methods.POST, true, new dm(Long.toUnsignedString(user.getID())), ChannelJSON.class).whenCompleteAsync(this::complete);
+		return future;
 	}
 
-	public void complete(String packet, Throwable ex) {
+	public void complete(ChannelJSON data, Throwable ex) {
 		if (ex != null) {
 			future.completeExceptionally(ex);
 			return;
 		}
 
-		ChannelJSON data = gson.fromJson(packet, ChannelJSON.class);
 		future.complete((IPrivateChannel) EntityRegistry.addChannel(data));
 	}
 
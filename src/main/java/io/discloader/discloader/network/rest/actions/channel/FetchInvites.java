@@ -22,18 +22,17 @@ public class FetchInvites extends RESTAction<List<IInvite>> {
 	}
 
 	public CompletableFuture<List<IInvite>> execute() {
-		return super.execute(loader.rest.makeRequest(Endpoints.channelInvites(channel.getID()), Methods.GET, true));
+		this.<InviteJSON[]>makeRequest(Endpoints.channelInvites(channel.getID()), Methods.GET, true, null, InviteJSON[].class).whenCompleteAsync(this::complete);
+		return future;
 	}
 
-	@Override
-	public void complete(String s, Throwable ex) {
+	public void complete(InviteJSON[] data, Throwable ex) {
 		if (ex != null) {
 			future.completeExceptionally(ex);
 			return;
 		}
 		List<IInvite> invites = new ArrayList<>();
-		InviteJSON[] inviteJSONs = gson.fromJson(s, InviteJSON[].class);
-		for (InviteJSON invite : inviteJSONs) {
+		for (InviteJSON invite : data) {
 			invites.add(EntityBuilder.getInviteFactory().buildInvite(invite));
 		}
 		future.complete(invites);
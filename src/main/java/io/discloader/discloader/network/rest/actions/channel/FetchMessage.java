@@ -2,12 +2,11 @@ package io.discloader.discloader.network.rest.actions.channel;
 
 import java.util.concurrent.CompletableFuture;
 
-import io.discloader.discloader.core.entity.message.Message;
+import io.discloader.discloader.common.registry.EntityBuilder;
 import io.discloader.discloader.entity.channel.ITextChannel;
 import io.discloader.discloader.entity.message.IMessage;
 import io.discloader.discloader.network.json.MessageJSON;
 import io.discloader.discloader.network.rest.actions.RESTAction;
-import io.discloader.discloader.util.DLUtil;
 import io.discloader.discloader.util.DLUtil.Endpoints;
 import io.discloader.discloader.util.DLUtil.Methods;
 
@@ -23,18 +22,17 @@ public class FetchMessage<T extends ITextChannel> extends RESTAction<IMessage> {
 	}
 
 	public CompletableFuture<IMessage> execute() {
-		return super.execute(loader.rest.makeRequest(Endpoints.message(channel.getID(), messageID), Methods.GET, true));
+		this.<MessageJSON>makeRequest(Endpoints.message(channel.getID(), messageID), Methods.GET, true, null, MessageJSON.class).whenCompleteAsync(this::complete);
+		return future;
 	}
 
-	@Override
-	public void complete(String s, Throwable ex) {
+	public void complete(MessageJSON data, Throwable ex) {
 		if (ex != null) {
 			future.completeExceptionally(ex);
 			return;
 		}
 
-		MessageJSON data = DLUtil.gson.fromJson(s, MessageJSON.class);
-		IMessage message = new Message<>(channel, data);
+		IMessage message = EntityBuilder.getChannelFactory().buildMessage(channel, data);
 		channel.getMessages().put(message.getID(), message);
 		future.complete(message);
 	}
@@ -4,13 +4,12 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
-import io.discloader.discloader.core.entity.message.Message;
+import io.discloader.discloader.common.registry.EntityBuilder;
 import io.discloader.discloader.core.entity.message.MessageFetchOptions;
 import io.discloader.discloader.entity.channel.ITextChannel;
 import io.discloader.discloader.entity.message.IMessage;
 import io.discloader.discloader.network.json.MessageJSON;
 import io.discloader.discloader.network.rest.actions.RESTAction;
-import io.discloader.discloader.util.DLUtil;
 import io.discloader.discloader.util.DLUtil.Endpoints;
 import io.discloader.discloader.util.DLUtil.Methods;
 
@@ -26,20 +25,19 @@ public class FetchMessages<T extends ITextChannel> extends RESTAction<Map<Long,
 	}
 
 	public CompletableFuture<Map<Long, IMessage>> execute() {
-		return super.execute(loader.rest.makeRequest(Endpoints.messages(channel.getID()), Methods.GET, true, options));
+		this.<MessageJSON[]>makeRequest(Endpoints.messages(channel.getID()) + options.toQueryString(), Methods.GET, true, null, MessageJSON[].class).whenCompleteAsync(this::complete);
+		return future;
 	}
 
-	@Override
-	public void complete(String s, Throwable ex) {
+	public void complete(MessageJSON[] data, Throwable ex) {
 		if (ex != null) {
 			future.completeExceptionally(ex);
 			return;
 		} else {
-			MessageJSON[] data = DLUtil.gson.fromJson(s, MessageJSON[].class);
 			HashMap<Long, IMessage> messages = new HashMap<>();
 			for (MessageJSON m : data) {
-				IMessage message = new Message<>(channel, m);
-				channel.getMessages().put(message.getID(), message);
+				IMessage message = EntityBuilder.getChannelFactory().buildMessage(channel, m);
+				if (options.cache) channel.getMessages().put(message.getID(), message);
 				messages.put(message.getID(), message);
 			}
 			future.complete(messages);
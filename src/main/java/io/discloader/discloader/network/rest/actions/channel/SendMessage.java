@@ -3,15 +3,16 @@ package io.discloader.discloader.network.rest.actions.channel;
 import java.io.File;
 import java.util.concurrent.CompletableFuture;
 
+import io.discloader.discloader.common.registry.EntityBuilder;
 import io.discloader.discloader.client.render.util.Resource;
 import io.discloader.discloader.core.entity.RichEmbed;
-import io.discloader.discloader.core.entity.message.Message;
 import io.discloader.discloader.entity.channel.ITextChannel;
 import io.discloader.discloader.entity.message.IMessage;
 import io.discloader.discloader.entity.sendable.Attachment;
 import io.discloader.discloader.entity.sendable.SendableMessage;
 import io.discloader.discloader.network.json.MessageJSON;
 import io.discloader.discloader.network.rest.actions.RESTAction;
+import io.discloader.discloader.network.rest.transport.UploadProgressListener;
 import io.discloader.discloader.util.DLUtil.Endpoints;
 import io.discloader.discloader.util.DLUtil.Methods;
 
@@ -32,17 +33,28 @@ public class SendMessage<T extends ITextChannel> extends RESTAction<IMessage> {
 		this.channel = channel;
 	}
 
+	/**
+	 * Sets a listener that is told how much of the attached file has been sent. Has no effect on messages without a file.
+	 * 
+	 * @param listener The listener
+	 * @return {@code this}
+	 */
+	public SendMessage<T> onProgress(UploadProgressListener listener) {
+		sendable.progress = listener;
+		return this;
+	}
+
 	public CompletableFuture<IMessage> execute() {
-		return super.execute(loader.rest.makeRequest(Endpoints.messages(channel.getID()), Methods.POST, true, sendable));
+		this.<MessageJSON>makeRequest(Endpoints.messages(channel.getID()), Methods.POST, true, sendable, MessageJSON.class).whenCompleteAsync(this::complete);
+		return future;
 	}
 
-	@Override
-	public void complete(String r, Throwable ex) {
+	public void complete(MessageJSON data, Throwable ex) {
 		if (ex != null) {
 			future.completeExceptionally(ex);
 			return;
 		}
-		future.complete(new Message<T>(channel, gson.<MessageJSON> fromJson(r, MessageJSON.class)));
+		future.complete(EntityBuilder.getChannelFactory().buildMessage(channel, data));
 	}
 
 }
@@ -20,7 +20,7 @@ public class SetOverwrite extends RESTAction<IOverwrite> {
 	}
 
 	public CompletableFuture<IOverwrite> execute() {
-		return super.execute(loader.rest.makeRequest(Endpoints.channelOverwrite(channel.getID(), overwrite.getID()), Methods.PUT, true, gson.toJson(overwrite)));
+		return super.execute(makeRequest(Endpoints.channelOverwrite(channel.getID(), overwrite.getID()), Methods.PUT, true, gson.toJson(overwrite)));
 	}
 
 	@Override
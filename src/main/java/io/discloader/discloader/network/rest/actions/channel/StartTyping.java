@@ -18,7 +18,7 @@ public class StartTyping extends RESTAction<Map<Long, IUser>> {
 	}
 	
 	public CompletableFuture<Map<Long, IUser>> execute() {
-		return super.execute(loader.rest.makeRequest(Endpoints.channelTyping(channel.getID()), Methods.POST, true));
+		return super.execute(makeRequest(Endpoints.channelTyping(channel.getID()), Methods.POST, true));
 	}
 	
 	@Override
@@ -16,7 +16,7 @@ public class CloseChannel<T extends IChannel> extends RESTAction<T> {
 	}
 
 	public CompletableFuture<T> execute() {
-		return super.execute(loader.rest.makeRequest(Endpoints.channel(channel.getID()), Methods.DELETE, true));
+		return super.execute(makeRequest(Endpoints.channel(channel.getID()), Methods.DELETE, true));
 	}
 
 	@Override
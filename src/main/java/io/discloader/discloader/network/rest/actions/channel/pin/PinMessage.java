@@ -19,7 +19,7 @@ public class PinMessage<T extends ITextChannel> extends RESTAction<IMessage> {
 
 	public CompletableFuture<IMessage> execute() {
 		String endpoint = Endpoints.channelPinnedMessage(message.getChannel().getID(), message.getID());
-		return super.execute(loader.rest.makeRequest(endpoint, Methods.PUT, true));
+		return super.execute(makeRequest(endpoint, Methods.PUT, true));
 	}
 
 	@Override
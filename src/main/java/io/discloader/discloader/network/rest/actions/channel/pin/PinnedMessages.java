@@ -4,12 +4,11 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
-import io.discloader.discloader.core.entity.message.Message;
+import io.discloader.discloader.common.registry.EntityBuilder;
 import io.discloader.discloader.entity.channel.ITextChannel;
 import io.discloader.discloader.entity.message.IMessage;
 import io.discloader.discloader.network.json.MessageJSON;
 import io.discloader.discloader.network.rest.actions.RESTAction;
-import io.discloader.discloader.util.DLUtil;
 import io.discloader.discloader.util.DLUtil.Endpoints;
 import io.discloader.discloader.util.DLUtil.Methods;
 
@@ -23,19 +22,18 @@ public class PinnedMessages<T extends ITextChannel> extends RESTAction<Map<Long,
 	}
 
 	public CompletableFuture<Map<Long, IMessage>> execute() {
-		return super.execute(loader.rest.makeRequest(Endpoints.channelPins(channel.getID()), Methods.GET, true));
+		this.<MessageJSON[]>makeRequest(Endpoints.channelPins(channel.getID()), Methods.GET, true, null, MessageJSON[].class).whenCompleteAsync(this::complete);
+		return future;
 	}
 
-	@Override
-	public void complete(String s, Throwable ex) {
+	public void complete(MessageJSON[] data, Throwable ex) {
 		if (ex != null) {
 			future.completeExceptionally(ex);
 			return;
 		} else {
-			MessageJSON[] data = DLUtil.gson.fromJson(s, MessageJSON[].class);
 			HashMap<Long, IMessage> messages = new HashMap<>();
 			for (MessageJSON m : data) {
-				IMessage message = new Message<T>(channel, m);
+				IMessage message = EntityBuilder.getChannelFactory().buildMessage(channel, m);
 				channel.getMessages().put(message.getID(), message);
 				messages.put(message.getID(), message);
 			}
@@ -19,7 +19,7 @@ public class UnpinMessage<T extends ITextChannel> extends RESTAction<IMessage> {
 	
 	public CompletableFuture<IMessage> execute() {
 		String endpoint = Endpoints.channelPinnedMessage(message.getChannel().getID(), message.getID());
-		return super.execute(loader.rest.makeRequest(endpoint, Methods.DELETE, true));
+		return super.execute(makeRequest(endpoint, Methods.DELETE, true));
 	}
 	
 	@Override
@@ -25,15 +25,16 @@ public class CreateRole extends RESTAction<IRole> {
 	}
 
 	public CompletableFuture<IRole> execute() {
-		return super.execute(loader.rest.makeRequest(Endpoints.guildRoles(guild.getID()), Methods.POST, true, data));
+		this.<RoleJSON>makeRequest(Endpoints.guildRoles(guild.getID()), Methods.POST, true, data, RoleJSON.class).whenCompleteAsync(this::complete);
+		return future;
 	}
 
-	public void complete(String s, Throwable ex) {
+	public void complete(RoleJSON json, Throwable ex) {
 		if (ex != null) {
 			future.completeExceptionally(ex.getCause());
 			return;
 		}
-		IRole role = gfac.buildRole(guild, gson.fromJson(s, RoleJSON.class));
+		IRole role = EntityBuilder.getGuildFactory().buildRole(guild, json);
 		future.complete(role);
 		return;
 	}
@@ -24,16 +24,16 @@ public class CreateTextChannel extends RESTAction<IGuildTextChannel> {
 
 	@Override
 	public CompletableFuture<IGuildTextChannel> execute() {
-		return super.execute(loader.rest.makeRequest(Endpoints.guildChannels(guild.getID()), Methods.POST, true, data));
+		this.<ChannelJSON>makeRequest(Endpoints.guildChannels(guild.getID()), Methods.POST, true, data, ChannelJSON.class).whenCompleteAsync(this::complete);
+		return future;
 	}
 
-	public void complete(String packet, Throwable ex) {
+	public void complete(ChannelJSON data, Throwable ex) {
 		if (ex != null) {
 			future.completeExceptionally(ex);
 			return;
 		}
 
-		ChannelJSON data = gson.fromJson(packet, ChannelJSON.class);
 		future.complete((IGuildTextChannel) EntityRegistry.addChannel(data));
 	}
 
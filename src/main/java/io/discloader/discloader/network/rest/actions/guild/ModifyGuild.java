@@ -22,15 +22,15 @@ public class ModifyGuild extends RESTAction<IGuild> {
 	}
 	
 	public CompletableFuture<IGuild> execute() {
-		return super.execute(loader.rest.makeRequest(Endpoints.guild(guild.getID()), Methods.PATCH, true, payload));
+		this.<GuildJSON>makeRequest(Endpoints.guild(guild.getID()), Methods.PATCH, true, payload, GuildJSON.class).whenCompleteAsync(this::complete);
+		return future;
 	}
 	
-	public void complete(String r, Throwable ex) {
+	public void complete(GuildJSON data, Throwable ex) {
 		if (ex != null) {
 			future.completeExceptionally(ex);
 			return;
 		}
-		GuildJSON data = gson.fromJson(r, GuildJSON.class);
 		guild.setup(data);
 		future.complete(guild);
 	}
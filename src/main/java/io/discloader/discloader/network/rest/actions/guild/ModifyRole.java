@@ -5,7 +5,6 @@ import java.util.concurrent.CompletableFuture;
 import org.json.JSONObject;
 
 import io.discloader.discloader.common.registry.EntityBuilder;
-import io.discloader.discloader.common.registry.factory.GuildFactory;
 import io.discloader.discloader.entity.guild.IRole;
 import io.discloader.discloader.network.json.RoleJSON;
 import io.discloader.discloader.network.rest.actions.RESTAction;
@@ -16,7 +15,6 @@ public class ModifyRole extends RESTAction<IRole> {
 
 	private final IRole role;
 	private final JSONObject data;
-	private GuildFactory gfac = EntityBuilder.getGuildFactory();
 
 	public ModifyRole(IRole role, JSONObject data) {
 		super(role.getLoader());
@@ -26,12 +24,16 @@ public class ModifyRole extends RESTAction<IRole> {
 
 	@Override
 	public CompletableFuture<IRole> execute() {
-		return super.execute(loader.rest.makeRequest(Endpoints.guildRole(role.getGuild().getID(), role.getID()), Methods.PATCH, true, data));
+		this.<RoleJSON>makeRequest(Endpoints.guildRole(role.getGuild().getID(), role.getID()), Methods.PATCH, true, data, RoleJSON.class).whenCompleteAsync(this::complete);
+		return future;
 	}
 
-	public void complete(String r, Throwable ex) {
-		super.complete(r, ex);
-		if (!future.isDone()) future.complete(gfac.buildRole(role.getGuild(), gson.fromJson(r, RoleJSON.class)));
+	public void complete(RoleJSON json, Throwable ex) {
+		if (ex != null) {
+			future.completeExceptionally(ex);
+			return;
+		}
+		future.complete(EntityBuilder.getGuildFactory().buildRole(role.getGuild(), json));
 	}
 
 }
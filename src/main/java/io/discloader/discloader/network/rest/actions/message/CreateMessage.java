@@ -21,6 +21,6 @@ public class CreateMessage<T extends ITextChannel> extends RESTAction<IMessage>
 	}
 
 	public CompletableFuture<IMessage> execute() {
-		return super.execute(loader.rest.makeRequest(Endpoints.messages(channel.getID()), Methods.POST, true, message));
+		return super.execute(makeRequest(Endpoints.messages(channel.getID()), Methods.POST, true, message));
 	}
 }
@@ -19,7 +19,7 @@ public class CreateReaction extends RESTAction<Void> {
 	}
 
 	public CompletableFuture<Void> execute() {
-		return super.execute(loader.rest.makeRequest(Endpoints.currentUserReaction(message.getChannel().getID(), message.getID(), emoji), Methods.PUT, true));
+		return super.execute(makeRequest(Endpoints.currentUserReaction(message.getChannel().getID(), message.getID(), emoji), Methods.PUT, true));
 	}
 
 	public void complete(String r, Throwable ex) {
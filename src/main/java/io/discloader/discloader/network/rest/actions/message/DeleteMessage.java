@@ -20,7 +20,7 @@ public class DeleteMessage<T extends ITextChannel> extends RESTAction<IMessage>
 	}
 	
 	public CompletableFuture<IMessage> execute() {
-		return super.execute(loader.rest.makeRequest(Endpoints.message(channel.getID(), message.getID()), Methods.DELETE, true));
+		return super.execute(makeRequest(Endpoints.message(channel.getID(), message.getID()), Methods.DELETE, true));
 	}
 	
 }
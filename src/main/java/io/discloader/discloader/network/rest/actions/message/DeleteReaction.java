@@ -19,7 +19,7 @@ public class DeleteReaction extends RESTAction<IMessage> {
 	}
 
 	public CompletableFuture<IMessage> execute() {
-		return super.execute(loader.rest.makeRequest(Endpoints.currentUserReaction(message.getChannel().getID(), message.getID(), emoji), Methods.DELETE, true));
+		return super.execute(makeRequest(Endpoints.currentUserReaction(message.getChannel().getID(), message.getID(), emoji), Methods.DELETE, true));
 	}
 
 	public void complete(String r, Throwable ex) {
@@ -26,7 +26,7 @@ public class EditMessage<T extends ITextChannel> extends RESTAction<IMessage> {
 	public CompletableFuture<IMessage> execute() {
 
 		String endpoint = Endpoints.message(message.getChannel().getID(), message.getID());
-		return super.execute(loader.rest.makeRequest(endpoint, Methods.PATCH, true, sendable));
+		return super.execute(makeRequest(endpoint, Methods.PATCH, true, sendable));
 	}
 
 }
\ No newline at end of file
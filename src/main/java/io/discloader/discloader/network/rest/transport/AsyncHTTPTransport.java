@@ -0,0 +1,155 @@
+package io.discloader.discloader.network.rest.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
+
+/**
+ * The default {@link HTTPTransport}, built on Apache's non-blocking HttpAsyncClient.<br>
+ * Requests are multiplexed over a small, fixed number of NIO reactor threads and a pool of keep-alive connections, so any number of
+ * rate limit buckets can have a request in flight at once without a thread per request.<br>
+ * Connecting, waiting for a pooled connection and waiting for data all time out, so a hung connection fails its request instead of
+ * holding up its bucket forever.
+ *
+ * @author Perry Berman
+ */
+public class AsyncHTTPTransport implements HTTPTransport {
+
+	public static final int DEFAULT_IO_THREADS = 2;
+
+	public static final int DEFAULT_MAX_CONNECTIONS = 64;
+
+	public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 32;
+
+	public static final long DEFAULT_KEEP_ALIVE = 60000l;
+
+	public static final int DEFAULT_CONNECT_TIMEOUT = 10000;
+
+	public static final int DEFAULT_SOCKET_TIMEOUT = 60000;
+
+	private final CloseableHttpAsyncClient client;
+
+	public AsyncHTTPTransport() {
+		this(DEFAULT_IO_THREADS, DEFAULT_MAX_CONNECTIONS, DEFAULT_MAX_CONNECTIONS_PER_ROUTE, DEFAULT_KEEP_ALIVE);
+	}
+
+	/**
+	 * @param ioThreads The number of NIO reactor threads
+	 * @param maxConnections The maximum number of pooled connections
+	 * @param maxConnectionsPerRoute The maximum number of pooled connections to a single host
+	 * @param keepAlive How long an idle connection is kept open, in milliseconds
+	 */
+	public AsyncHTTPTransport(int ioThreads, int maxConnections, int maxConnectionsPerRoute, long keepAlive) {
+		this(ioThreads, maxConnections, maxConnectionsPerRoute, keepAlive, DEFAULT_CONNECT_TIMEOUT, DEFAULT_SOCKET_TIMEOUT);
+	}
+
+	/**
+	 * @param ioThreads The number of NIO reactor threads
+	 * @param maxConnections The maximum number of pooled connections
+	 * @param maxConnectionsPerRoute The maximum number of pooled connections to a single host
+	 * @param keepAlive How long an idle connection is kept open, in milliseconds
+	 * @param connectTimeout How long to wait for a connection to be opened, or for a pooled connection to become free, in milliseconds
+	 * @param socketTimeout How long to wait for data once a request has been sent, in milliseconds
+	 */
+	public AsyncHTTPTransport(int ioThreads, int maxConnections, int maxConnectionsPerRoute, long keepAlive, int connectTimeout, int socketTimeout) {
+		IOReactorConfig config = IOReactorConfig.custom().setIoThreadCount(ioThreads).setSoKeepAlive(true).setTcpNoDelay(true).build();
+		PoolingNHttpClientConnectionManager pool;
+		try {
+			pool = new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(config));
+		} catch (IOReactorException e) {
+			throw new UncheckedIOException(e);
+		}
+		pool.setMaxTotal(maxConnections);
+		pool.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+		RequestConfig timeouts = RequestConfig.custom().setConnectTimeout(connectTimeout).setConnectionRequestTimeout(connectTimeout).setSocketTimeout(socketTimeout).build();
+		client = HttpAsyncClients.custom().setConnectionManager(pool).setDefaultRequestConfig(timeouts).setKeepAliveStrategy((response, context) -> keepAlive).build();
+		client.start();
+	}
+
+	@Override
+	public CompletableFuture<HTTPResponse> execute(HTTPRequest request) {
+		CompletableFuture<HTTPResponse> future = new CompletableFuture<>();
+		RequestBuilder builder = RequestBuilder.create(request.getMethod()).setUri(request.getURL());
+		for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+			builder.addHeader(header.getKey(), header.getValue());
+		}
+		if (request.getStreamingBody() != null) {
+			builder.setEntity(new StreamingEntity(request.getStreamingBody()));
+		} else if (request.getBody() != null) {
+			builder.setEntity(new ByteArrayEntity(request.getBody()));
+		}
+		Future<HttpResponse> call = client.execute(builder.build(), new FutureCallback<HttpResponse>() {
+
+			@Override
+			public void cancelled() {
+				future.cancel(false);
+			}
+
+			@Override
+			public void completed(HttpResponse response) {
+				try {
+					future.complete(convert(response));
+				} catch (IOException e) {
+					future.completeExceptionally(e);
+				}
+			}
+
+			@Override
+			public void failed(Exception e) {
+				future.completeExceptionally(e);
+			}
+		});
+		// a request that timed out or was cancelled by its caller gives its connection back
+		future.whenComplete((response, ex) -> {
+			if (future.isCancelled()) call.cancel(true);
+		});
+		return future;
+	}
+
+	@Override
+	public void shutdown() {
+		try {
+			client.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	private HTTPResponse convert(HttpResponse response) throws IOException {
+		Map<String, List<String>> headers = new HashMap<>();
+		for (Header header : response.getAllHeaders()) {
+			headers.computeIfAbsent(header.getName(), name -> new ArrayList<>()).add(header.getValue());
+		}
+		// keep the body compressed, it's only inflated while it's being parsed
+		byte[] content = new byte[0];
+		HttpEntity entity = response.getEntity();
+		if (entity != null) {
+			try (InputStream in = entity.getContent()) {
+				content = IOUtils.toByteArray(in);
+			}
+		}
+		return new HTTPResponse(response.getStatusLine().getStatusCode(), headers, content);
+	}
+
+}
@@ -0,0 +1,116 @@
+package io.discloader.discloader.network.rest.transport;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An HTTP request that is ready to be sent by an {@link HTTPTransport}.
+ *
+ * @author Perry Berman
+ */
+public class HTTPRequest {
+
+	private final String method;
+
+	private final String url;
+
+	private final Map<String, String> headers;
+
+	private byte[] body;
+
+	private StreamingBody streamingBody;
+
+	/**
+	 * @param method The request method, like {@code "GET"}
+	 * @param url The request's URL
+	 */
+	public HTTPRequest(String method, String url) {
+		this.method = method;
+		this.url = url;
+		headers = new LinkedHashMap<>();
+	}
+
+	/**
+	 * @return The request's body, or {@code null} if it doesn't have one
+	 */
+	public byte[] getBody() {
+		return body;
+	}
+
+	/**
+	 * @return The request's streaming body, or {@code null} if it doesn't have one
+	 */
+	public StreamingBody getStreamingBody() {
+		return streamingBody;
+	}
+
+	/**
+	 * @param name The header's name
+	 * @return The header's value, or {@code null} if it isn't set
+	 */
+	public String getHeader(String name) {
+		for (Map.Entry<String, String> header : headers.entrySet()) {
+			if (header.getKey().equalsIgnoreCase(name)) return header.getValue();
+		}
+		return null;
+	}
+
+	/**
+	 * @return The request's headers
+	 */
+	public Map<String, String> getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * @return The request method
+	 */
+	public String getMethod() {
+		return method;
+	}
+
+	/**
+	 * @return The request's URL
+	 */
+	public String getURL() {
+		return url;
+	}
+
+	/**
+	 * Sets a header, replacing any previous value.
+	 *
+	 * @param name The header's name
+	 * @param value The header's value
+	 * @return {@code this}
+	 */
+	public HTTPRequest header(String name, String value) {
+		headers.put(name, value);
+		return this;
+	}
+
+	/**
+	 * @param body The request's body
+	 * @return {@code this}
+	 */
+	public HTTPRequest setBody(byte[] body) {
+		this.body = body;
+		streamingBody = null;
+		return this;
+	}
+
+	/**
+	 * @param body The request's body, sent from its sources instead of an array
+	 * @return {@code this}
+	 */
+	public HTTPRequest setBody(StreamingBody body) {
+		streamingBody = body;
+		this.body = null;
+		return this;
+	}
+
+	@Override
+	public String toString() {
+		return method + " " + url;
+	}
+
+}
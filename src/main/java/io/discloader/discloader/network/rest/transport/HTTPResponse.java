@@ -0,0 +1,122 @@
+package io.discloader.discloader.network.rest.transport;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * A response received by an {@link HTTPTransport}. Header names are case-insensitive.<br>
+ * The body is kept as the bytes that came off the wire, still gzipped if the server compressed it. Parsers should read it through
+ * {@link #openBody()}; {@link #getBody()} only decodes it to a String the first time something asks for one.
+ *
+ * @author Perry Berman
+ */
+public class HTTPResponse {
+
+	private final int status;
+
+	private final Map<String, List<String>> headers;
+
+	private final byte[] content;
+
+	private final boolean gzip;
+
+	private volatile String body;
+
+	/**
+	 * @param status The response's status code
+	 * @param headers The response's headers
+	 * @param body The response's body
+	 */
+	public HTTPResponse(int status, Map<String, List<String>> headers, String body) {
+		this(status, headers, body.getBytes(StandardCharsets.UTF_8), false);
+		this.body = body;
+	}
+
+	/**
+	 * @param status The response's status code
+	 * @param headers The response's headers
+	 * @param content The response's body, gzipped if the {@code Content-Encoding} header says so
+	 */
+	public HTTPResponse(int status, Map<String, List<String>> headers, byte[] content) {
+		this(status, headers, content, true);
+	}
+
+	private HTTPResponse(int status, Map<String, List<String>> headers, byte[] content, boolean checkEncoding) {
+		this.status = status;
+		Map<String, List<String>> map = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		map.putAll(headers);
+		this.headers = Collections.unmodifiableMap(map);
+		this.content = content;
+		String encoding = map.containsKey("Content-Encoding") ? map.get("Content-Encoding").get(0) : null;
+		gzip = checkEncoding && "gzip".equalsIgnoreCase(encoding);
+	}
+
+	/**
+	 * Decodes the body to a String. The result is cached, so only the first call pays for decompressing and decoding it.
+	 * 
+	 * @return The response's body
+	 */
+	public String getBody() {
+		String body = this.body;
+		if (body == null) {
+			try (InputStream in = openBody()) {
+				this.body = body = IOUtils.toString(in, StandardCharsets.UTF_8);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return body;
+	}
+
+	/**
+	 * @return The length of the body as it was received, in bytes
+	 */
+	public int getContentLength() {
+		return content.length;
+	}
+
+	/**
+	 * @param name The header's name
+	 * @return The header's first value, or {@code null} if the response doesn't have the header
+	 */
+	public String getHeader(String name) {
+		List<String> values = headers.get(name);
+		return values == null || values.isEmpty() ? null : values.get(0);
+	}
+
+	/**
+	 * @return The response's headers
+	 */
+	public Map<String, List<String>> getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * Opens a stream over the decompressed body, so it can be parsed without building a String first.
+	 * 
+	 * @return A new stream over the body
+	 * @throws IOException Thrown if the body is gzipped and its header is malformed
+	 */
+	public InputStream openBody() throws IOException {
+		InputStream in = new ByteArrayInputStream(content);
+		return gzip && content.length > 0 ? new GZIPInputStream(in) : in;
+	}
+
+	/**
+	 * @return The response's status code
+	 */
+	public int getStatus() {
+		return status;
+	}
+
+}
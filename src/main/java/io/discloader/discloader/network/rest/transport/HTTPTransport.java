@@ -0,0 +1,31 @@
+package io.discloader.discloader.network.rest.transport;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends the HTTP requests made by a {@link io.discloader.discloader.network.rest.RESTManager RESTManager}.<br>
+ * Implementations must be non-blocking: {@link #execute(HTTPRequest)} should return immediately and complete the future from the
+ * transport's own threads. Rate limiting is handled before a request reaches the transport, so a transport may send as many
+ * requests at once as it likes.
+ *
+ * @author Perry Berman
+ * @see AsyncHTTPTransport
+ * @see StubTransport
+ */
+public interface HTTPTransport {
+
+	/**
+	 * Sends a request.
+	 *
+	 * @param request The request to send
+	 * @return A future that completes with the response, or exceptionally if the request couldn't be sent or timed out. Cancelling
+	 *         the future should abort the request
+	 */
+	CompletableFuture<HTTPResponse> execute(HTTPRequest request);
+
+	/**
+	 * Closes the transport's connections and stops its threads.
+	 */
+	void shutdown();
+
+}
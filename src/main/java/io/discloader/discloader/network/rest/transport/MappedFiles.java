@@ -0,0 +1,121 @@
+package io.discloader.discloader.network.rest.transport;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Memory-maps files that are uploaded, so their contents are sent from the page cache instead of being copied onto the heap.<br>
+ * By default a mapping lives only as long as the body it was added to, so it's unmapped once the upload is done and collected. A
+ * message {@link io.discloader.discloader.network.rest.APIRequest#serialize serialized} once and sent to many channels already maps its
+ * file only once. Mappings of files that are uploaded again and again can be kept with {@link #setMaxMappings(int)}. A kept mapping
+ * is replaced when the file's length or modification time changes, but it keeps the file locked on Windows and must not outlive a
+ * truncation of the file, so only keep mappings of files that don't change.
+ *
+ * @author Perry Berman
+ */
+public final class MappedFiles {
+
+	private static final Map<String, Mapping> mappings = new LinkedHashMap<String, Mapping>(16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Mapping> eldest) {
+			return size() > maxMappings;
+		}
+	};
+
+	private static int maxMappings = 0;
+
+	private MappedFiles() {}
+
+	/**
+	 * @param file The file to map
+	 * @return A read-only buffer over the whole file. Each call returns a new buffer, so callers can't move each other's position
+	 * @throws IOException Thrown if the file can't be opened or is larger than 2GB
+	 */
+	public static ByteBuffer map(File file) throws IOException {
+		String path = file.getCanonicalPath();
+		long length = file.length(), modified = file.lastModified();
+		synchronized (mappings) {
+			Mapping mapping = mappings.get(path);
+			if (mapping != null && mapping.length == length && mapping.modified == modified) return mapping.buffer.duplicate();
+		}
+		if (length > Integer.MAX_VALUE) throw new IOException("Cannot map " + file.getName() + " due to it being too large!");
+		MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+		}
+		synchronized (mappings) {
+			if (maxMappings > 0) mappings.put(path, new Mapping(buffer, length, modified));
+		}
+		return buffer.duplicate();
+	}
+
+	/**
+	 * Drops every kept mapping. Each file is unmapped once the last upload using it is done and collected.
+	 */
+	public static void clear() {
+		synchronized (mappings) {
+			mappings.clear();
+		}
+	}
+
+	/**
+	 * @return The number of mappings of recently uploaded files that are kept for reuse
+	 */
+	public static int getMaxMappings() {
+		synchronized (mappings) {
+			return maxMappings;
+		}
+	}
+
+	/**
+	 * Sets how many mappings of recently uploaded files are kept for reuse. {@code 0}, the default, keeps none.
+	 * 
+	 * @param max The number of mappings to keep
+	 */
+	public static void setMaxMappings(int max) {
+		synchronized (mappings) {
+			maxMappings = Math.max(0, max);
+			Iterator<String> eldest = mappings.keySet().iterator();
+			while (mappings.size() > maxMappings) {
+				eldest.next();
+				eldest.remove();
+			}
+		}
+	}
+
+	/**
+	 * @return The number of mappings that are kept for reuse
+	 */
+	public static int size() {
+		synchronized (mappings) {
+			return mappings.size();
+		}
+	}
+
+	private static class Mapping {
+
+		final MappedByteBuffer buffer;
+
+		final long length;
+
+		final long modified;
+
+		Mapping(MappedByteBuffer buffer, long length, long modified) {
+			this.buffer = buffer;
+			this.length = length;
+			this.modified = modified;
+		}
+
+	}
+
+}
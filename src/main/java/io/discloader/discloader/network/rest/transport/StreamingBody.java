@@ -0,0 +1,196 @@
+package io.discloader.discloader.network.rest.transport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * A request body that is sent from a list of sources instead of one array, so large uploads never have to be copied onto the heap.
+ * <br>
+ * Buffers, including {@link MappedFiles memory-mapped files}, are sent straight from the buffer, and streams are read in
+ * {@link #CHUNK_SIZE} chunks while the body is being sent. A body can be sent more than once, each send {@link #open() opens} its own
+ * cursor over the sources.
+ *
+ * @author Perry Berman
+ */
+public class StreamingBody {
+
+	public static final int CHUNK_SIZE = 64 * 1024;
+
+	private final String contentType;
+
+	private final List<Object> sources = new ArrayList<>();
+
+	private long contentLength;
+
+	private UploadProgressListener listener;
+
+	/**
+	 * @param contentType The body's {@code Content-Type}
+	 */
+	public StreamingBody(String contentType) {
+		this.contentType = contentType;
+	}
+
+	/**
+	 * Appends a buffer. The buffer's position and limit aren't changed, it's sent from a duplicate.
+	 *
+	 * @param buffer The buffer to append
+	 * @return {@code this}
+	 */
+	public StreamingBody add(ByteBuffer buffer) {
+		sources.add(buffer.duplicate());
+		if (contentLength >= 0) contentLength += buffer.remaining();
+		return this;
+	}
+
+	/**
+	 * Appends a stream of unknown length. The body's length becomes unknown, so it will be sent with chunked encoding.
+	 *
+	 * @param stream Opens the stream to append, once per send
+	 * @return {@code this}
+	 */
+	public StreamingBody add(Callable<InputStream> stream) {
+		sources.add(stream);
+		contentLength = -1l;
+		return this;
+	}
+
+	/**
+	 * @param string The text to append, encoded as UTF-8
+	 * @return {@code this}
+	 */
+	public StreamingBody add(String string) {
+		return add(ByteBuffer.wrap(string.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * @return The body's length in bytes, or {@code -1} if it includes a stream of unknown length
+	 */
+	public long getContentLength() {
+		return contentLength;
+	}
+
+	/**
+	 * @return The body's {@code Content-Type}
+	 */
+	public String getContentType() {
+		return contentType;
+	}
+
+	/**
+	 * @return The listener that is told how much of the body has been sent, or {@code null}
+	 */
+	public UploadProgressListener getProgressListener() {
+		return listener;
+	}
+
+	/**
+	 * @param listener Is told how much of the body has been sent
+	 * @return {@code this}
+	 */
+	public StreamingBody setProgressListener(UploadProgressListener listener) {
+		this.listener = listener;
+		return this;
+	}
+
+	/**
+	 * @return A new cursor over the body's sources
+	 */
+	public Cursor open() {
+		return new Cursor();
+	}
+
+	/**
+	 * Writes the whole body to a stream, for transports that don't send from buffers.
+	 *
+	 * @param out The stream to write to
+	 * @throws IOException Thrown if a source can't be read or the stream can't be written to
+	 */
+	public void writeTo(OutputStream out) throws IOException {
+		WritableByteChannel channel = Channels.newChannel(out);
+		try (Cursor cursor = open()) {
+			ByteBuffer chunk;
+			while ((chunk = cursor.next()) != null) {
+				while (chunk.hasRemaining()) {
+					cursor.sent(channel.write(chunk));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Walks a body's sources one chunk at a time and reports progress to the body's listener.
+	 */
+	public class Cursor implements Closeable {
+
+		private int index;
+
+		private ReadableByteChannel stream;
+
+		private ByteBuffer chunk;
+
+		private long sent;
+
+		private Cursor() {}
+
+		/**
+		 * @return The next chunk to send, or {@code null} once the body has been sent. A chunk must be sent completely before asking for
+		 *         the next one
+		 * @throws IOException Thrown if a stream can't be opened or read
+		 */
+		@SuppressWarnings("unchecked")
+		public ByteBuffer next() throws IOException {
+			while (true) {
+				if (stream != null) {
+					if (chunk == null) chunk = ByteBuffer.allocate(CHUNK_SIZE);
+					chunk.clear();
+					if (stream.read(chunk) >= 0) {
+						chunk.flip();
+						return chunk;
+					}
+					stream.close();
+					stream = null;
+				}
+				if (index >= sources.size()) return null;
+				Object source = sources.get(index++);
+				if (source instanceof ByteBuffer) return ((ByteBuffer) source).duplicate();
+				try {
+					stream = Channels.newChannel(((Callable<InputStream>) source).call());
+				} catch (IOException e) {
+					throw e;
+				} catch (Exception e) {
+					throw new IOException(e);
+				}
+			}
+		}
+
+		/**
+		 * Reports that part of a chunk has been sent.
+		 *
+		 * @param bytes The number of bytes that were sent
+		 */
+		public void sent(long bytes) {
+			if (bytes <= 0) return;
+			sent += bytes;
+			if (listener != null) listener.onProgress(sent, contentLength);
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (stream != null) stream.close();
+			stream = null;
+		}
+
+	}
+
+}
@@ -0,0 +1,83 @@
+package io.discloader.discloader.network.rest.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.entity.HttpAsyncContentProducer;
+
+/**
+ * Adapts a {@link StreamingBody} to HttpAsyncClient. The body is written to the connection as it becomes writable, one chunk at a
+ * time, from the reactor thread.
+ *
+ * @author Perry Berman
+ */
+class StreamingEntity extends AbstractHttpEntity implements HttpAsyncContentProducer {
+
+	private final StreamingBody body;
+
+	private StreamingBody.Cursor cursor;
+
+	private ByteBuffer chunk;
+
+	StreamingEntity(StreamingBody body) {
+		this.body = body;
+		setContentType(body.getContentType());
+		setChunked(body.getContentLength() < 0);
+	}
+
+	@Override
+	public void produceContent(ContentEncoder encoder, IOControl ioctrl) throws IOException {
+		if (cursor == null) cursor = body.open();
+		while (true) {
+			if (chunk == null || !chunk.hasRemaining()) {
+				chunk = cursor.next();
+				if (chunk == null) {
+					encoder.complete();
+					close();
+					return;
+				}
+			}
+			cursor.sent(encoder.write(chunk));
+			// the connection's buffer is full, we're called again once it's writable
+			if (chunk.hasRemaining()) return;
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (cursor != null) cursor.close();
+		cursor = null;
+		chunk = null;
+	}
+
+	@Override
+	public InputStream getContent() throws IOException {
+		throw new UnsupportedOperationException("Streaming bodies are only sent with produceContent or writeTo");
+	}
+
+	@Override
+	public long getContentLength() {
+		return body.getContentLength();
+	}
+
+	@Override
+	public boolean isRepeatable() {
+		return true;
+	}
+
+	@Override
+	public boolean isStreaming() {
+		return false;
+	}
+
+	@Override
+	public void writeTo(OutputStream out) throws IOException {
+		body.writeTo(out);
+	}
+
+}
@@ -0,0 +1,53 @@
+package io.discloader.discloader.network.rest.transport;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * An {@link HTTPTransport} that never touches the network.<br>
+ * Every request is recorded and answered by a handler on the common pool, which makes it a stand-in for Discord when testing code
+ * that makes REST requests. If the handler throws, the request fails with the handler's exception.
+ *
+ * @author Perry Berman
+ */
+public class StubTransport implements HTTPTransport {
+
+	private final Function<HTTPRequest, HTTPResponse> handler;
+
+	private final List<HTTPRequest> requests = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Creates a transport that answers every request with {@code 200 OK} and an empty JSON object.
+	 */
+	public StubTransport() {
+		this(request -> new HTTPResponse(200, Collections.emptyMap(), "{}"));
+	}
+
+	/**
+	 * @param handler Answers each request
+	 */
+	public StubTransport(Function<HTTPRequest, HTTPResponse> handler) {
+		this.handler = handler;
+	}
+
+	@Override
+	public CompletableFuture<HTTPResponse> execute(HTTPRequest request) {
+		requests.add(request);
+		return CompletableFuture.supplyAsync(() -> handler.apply(request));
+	}
+
+	/**
+	 * @return Every request the transport has received, in the order they were sent
+	 */
+	public List<HTTPRequest> getRequests() {
+		return new ArrayList<>(requests);
+	}
+
+	@Override
+	public void shutdown() {}
+
+}
@@ -0,0 +1,18 @@
+package io.discloader.discloader.network.rest.transport;
+
+/**
+ * Is told how much of a {@link StreamingBody} has been sent. Called from the transport's threads, so implementations should return
+ * quickly.
+ *
+ * @author Perry Berman
+ */
+@FunctionalInterface
+public interface UploadProgressListener {
+
+	/**
+	 * @param sent How many bytes of the body have been sent so far
+	 * @param total The body's length in bytes, or {@code -1} if it isn't known
+	 */
+	void onProgress(long sent, long total);
+
+}
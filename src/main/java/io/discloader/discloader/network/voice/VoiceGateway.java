@@ -25,6 +25,7 @@ import io.discloader.discloader.network.voice.payloads.VoiceIdentify;
 import io.discloader.discloader.network.voice.payloads.VoicePacket;
 import io.discloader.discloader.network.voice.payloads.VoiceReady;
 import io.discloader.discloader.network.voice.payloads.VoiceUDPBegin;
+import io.discloader.discloader.util.DLUtil;
 
 public class VoiceGateway extends WebSocketAdapter {
 
@@ -54,7 +55,7 @@ public class VoiceGateway extends WebSocketAdapter {
 	public VoiceGateway(VoiceConnection connection) {
 		this.connection = connection;
 		logger = new DLLogger("VoiceGateway" + (connection.getGuild() == null ? " - Channel: " + connection.getChannel().getID() : " - Guild: " + connection.getGuild().getID())).getLogger();
-		gson = new Gson();
+		gson = DLUtil.gson;
 	}
 
 	public void connect(String gateway, String token) throws IOException, WebSocketException {
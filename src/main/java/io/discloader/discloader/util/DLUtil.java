@@ -14,6 +14,7 @@ import java.util.Locale;
 import org.apache.commons.io.IOUtils;
 
 import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 
 import io.discloader.discloader.client.render.util.Resource;
 import io.discloader.discloader.common.DiscLoader;
@@ -21,6 +22,7 @@ import io.discloader.discloader.common.language.Language;
 import io.discloader.discloader.core.entity.Permission;
 import io.discloader.discloader.entity.util.ISnowflake;
 import io.discloader.discloader.network.gateway.DiscSocketListener;
+import io.discloader.discloader.network.json.JSONAdapters;
 
 /**
  * A collection of all useful constants for DiscLoader
@@ -614,12 +616,14 @@ public final class DLUtil {
 	}
 
 	/**
-	 * A useful JSON String deserializer.
+	 * A useful JSON String deserializer.<br>
+	 * Shared by every REST and gateway path, so each class is only bound once, and the gateway's most common objects are bound by the
+	 * {@link JSONAdapters hand written adapters}. Gson instances are thread-safe.
 	 * 
 	 * @author Perry Berman
 	 * @since 0.0.1
 	 */
-	public static final Gson gson = new Gson();
+	public static final Gson gson = new GsonBuilder().registerTypeAdapterFactory(new JSONAdapters()).create();
 
 	public static final int APIVersion = 7;
 
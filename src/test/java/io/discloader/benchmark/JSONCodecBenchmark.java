@@ -0,0 +1,131 @@
+package io.discloader.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+
+import io.discloader.discloader.network.json.GuildJSON;
+import io.discloader.discloader.network.json.MemberJSON;
+import io.discloader.discloader.network.json.MessageJSON;
+import io.discloader.discloader.network.json.PresenceJSON;
+import io.discloader.discloader.network.json.RoleJSON;
+import io.discloader.discloader.network.json.UserJSON;
+import io.discloader.discloader.util.DLUtil;
+
+/**
+ * Measures the decode and encode throughput of the shared codec against a plain, reflective {@link Gson}, for a message and for a
+ * guild with its member and presence lists.<br>
+ * The gateway rows compare the old path for a dispatch's data, writing it back out as a string and reading that again, against
+ * binding the parsed tree directly.<br>
+ * Usage: {@code JSONCodecBenchmark [membersPerGuild] [seconds]}
+ *
+ * @author Perry Berman
+ */
+public class JSONCodecBenchmark {
+
+	private static long nextID = 100000000000000000l;
+
+	private static volatile Object sink;
+
+	public static void main(String... args) {
+		int members = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		long millis = (args.length > 1 ? Long.parseLong(args[1]) : 2l) * 1000l;
+
+		Gson plain = new Gson();
+		Gson shared = DLUtil.gson;
+		MessageJSON message = createMessage();
+		GuildJSON guild = createGuild(members);
+		String messageText = plain.toJson(message);
+		String guildText = plain.toJson(guild);
+		Object messageMap = plain.fromJson(messageText, Object.class);
+		JsonElement messageTree = plain.fromJson(messageText, JsonElement.class);
+
+		System.out.printf("message: %,d bytes, guild: %,d members, %,d bytes%n", messageText.length(), members, guildText.length());
+		System.out.printf("%-34s %14s %14s %8s%n", "", "reflective", "shared", "speedup");
+		compare("decode message", millis, () -> plain.fromJson(messageText, MessageJSON.class), () -> shared.fromJson(messageText, MessageJSON.class));
+		compare("encode message", millis, () -> plain.toJson(message), () -> shared.toJson(message));
+		compare("decode guild", millis, () -> plain.fromJson(guildText, GuildJSON.class), () -> shared.fromJson(guildText, GuildJSON.class));
+		compare("encode guild", millis, () -> plain.toJson(guild), () -> shared.toJson(guild));
+		compare("gateway message (round trip/tree)", millis, () -> plain.fromJson(plain.toJson(messageMap), MessageJSON.class), () -> shared.fromJson(messageTree, MessageJSON.class));
+		compare("new Gson() per message", millis, () -> new Gson().fromJson(messageText, MessageJSON.class), () -> shared.fromJson(messageText, MessageJSON.class));
+	}
+
+	private static void compare(String name, long millis, Operation reflective, Operation shared) {
+		// warm up both paths before either is measured
+		run(reflective, millis / 2);
+		run(shared, millis / 2);
+		double before = run(reflective, millis);
+		double after = run(shared, millis);
+		System.out.printf("%-34s %,12.0f/s %,12.0f/s %7.2fx%n", name, before, after, after / before);
+	}
+
+	/**
+	 * @return The number of operations per second
+	 */
+	private static double run(Operation operation, long millis) {
+		long count = 0;
+		long start = System.nanoTime();
+		long end = start + millis * 1000000l;
+		long now;
+		do {
+			for (int i = 0; i < 16; i++) {
+				sink = operation.run();
+			}
+			count += 16;
+		} while ((now = System.nanoTime()) < end);
+		return count * 1e9d / (now - start);
+	}
+
+	private static MessageJSON createMessage() {
+		MessageJSON data = new MessageJSON();
+		data.id = Long.toString(nextID++);
+		data.channel_id = Long.toString(nextID++);
+		data.content = "The quick brown fox jumps over the lazy dog";
+		data.timestamp = "2017-06-01T12:00:00.000000+00:00";
+		data.author = createUser();
+		data.mentions = new UserJSON[] { createUser(), createUser() };
+		data.mention_roles = new String[] { Long.toString(nextID++) };
+		return data;
+	}
+
+	private static GuildJSON createGuild(int members) {
+		GuildJSON data = new GuildJSON();
+		data.id = Long.toString(nextID++);
+		data.name = "Guild " + data.id;
+		data.region = "us-central";
+		data.roles = new RoleJSON[0];
+		data.members = new MemberJSON[members];
+		data.presences = new PresenceJSON[members];
+		data.member_count = members;
+		for (int i = 0; i < members; i++) {
+			MemberJSON member = new MemberJSON();
+			member.user = createUser();
+			member.roles = new String[] { data.id };
+			member.joined_at = "2017-06-01T12:00:00.000000+00:00";
+			data.members[i] = member;
+			PresenceJSON presence = new PresenceJSON();
+			presence.user = new UserJSON();
+			presence.user.id = member.user.id;
+			presence.status = "online";
+			data.presences[i] = presence;
+		}
+		data.owner_id = data.members.length > 0 ? data.members[0].user.id : data.id;
+		return data;
+	}
+
+	private static UserJSON createUser() {
+		UserJSON user = new UserJSON();
+		user.id = Long.toString(nextID++);
+		user.username = "user" + user.id;
+		user.discriminator = "0001";
+		user.avatar = "0123456789abcdef0123456789abcdef";
+		return user;
+	}
+
+	@FunctionalInterface
+	private interface Operation {
+
+		Object run();
+
+	}
+
+}
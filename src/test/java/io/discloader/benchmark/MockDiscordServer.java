@@ -0,0 +1,433 @@
+package io.discloader.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.io.IOUtils;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.discloader.discloader.entity.util.SnowflakeUtil;
+import io.discloader.discloader.network.json.ChannelJSON;
+import io.discloader.discloader.network.json.MemberJSON;
+import io.discloader.discloader.network.json.MessageJSON;
+import io.discloader.discloader.network.json.UserJSON;
+import io.discloader.discloader.network.rest.APIRequest;
+import io.discloader.discloader.util.DLUtil;
+import io.discloader.discloader.util.DLUtil.Methods;
+
+/**
+ * A local stand-in for the REST API, for measuring the client under rate limits without sending anything to Discord.<br>
+ * Every route has its own bucket, keyed the same way the client keys them, and every response carries that bucket's
+ * {@code X-RateLimit-*} headers. Requests over a bucket's limit, or over the global limit, get a {@code 429} with a
+ * {@code Retry-After}. On top of that, a share of requests can be answered with unexpected {@code 429}s or with {@code 502}s.<br>
+ * Messages, channels, members, the current user and the gateway are answered with realistic payloads. Deletes, reactions and other
+ * writes without a body are answered with {@code 204}, and other reads with a {@code 404}.
+ *
+ * <pre>
+ * MockDiscordServer server = new MockDiscordServer(0).setRouteLimit(5, 5000l).start();
+ * loader.rest.setBaseURL(server.getBaseURL());
+ * </pre>
+ *
+ * @author Perry Berman
+ */
+public class MockDiscordServer {
+
+	private static final String PREFIX = DLUtil.API.substring(DLUtil.API.indexOf("/api"));
+
+	private final HttpServer server;
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	private final Map<String, Window> buckets = new ConcurrentHashMap<>();
+
+	private final Window global = new Window();
+
+	private final AtomicLong nextID = new AtomicLong((System.currentTimeMillis() - SnowflakeUtil.DISCORD_EPOCH) << 22);
+
+	private final LongAdder requests = new LongAdder();
+
+	private final LongAdder rateLimited = new LongAdder();
+
+	private final LongAdder errors = new LongAdder();
+
+	private final UserJSON user;
+
+	private volatile int routeLimit = 5;
+
+	private volatile long routeWindow = 5000l;
+
+	private volatile int globalLimit = 50;
+
+	private volatile double errorRate;
+
+	private volatile double rateLimitRate;
+
+	private volatile long latency;
+
+	private volatile int memberCount = 1000;
+
+	/**
+	 * @param port The port to listen on, or {@code 0} for any free port
+	 * @throws IOException Thrown if the port can't be bound
+	 */
+	public MockDiscordServer(int port) throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+		server.createContext("/", this::handle);
+		server.setExecutor(executor);
+		user = createUser(nextID.incrementAndGet());
+		user.bot = true;
+	}
+
+	/**
+	 * @return {@code this}
+	 */
+	public MockDiscordServer start() {
+		server.start();
+		return this;
+	}
+
+	public void stop() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	/**
+	 * @return The base URL to {@link io.discloader.discloader.network.rest.RESTManager#setBaseURL(String) point the client at}
+	 */
+	public String getBaseURL() {
+		return "http://127.0.0.1:" + server.getAddress().getPort() + PREFIX;
+	}
+
+	/**
+	 * @param limit How many requests each route's bucket allows per window
+	 * @param window How long a bucket's window is, in milliseconds
+	 * @return {@code this}
+	 */
+	public MockDiscordServer setRouteLimit(int limit, long window) {
+		routeLimit = limit;
+		routeWindow = window;
+		buckets.clear();
+		return this;
+	}
+
+	/**
+	 * @param limit How many requests are allowed per second across every route
+	 * @return {@code this}
+	 */
+	public MockDiscordServer setGlobalLimit(int limit) {
+		globalLimit = limit;
+		return this;
+	}
+
+	/**
+	 * @param errorRate The share of requests, from {@code 0} to {@code 1}, answered with a {@code 502}
+	 * @return {@code this}
+	 */
+	public MockDiscordServer setErrorRate(double errorRate) {
+		this.errorRate = errorRate;
+		return this;
+	}
+
+	/**
+	 * @param rateLimitRate The share of requests, from {@code 0} to {@code 1}, answered with a {@code 429} even though their bucket
+	 *            has requests left, like Discord does for limits it doesn't announce
+	 * @return {@code this}
+	 */
+	public MockDiscordServer setRateLimitRate(double rateLimitRate) {
+		this.rateLimitRate = rateLimitRate;
+		return this;
+	}
+
+	/**
+	 * @param latency How long every request takes to be answered, in milliseconds
+	 * @return {@code this}
+	 */
+	public MockDiscordServer setLatency(long latency) {
+		this.latency = latency;
+		return this;
+	}
+
+	/**
+	 * @param memberCount How many members every guild has
+	 * @return {@code this}
+	 */
+	public MockDiscordServer setMemberCount(int memberCount) {
+		this.memberCount = memberCount;
+		return this;
+	}
+
+	/**
+	 * @return The number of requests that have been answered
+	 */
+	public long getRequestCount() {
+		return requests.sum();
+	}
+
+	/**
+	 * @return The number of requests that were answered with a {@code 429}
+	 */
+	public long getRateLimitedCount() {
+		return rateLimited.sum();
+	}
+
+	/**
+	 * @return The number of requests that were answered with a {@code 5xx}
+	 */
+	public long getErrorCount() {
+		return errors.sum();
+	}
+
+	/**
+	 * Resets the counters, but not the buckets.
+	 */
+	public void resetCounts() {
+		requests.reset();
+		rateLimited.reset();
+		errors.reset();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			requests.increment();
+			if (latency > 0) Thread.sleep(latency);
+			String method = exchange.getRequestMethod();
+			String path = exchange.getRequestURI().getPath();
+			if (path.startsWith(PREFIX)) path = path.substring(PREFIX.length());
+			Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+			String body;
+			try (InputStream in = exchange.getRequestBody()) {
+				body = IOUtils.toString(in, StandardCharsets.UTF_8);
+			}
+			long now = System.currentTimeMillis();
+			if (!global.tryAcquire(now, globalLimit, 1000l)) {
+				exchange.getResponseHeaders().add("X-RateLimit-Global", "true");
+				rateLimited(exchange, global.resetAt - now, true);
+				return;
+			}
+			Window bucket = buckets.computeIfAbsent(route(method, path), key -> new Window());
+			boolean allowed = bucket.tryAcquire(now, routeLimit, routeWindow);
+			exchange.getResponseHeaders().add("X-RateLimit-Limit", Integer.toString(routeLimit));
+			exchange.getResponseHeaders().add("X-RateLimit-Remaining", Integer.toString(bucket.remaining(routeLimit)));
+			exchange.getResponseHeaders().add("X-RateLimit-Reset", Long.toString((bucket.resetAt + 999l) / 1000l));
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			if (!allowed || random.nextDouble() < rateLimitRate) {
+				rateLimited(exchange, Math.max(bucket.resetAt - now, 1l), false);
+				return;
+			}
+			if (random.nextDouble() < errorRate) {
+				errors.increment();
+				send(exchange, 502, "{\"code\": 0, \"message\": \"502: Bad Gateway\"}");
+				return;
+			}
+			respond(exchange, method, path.split("/"), query, body);
+		} catch (Exception e) {
+			errors.increment();
+			send(exchange, 500, "{\"code\": 0, \"message\": \"500: Internal Server Error\"}");
+		}
+	}
+
+	private void respond(HttpExchange exchange, String method, String[] path, Map<String, String> query, String body) throws IOException {
+		// path[0] is the empty segment before the first slash
+		String resource = path.length > 1 ? path[1] : "";
+		if (method.equals("DELETE") || method.equals("PUT") || path[path.length - 1].equals("bulk-delete") || path[path.length - 1].equals("typing")) {
+			send(exchange, 204, null);
+			return;
+		}
+		if (resource.equals("gateway")) {
+			send(exchange, 200, "{\"url\": \"wss://gateway.discord.gg\", \"shards\": 1}");
+			return;
+		}
+		if (resource.equals("users") && path.length == 3 && path[2].equals("@me")) {
+			send(exchange, 200, DLUtil.gson.toJson(user));
+			return;
+		}
+		if (resource.equals("channels") && path.length == 3 && method.equals("GET")) {
+			send(exchange, 200, DLUtil.gson.toJson(createChannel(path[2])));
+			return;
+		}
+		if (resource.equals("channels") && path.length >= 4 && path[3].equals("messages")) {
+			String channelID = path[2];
+			if (path.length == 4 && method.equals("POST")) {
+				send(exchange, 200, DLUtil.gson.toJson(createMessage(channelID, nextID.incrementAndGet(), content(body))));
+				return;
+			}
+			if (path.length == 4 && method.equals("GET")) {
+				send(exchange, 200, DLUtil.gson.toJson(createMessages(channelID, query)));
+				return;
+			}
+			if (path.length == 5) {
+				String content = method.equals("PATCH") ? content(body) : "message " + path[4];
+				MessageJSON message = createMessage(channelID, SnowflakeUtil.parse(path[4]), content);
+				if (method.equals("PATCH")) message.edited_timestamp = message.timestamp;
+				send(exchange, 200, DLUtil.gson.toJson(message));
+				return;
+			}
+		}
+		if (resource.equals("guilds") && path.length == 4 && path[3].equals("members") && method.equals("GET")) {
+			send(exchange, 200, DLUtil.gson.toJson(createMembers(path[2], query)));
+			return;
+		}
+		send(exchange, 404, "{\"code\": 0, \"message\": \"404: Not Found\"}");
+	}
+
+	private void rateLimited(HttpExchange exchange, long retryAfter, boolean global) throws IOException {
+		rateLimited.increment();
+		// the client reads Retry-After in milliseconds, like the API version it targets
+		exchange.getResponseHeaders().add("Retry-After", Long.toString(retryAfter));
+		send(exchange, 429, String.format("{\"message\": \"You are being rate limited.\", \"retry_after\": %d, \"global\": %b}", retryAfter, global));
+	}
+
+	private void send(HttpExchange exchange, int status, String body) throws IOException {
+		if (body == null) {
+			exchange.sendResponseHeaders(status, -1);
+			exchange.close();
+			return;
+		}
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	/**
+	 * Keys the request's bucket the same way the client does.
+	 */
+	private String route(String method, String path) {
+		int code;
+		switch (method) {
+		case "POST":
+			code = Methods.POST;
+			break;
+		case "DELETE":
+			code = Methods.DELETE;
+			break;
+		case "PATCH":
+			code = Methods.PATCH;
+			break;
+		case "PUT":
+			code = Methods.PUT;
+			break;
+		default:
+			code = Methods.GET;
+		}
+		return new APIRequest<String>(DLUtil.API + path, code, true, null, String.class).route;
+	}
+
+	private String content(String body) {
+		if (body == null || body.isEmpty() || !body.startsWith("{")) return "";
+		JsonObject data = new JsonParser().parse(body).getAsJsonObject();
+		return data.has("content") && !data.get("content").isJsonNull() ? data.get("content").getAsString() : "";
+	}
+
+	private List<MessageJSON> createMessages(String channelID, Map<String, String> query) {
+		int limit = query.containsKey("limit") ? Math.min(Integer.parseInt(query.get("limit")), 100) : 50;
+		long before = query.containsKey("before") ? SnowflakeUtil.parse(query.get("before")) : nextID.get();
+		List<MessageJSON> messages = new ArrayList<>(limit);
+		for (int i = 1; i <= limit; i++) {
+			messages.add(createMessage(channelID, before - i, "message " + (before - i)));
+		}
+		return messages;
+	}
+
+	private MessageJSON createMessage(String channelID, long id, String content) {
+		MessageJSON message = new MessageJSON();
+		message.id = Long.toUnsignedString(id);
+		message.channel_id = channelID;
+		message.content = content;
+		message.timestamp = "2017-06-01T12:00:00.000000+00:00";
+		message.author = user;
+		message.mentions = new UserJSON[0];
+		message.mention_roles = new String[0];
+		return message;
+	}
+
+	private ChannelJSON createChannel(String channelID) {
+		ChannelJSON channel = new ChannelJSON();
+		channel.id = channelID;
+		channel.name = "channel-" + channelID;
+		channel.type = 0;
+		return channel;
+	}
+
+	/**
+	 * Guilds' members have the IDs {@code 1} to {@link #setMemberCount(int) the member count}, so paging by {@code after} works.
+	 */
+	private List<MemberJSON> createMembers(String guildID, Map<String, String> query) {
+		int limit = query.containsKey("limit") ? Math.min(Integer.parseInt(query.get("limit")), 1000) : 1;
+		long after = query.containsKey("after") ? SnowflakeUtil.parse(query.get("after")) : 0l;
+		List<MemberJSON> members = new ArrayList<>(limit);
+		for (long id = after + 1; id <= memberCount && members.size() < limit; id++) {
+			MemberJSON member = new MemberJSON();
+			member.user = createUser(id);
+			member.roles = new String[0];
+			member.joined_at = "2017-06-01T12:00:00.000000+00:00";
+			members.add(member);
+		}
+		return members;
+	}
+
+	private static UserJSON createUser(long id) {
+		UserJSON user = new UserJSON();
+		user.id = Long.toUnsignedString(id);
+		user.username = "user" + id;
+		user.discriminator = "0001";
+		return user;
+	}
+
+	private static Map<String, String> parseQuery(String query) throws IOException {
+		Map<String, String> values = new HashMap<>();
+		if (query == null) return values;
+		for (String pair : query.split("&")) {
+			int equals = pair.indexOf('=');
+			if (equals < 0) continue;
+			values.put(pair.substring(0, equals), URLDecoder.decode(pair.substring(equals + 1), "UTF-8"));
+		}
+		return values;
+	}
+
+	/**
+	 * A fixed window of requests, like a bucket on Discord's side
+	 */
+	private static class Window {
+
+		long resetAt;
+
+		int used;
+
+		synchronized boolean tryAcquire(long now, int limit, long window) {
+			if (now >= resetAt) {
+				resetAt = now + window;
+				used = 0;
+			}
+			if (used >= limit) return false;
+			used++;
+			return true;
+		}
+
+		synchronized int remaining(int limit) {
+			return Math.max(0, limit - used);
+		}
+
+	}
+
+}
@@ -0,0 +1,125 @@
+package io.discloader.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import io.discloader.discloader.common.DiscLoader;
+import io.discloader.discloader.common.registry.EntityBuilder;
+import io.discloader.discloader.entity.channel.ITextChannel;
+import io.discloader.discloader.entity.guild.IGuild;
+import io.discloader.discloader.entity.message.IMessage;
+import io.discloader.discloader.network.json.ChannelJSON;
+import io.discloader.discloader.network.json.GuildJSON;
+import io.discloader.discloader.network.json.MemberJSON;
+import io.discloader.discloader.network.json.RoleJSON;
+
+/**
+ * Measures the REST queue against a {@link MockDiscordServer}: the requests per second it sustains, how long requests wait from
+ * being made to being answered, and how many of the server's answers were {@code 429}s, for bulk workloads.<br>
+ * The server's buckets are scaled down from Discord's, so a run takes seconds instead of minutes.<br>
+ * Usage: {@code RESTThroughputBenchmark [messages] [channels] [errorRate] [rateLimitRate]}
+ *
+ * @author Perry Berman
+ */
+public class RESTThroughputBenchmark {
+
+	private static long nextID = 100000000000000000l;
+
+	public static void main(String... args) throws Exception {
+		int messages = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+		int channelCount = args.length > 1 ? Integer.parseInt(args[1]) : 25;
+		double errorRate = args.length > 2 ? Double.parseDouble(args[2]) : 0d;
+		double rateLimitRate = args.length > 3 ? Double.parseDouble(args[3]) : 0d;
+
+		MockDiscordServer server = new MockDiscordServer(0).setRouteLimit(5, 1000l).setGlobalLimit(50).setLatency(20l);
+		server.setErrorRate(errorRate).setRateLimitRate(rateLimitRate).setMemberCount(10000).start();
+		DiscLoader loader = new DiscLoader();
+		loader.rest.setBaseURL(server.getBaseURL());
+		try {
+			IGuild guild = createGuild(channelCount);
+			List<ITextChannel> channels = new ArrayList<>(guild.getTextChannels().values());
+
+			System.out.printf("server: %s, 5 requests/s per route, 50 requests/s global, 20ms latency%n", server.getBaseURL());
+			System.out.printf("%-24s %8s %10s %10s %10s %10s %8s %6s%n", "", "requests", "req/s", "mean", "p50", "p99", "429s", "5xxs");
+
+			List<IMessage> sent = new ArrayList<>();
+			run("send messages", server, messages, i -> {
+				CompletableFuture<IMessage> future = channels.get(i % channels.size()).sendMessage("message " + i);
+				return future.thenAccept(message -> {
+					synchronized (sent) {
+						sent.add(message);
+					}
+				});
+			});
+			run("edit messages", server, sent.size(), i -> sent.get(i).edit("edited " + i).thenApply(message -> null));
+			run("page 10,000 members", server, 1, i -> loader.memberSync.page(guild).thenApply(g -> null));
+			run("bulk delete", server, 1, i -> loader.rest.getBulkMessageDeleter().delete(sent).thenApply(result -> null));
+		} finally {
+			loader.rest.getTransport().shutdown();
+			server.stop();
+		}
+		System.exit(0);
+	}
+
+	private static void run(String name, MockDiscordServer server, int count, Workload workload) {
+		server.resetCounts();
+		long[] latencies = new long[count];
+		List<CompletableFuture<?>> futures = new ArrayList<>(count);
+		long start = System.nanoTime();
+		for (int i = 0; i < count; i++) {
+			int index = i;
+			long made = System.nanoTime();
+			futures.add(workload.start(i).handle((v, ex) -> latencies[index] = System.nanoTime() - made));
+		}
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).join();
+		double seconds = (System.nanoTime() - start) / 1e9d;
+		Arrays.sort(latencies);
+		long requests = server.getRequestCount();
+		System.out.printf("%-24s %8d %10.1f %8.0fms %8.0fms %8.0fms %7.1f%% %6d%n", name, requests, requests / seconds, mean(latencies) / 1e6d,
+			percentile(latencies, 0.5d) / 1e6d, percentile(latencies, 0.99d) / 1e6d, requests == 0 ? 0d : 100d * server.getRateLimitedCount() / requests,
+			server.getErrorCount());
+	}
+
+	private static double mean(long[] values) {
+		double sum = 0d;
+		for (long value : values) {
+			sum += value;
+		}
+		return values.length == 0 ? 0d : sum / values.length;
+	}
+
+	private static long percentile(long[] sorted, double percentile) {
+		if (sorted.length == 0) return 0l;
+		return sorted[(int) Math.min(sorted.length - 1, Math.round(percentile * (sorted.length - 1)))];
+	}
+
+	private static IGuild createGuild(int channels) {
+		GuildJSON data = new GuildJSON();
+		data.id = Long.toString(nextID++);
+		data.name = "Guild " + data.id;
+		data.region = "us-central";
+		data.roles = new RoleJSON[0];
+		data.members = new MemberJSON[0];
+		data.member_count = 10000;
+		data.owner_id = data.id;
+		data.channels = new ChannelJSON[channels];
+		for (int i = 0; i < channels; i++) {
+			ChannelJSON channel = new ChannelJSON();
+			channel.id = Long.toString(nextID++);
+			channel.name = "channel-" + i;
+			channel.type = 0;
+			data.channels[i] = channel;
+		}
+		return EntityBuilder.getGuildFactory().buildGuild(data);
+	}
+
+	@FunctionalInterface
+	private interface Workload {
+
+		CompletableFuture<?> start(int index);
+
+	}
+
+}
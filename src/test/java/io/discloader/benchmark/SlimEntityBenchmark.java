@@ -0,0 +1,94 @@
+package io.discloader.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.discloader.discloader.common.registry.EntityBuilder;
+import io.discloader.discloader.entity.guild.IGuild;
+import io.discloader.discloader.network.json.GuildJSON;
+import io.discloader.discloader.network.json.MemberJSON;
+import io.discloader.discloader.network.json.RoleJSON;
+import io.discloader.discloader.network.json.UserJSON;
+
+/**
+ * Compares the retained heap of guilds built by the default entity factories against guilds built by the
+ * {@link EntityBuilder#useSlimEntities() slim entity profile}.<br>
+ * Usage: {@code SlimEntityBenchmark [guilds] [membersPerGuild]}
+ *
+ * @author Perry Berman
+ */
+public class SlimEntityBenchmark {
+
+	private static long nextID = 100000000000000000l;
+
+	public static void main(String... args) {
+		int guilds = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+		int members = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+
+		// warm up class loading so it isn't counted against the first profile
+		build(1, 10);
+
+		EntityBuilder.useDefaultEntities();
+		long full = measure(guilds, members);
+		EntityBuilder.useSlimEntities();
+		long slim = measure(guilds, members);
+		EntityBuilder.useDefaultEntities();
+
+		System.out.printf("guilds: %d, members per guild: %d%n", guilds, members);
+		System.out.printf("default: %,d bytes (%,d bytes/member)%n", full, full / ((long) guilds * members));
+		System.out.printf("slim:    %,d bytes (%,d bytes/member)%n", slim, slim / ((long) guilds * members));
+		System.out.printf("saved:   %.1f%%%n", full == 0 ? 0d : 100d * (full - slim) / full);
+	}
+
+	private static long measure(int guilds, int members) {
+		long before = usedHeap();
+		List<IGuild> retained = build(guilds, members);
+		long after = usedHeap();
+		if (retained.size() != guilds) throw new IllegalStateException();
+		return after - before;
+	}
+
+	private static List<IGuild> build(int guilds, int members) {
+		List<IGuild> built = new ArrayList<>(guilds);
+		for (int g = 0; g < guilds; g++) {
+			built.add(EntityBuilder.getGuildFactory().buildGuild(createGuild(members)));
+		}
+		return built;
+	}
+
+	private static GuildJSON createGuild(int members) {
+		GuildJSON data = new GuildJSON();
+		data.id = Long.toString(nextID++);
+		data.name = "Guild " + data.id;
+		data.region = "us-central";
+		data.roles = new RoleJSON[0];
+		data.members = new MemberJSON[members];
+		data.member_count = members;
+		for (int i = 0; i < members; i++) {
+			MemberJSON member = new MemberJSON();
+			member.user = new UserJSON();
+			member.user.id = Long.toString(nextID++);
+			member.user.username = "user" + member.user.id;
+			member.user.discriminator = "0001";
+			member.roles = new String[0];
+			member.joined_at = "2017-06-01T12:00:00.000000+00:00";
+			data.members[i] = member;
+		}
+		data.owner_id = data.members.length > 0 ? data.members[0].user.id : data.id;
+		return data;
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+			try {
+				Thread.sleep(100);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+}